@@ -0,0 +1,520 @@
+package math.engine;
+
+import math.engine.internal.ParallelRange;
+import math.engine.matrix.AbstractMatrix;
+import math.engine.matrix.Matrix3x3;
+import math.engine.matrix.Matrix4x4;
+import math.engine.matrix.MatrixN;
+import math.engine.vector.Vector3D;
+import math.engine.vector.Vector4D;
+import math.engine.vector.VectorN;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Пакетная обработка матриц из командной строки:
+ * <pre>
+ * java -jar math-matrix-core.jar invert -n 4 -i matrices.txt -o inverses.txt
+ * cat systems.bin | java -jar math-matrix-core.jar solve -n 3 -f binary > solutions.bin
+ * </pre>
+ * Вход - поток чисел без разметки: текст (числа через пробелы, запятые или переводы строк, строки
+ * с # пропускаются) или little-endian float32. Записи идут подряд: для invert и determinant - матрица
+ * n x n по строкам, для solve - матрица и правая часть, для transform - точка x y z.
+ * В текстовом выводе каждая запись занимает строку.
+ *
+ * Вход читается порциями по --chunk записей; пока одна порция считается параллельно, следующая
+ * читается, а предыдущая пишется, поэтому в памяти не больше двух порций входа и выхода.
+ * Записи, которые не удалось обработать (вырожденная матрица, w = 0), выводятся как NaN;
+ * код завершения 1 означает, что такие записи были, 2 - ошибку в аргументах или во входных данных.
+ */
+public final class BatchCli {
+
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: math-batch <invert|determinant|solve|transform> [options]",
+            "  -n, --size N            matrix size for invert, determinant and solve (default 3)",
+            "  -m, --matrix FILE       4x4 transform for transform, 16 numbers row by row in text",
+            "  -i, --input FILE        input file (default: stdin)",
+            "  -o, --output FILE       output file (default: stdout)",
+            "  -f, --format FORMAT     text or binary (little-endian float32) for input and output",
+            "      --input-format FORMAT, --output-format FORMAT",
+            "  -c, --chunk N           records per chunk (default: about 4 MB of input, at most 128 MB)");
+
+    private static final int DEFAULT_CHUNK_FLOATS = 1 << 20;
+    // Предел порции входа (128 МБ): в памяти две порции входа и две выхода
+    private static final int MAX_CHUNK_FLOATS = 1 << 25;
+    // Порция ParallelRange - около 32 тыс. операций с плавающей точкой
+    private static final int GRAIN_WORK = 1 << 15;
+
+    private enum Operation { INVERT, DETERMINANT, SOLVE, TRANSFORM }
+
+    private final Operation operation;
+    private final int size;
+    private final int inputSize;
+    private final int outputSize;
+    private final Matrix4x4 transform;
+
+    private BatchCli(Operation operation, int size, Matrix4x4 transform) {
+        this.operation = operation;
+        this.size = size;
+        this.transform = transform;
+        // Размеры записи в long: при большом n произведения переполняют int
+        long matrix = operation == Operation.TRANSFORM ? 0 : (long) size * size;
+        switch (operation) {
+            case INVERT:
+                inputSize = checkRecordSize(matrix);
+                outputSize = inputSize;
+                break;
+            case DETERMINANT:
+                inputSize = checkRecordSize(matrix);
+                outputSize = 1;
+                break;
+            case SOLVE:
+                inputSize = checkRecordSize(matrix + size);
+                outputSize = size;
+                break;
+            default:
+                inputSize = 3;
+                outputSize = 3;
+        }
+    }
+
+    private int checkRecordSize(long floats) {
+        if (floats > MAX_CHUNK_FLOATS) {
+            throw new IllegalArgumentException("Matrix size " + size + " is too large");
+        }
+        return (int) floats;
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.in, System.out, System.err));
+    }
+
+    /**
+     * Выполняет команду над заданными потоками; потоки не закрываются.
+     *
+     * @return код завершения: 0 - успешно, 1 - часть записей не обработана, 2 - ошибка
+     */
+    public static int run(String[] args, InputStream stdin, OutputStream stdout, PrintStream stderr) {
+        if (args.length == 0 || args[0].equals("-h") || args[0].equals("--help")) {
+            stderr.println(USAGE);
+            return args.length == 0 ? 2 : 0;
+        }
+        try {
+            Operation operation = parseOperation(args[0]);
+            int size = 3;
+            int chunk = 0;
+            Path matrixFile = null;
+            Path inputFile = null;
+            Path outputFile = null;
+            boolean binaryInput = false;
+            boolean binaryOutput = false;
+            for (int i = 1; i < args.length; i++) {
+                String option = args[i];
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + option);
+                }
+                String value = args[++i];
+                switch (option) {
+                    case "-n": case "--size": size = parsePositive(option, value); break;
+                    case "-c": case "--chunk": chunk = parsePositive(option, value); break;
+                    case "-m": case "--matrix": matrixFile = Path.of(value); break;
+                    case "-i": case "--input": inputFile = value.equals("-") ? null : Path.of(value); break;
+                    case "-o": case "--output": outputFile = value.equals("-") ? null : Path.of(value); break;
+                    case "-f": case "--format": binaryInput = binaryOutput = parseFormat(value); break;
+                    case "--input-format": binaryInput = parseFormat(value); break;
+                    case "--output-format": binaryOutput = parseFormat(value); break;
+                    default: throw new IllegalArgumentException("Unknown option " + option);
+                }
+            }
+
+            Matrix4x4 transform = null;
+            if (operation == Operation.TRANSFORM) {
+                if (matrixFile == null) {
+                    throw new IllegalArgumentException("transform requires --matrix");
+                }
+                transform = readTransform(matrixFile);
+            }
+            BatchCli cli = new BatchCli(operation, size, transform);
+            if (chunk == 0) {
+                chunk = Math.max(1, DEFAULT_CHUNK_FLOATS / cli.inputSize);
+            } else if ((long) chunk * cli.inputSize > MAX_CHUNK_FLOATS) {
+                throw new IllegalArgumentException("Chunk of " + chunk + " records exceeds "
+                        + MAX_CHUNK_FLOATS + " numbers, use a smaller --chunk");
+            }
+
+            int failed;
+            InputStream in = inputFile == null ? stdin : Files.newInputStream(inputFile);
+            try {
+                OutputStream out = outputFile == null ? stdout : Files.newOutputStream(outputFile);
+                try {
+                    RecordReader reader = binaryInput ? new BinaryReader(in) : new TextReader(in);
+                    RecordWriter writer = binaryOutput ? new BinaryWriter(out) : new TextWriter(out);
+                    failed = cli.process(reader, writer, chunk);
+                    writer.flush();
+                } finally {
+                    if (outputFile != null) out.close();
+                }
+            } finally {
+                if (inputFile != null) in.close();
+            }
+            if (failed > 0) {
+                stderr.println(failed + " record(s) could not be processed and were written as NaN");
+                return 1;
+            }
+            return 0;
+        } catch (IllegalArgumentException e) {
+            stderr.println("math-batch: " + e.getMessage());
+            stderr.println(USAGE);
+            return 2;
+        } catch (IOException e) {
+            stderr.println("math-batch: " + e);
+            return 2;
+        }
+    }
+
+    // Чтение порции i + 1 и запись порции i - 1 идут, пока считается порция i
+    private int process(RecordReader reader, RecordWriter writer, int chunk) throws IOException {
+        float[][] input = {new float[chunk * inputSize], new float[chunk * inputSize]};
+        float[][] output = {new float[chunk * outputSize], new float[chunk * outputSize]};
+        int failed = 0;
+        int slot = 0;
+        int count = readRecords(reader, input[slot]);
+        CompletableFuture<Integer> running = null;
+        int runningSlot = 0;
+        int runningCount = 0;
+        while (count > 0 || running != null) {
+            CompletableFuture<Integer> next = null;
+            if (count > 0) {
+                float[] in = input[slot];
+                float[] out = output[slot];
+                int records = count;
+                next = CompletableFuture.supplyAsync(() -> compute(in, out, records));
+            }
+            if (running != null) {
+                failed += join(running);
+                writer.write(output[runningSlot], runningCount * outputSize, outputSize);
+            }
+            running = next;
+            runningSlot = slot;
+            runningCount = count;
+            slot ^= 1;
+            count = next != null ? readRecords(reader, input[slot]) : 0;
+        }
+        return failed;
+    }
+
+    private int readRecords(RecordReader reader, float[] buffer) throws IOException {
+        int floats = reader.read(buffer);
+        if (floats % inputSize != 0) {
+            throw new IllegalArgumentException("Input ends in the middle of a record of " + inputSize + " numbers");
+        }
+        return floats / inputSize;
+    }
+
+    private int compute(float[] in, float[] out, int count) {
+        AtomicInteger failed = new AtomicInteger();
+        long work = operation == Operation.TRANSFORM ? 16 : (long) size * size * size;
+        ParallelRange.forRange(0, count, (int) Math.max(1, GRAIN_WORK / work), (from, to) -> {
+            int local = operation == Operation.TRANSFORM
+                    ? transform.transformPoints(in, 3 * from, out, 3 * from, to - from)
+                    : computeRange(in, out, from, to);
+            if (local > 0) {
+                failed.addAndGet(local);
+            }
+        });
+        return failed.get();
+    }
+
+    private int computeRange(float[] in, float[] out, int from, int to) {
+        int failed = 0;
+        float[][] rows = new float[size][size];
+        for (int r = from; r < to; r++) {
+            int source = r * inputSize;
+            int dest = r * outputSize;
+            for (int i = 0; i < size; i++) {
+                System.arraycopy(in, source + i * size, rows[i], 0, size);
+            }
+            try {
+                switch (operation) {
+                    case INVERT:
+                        invert(rows, out, dest);
+                        break;
+                    case DETERMINANT:
+                        out[dest] = determinant(rows);
+                        break;
+                    default:
+                        solve(rows, in, source + size * size, out, dest);
+                }
+            } catch (ArithmeticException e) {
+                Arrays.fill(out, dest, dest + outputSize, Float.NaN);
+                failed++;
+            }
+        }
+        return failed;
+    }
+
+    // Матрицы 3x3 и 4x4 обрабатываются формулами своих классов, остальные - через LU
+    private void invert(float[][] rows, float[] out, int offset) {
+        if (size == 3) {
+            copy(Matrix3x3.wrap(rows).inverse(), out, offset);
+        } else if (size == 4) {
+            copy(Matrix4x4.wrap(rows).inverse(), out, offset);
+        } else {
+            copy(MatrixN.wrap(rows).inverse(), out, offset);
+        }
+    }
+
+    private float determinant(float[][] rows) {
+        if (size == 3) return Matrix3x3.wrap(rows).determinant();
+        if (size == 4) return Matrix4x4.wrap(rows).determinant();
+        return MatrixN.wrap(rows).determinant();
+    }
+
+    private void solve(float[][] rows, float[] in, int rhsOffset, float[] out, int offset) {
+        if (size == 3) {
+            Vector3D x = Matrix3x3.wrap(rows).solveLinearSystem(
+                    new Vector3D(in[rhsOffset], in[rhsOffset + 1], in[rhsOffset + 2]));
+            out[offset] = x.getX();
+            out[offset + 1] = x.getY();
+            out[offset + 2] = x.getZ();
+        } else if (size == 4) {
+            Vector4D x = Matrix4x4.wrap(rows).solveLinearSystem(
+                    new Vector4D(in[rhsOffset], in[rhsOffset + 1], in[rhsOffset + 2], in[rhsOffset + 3]));
+            out[offset] = x.getX();
+            out[offset + 1] = x.getY();
+            out[offset + 2] = x.getZ();
+            out[offset + 3] = x.getW();
+        } else {
+            float[] b = Arrays.copyOfRange(in, rhsOffset, rhsOffset + size);
+            MatrixN.wrap(rows).solveLinearSystem(VectorN.wrap(b, 0, size)).copyTo(out, offset);
+        }
+    }
+
+    private void copy(AbstractMatrix<?, ?> matrix, float[] out, int offset) {
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                out[offset + i * size + j] = matrix.get(i, j);
+            }
+        }
+    }
+
+    private static Operation parseOperation(String name) {
+        switch (name) {
+            case "invert": return Operation.INVERT;
+            case "determinant": return Operation.DETERMINANT;
+            case "solve": return Operation.SOLVE;
+            case "transform": return Operation.TRANSFORM;
+            default: throw new IllegalArgumentException("Unknown command " + name);
+        }
+    }
+
+    private static boolean parseFormat(String value) {
+        switch (value) {
+            case "text": return false;
+            case "binary": return true;
+            default: throw new IllegalArgumentException("Format must be text or binary: " + value);
+        }
+    }
+
+    private static int parsePositive(String option, String value) {
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed > 0) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            // сообщение ниже
+        }
+        throw new IllegalArgumentException(option + " must be a positive integer: " + value);
+    }
+
+    private static Matrix4x4 readTransform(Path file) throws IOException {
+        float[] values = new float[17];
+        int count;
+        try (InputStream in = Files.newInputStream(file)) {
+            count = new TextReader(in).read(values);
+        }
+        if (count != 16) {
+            throw new IllegalArgumentException("Transform file must contain 16 numbers: " + file);
+        }
+        float[][] rows = new float[4][4];
+        for (int i = 0; i < 4; i++) {
+            System.arraycopy(values, 4 * i, rows[i], 0, 4);
+        }
+        return Matrix4x4.wrap(rows);
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IllegalStateException("Chunk processing failed", cause);
+        }
+    }
+
+    private interface RecordReader {
+        // Заполняет buffer целиком, если вход не кончился; возвращает число прочитанных чисел
+        int read(float[] buffer) throws IOException;
+    }
+
+    private interface RecordWriter {
+        void write(float[] values, int count, int recordSize) throws IOException;
+
+        void flush() throws IOException;
+    }
+
+    private static final class TextReader implements RecordReader {
+        private final InputStream in;
+        private final byte[] token = new byte[64];
+
+        TextReader(InputStream in) {
+            this.in = new BufferedInputStream(in, 1 << 16);
+        }
+
+        @Override
+        public int read(float[] buffer) throws IOException {
+            int count = 0;
+            while (count < buffer.length) {
+                int length = nextToken();
+                if (length < 0) {
+                    break;
+                }
+                String text = new String(token, 0, length, StandardCharsets.ISO_8859_1);
+                try {
+                    buffer[count++] = Float.parseFloat(text);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid number in input: " + text);
+                }
+            }
+            return count;
+        }
+
+        private int nextToken() throws IOException {
+            int c = in.read();
+            while (c == ' ' || c == ',' || c == '\t' || c == '\n' || c == '\r' || c == '#') {
+                if (c == '#') {
+                    do {
+                        c = in.read();
+                    } while (c != '\n' && c != -1);
+                }
+                c = in.read();
+            }
+            if (c == -1) {
+                return -1;
+            }
+            int length = 0;
+            while (c != -1 && c != ' ' && c != ',' && c != '\t' && c != '\n' && c != '\r' && c != '#') {
+                if (length == token.length) {
+                    throw new IllegalArgumentException("Invalid number in input: token is too long");
+                }
+                token[length++] = (byte) c;
+                c = in.read();
+            }
+            if (c == '#') {
+                while (c != '\n' && c != -1) {
+                    c = in.read();
+                }
+            }
+            return length;
+        }
+    }
+
+    private static final class BinaryReader implements RecordReader {
+        private final InputStream in;
+        private byte[] bytes = new byte[0];
+
+        BinaryReader(InputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public int read(float[] buffer) throws IOException {
+            if (bytes.length != buffer.length * Float.BYTES) {
+                bytes = new byte[buffer.length * Float.BYTES];
+            }
+            int read = in.readNBytes(bytes, 0, bytes.length);
+            if (read % Float.BYTES != 0) {
+                throw new IllegalArgumentException("Binary input length is not a multiple of 4 bytes");
+            }
+            ByteBuffer.wrap(bytes, 0, read).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer()
+                    .get(buffer, 0, read / Float.BYTES);
+            return read / Float.BYTES;
+        }
+    }
+
+    private static final class TextWriter implements RecordWriter {
+        private final OutputStream out;
+        private byte[] bytes = new byte[1 << 12];
+
+        TextWriter(OutputStream out) {
+            this.out = new BufferedOutputStream(out, 1 << 16);
+        }
+
+        @Override
+        public void write(float[] values, int count, int recordSize) throws IOException {
+            StringBuilder line = new StringBuilder(16 * recordSize);
+            for (int r = 0; r < count; r += recordSize) {
+                line.setLength(0);
+                for (int i = 0; i < recordSize; i++) {
+                    if (i > 0) line.append(' ');
+                    line.append(values[r + i]);
+                }
+                line.append('\n');
+                // Числа, пробелы и перевод строки - ASCII: строка пишется одним вызовом, а не по байту
+                int length = line.length();
+                if (bytes.length < length) {
+                    bytes = new byte[Math.max(length, 2 * bytes.length)];
+                }
+                for (int i = 0; i < length; i++) {
+                    bytes[i] = (byte) line.charAt(i);
+                }
+                out.write(bytes, 0, length);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+    }
+
+    private static final class BinaryWriter implements RecordWriter {
+        private final OutputStream out;
+        private byte[] bytes = new byte[0];
+
+        BinaryWriter(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(float[] values, int count, int recordSize) throws IOException {
+            if (bytes.length < count * Float.BYTES) {
+                bytes = new byte[count * Float.BYTES];
+            }
+            ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().put(values, 0, count);
+            out.write(bytes, 0, count * Float.BYTES);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+    }
+}
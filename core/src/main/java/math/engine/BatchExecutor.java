@@ -0,0 +1,238 @@
+package math.engine;
+
+import math.engine.matrix.Matrix;
+import math.engine.vector.Vector;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+
+/**
+ * Пакетное выполнение независимых матричных задач (inverse, determinant, solveLinearSystem).
+ * На JDK 21+ задачи выполняются на виртуальных потоках, на JDK 17 - в общем пуле fork/join.
+ * Задачи группируются в порции по chunkSize подряд идущих элементов; число одновременно
+ * выполняющихся порций ограничено, и отправляющий поток ждет, пока не освободится место.
+ */
+public final class BatchExecutor implements AutoCloseable {
+
+    public static final int DEFAULT_CHUNK_SIZE = 256;
+
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+    private final boolean ownsExecutor;
+    private final int chunkSize;
+    private final Semaphore inFlight;
+
+    private BatchExecutor(ExecutorService executor, boolean virtualThreads, boolean ownsExecutor,
+                          int chunkSize, int maxInFlightChunks) {
+        if (chunkSize <= 0 || maxInFlightChunks <= 0) {
+            throw new IllegalArgumentException("Chunk size and in-flight limit must be positive");
+        }
+        this.executor = executor;
+        this.virtualThreads = virtualThreads;
+        this.ownsExecutor = ownsExecutor;
+        this.chunkSize = chunkSize;
+        this.inFlight = new Semaphore(maxInFlightChunks);
+    }
+
+    public static BatchExecutor create() {
+        return create(DEFAULT_CHUNK_SIZE, 4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    public static BatchExecutor create(int chunkSize, int maxInFlightChunks) {
+        ExecutorService virtual = newVirtualThreadExecutor();
+        if (virtual != null) {
+            return new BatchExecutor(virtual, true, true, chunkSize, maxInFlightChunks);
+        }
+        return new BatchExecutor(ForkJoinPool.commonPool(), false, false, chunkSize, maxInFlightChunks);
+    }
+
+    // Внешний пул остается во владении вызывающего кода и не закрывается в close().
+    public static BatchExecutor create(ExecutorService executor, int chunkSize, int maxInFlightChunks) {
+        return new BatchExecutor(executor, false, false, chunkSize, maxInFlightChunks);
+    }
+
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public <T, R> CompletableFuture<BatchResult<R>> submit(List<? extends T> jobs,
+                                                           Function<? super T, ? extends R> operation) {
+        return submitIndexed(jobs.size(), i -> operation.apply(jobs.get(i)));
+    }
+
+    private <R> CompletableFuture<BatchResult<R>> submitIndexed(int size, IntFunction<? extends R> operation) {
+        long start = System.nanoTime();
+        Object[] results = new Object[size];
+        Throwable[] errors = new Throwable[size];
+        int chunks = (size + chunkSize - 1) / chunkSize;
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[chunks];
+
+        for (int c = 0; c < chunks; c++) {
+            int from = c * chunkSize;
+            int to = Math.min(from + chunkSize, size);
+            futures[c] = runChunk(() -> {
+                for (int i = from; i < to; i++) {
+                    try {
+                        results[i] = operation.apply(i);
+                    } catch (RuntimeException e) {
+                        errors[i] = e;
+                    }
+                }
+            });
+        }
+        return CompletableFuture.allOf(futures)
+                .thenApply(ignored -> new BatchResult<>(results, errors, chunks, System.nanoTime() - start));
+    }
+
+    public <T, R> BatchResult<R> invokeAll(List<? extends T> jobs, Function<? super T, ? extends R> operation) {
+        return join(submit(jobs, operation));
+    }
+
+    // Поток задач читается порциями: в памяти одновременно не больше maxInFlightChunks порций входа.
+    public <T, R> BatchResult<R> invokeAll(Stream<? extends T> jobs, Function<? super T, ? extends R> operation) {
+        long start = System.nanoTime();
+        List<Object[]> chunkResults = new ArrayList<>();
+        List<Throwable[]> chunkErrors = new ArrayList<>();
+        List<CompletableFuture<?>> futures = new ArrayList<>();
+
+        Iterator<? extends T> iterator = jobs.iterator();
+        while (iterator.hasNext()) {
+            List<T> chunk = new ArrayList<>(chunkSize);
+            while (chunk.size() < chunkSize && iterator.hasNext()) {
+                chunk.add(iterator.next());
+            }
+            Object[] results = new Object[chunk.size()];
+            Throwable[] errors = new Throwable[chunk.size()];
+            chunkResults.add(results);
+            chunkErrors.add(errors);
+            futures.add(runChunk(() -> {
+                for (int i = 0; i < chunk.size(); i++) {
+                    try {
+                        results[i] = operation.apply(chunk.get(i));
+                    } catch (RuntimeException e) {
+                        errors[i] = e;
+                    }
+                }
+            }));
+        }
+        join(CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])));
+
+        int total = 0;
+        for (Object[] results : chunkResults) total += results.length;
+        Object[] results = new Object[total];
+        Throwable[] errors = new Throwable[total];
+        int position = 0;
+        for (int c = 0; c < chunkResults.size(); c++) {
+            int length = chunkResults.get(c).length;
+            System.arraycopy(chunkResults.get(c), 0, results, position, length);
+            System.arraycopy(chunkErrors.get(c), 0, errors, position, length);
+            position += length;
+        }
+        return new BatchResult<>(results, errors, chunkResults.size(), System.nanoTime() - start);
+    }
+
+    public <M extends Matrix<M, ?>> BatchResult<M> inverseAll(List<M> matrices) {
+        return invokeAll(matrices, Matrix::inverse);
+    }
+
+    public <M extends Matrix<M, V>, V extends Vector<V>> BatchResult<V> solveAll(List<M> matrices, List<V> vectors) {
+        if (matrices.size() != vectors.size()) {
+            throw new IllegalArgumentException("Number of matrices and vectors don't match");
+        }
+        return join(submitIndexed(matrices.size(), i -> matrices.get(i).solveLinearSystem(vectors.get(i))));
+    }
+
+    // Определители пишутся прямо в out без упаковки во Float.
+    public BatchResult<Void> determinantAll(List<? extends Matrix<?, ?>> matrices, float[] out) {
+        if (out.length < matrices.size()) {
+            throw new IllegalArgumentException("Output array is too small");
+        }
+        long start = System.nanoTime();
+        int size = matrices.size();
+        Throwable[] errors = new Throwable[size];
+        int chunks = (size + chunkSize - 1) / chunkSize;
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[chunks];
+        for (int c = 0; c < chunks; c++) {
+            int from = c * chunkSize;
+            int to = Math.min(from + chunkSize, size);
+            futures[c] = runChunk(() -> {
+                for (int i = from; i < to; i++) {
+                    try {
+                        out[i] = matrices.get(i).determinant();
+                    } catch (RuntimeException e) {
+                        out[i] = Float.NaN;
+                        errors[i] = e;
+                    }
+                }
+            });
+        }
+        join(CompletableFuture.allOf(futures));
+        return new BatchResult<>(null, errors, chunks, System.nanoTime() - start);
+    }
+
+    @Override
+    public void close() {
+        if (!ownsExecutor) return;
+        executor.shutdown();
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                // ждем завершения уже отправленных порций
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private CompletableFuture<Void> runChunk(Runnable chunk) {
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+        try {
+            return CompletableFuture.runAsync(chunk, executor).whenComplete((ignored, error) -> inFlight.release());
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IllegalStateException("Batch execution interrupted", cause);
+        }
+    }
+
+    // Виртуальные потоки через рефлексию: исходники компилируются под Java 17.
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
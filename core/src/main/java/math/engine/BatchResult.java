@@ -0,0 +1,83 @@
+package math.engine;
+
+import java.util.AbstractList;
+import java.util.List;
+
+public final class BatchResult<R> {
+
+    private final Object[] results;
+    private final Throwable[] errors;
+    private final int failureCount;
+    private final int chunkCount;
+    private final long elapsedNanos;
+
+    BatchResult(Object[] results, Throwable[] errors, int chunkCount, long elapsedNanos) {
+        this.results = results;
+        this.errors = errors;
+        this.chunkCount = chunkCount;
+        this.elapsedNanos = elapsedNanos;
+        int failures = 0;
+        for (Throwable error : errors) {
+            if (error != null) failures++;
+        }
+        this.failureCount = failures;
+    }
+
+    public int getJobCount() {
+        return errors.length;
+    }
+
+    // null, если задача завершилась исключением (например, вырожденная матрица)
+    @SuppressWarnings("unchecked")
+    public R getResult(int index) {
+        checkIndex(index);
+        return results == null ? null : (R) results[index];
+    }
+
+    public Throwable getError(int index) {
+        checkIndex(index);
+        return errors[index];
+    }
+
+    public List<R> getResults() {
+        return new AbstractList<R>() {
+            @Override
+            public R get(int index) {
+                return getResult(index);
+            }
+
+            @Override
+            public int size() {
+                return errors.length;
+            }
+        };
+    }
+
+    public int getFailureCount() {
+        return failureCount;
+    }
+
+    public int getChunkCount() {
+        return chunkCount;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getOpsPerSecond() {
+        return elapsedNanos == 0 ? 0 : errors.length * 1e9 / elapsedNanos;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= errors.length) {
+            throw new IllegalArgumentException("Index out of bounds");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BatchResult(jobs=%d, failures=%d, chunks=%d, %.3f ms, %.0f ops/s)",
+                errors.length, failureCount, chunkCount, elapsedNanos / 1e6, getOpsPerSecond());
+    }
+}
@@ -48,48 +48,19 @@ public final class LinearAlgebraEngine {
     }
 
     public static Matrix4x4 createRotationMatrixX(float angle) {
-        float cos = (float) Math.cos(angle);
-        float sin = (float) Math.sin(angle);
-
-        return new Matrix4x4(new float[][]{
-                {1, 0, 0, 0},
-                {0, cos, -sin, 0},
-                {0, sin, cos, 0},
-                {0, 0, 0, 1}
-        });
+        return Matrix4x4.rotationX(angle);
     }
 
     public static Matrix4x4 createRotationMatrixY(float angle) {
-        float cos = (float) Math.cos(angle);
-        float sin = (float) Math.sin(angle);
-
-        return new Matrix4x4(new float[][]{
-                {cos, 0, sin, 0},
-                {0, 1, 0, 0},
-                {-sin, 0, cos, 0},
-                {0, 0, 0, 1}
-        });
+        return Matrix4x4.rotationY(angle);
     }
 
     public static Matrix4x4 createRotationMatrixZ(float angle) {
-        float cos = (float) Math.cos(angle);
-        float sin = (float) Math.sin(angle);
-
-        return new Matrix4x4(new float[][]{
-                {cos, -sin, 0, 0},
-                {sin, cos, 0, 0},
-                {0, 0, 1, 0},
-                {0, 0, 0, 1}
-        });
+        return Matrix4x4.rotationZ(angle);
     }
 
     public static Matrix4x4 createScaleMatrix(float scaleX, float scaleY, float scaleZ) {
-        return new Matrix4x4(new float[][]{
-                {scaleX, 0, 0, 0},
-                {0, scaleY, 0, 0},
-                {0, 0, scaleZ, 0},
-                {0, 0, 0, 1}
-        });
+        return Matrix4x4.scale(scaleX, scaleY, scaleZ);
     }
 
     public static float computeAngleBetweenVectors(Vector3D v1, Vector3D v2) {
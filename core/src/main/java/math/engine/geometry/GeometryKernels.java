@@ -0,0 +1,323 @@
+package math.engine.geometry;
+
+import math.engine.internal.ParallelRange;
+
+import java.util.Arrays;
+
+/**
+ * Пакетная двумерная геометрия над плоскими массивами координат без создания Vector2D на вершину.
+ * Точка {@code i} занимает {@code xy[2 * i], xy[2 * i + 1]} - та же раскладка, что у {@code Vector2D.wrap(xy, 2 * i)}.
+ * Набор многоугольников задается смещениями: вершины многоугольника {@code p} - точки
+ * {@code [offsets[p], offsets[p + 1])}, массив offsets имеет длину polygonCount + 1.
+ * Пакетные методы обрабатывают многоугольники параллельно.
+ *
+ * Предикат ориентации считается в double. Его знак (левый поворот, правый, коллинеарность) точен,
+ * только пока разности координат и их произведения представимы в double без округления: порядки
+ * координат одной тройки точек должны отличаться не более чем в 2^29 раз, а показатели - оставаться
+ * в диапазоне, где произведения не теряют младшие биты (не денормализованные и не около переполнения).
+ * Вне этих пределов знак близких к коллинеарным троек может быть неверным. Площади и центроиды накапливаются в double относительно первой вершины,
+ * что убирает потерю точности для координат, далеких от начала отсчета (например, UTM в метрах).
+ */
+public final class GeometryKernels {
+
+    // Многоугольников на задачу fork/join
+    private static final int POLYGON_GRAIN = 256;
+    private static final int SEGMENT_GRAIN = 4096;
+
+    private GeometryKernels() {}
+
+    /**
+     * Выпуклая оболочка точек [first, first + count) монотонной цепочкой Эндрю за O(n log n).
+     * В hull начиная с hullOffset пишутся индексы точек оболочки против часовой стрелки, начиная с точки
+     * с наименьшим x (при равенстве - наименьшим y); точки на ребрах оболочки не включаются.
+     *
+     * @return число вершин оболочки, не больше count
+     */
+    public static int convexHull(float[] xy, int first, int count, int[] hull, int hullOffset) {
+        checkPoints(xy, first, count);
+        if (hullOffset < 0 || hullOffset + count > hull.length) {
+            throw new IllegalArgumentException("Hull array is too small");
+        }
+        return hull(xy, first, count, hull, hullOffset, new long[count], new int[3 * count]);
+    }
+
+    // Оболочка каждого набора p пишется в hulls с позиции offsets[p], ее размер - в hullSizes[p]
+    public static void convexHulls(float[] xy, int[] offsets, int polygonCount, int[] hulls, int[] hullSizes) {
+        checkOffsets(xy, offsets, polygonCount);
+        if (hulls.length < offsets[polygonCount] || hullSizes.length < polygonCount) {
+            throw new IllegalArgumentException("Output array is too small");
+        }
+        ParallelRange.forRange(0, polygonCount, POLYGON_GRAIN, (from, to) -> {
+            // Буферы сортировки переиспользуются внутри задачи
+            long[] keys = new long[0];
+            int[] chain = new int[0];
+            for (int p = from; p < to; p++) {
+                int count = offsets[p + 1] - offsets[p];
+                if (keys.length < count) {
+                    keys = new long[count];
+                    chain = new int[3 * count];
+                }
+                hullSizes[p] = hull(xy, offsets[p], count, hulls, offsets[p], keys, chain);
+            }
+        });
+    }
+
+    // Площадь по формуле шнурков: положительная при обходе против часовой стрелки
+    public static float signedArea(float[] xy, int first, int count) {
+        checkPoints(xy, first, count);
+        return (float) (twiceArea(xy, first, count) / 2);
+    }
+
+    /**
+     * Центроид многоугольника (x, y) в dest[destOffset], dest[destOffset + 1].
+     * Для вырожденного многоугольника нулевой площади - среднее вершин.
+     *
+     * @return площадь со знаком
+     */
+    public static float centroid(float[] xy, int first, int count, float[] dest, int destOffset) {
+        checkPoints(xy, first, count);
+        if (destOffset < 0 || destOffset + 2 > dest.length) {
+            throw new IllegalArgumentException("Array range out of bounds");
+        }
+        return centroid(xy, first, count, dest, destOffset, null, 0);
+    }
+
+    public static void areas(float[] xy, int[] offsets, int polygonCount, float[] areas) {
+        checkOffsets(xy, offsets, polygonCount);
+        if (areas.length < polygonCount) {
+            throw new IllegalArgumentException("Output array is too small");
+        }
+        ParallelRange.forRange(0, polygonCount, POLYGON_GRAIN, (from, to) -> {
+            for (int p = from; p < to; p++) {
+                areas[p] = (float) (twiceArea(xy, offsets[p], offsets[p + 1] - offsets[p]) / 2);
+            }
+        });
+    }
+
+    // Центроиды (x, y) подряд в centroids; площади со знаком в areas, если он не null
+    public static void centroids(float[] xy, int[] offsets, int polygonCount, float[] centroids, float[] areas) {
+        checkOffsets(xy, offsets, polygonCount);
+        if (centroids.length < 2 * polygonCount || (areas != null && areas.length < polygonCount)) {
+            throw new IllegalArgumentException("Output array is too small");
+        }
+        ParallelRange.forRange(0, polygonCount, POLYGON_GRAIN, (from, to) -> {
+            for (int p = from; p < to; p++) {
+                centroid(xy, offsets[p], offsets[p + 1] - offsets[p], centroids, 2 * p, areas, p);
+            }
+        });
+    }
+
+    // Пересекаются ли отрезки AB и CD, включая касание концом и наложение на одной прямой
+    public static boolean segmentsIntersect(float ax, float ay, float bx, float by,
+                                            float cx, float cy, float dx, float dy) {
+        // signum, а не Double.compare: при совпадении точек ориентация равна -0.0, и compare дал бы -1
+        int o1 = (int) Math.signum(orientation(ax, ay, bx, by, cx, cy));
+        int o2 = (int) Math.signum(orientation(ax, ay, bx, by, dx, dy));
+        int o3 = (int) Math.signum(orientation(cx, cy, dx, dy, ax, ay));
+        int o4 = (int) Math.signum(orientation(cx, cy, dx, dy, bx, by));
+        if (o1 * o2 < 0 && o3 * o4 < 0) {
+            return true;
+        }
+        return o1 == 0 && onSegment(ax, ay, bx, by, cx, cy)
+                || o2 == 0 && onSegment(ax, ay, bx, by, dx, dy)
+                || o3 == 0 && onSegment(cx, cy, dx, dy, ax, ay)
+                || o4 == 0 && onSegment(cx, cy, dx, dy, bx, by);
+    }
+
+    /**
+     * Попарная проверка: отрезок i из a с отрезком i из b, по 4 числа (x0, y0, x1, y1) на отрезок.
+     */
+    public static void segmentsIntersect(float[] a, float[] b, int count, boolean[] result) {
+        if (count < 0 || 4L * count > a.length || 4L * count > b.length || count > result.length) {
+            throw new IllegalArgumentException("Array range out of bounds");
+        }
+        ParallelRange.forRange(0, count, SEGMENT_GRAIN, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                int s = 4 * i;
+                result[i] = segmentsIntersect(a[s], a[s + 1], a[s + 2], a[s + 3], b[s], b[s + 1], b[s + 2], b[s + 3]);
+            }
+        });
+    }
+
+    /**
+     * Точка пересечения отрезков AB и CD в dest[destOffset], dest[destOffset + 1].
+     * false, если отрезки не пересекаются или лежат на одной прямой (пересечение - не точка).
+     */
+    public static boolean intersection(float ax, float ay, float bx, float by,
+                                       float cx, float cy, float dx, float dy, float[] dest, int destOffset) {
+        double rx = (double) bx - ax, ry = (double) by - ay;
+        double sx = (double) dx - cx, sy = (double) dy - cy;
+        double denominator = rx * sy - ry * sx;
+        if (denominator == 0 || !segmentsIntersect(ax, ay, bx, by, cx, cy, dx, dy)) {
+            return false;
+        }
+        double qx = (double) cx - ax, qy = (double) cy - ay;
+        double t = Math.max(0, Math.min(1, (qx * sy - qy * sx) / denominator));
+        dest[destOffset] = (float) (ax + t * rx);
+        dest[destOffset + 1] = (float) (ay + t * ry);
+        return true;
+    }
+
+    // Удвоенная площадь треугольника ABC со знаком: > 0 - левый поворот
+    static double orientation(float ax, float ay, float bx, float by, float cx, float cy) {
+        double abx = (double) bx - ax, aby = (double) by - ay;
+        double acx = (double) cx - ax, acy = (double) cy - ay;
+        return abx * acy - aby * acx;
+    }
+
+    // Точка P на отрезке AB при условии, что она лежит на прямой AB
+    private static boolean onSegment(float ax, float ay, float bx, float by, float px, float py) {
+        return Math.min(ax, bx) <= px && px <= Math.max(ax, bx) && Math.min(ay, by) <= py && py <= Math.max(ay, by);
+    }
+
+    private static int hull(float[] xy, int first, int count, int[] hull, int hullOffset, long[] keys, int[] chain) {
+        if (count == 0) {
+            return 0;
+        }
+        // Сортировка по (x, y) без компаратора: ключ - упорядоченные биты x и номер точки
+        for (int i = 0; i < count; i++) {
+            keys[i] = (long) sortableBits(xy[2 * (first + i)]) << 32 | i;
+        }
+        Arrays.sort(keys, 0, count);
+        // Группы с равным x (на сетке их много) досортировываются по ключу из битов y и номера точки,
+        // поэтому вся сортировка остается O(n log n)
+        for (int from = 0, to; from < count; from = to) {
+            int x = (int) (keys[from] >> 32);
+            to = from + 1;
+            while (to < count && (int) (keys[to] >> 32) == x) {
+                to++;
+            }
+            if (to - from > 1) {
+                for (int i = from; i < to; i++) {
+                    int index = (int) keys[i];
+                    keys[i] = (long) sortableBits(xy[2 * (first + index) + 1]) << 32 | index;
+                }
+                Arrays.sort(keys, from, to);
+            }
+        }
+        int[] order = chain;
+        for (int i = 0; i < count; i++) {
+            order[i] = first + (int) keys[i];
+        }
+        int distinct = 1;
+        for (int i = 1; i < count; i++) {
+            int previous = order[distinct - 1], point = order[i];
+            if (xy[2 * point] != xy[2 * previous] || xy[2 * point + 1] != xy[2 * previous + 1]) {
+                order[distinct++] = point;
+            }
+        }
+        if (distinct < 3) {
+            for (int i = 0; i < distinct; i++) {
+                hull[hullOffset + i] = order[i];
+            }
+            return distinct;
+        }
+
+        // Стек цепочки - в хвосте того же буфера: order занимает [0, distinct), стек - до 2 * distinct элементов
+        int base = distinct;
+        int size = 0;
+        for (int k = 0; k < distinct; k++) {
+            int point = order[k];
+            while (size >= 2 && turn(xy, chain[base + size - 2], chain[base + size - 1], point) <= 0) {
+                size--;
+            }
+            chain[base + size++] = point;
+        }
+        int lower = size + 1;
+        for (int k = distinct - 2; k >= 0; k--) {
+            int point = order[k];
+            while (size >= lower && turn(xy, chain[base + size - 2], chain[base + size - 1], point) <= 0) {
+                size--;
+            }
+            chain[base + size++] = point;
+        }
+        // Последняя точка верхней цепочки совпадает с первой
+        size--;
+        for (int i = 0; i < size; i++) {
+            hull[hullOffset + i] = chain[base + i];
+        }
+        return size;
+    }
+
+    private static double turn(float[] xy, int a, int b, int c) {
+        return orientation(xy[2 * a], xy[2 * a + 1], xy[2 * b], xy[2 * b + 1], xy[2 * c], xy[2 * c + 1]);
+    }
+
+    // Монотонное отображение float в int: порядок int совпадает с порядком чисел
+    private static int sortableBits(float value) {
+        int bits = Float.floatToIntBits(value + 0.0f);
+        return bits >= 0 ? bits : bits ^ 0x7fffffff;
+    }
+
+    private static double twiceArea(float[] xy, int first, int count) {
+        if (count < 3) {
+            return 0;
+        }
+        double x0 = xy[2 * first], y0 = xy[2 * first + 1];
+        double sum = 0;
+        double px = xy[2 * first + 2] - x0, py = xy[2 * first + 3] - y0;
+        for (int i = first + 2; i < first + count; i++) {
+            double qx = xy[2 * i] - x0, qy = xy[2 * i + 1] - y0;
+            sum += px * qy - qx * py;
+            px = qx;
+            py = qy;
+        }
+        return sum;
+    }
+
+    private static float centroid(float[] xy, int first, int count, float[] dest, int destOffset,
+                                  float[] areas, int areaIndex) {
+        double twiceArea = 0;
+        double sx = 0, sy = 0;
+        double x0 = count > 0 ? xy[2 * first] : 0, y0 = count > 0 ? xy[2 * first + 1] : 0;
+        if (count >= 3) {
+            double px = xy[2 * first + 2] - x0, py = xy[2 * first + 3] - y0;
+            for (int i = first + 2; i < first + count; i++) {
+                double qx = xy[2 * i] - x0, qy = xy[2 * i + 1] - y0;
+                double cross = px * qy - qx * py;
+                twiceArea += cross;
+                sx += (px + qx) * cross;
+                sy += (py + qy) * cross;
+                px = qx;
+                py = qy;
+            }
+        }
+        if (twiceArea != 0) {
+            dest[destOffset] = (float) (x0 + sx / (3 * twiceArea));
+            dest[destOffset + 1] = (float) (y0 + sy / (3 * twiceArea));
+        } else {
+            double mx = 0, my = 0;
+            for (int i = first; i < first + count; i++) {
+                mx += xy[2 * i] - x0;
+                my += xy[2 * i + 1] - y0;
+            }
+            dest[destOffset] = count > 0 ? (float) (x0 + mx / count) : Float.NaN;
+            dest[destOffset + 1] = count > 0 ? (float) (y0 + my / count) : Float.NaN;
+        }
+        float area = (float) (twiceArea / 2);
+        if (areas != null) {
+            areas[areaIndex] = area;
+        }
+        return area;
+    }
+
+    static void checkPoints(float[] xy, int first, int count) {
+        if (first < 0 || count < 0 || 2L * ((long) first + count) > xy.length) {
+            throw new IllegalArgumentException("Array range out of bounds");
+        }
+    }
+
+    static void checkOffsets(float[] xy, int[] offsets, int polygonCount) {
+        if (polygonCount < 0 || offsets.length < polygonCount + 1) {
+            throw new IllegalArgumentException("Invalid polygon offsets");
+        }
+        for (int p = 0; p < polygonCount; p++) {
+            if (offsets[p] < 0 || offsets[p + 1] < offsets[p]) {
+                throw new IllegalArgumentException("Invalid polygon offsets");
+            }
+        }
+        if (2L * offsets[polygonCount] > xy.length) {
+            throw new IllegalArgumentException("Array range out of bounds");
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package math.engine.geometry;
+
+import math.engine.internal.ParallelRange;
+import math.engine.vector.Vector2D;
+
+/**
+ * Индекс многоугольника для пакетной проверки принадлежности точек за время, близкое к O(1) на точку,
+ * вместо O(n) обхода всех ребер.
+ *
+ * Многоугольник - одно или несколько колец (внешний контур и дыры), принадлежность определяется правилом
+ * четности: луч из точки вправо пересекает границу нечетное число раз. Ребра раскладываются по
+ * горизонтальным полосам равной высоты; точка проверяется только с ребрами своей полосы. Для каждого
+ * ребра хранятся x0, y0, y1 и обратный наклон dx/dy, поэтому проверка не делит. Горизонтальные ребра
+ * луч не пересекают и в индекс не попадают. Для точек ровно на границе результат не определен.
+ *
+ * Индекс копирует координаты и неизменяем, его можно использовать из нескольких потоков.
+ */
+public final class PolygonIndex {
+
+    // Средняя заполненность полосы и предел дублирования ребер, пересекающих несколько полос
+    private static final int EDGES_PER_BAND = 4;
+    private static final int MAX_ENTRIES_PER_EDGE = 8;
+    private static final int MAX_BANDS = 1 << 16;
+    private static final int POINT_GRAIN = 4096;
+
+    private final float minX;
+    private final float minY;
+    private final float maxX;
+    private final float maxY;
+    private final int bandCount;
+    private final float bandScale;
+    // Ребра полосы b - записи [bandStart[b], bandStart[b + 1]) по 4 числа: x0, y0, y1, dx/dy
+    private final int[] bandStart;
+    private final float[] edges;
+    private final int edgeCount;
+
+    private PolygonIndex(float[] xy, int[] ringOffsets, int ringCount) {
+        float x0 = Float.POSITIVE_INFINITY, y0 = Float.POSITIVE_INFINITY;
+        float x1 = Float.NEGATIVE_INFINITY, y1 = Float.NEGATIVE_INFINITY;
+        int count = 0;
+        for (int r = 0; r < ringCount; r++) {
+            for (int i = ringOffsets[r]; i < ringOffsets[r + 1]; i++) {
+                x0 = Math.min(x0, xy[2 * i]);
+                x1 = Math.max(x1, xy[2 * i]);
+                y0 = Math.min(y0, xy[2 * i + 1]);
+                y1 = Math.max(y1, xy[2 * i + 1]);
+            }
+            int ring = ringOffsets[r + 1] - ringOffsets[r];
+            if (ring >= 3) {
+                for (int i = 0; i < ring; i++) {
+                    if (edgeY(xy, ringOffsets[r], ring, i, 1) != edgeY(xy, ringOffsets[r], ring, i, 0)) {
+                        count++;
+                    }
+                }
+            }
+        }
+        this.minX = x0;
+        this.minY = y0;
+        this.maxX = x1;
+        this.maxY = y1;
+        this.edgeCount = count;
+
+        // Число полос уменьшается, пока длинные ребра не перестанут дублироваться слишком сильно
+        int bands = Math.max(1, Math.min(MAX_BANDS, count / EDGES_PER_BAND));
+        int[] start;
+        float scale;
+        while (true) {
+            scale = y1 > y0 ? bands / (y1 - y0) : 0;
+            start = new int[bands + 1];
+            long entries = 0;
+            for (int r = 0; r < ringCount; r++) {
+                int first = ringOffsets[r];
+                int ring = ringOffsets[r + 1] - first;
+                for (int i = 0; ring >= 3 && i < ring; i++) {
+                    float ya = edgeY(xy, first, ring, i, 0), yb = edgeY(xy, first, ring, i, 1);
+                    if (ya == yb) continue;
+                    int b0 = band(Math.min(ya, yb), y0, scale, bands);
+                    int b1 = band(Math.max(ya, yb), y0, scale, bands);
+                    for (int b = b0; b <= b1; b++) {
+                        start[b + 1]++;
+                    }
+                    entries += b1 - b0 + 1;
+                }
+            }
+            if (bands == 1 || entries <= (long) MAX_ENTRIES_PER_EDGE * count) {
+                break;
+            }
+            bands = Math.max(1, bands / 2);
+        }
+        this.bandCount = bands;
+        this.bandScale = scale;
+        for (int b = 0; b < bands; b++) {
+            start[b + 1] += start[b];
+        }
+        this.bandStart = start;
+        this.edges = new float[4 * start[bands]];
+
+        int[] fill = new int[bands];
+        for (int r = 0; r < ringCount; r++) {
+            int first = ringOffsets[r];
+            int ring = ringOffsets[r + 1] - first;
+            for (int i = 0; ring >= 3 && i < ring; i++) {
+                int a = first + i, c = first + (i + 1) % ring;
+                float xa = xy[2 * a], ya = xy[2 * a + 1];
+                float xc = xy[2 * c], yc = xy[2 * c + 1];
+                if (ya == yc) continue;
+                float slope = (xc - xa) / (yc - ya);
+                int b0 = band(Math.min(ya, yc), y0, bandScale, bands);
+                int b1 = band(Math.max(ya, yc), y0, bandScale, bands);
+                for (int b = b0; b <= b1; b++) {
+                    int e = 4 * (start[b] + fill[b]++);
+                    edges[e] = xa;
+                    edges[e + 1] = ya;
+                    edges[e + 2] = yc;
+                    edges[e + 3] = slope;
+                }
+            }
+        }
+    }
+
+    // Один контур: точки [first, first + count), замыкающее ребро добавляется автоматически
+    public static PolygonIndex of(float[] xy, int first, int count) {
+        GeometryKernels.checkPoints(xy, first, count);
+        return new PolygonIndex(xy, new int[]{first, first + count}, 1);
+    }
+
+    // Несколько колец: кольцо r - точки [ringOffsets[r], ringOffsets[r + 1]), дыры задаются отдельными кольцами
+    public static PolygonIndex of(float[] xy, int[] ringOffsets, int ringCount) {
+        GeometryKernels.checkOffsets(xy, ringOffsets, ringCount);
+        return new PolygonIndex(xy, ringOffsets, ringCount);
+    }
+
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    public int getBandCount() {
+        return bandCount;
+    }
+
+    public boolean contains(Vector2D point) {
+        return contains(point.getX(), point.getY());
+    }
+
+    public boolean contains(float x, float y) {
+        if (!(x >= minX && x <= maxX && y >= minY && y <= maxY)) {
+            return false;
+        }
+        int b = band(y, minY, bandScale, bandCount);
+        boolean inside = false;
+        for (int e = 4 * bandStart[b], end = 4 * bandStart[b + 1]; e < end; e += 4) {
+            float ya = edges[e + 1], yb = edges[e + 2];
+            if ((ya > y) != (yb > y) && x < edges[e] + (y - ya) * edges[e + 3]) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    // Пакетная проверка точек (x, y) из points начиная с точки first; параллельно для больших пакетов
+    public void contains(float[] points, int first, int count, boolean[] result, int resultOffset) {
+        GeometryKernels.checkPoints(points, first, count);
+        if (resultOffset < 0 || resultOffset + count > result.length) {
+            throw new IllegalArgumentException("Output array is too small");
+        }
+        ParallelRange.forRange(0, count, POINT_GRAIN, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                int p = 2 * (first + i);
+                result[resultOffset + i] = contains(points[p], points[p + 1]);
+            }
+        });
+    }
+
+    private static float edgeY(float[] xy, int first, int ring, int edge, int end) {
+        return xy[2 * (first + (edge + end) % ring) + 1];
+    }
+
+    private static int band(float y, float minY, float scale, int bands) {
+        int b = (int) ((y - minY) * scale);
+        return Math.max(0, Math.min(bands - 1, b));
+    }
+}
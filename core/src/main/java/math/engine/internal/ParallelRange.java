@@ -0,0 +1,48 @@
+package math.engine.internal;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public final class ParallelRange {
+
+    @FunctionalInterface
+    public interface Body {
+        void run(int from, int to);
+    }
+
+    private ParallelRange() {}
+
+    public static void forRange(int from, int to, int grain, Body body) {
+        if (to - from <= grain || ForkJoinPool.getCommonPoolParallelism() < 2) {
+            body.run(from, to);
+            return;
+        }
+        ForkJoinPool.commonPool().invoke(new RangeTask(from, to, Math.max(1, grain), body));
+    }
+
+    private static final class RangeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final int grain;
+        private final Body body;
+
+        RangeTask(int from, int to, int grain, Body body) {
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                body.run(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeTask(from, mid, grain, body), new RangeTask(mid, to, grain, body));
+        }
+    }
+}
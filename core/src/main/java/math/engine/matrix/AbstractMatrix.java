@@ -0,0 +1,587 @@
+package math.engine.matrix;
+
+import math.engine.vector.AbstractVector;
+
+/**
+ * Базовый класс плотных матриц с построчным хранилищем.
+ *
+ * Матрицы, которые владеют своим хранилищем (созданные копирующим конструктором, фабриками и операциями),
+ * неизменяемы, поэтому определитель, обратная матрица, LU-разложение и хэш вычисляются один раз при первом
+ * запросе и запоминаются. Поля кэша не volatile (racy single-check): при гонке значение может быть
+ * вычислено в нескольких потоках, но все потоки получат одинаковый результат, а кэшируемые объекты
+ * (Float, матрицы, LUDecomposition) публикуются безопасно через final-поля. wrap-представления ничего
+ * не кэшируют: вызывающий код может изменить массив после вычисления.
+ */
+public abstract class AbstractMatrix<T extends AbstractMatrix<T, V>, V extends AbstractVector<V>>
+        implements Matrix<T, V> {
+
+    private static final int BLOCKED_TRANSPOSE = 64 * 64;
+    // Сетка квантования для hashCode, в 1000 раз грубее допуска equals (1e-6)
+    private static final double HASH_GRID = 1e3;
+    // Предел числа обусловленности ||A||_1 ||A^-1||_1, при котором системы решаются умножением на обратную
+    private static final double SOLVING_INVERSE_CONDITION = 1e3;
+    private static final byte INVERSE_UNCHECKED = 0;
+    private static final byte INVERSE_ACCURATE = 1;
+    private static final byte INVERSE_INACCURATE = 2;
+
+    protected final float[][] data;
+    protected final int rows;
+    protected final int cols;
+    // Флаги MatrixStructure; для копии определяются по нулям в данных, для wrap-представлений - GENERAL
+    protected final int structure;
+    // false для wrap-представлений: содержимое может измениться, кэшировать нельзя
+    private final boolean cacheable;
+
+    private int hash;
+    private Float cachedDeterminant;
+    private T cachedInverse;
+    private LUDecomposition cachedLu;
+    private byte inverseQuality;
+
+    protected AbstractMatrix(float[][] data, int rows, int cols) {
+        this(data, rows, cols, true);
+    }
+
+    // copy = false - доверенный путь: строки не копируются. Используется для результатов операций,
+    // созданных самой библиотекой, и для wrap-представлений над массивами вызывающего кода.
+    protected AbstractMatrix(float[][] data, int rows, int cols, boolean copy) {
+        validateMatrix(data, rows, cols);
+        this.rows = rows;
+        this.cols = cols;
+        this.data = copy ? deepCopy(data) : data;
+        this.structure = copy ? MatrixStructure.detect(this.data, rows, cols) : MatrixStructure.GENERAL;
+        this.cacheable = copy;
+    }
+
+    // Доверенный путь для массивов, которыми матрица владеет: фабрики и результаты операций
+    protected AbstractMatrix(float[][] data, int rows, int cols, boolean copy, int structure) {
+        validateMatrix(data, rows, cols);
+        this.rows = rows;
+        this.cols = cols;
+        this.data = copy ? deepCopy(data) : data;
+        this.structure = rows == cols ? structure : MatrixStructure.GENERAL;
+        this.cacheable = true;
+    }
+
+    protected abstract T createNew(float[][] data, int structure);
+
+    protected T createNew(float[][] data) {
+        return createNew(data, MatrixStructure.GENERAL);
+    }
+
+    public int getStructure() {
+        return structure;
+    }
+
+    // true, если у матрицы есть все перечисленные флаги MatrixStructure
+    public boolean hasStructure(int flags) {
+        return MatrixStructure.has(structure, flags);
+    }
+
+    @Override
+    public T add(T other) {
+        checkDimensions(other);
+        float[][] result = new float[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                result[i][j] = this.data[i][j] + other.data[i][j];
+            }
+        }
+        return createNew(result, MatrixStructure.sum(structure, other.structure));
+    }
+
+    @Override
+    public T subtract(T other) {
+        checkDimensions(other);
+        float[][] result = new float[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                result[i][j] = this.data[i][j] - other.data[i][j];
+            }
+        }
+        return createNew(result, MatrixStructure.sum(structure, other.structure));
+    }
+
+    @Override
+    public T multiply(float scalar) {
+        float[][] result = new float[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                result[i][j] = this.data[i][j] * scalar;
+            }
+        }
+        return createNew(result, MatrixStructure.scale(structure, scalar));
+    }
+
+    @Override
+    public T multiply(T other) {
+        if (this.cols != other.rows) {
+            throw new IllegalArgumentException("Matrix dimensions don't match for multiplication");
+        }
+        T structured = multiplyStructured(other);
+        if (structured != null) {
+            return structured;
+        }
+
+        float[][] result = new float[this.rows][other.cols];
+        for (int i = 0; i < this.rows; i++) {
+            for (int j = 0; j < other.cols; j++) {
+                float sum = 0;
+                for (int k = 0; k < this.cols; k++) {
+                    sum += this.data[i][k] * other.data[k][j];
+                }
+                result[i][j] = sum;
+            }
+        }
+        return createNew(result, MatrixStructure.product(structure, other.structure));
+    }
+
+    @Override
+    public T transpose() {
+        if (hasStructure(MatrixStructure.DIAGONAL)) {
+            return createNew(deepCopy(data), structure);
+        }
+        float[][] result = new float[cols][rows];
+        if (rows * cols < BLOCKED_TRANSPOSE) {
+            for (int i = 0; i < rows; i++) {
+                for (int j = 0; j < cols; j++) {
+                    result[j][i] = this.data[i][j];
+                }
+            }
+        } else {
+            // Блочный обход вместо записи с шагом в строку результата; на больших матрицах параллельно
+            TransposeKernels.transpose(data, rows, cols, result);
+        }
+        return createNew(result, MatrixStructure.transpose(structure));
+    }
+
+    @Override
+    public float determinant() {
+        Float cached = cachedDeterminant;
+        if (cached != null) {
+            return cached;
+        }
+        float value = computeDeterminant();
+        if (cacheable) {
+            cachedDeterminant = value;
+        }
+        return value;
+    }
+
+    // Общий случай через LU-разложение с выбором ведущего элемента за O(n^3), для треугольных -
+    // произведение диагонали за O(n); Matrix3x3 и Matrix4x4 переопределяют его явными формулами.
+    protected float computeDeterminant() {
+        if (isTriangular()) {
+            return diagonalProduct();
+        }
+        return lu().determinant();
+    }
+
+    // Повторные вызовы возвращают тот же объект: матрица неизменяема
+    @Override
+    public T inverse() {
+        T cached = cachedInverse;
+        if (cached != null) {
+            return cached;
+        }
+        T value = computeInverse();
+        if (cacheable) {
+            cachedInverse = value;
+        }
+        return value;
+    }
+
+    // Специальные пути по структуре, иначе LU-разложение
+    protected T computeInverse() {
+        float[][] structured = structuredInverse();
+        if (structured != null) {
+            return createNew(structured, MatrixStructure.inverse(structure));
+        }
+        LUDecomposition lu = lu();
+        if (lu.isSingular()) {
+            throw new ArithmeticException("Matrix is singular, cannot invert");
+        }
+        return createNew(lu.inverse().data);
+    }
+
+    // true, если результаты вычислений запоминаются (матрица владеет хранилищем)
+    protected final boolean isCacheable() {
+        return cacheable;
+    }
+
+    // Запомненная обратная, если системы можно решать умножением на нее, иначе null. Ошибка x = A^-1 b
+    // растет с числом обусловленности быстрее, чем у метода Гаусса, поэтому обратная - только ускоритель
+    // для хорошо обусловленных матриц. Проверка выполняется один раз; для wrap-представлений всегда null.
+    protected final T solvingInverse() {
+        if (!cacheable) {
+            return null;
+        }
+        byte quality = inverseQuality;
+        if (quality == INVERSE_UNCHECKED) {
+            quality = INVERSE_INACCURATE;
+            // Явные формулы обратной Matrix3x3 и Matrix4x4 отказывают при |det| < 1e-12
+            if (Math.abs(determinant()) >= 1e-12f
+                    && norm1(data, rows) * norm1(inverse().data, rows) <= SOLVING_INVERSE_CONDITION) {
+                quality = INVERSE_ACCURATE;
+            }
+            inverseQuality = quality;
+        }
+        return quality == INVERSE_ACCURATE ? inverse() : null;
+    }
+
+    // Максимальная сумма модулей по столбцам квадратного блока k x k
+    static double norm1(float[][] a, int k) {
+        double max = 0;
+        for (int j = 0; j < k; j++) {
+            double sum = 0;
+            for (int i = 0; i < k; i++) {
+                sum += Math.abs(a[i][j]);
+            }
+            max = Math.max(max, sum);
+        }
+        return max;
+    }
+
+    // ln|det A| для больших матриц, у которых сам определитель выходит за пределы float
+    public double logAbsDeterminant() {
+        if (isTriangular()) {
+            double sum = 0;
+            for (int i = 0; i < rows; i++) {
+                sum += Math.log(Math.abs(data[i][i]));
+            }
+            return sum;
+        }
+        return lu().logAbsDeterminant();
+    }
+
+    public int determinantSign() {
+        if (isTriangular()) {
+            int sign = 1;
+            for (int i = 0; i < rows; i++) {
+                float d = data[i][i];
+                if (d == 0) return 0;
+                if (d < 0) sign = -sign;
+            }
+            return sign;
+        }
+        return lu().determinantSign();
+    }
+
+    protected final boolean isTriangular() {
+        return (structure & MatrixStructure.DIAGONAL) != 0;
+    }
+
+    protected final float diagonalProduct() {
+        float product = 1;
+        for (int i = 0; i < rows; i++) {
+            product *= data[i][i];
+        }
+        return product;
+    }
+
+    // Произведение с единичной или диагональной матрицей за O(n^2); null - специального пути нет
+    protected final T multiplyStructured(T other) {
+        if (hasStructure(MatrixStructure.IDENTITY)) {
+            return createNew(deepCopy(other.data), other.structure);
+        }
+        if (other.hasStructure(MatrixStructure.IDENTITY)) {
+            return createNew(deepCopy(data), structure);
+        }
+        int resultStructure = MatrixStructure.product(structure, other.structure);
+        if (hasStructure(MatrixStructure.DIAGONAL)) {
+            float[][] result = new float[rows][other.cols];
+            for (int i = 0; i < rows; i++) {
+                float d = data[i][i];
+                float[] source = other.data[i];
+                float[] target = result[i];
+                for (int j = 0; j < other.cols; j++) {
+                    target[j] = d * source[j];
+                }
+            }
+            return createNew(result, resultStructure);
+        }
+        if (other.hasStructure(MatrixStructure.DIAGONAL)) {
+            float[][] result = new float[rows][cols];
+            for (int i = 0; i < rows; i++) {
+                float[] source = data[i];
+                float[] target = result[i];
+                for (int j = 0; j < cols; j++) {
+                    target[j] = source[j] * other.data[j][j];
+                }
+            }
+            return createNew(result, resultStructure);
+        }
+        return null;
+    }
+
+    /**
+     * Обратная матрица по флагам структуры: единичная и диагональная за O(n), ортонормированная
+     * транспонированием и жесткое преобразование за O(n^2), треугольная подстановкой за O(n^3 / 6).
+     * null - специального пути нет. Структура результата совпадает со структурой матрицы.
+     */
+    protected final float[][] structuredInverse() {
+        if (structure == MatrixStructure.GENERAL) {
+            return null;
+        }
+        int n = rows;
+        if (hasStructure(MatrixStructure.DIAGONAL)) {
+            float[][] result = new float[n][n];
+            for (int i = 0; i < n; i++) {
+                result[i][i] = 1.0f / checkPivot(data[i][i], "Matrix is singular, cannot invert");
+            }
+            return result;
+        }
+        if (hasStructure(MatrixStructure.ORTHONORMAL)) {
+            float[][] result = new float[n][n];
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    result[j][i] = data[i][j];
+                }
+            }
+            return result;
+        }
+        if (hasStructure(MatrixStructure.RIGID)) {
+            // [R t; 0 1]^-1 = [R^T -R^T t; 0 1]
+            float[][] result = new float[4][4];
+            for (int i = 0; i < 3; i++) {
+                float t = 0;
+                for (int j = 0; j < 3; j++) {
+                    result[i][j] = data[j][i];
+                    t -= data[j][i] * data[j][3];
+                }
+                result[i][3] = t;
+            }
+            result[3][3] = 1;
+            return result;
+        }
+        if (isTriangular()) {
+            boolean upper = (structure & MatrixStructure.UPPER_TRIANGULAR) != 0;
+            float[][] result = new float[n][n];
+            for (int i = 0; i < n; i++) {
+                checkPivot(data[i][i], "Matrix is singular, cannot invert");
+            }
+            // Столбец j обратной - решение A x = e_j; ненулевая часть x лежит по ту же сторону диагонали
+            for (int j = 0; j < n; j++) {
+                result[j][j] = 1.0f / data[j][j];
+                if (upper) {
+                    for (int i = j - 1; i >= 0; i--) {
+                        float sum = 0;
+                        for (int k = i + 1; k <= j; k++) {
+                            sum += data[i][k] * result[k][j];
+                        }
+                        result[i][j] = -sum / data[i][i];
+                    }
+                } else {
+                    for (int i = j + 1; i < n; i++) {
+                        float sum = 0;
+                        for (int k = j; k < i; k++) {
+                            sum += data[i][k] * result[k][j];
+                        }
+                        result[i][j] = -sum / data[i][i];
+                    }
+                }
+            }
+            return result;
+        }
+        return null;
+    }
+
+    /**
+     * Решение A x = b на месте по флагам структуры за O(n) или O(n^2); b содержит n компонент.
+     * false - специального пути нет, b не изменен.
+     */
+    protected final boolean solveStructured(float[] b) {
+        if (structure == MatrixStructure.GENERAL) {
+            return false;
+        }
+        int n = rows;
+        String singular = "Matrix is singular, cannot solve system";
+        if (hasStructure(MatrixStructure.DIAGONAL)) {
+            for (int i = 0; i < n; i++) {
+                b[i] /= checkPivot(data[i][i], singular);
+            }
+            return true;
+        }
+        if (hasStructure(MatrixStructure.ORTHONORMAL)) {
+            float[] x = new float[n];
+            for (int i = 0; i < n; i++) {
+                float bi = b[i];
+                float[] row = data[i];
+                for (int j = 0; j < n; j++) {
+                    x[j] += row[j] * bi;
+                }
+            }
+            System.arraycopy(x, 0, b, 0, n);
+            return true;
+        }
+        if (hasStructure(MatrixStructure.RIGID)) {
+            // x = [R^T (b - t w); w]
+            float w = b[3];
+            float v0 = b[0] - data[0][3] * w, v1 = b[1] - data[1][3] * w, v2 = b[2] - data[2][3] * w;
+            for (int j = 0; j < 3; j++) {
+                b[j] = data[0][j] * v0 + data[1][j] * v1 + data[2][j] * v2;
+            }
+            return true;
+        }
+        if (isTriangular()) {
+            for (int i = 0; i < n; i++) {
+                checkPivot(data[i][i], singular);
+            }
+            if ((structure & MatrixStructure.UPPER_TRIANGULAR) != 0) {
+                for (int i = n - 1; i >= 0; i--) {
+                    float[] row = data[i];
+                    float sum = b[i];
+                    for (int k = i + 1; k < n; k++) {
+                        sum -= row[k] * b[k];
+                    }
+                    b[i] = sum / row[i];
+                }
+            } else {
+                for (int i = 0; i < n; i++) {
+                    float[] row = data[i];
+                    float sum = b[i];
+                    for (int k = 0; k < i; k++) {
+                        sum -= row[k] * b[k];
+                    }
+                    b[i] = sum / row[i];
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static float checkPivot(float value, String message) {
+        if (Math.abs(value) < 1e-12f) {
+            throw new ArithmeticException(message);
+        }
+        return value;
+    }
+
+    public LUDecomposition lu() {
+        LUDecomposition cached = cachedLu;
+        if (cached != null) {
+            return cached;
+        }
+        LUDecomposition value = LUDecomposition.of(this);
+        if (cacheable) {
+            cachedLu = value;
+        }
+        return value;
+    }
+
+    // Для симметричных положительно определенных матриц: вдвое меньше операций, чем у метода Гаусса
+    public CholeskyDecomposition cholesky() {
+        return CholeskyDecomposition.of(this);
+    }
+
+    public LDLTDecomposition ldlt() {
+        return LDLTDecomposition.of(this);
+    }
+
+    // Для переопределенных систем (rows >= cols): наименьшие квадраты без нормальных уравнений
+    public QRDecomposition qr() {
+        return QRDecomposition.of(this);
+    }
+
+    @Override
+    public int getRows() { return rows; }
+
+    @Override
+    public int getCols() { return cols; }
+
+    @Override
+    public float get(int row, int col) {
+        checkIndices(row, col);
+        return data[row][col];
+    }
+
+    protected void checkDimensions(T other) {
+        if (this.rows != other.rows || this.cols != other.cols) {
+            throw new IllegalArgumentException("Matrix dimensions don't match");
+        }
+    }
+
+    protected void checkIndices(int row, int col) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) {
+            throw new IllegalArgumentException("Indices out of bounds");
+        }
+    }
+
+    protected void validateMatrix(float[][] matrix, int expectedRows, int expectedCols) {
+        if (matrix == null || matrix.length != expectedRows) {
+            throw new IllegalArgumentException("Invalid matrix dimensions");
+        }
+        for (float[] row : matrix) {
+            if (row == null || row.length != expectedCols) {
+                throw new IllegalArgumentException("Invalid matrix dimensions");
+            }
+        }
+    }
+
+    protected float[][] deepCopy(float[][] original) {
+        float[][] copy = new float[original.length][];
+        for (int i = 0; i < original.length; i++) {
+            copy[i] = original[i].clone();
+        }
+        return copy;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+
+        AbstractMatrix<?, ?> other = (AbstractMatrix<?, ?>) obj;
+        if (this.rows != other.rows || this.cols != other.cols) return false;
+
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                if (Math.abs(this.data[i][j] - other.data[i][j]) >= 1e-6f) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Хэш по значениям, округленным до сетки 1e-3. equals сравнивает с допуском 1e-6 и нетранзитивен,
+     * поэтому никакая осмысленная хэш-функция не согласована с ним полностью: равные по equals матрицы,
+     * значения которых лежат по разные стороны границы ячейки, получат разные хэши (вероятность порядка
+     * 1e-3 на элемент). Матрицы, построенные из одних и тех же данных одинаковыми операциями, всегда
+     * имеют одинаковый хэш, поэтому их можно использовать как ключи кэша; промах в таком кэше означает
+     * лишь повторное вычисление.
+     */
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            h = 31 * rows + cols;
+            for (int i = 0; i < rows; i++) {
+                float[] row = data[i];
+                for (int j = 0; j < cols; j++) {
+                    h = 31 * h + Long.hashCode(Math.round(row[j] * HASH_GRID));
+                }
+            }
+            if (cacheable) {
+                hash = h;
+            }
+        }
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Matrix ").append(rows).append("x").append(cols).append(":\n");
+        for (int i = 0; i < rows; i++) {
+            sb.append("[ ");
+            for (int j = 0; j < cols; j++) {
+                sb.append(String.format("%8.3f ", data[i][j]));
+            }
+            sb.append("]\n");
+        }
+        return sb.toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,237 @@
+package math.engine.matrix;
+
+import math.engine.internal.ParallelRange;
+import math.engine.vector.VectorN;
+
+/**
+ * Разложение Холецкого A = L * L^T для симметричных положительно определенных матриц.
+ * Используется только нижний треугольник A. Объект неизменяем и может многократно решать системы
+ * с разными правыми частями из разных потоков.
+ */
+public final class CholeskyDecomposition {
+
+    private static final int BLOCK = 64;
+    private static final int BLOCKED_THRESHOLD = 256;
+
+    private final int n;
+    // L построчно в n x n, над диагональю - нули
+    private final float[] l;
+
+    private CholeskyDecomposition(int n, float[] l) {
+        this.n = n;
+        this.l = l;
+    }
+
+    public static CholeskyDecomposition of(AbstractMatrix<?, ?> matrix) {
+        int n = checkSquare(matrix);
+        float[] a = lowerTriangle(matrix, n);
+        if (!factor(a, n)) {
+            throw new ArithmeticException("Matrix is not positive definite");
+        }
+        return new CholeskyDecomposition(n, a);
+    }
+
+    // Сначала дешевые необходимые условия (симметрия, положительная диагональ, |a_ij| < sqrt(a_ii * a_jj)),
+    // затем попытка разложения.
+    public static boolean isPositiveDefinite(AbstractMatrix<?, ?> matrix) {
+        if (matrix.rows != matrix.cols) {
+            return false;
+        }
+        int n = matrix.rows;
+        float[][] data = matrix.data;
+        for (int i = 0; i < n; i++) {
+            float aii = data[i][i];
+            if (!(aii > 0)) return false;
+            for (int j = 0; j < i; j++) {
+                float aij = data[i][j];
+                float tolerance = 1e-6f * (Math.abs(aij) + Math.abs(data[j][i]) + 1e-30f);
+                if (Math.abs(aij - data[j][i]) > tolerance) return false;
+                if (aij * aij >= aii * data[j][j]) return false;
+            }
+        }
+        return factor(lowerTriangle(matrix, n), n);
+    }
+
+    public int getSize() {
+        return n;
+    }
+
+    public MatrixN getL() {
+        return MatrixN.wrap(DenseKernels.unflatten(l, n, n));
+    }
+
+    public float determinant() {
+        double det = 1;
+        for (int i = 0; i < n; i++) {
+            double lii = l[i * n + i];
+            det *= lii * lii;
+        }
+        return (float) det;
+    }
+
+    // ln(det A) без переполнения для больших матриц
+    public double logDeterminant() {
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += Math.log(l[i * n + i]);
+        }
+        return 2 * sum;
+    }
+
+    public VectorN solve(VectorN b) {
+        if (b.getDimensions() != n) {
+            throw new IllegalArgumentException("Matrix and vector dimensions don't match");
+        }
+        float[] x = new float[n];
+        b.copyTo(x, 0);
+        solveInPlace(x, 0);
+        return VectorN.wrap(x, 0, n);
+    }
+
+    public float[] solve(float[] b) {
+        if (b.length != n) {
+            throw new IllegalArgumentException("Matrix and vector dimensions don't match");
+        }
+        float[] x = b.clone();
+        solveInPlace(x, 0);
+        return x;
+    }
+
+    // b[offset .. offset + n) заменяется решением; без выделения памяти
+    public void solveInPlace(float[] b, int offset) {
+        if (offset < 0 || offset + n > b.length) {
+            throw new IllegalArgumentException("Right-hand side array is too small");
+        }
+        for (int i = 0; i < n; i++) {
+            double sum = b[offset + i];
+            int row = i * n;
+            for (int k = 0; k < i; k++) {
+                sum -= (double) l[row + k] * b[offset + k];
+            }
+            b[offset + i] = (float) (sum / l[row + i]);
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            double sum = b[offset + i];
+            for (int k = i + 1; k < n; k++) {
+                sum -= (double) l[k * n + i] * b[offset + k];
+            }
+            b[offset + i] = (float) (sum / l[i * n + i]);
+        }
+    }
+
+    // Несколько правых частей - столбцы rhs (n x m); столбцы решаются параллельно.
+    public MatrixN solve(MatrixN rhs) {
+        if (rhs.getRows() != n) {
+            throw new IllegalArgumentException("Matrix dimensions don't match");
+        }
+        int m = rhs.getCols();
+        float[] columns = columnMajor(rhs.data, n, m);
+        ParallelRange.forRange(0, m, Math.max(1, 4096 / Math.max(1, n)), (from, to) -> {
+            for (int c = from; c < to; c++) {
+                solveInPlace(columns, c * n);
+            }
+        });
+        return MatrixN.wrap(fromColumnMajor(columns, n, m));
+    }
+
+    static float[] columnMajor(float[][] data, int rows, int cols) {
+        float[] columns = new float[rows * cols];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                columns[j * rows + i] = data[i][j];
+            }
+        }
+        return columns;
+    }
+
+    static float[][] fromColumnMajor(float[] columns, int rows, int cols) {
+        float[][] result = new float[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                result[i][j] = columns[j * rows + i];
+            }
+        }
+        return result;
+    }
+
+    static int checkSquare(AbstractMatrix<?, ?> matrix) {
+        if (matrix.rows != matrix.cols) {
+            throw new IllegalArgumentException("Matrix must be square");
+        }
+        return matrix.rows;
+    }
+
+    static float[] lowerTriangle(AbstractMatrix<?, ?> matrix, int n) {
+        float[] a = new float[n * n];
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(matrix.data[i], 0, a, i * n, i + 1);
+        }
+        return a;
+    }
+
+    private static boolean factor(float[] a, int n) {
+        if (n < BLOCKED_THRESHOLD) {
+            return factorDiagonalBlock(a, n, 0, n);
+        }
+        // Блочный правосторонний вариант: диагональный блок, панель под ним, затем обновление остатка.
+        for (int blockStart = 0; blockStart < n; blockStart += BLOCK) {
+            int k0 = blockStart;
+            int k1 = Math.min(k0 + BLOCK, n);
+            if (!factorDiagonalBlock(a, n, k0, k1)) {
+                return false;
+            }
+            ParallelRange.forRange(k1, n, 16, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    int row = i * n;
+                    for (int j = k0; j < k1; j++) {
+                        double sum = a[row + j];
+                        int diag = j * n;
+                        for (int k = k0; k < j; k++) {
+                            sum -= (double) a[row + k] * a[diag + k];
+                        }
+                        a[row + j] = (float) (sum / a[diag + j]);
+                    }
+                }
+            });
+            ParallelRange.forRange(k1, n, 16, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    int row = i * n;
+                    for (int j = k1; j <= i; j++) {
+                        int other = j * n;
+                        double sum = 0;
+                        for (int k = k0; k < k1; k++) {
+                            sum += (double) a[row + k] * a[other + k];
+                        }
+                        a[row + j] -= (float) sum;
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    // Столбцы [from, to) при условии, что вклад столбцов левее from уже вычтен.
+    private static boolean factorDiagonalBlock(float[] a, int n, int from, int to) {
+        for (int j = from; j < to; j++) {
+            int diag = j * n;
+            double d = a[diag + j];
+            for (int k = from; k < j; k++) {
+                d -= (double) a[diag + k] * a[diag + k];
+            }
+            if (!(d > 0)) {
+                return false;
+            }
+            float ljj = (float) Math.sqrt(d);
+            a[diag + j] = ljj;
+            for (int i = j + 1; i < to; i++) {
+                int row = i * n;
+                double sum = a[row + j];
+                for (int k = from; k < j; k++) {
+                    sum -= (double) a[row + k] * a[diag + k];
+                }
+                a[row + j] = (float) (sum / ljj);
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,148 @@
+package math.engine.matrix;
+
+import math.engine.vector.Vector3D;
+
+import java.util.stream.Collector;
+
+/**
+ * Однопроходное накопление среднего и ковариации 3D точек (алгоритм Уэлфорда).
+ * Экземпляры не потокобезопасны: каждый поток копит свой и затем они объединяются через {@link #merge}.
+ */
+public final class CovarianceAccumulator {
+
+    private long count;
+    private double meanX, meanY, meanZ;
+    private double cxx, cxy, cxz, cyy, cyz, czz;
+
+    public CovarianceAccumulator() {}
+
+    public static Collector<Vector3D, ?, CovarianceAccumulator> collector() {
+        return Collector.of(CovarianceAccumulator::new, CovarianceAccumulator::add, CovarianceAccumulator::merge,
+                Collector.Characteristics.IDENTITY_FINISH, Collector.Characteristics.UNORDERED);
+    }
+
+    public void add(Vector3D point) {
+        add(point.getX(), point.getY(), point.getZ());
+    }
+
+    public void add(float x, float y, float z) {
+        count++;
+        double dx = x - meanX;
+        double dy = y - meanY;
+        double dz = z - meanZ;
+        meanX += dx / count;
+        meanY += dy / count;
+        meanZ += dz / count;
+        double ex = x - meanX;
+        double ey = y - meanY;
+        double ez = z - meanZ;
+        cxx += dx * ex;
+        cxy += dx * ey;
+        cxz += dx * ez;
+        cyy += dy * ey;
+        cyz += dy * ez;
+        czz += dz * ez;
+    }
+
+    // Точки подряд по три координаты: [x0, y0, z0, x1, ...]
+    public void addAll(float[] points, int offset, int count) {
+        if (offset < 0 || count < 0 || offset + 3L * count > points.length) {
+            throw new IllegalArgumentException("Invalid point array range");
+        }
+        for (int i = 0, p = offset; i < count; i++, p += 3) {
+            add(points[p], points[p + 1], points[p + 2]);
+        }
+    }
+
+    // Параллельное объединение (Chan et al.): результат тот же, что при последовательном проходе.
+    public CovarianceAccumulator merge(CovarianceAccumulator other) {
+        if (other.count == 0) return this;
+        if (count == 0) {
+            copyFrom(other);
+            return this;
+        }
+        double n = (double) count + other.count;
+        double weight = (double) count * other.count / n;
+        double dx = other.meanX - meanX;
+        double dy = other.meanY - meanY;
+        double dz = other.meanZ - meanZ;
+
+        cxx += other.cxx + dx * dx * weight;
+        cxy += other.cxy + dx * dy * weight;
+        cxz += other.cxz + dx * dz * weight;
+        cyy += other.cyy + dy * dy * weight;
+        cyz += other.cyz + dy * dz * weight;
+        czz += other.czz + dz * dz * weight;
+
+        meanX += dx * other.count / n;
+        meanY += dy * other.count / n;
+        meanZ += dz * other.count / n;
+        count += other.count;
+        return this;
+    }
+
+    public void reset() {
+        count = 0;
+        meanX = meanY = meanZ = 0;
+        cxx = cxy = cxz = cyy = cyz = czz = 0;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public Vector3D mean() {
+        return new Vector3D((float) meanX, (float) meanY, (float) meanZ);
+    }
+
+    // Ковариация генеральной совокупности (деление на n)
+    public Matrix3x3 covariance() {
+        return toMatrix(count);
+    }
+
+    // Несмещенная выборочная ковариация (деление на n - 1)
+    public Matrix3x3 sampleCovariance() {
+        return toMatrix(count - 1);
+    }
+
+    // Шесть уникальных элементов в порядке xx, xy, xz, yy, yz, zz - формат пакетного SymmetricEigen3x3.
+    public void covariance(float[] dest, int offset) {
+        checkCount(count);
+        dest[offset] = (float) (cxx / count);
+        dest[offset + 1] = (float) (cxy / count);
+        dest[offset + 2] = (float) (cxz / count);
+        dest[offset + 3] = (float) (cyy / count);
+        dest[offset + 4] = (float) (cyz / count);
+        dest[offset + 5] = (float) (czz / count);
+    }
+
+    private Matrix3x3 toMatrix(long divisor) {
+        checkCount(divisor);
+        float xx = (float) (cxx / divisor), xy = (float) (cxy / divisor), xz = (float) (cxz / divisor);
+        float yy = (float) (cyy / divisor), yz = (float) (cyz / divisor), zz = (float) (czz / divisor);
+        return new Matrix3x3(new float[][]{
+                {xx, xy, xz},
+                {xy, yy, yz},
+                {xz, yz, zz}
+        });
+    }
+
+    private void checkCount(long divisor) {
+        if (divisor <= 0) {
+            throw new ArithmeticException("Not enough points to compute covariance");
+        }
+    }
+
+    private void copyFrom(CovarianceAccumulator other) {
+        count = other.count;
+        meanX = other.meanX;
+        meanY = other.meanY;
+        meanZ = other.meanZ;
+        cxx = other.cxx;
+        cxy = other.cxy;
+        cxz = other.cxz;
+        cyy = other.cyy;
+        cyz = other.cyz;
+        czz = other.czz;
+    }
+}
@@ -8,9 +8,18 @@ public class CustomMatrix extends AbstractMatrix<CustomMatrix, Vector3D> {
         super(data, 3, 3);
     }
 
+    protected CustomMatrix(float[][] data, boolean copy) {
+        super(data, 3, 3, copy);
+    }
+
+    // Доверенный путь для результатов операций: массив не копируется, флаги и кэш сохраняются
+    protected CustomMatrix(float[][] data, int structure) {
+        super(data, 3, 3, false, structure);
+    }
+
     @Override
-    protected CustomMatrix createNew(float[][] data) {
-        return new CustomMatrix(data);
+    protected CustomMatrix createNew(float[][] data, int structure) {
+        return new CustomMatrix(data, structure);
     }
 
     @Override
@@ -22,7 +31,10 @@ public class CustomMatrix extends AbstractMatrix<CustomMatrix, Vector3D> {
     }
 
     @Override
-    public float determinant() {
+    protected float computeDeterminant() {
+        if (isTriangular()) {
+            return diagonalProduct();
+        }
         // Базовая реализация определителя 3x3
         float a = data[0][0], b = data[0][1], c = data[0][2];
         float d = data[1][0], e = data[1][1], f = data[1][2];
@@ -32,7 +44,11 @@ public class CustomMatrix extends AbstractMatrix<CustomMatrix, Vector3D> {
     }
 
     @Override
-    public CustomMatrix inverse() {
+    protected CustomMatrix computeInverse() {
+        float[][] structured = structuredInverse();
+        if (structured != null) {
+            return createNew(structured, MatrixStructure.inverse(structure));
+        }
         float det = determinant();
         if (Math.abs(det) < 1e-12f) {
             throw new ArithmeticException("Matrix is singular, cannot invert");
@@ -49,13 +65,19 @@ public class CustomMatrix extends AbstractMatrix<CustomMatrix, Vector3D> {
                 {(d * h - e * g) * invDet, (b * g - a * h) * invDet, (a * e - b * d) * invDet}
         };
 
-        return new CustomMatrix(result);
+        return createNew(result);
     }
 
+    // Метод Гаусса с выбором ведущего элемента, как в Matrix3x3: вырожденность определяется по ведущим
+    // элементам, а не по абсолютной величине определителя
     @Override
     public Vector3D solveLinearSystem(Vector3D vector) {
-        CustomMatrix inverse = inverse();
-        return inverse.multiply(vector);
+        if (structure != MatrixStructure.GENERAL) {
+            float[] x = {vector.getX(), vector.getY(), vector.getZ()};
+            solveStructured(x);
+            return new Vector3D(x[0], x[1], x[2]);
+        }
+        return Matrix3x3.solveGauss(data, vector);
     }
 
     public CustomMatrix customOperation() {
@@ -65,6 +87,6 @@ public class CustomMatrix extends AbstractMatrix<CustomMatrix, Vector3D> {
                 result[i][j] = data[i][j] * 2; // Пример операции
             }
         }
-        return new CustomMatrix(result);
+        return createNew(result, MatrixStructure.scale(structure, 2));
     }
 }
\ No newline at end of file
@@ -0,0 +1,189 @@
+package math.engine.matrix;
+
+import math.engine.internal.ParallelRange;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Ядра над плоскими массивами в построчном порядке: элемент (i, j) матрицы rows x cols - a[i * cols + j].
+final class DenseKernels {
+
+    static final int STRASSEN_CUTOFF = 256;
+
+    private static final int BLOCK = 64;
+    private static final int PARALLEL_FLOPS = 1 << 18;
+    private static final int PARALLEL_DEPTH = 2;
+
+    private DenseKernels() {}
+
+    static float[] flatten(float[][] data, int rows, int cols) {
+        float[] flat = new float[rows * cols];
+        for (int i = 0; i < rows; i++) {
+            System.arraycopy(data[i], 0, flat, i * cols, cols);
+        }
+        return flat;
+    }
+
+    static float[][] unflatten(float[] flat, int rows, int cols) {
+        float[][] data = new float[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            System.arraycopy(flat, i * cols, data[i], 0, cols);
+        }
+        return data;
+    }
+
+    // c += a * b; a - m x k, b - k x n, c - m x n
+    static void multiplyAdd(float[] a, float[] b, float[] c, int m, int k, int n) {
+        if ((long) m * k * n < PARALLEL_FLOPS) {
+            multiplyAddRows(a, b, c, k, n, 0, m);
+            return;
+        }
+        ParallelRange.forRange(0, m, BLOCK, (from, to) -> multiplyAddRows(a, b, c, k, n, from, to));
+    }
+
+    private static void multiplyAddRows(float[] a, float[] b, float[] c, int k, int n, int rowFrom, int rowTo) {
+        for (int i0 = rowFrom; i0 < rowTo; i0 += BLOCK) {
+            int i1 = Math.min(i0 + BLOCK, rowTo);
+            for (int k0 = 0; k0 < k; k0 += BLOCK) {
+                int k1 = Math.min(k0 + BLOCK, k);
+                for (int j0 = 0; j0 < n; j0 += BLOCK) {
+                    int j1 = Math.min(j0 + BLOCK, n);
+                    for (int i = i0; i < i1; i++) {
+                        int cRow = i * n;
+                        for (int p = k0; p < k1; p++) {
+                            float aip = a[i * k + p];
+                            int bRow = p * n;
+                            for (int j = j0; j < j1; j++) {
+                                c[cRow + j] += aip * b[bRow + j];
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    // Квадратные n x n. Размер дополняется нулями до base * 2^levels, чтобы на каждом уровне делиться пополам.
+    static float[] multiplyStrassen(float[] a, float[] b, int n, int cutoff) {
+        int levels = 0;
+        int base = n;
+        while (base > cutoff) {
+            base = (base + 1) / 2;
+            levels++;
+        }
+        int padded = base << levels;
+        float[] pa = pad(a, n, padded);
+        float[] pb = pad(b, n, padded);
+        float[] pc = new float[padded * padded];
+        ForkJoinPool.commonPool().invoke(new WinogradTask(pa, pb, pc, padded, cutoff, PARALLEL_DEPTH));
+        if (padded == n) {
+            return pc;
+        }
+        float[] c = new float[n * n];
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(pc, i * padded, c, i * n, n);
+        }
+        return c;
+    }
+
+    private static float[] pad(float[] source, int n, int padded) {
+        if (padded == n) {
+            return source;
+        }
+        float[] result = new float[padded * padded];
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(source, i * n, result, i * padded, n);
+        }
+        return result;
+    }
+
+    private static final class WinogradTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final float[] a;
+        private final float[] b;
+        private final float[] c;
+        private final int n;
+        private final int cutoff;
+        private final int depth;
+
+        WinogradTask(float[] a, float[] b, float[] c, int n, int cutoff, int depth) {
+            this.a = a;
+            this.b = b;
+            this.c = c;
+            this.n = n;
+            this.cutoff = cutoff;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            if (n <= cutoff || (n & 1) != 0) {
+                multiplyAddRows(a, b, c, n, n, 0, n);
+                return;
+            }
+            int h = n / 2;
+            int size = h * h;
+            float[] a11 = quadrant(a, n, 0, 0), a12 = quadrant(a, n, 0, h);
+            float[] a21 = quadrant(a, n, h, 0), a22 = quadrant(a, n, h, h);
+            float[] b11 = quadrant(b, n, 0, 0), b12 = quadrant(b, n, 0, h);
+            float[] b21 = quadrant(b, n, h, 0), b22 = quadrant(b, n, h, h);
+
+            float[] s1 = new float[size], s2 = new float[size], s3 = new float[size], s4 = new float[size];
+            float[] t1 = new float[size], t2 = new float[size], t3 = new float[size], t4 = new float[size];
+            for (int i = 0; i < size; i++) {
+                s1[i] = a21[i] + a22[i];
+                s2[i] = s1[i] - a11[i];
+                s3[i] = a11[i] - a21[i];
+                s4[i] = a12[i] - s2[i];
+                t1[i] = b12[i] - b11[i];
+                t2[i] = b22[i] - t1[i];
+                t3[i] = b22[i] - b12[i];
+                t4[i] = t2[i] - b21[i];
+            }
+
+            float[][] p = new float[7][size];
+            WinogradTask[] products = {
+                    new WinogradTask(a11, b11, p[0], h, cutoff, depth - 1),
+                    new WinogradTask(a12, b21, p[1], h, cutoff, depth - 1),
+                    new WinogradTask(s4, b22, p[2], h, cutoff, depth - 1),
+                    new WinogradTask(a22, t4, p[3], h, cutoff, depth - 1),
+                    new WinogradTask(s1, t1, p[4], h, cutoff, depth - 1),
+                    new WinogradTask(s2, t2, p[5], h, cutoff, depth - 1),
+                    new WinogradTask(s3, t3, p[6], h, cutoff, depth - 1)
+            };
+            if (depth > 0) {
+                invokeAll(products);
+            } else {
+                for (WinogradTask product : products) {
+                    product.compute();
+                }
+            }
+
+            for (int i = 0; i < h; i++) {
+                int row = i * h;
+                int top = i * n;
+                int bottom = (i + h) * n;
+                for (int j = 0; j < h; j++) {
+                    int q = row + j;
+                    float u2 = p[0][q] + p[5][q];
+                    float u3 = u2 + p[6][q];
+                    float u4 = u2 + p[4][q];
+                    c[top + j] += p[0][q] + p[1][q];
+                    c[top + h + j] += u4 + p[2][q];
+                    c[bottom + j] += u3 - p[3][q];
+                    c[bottom + h + j] += u3 + p[4][q];
+                }
+            }
+        }
+
+        private static float[] quadrant(float[] m, int n, int rowOffset, int colOffset) {
+            int h = n / 2;
+            float[] result = new float[h * h];
+            for (int i = 0; i < h; i++) {
+                System.arraycopy(m, (rowOffset + i) * n + colOffset, result, i * h, h);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package math.engine.matrix;
+
+import math.engine.internal.ParallelRange;
+import math.engine.vector.VectorN;
+
+/**
+ * Обратная матрица, которая поддерживается при малоранговых изменениях исходной матрицы за O(n^2 k)
+ * вместо повторного обращения за O(n^3).
+ *
+ * Изменение A' = A + U V^T (U, V - n x k) обрабатывается формулой Вудбери
+ * A'^-1 = A^-1 - A^-1 U (I + V^T A^-1 U)^-1 V^T A^-1, при k = 1 - формулой Шермана-Моррисона.
+ * Определитель пересчитывается по лемме об определителе: det A' = det A * det(I + V^T A^-1 U).
+ * Замена строки или столбца - частный случай ранга 1.
+ *
+ * Каждое обновление увеличивает ошибку примерно в (1 + ||V^T|| ||A^-1 U||) * ||C^-1|| раз, где
+ * C = I + V^T A^-1 U; оценка накапливается, и когда она превышает GROWTH_LIMIT (или C вырождена),
+ * вместо обновления выполняется полное LU-разложение текущей матрицы. Если текущая матрица сама
+ * вырождена, обновление не применяется и бросается ArithmeticException. Объект не потокобезопасен.
+ */
+public final class IncrementalInverse {
+
+    // При ошибке float ~6e-8 это ограничивает относительную ошибку обратной матрицы величиной ~1e-4
+    private static final double GROWTH_LIMIT = 1e3;
+    // Порция строк ParallelRange - около 64 тыс. умножений
+    private static final int GRAIN_WORK = 1 << 16;
+
+    private final int n;
+    private float[] matrix;
+    private float[] next;
+    private float[] inverse;
+    private double logAbsDeterminant;
+    private int determinantSign;
+    private double growth = 1;
+    private int refactorizations;
+
+    private IncrementalInverse(int n) {
+        this.n = n;
+        this.matrix = new float[n * n];
+        this.next = new float[n * n];
+        this.inverse = new float[n * n];
+    }
+
+    // Начальное обращение через LU за O(n^3)
+    public static IncrementalInverse of(AbstractMatrix<?, ?> matrix) {
+        int n = CholeskyDecomposition.checkSquare(matrix);
+        IncrementalInverse result = new IncrementalInverse(n);
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(matrix.data[i], 0, result.next, i * n, n);
+        }
+        result.refactor();
+        result.refactorizations = 0;
+        return result;
+    }
+
+    public int getSize() {
+        return n;
+    }
+
+    // Число полных переразложений из-за накопленной ошибки или плохо обусловленного обновления
+    public int getRefactorizations() {
+        return refactorizations;
+    }
+
+    // Снимки текущего состояния: новые матрицы с флагами по нулям в данных, последующие обновления их не меняют
+    public MatrixN getMatrix() {
+        return snapshot(matrix);
+    }
+
+    public MatrixN getInverse() {
+        return snapshot(inverse);
+    }
+
+    private MatrixN snapshot(float[] flat) {
+        float[][] data = DenseKernels.unflatten(flat, n, n);
+        return MatrixN.owned(data, MatrixStructure.detect(data, n, n));
+    }
+
+    public float determinant() {
+        return (float) (determinantSign * Math.exp(logAbsDeterminant));
+    }
+
+    public double logAbsDeterminant() {
+        return logAbsDeterminant;
+    }
+
+    public int determinantSign() {
+        return determinantSign;
+    }
+
+    // x = A^-1 b за O(n^2)
+    public VectorN solve(VectorN b) {
+        if (b.getDimensions() != n) {
+            throw new IllegalArgumentException("Matrix and vector dimensions don't match");
+        }
+        float[] rhs = new float[n];
+        b.copyTo(rhs, 0);
+        float[] x = new float[n];
+        for (int i = 0; i < n; i++) {
+            double sum = 0;
+            int row = i * n;
+            for (int j = 0; j < n; j++) {
+                sum += (double) inverse[row + j] * rhs[j];
+            }
+            x[i] = (float) sum;
+        }
+        return VectorN.wrap(x, 0, n);
+    }
+
+    // A += u v^T
+    public void rankOneUpdate(VectorN u, VectorN v) {
+        if (u.getDimensions() != n || v.getDimensions() != n) {
+            throw new IllegalArgumentException("Matrix and vector dimensions don't match");
+        }
+        float[] uu = new float[n];
+        float[] vv = new float[n];
+        u.copyTo(uu, 0);
+        v.copyTo(vv, 0);
+        update(uu, vv, 1);
+    }
+
+    // Строка row заменяется на values: u = e_row, v = values - A[row, :]
+    public void replaceRow(int row, VectorN values) {
+        checkIndex(row);
+        if (values.getDimensions() != n) {
+            throw new IllegalArgumentException("Matrix and vector dimensions don't match");
+        }
+        float[] u = new float[n];
+        float[] v = new float[n];
+        u[row] = 1;
+        values.copyTo(v, 0);
+        for (int j = 0; j < n; j++) {
+            v[j] -= matrix[row * n + j];
+        }
+        update(u, v, 1);
+    }
+
+    // Столбец col заменяется на values: u = values - A[:, col], v = e_col
+    public void replaceColumn(int col, VectorN values) {
+        checkIndex(col);
+        if (values.getDimensions() != n) {
+            throw new IllegalArgumentException("Matrix and vector dimensions don't match");
+        }
+        float[] u = new float[n];
+        float[] v = new float[n];
+        values.copyTo(u, 0);
+        for (int i = 0; i < n; i++) {
+            u[i] -= matrix[i * n + col];
+        }
+        v[col] = 1;
+        update(u, v, 1);
+    }
+
+    /**
+     * A += U V^T, где U и V - n x k построчно: U[i][c] = u[i * k + c].
+     * Стоимость O(n^2 k) плюс обращение k x k; при k порядка n выгоднее полное обращение.
+     */
+    public void update(float[] u, float[] v, int k) {
+        if (k <= 0 || u.length < n * k || v.length < n * k) {
+            throw new IllegalArgumentException("Update arrays must hold n x k elements");
+        }
+        // Новая матрица собирается в отдельном буфере и принимается только после успешного обновления
+        System.arraycopy(matrix, 0, next, 0, n * n);
+        ParallelRange.forRange(0, n, grain(k), (from, to) -> {
+            for (int i = from; i < to; i++) {
+                for (int c = 0; c < k; c++) {
+                    float uic = u[i * k + c];
+                    if (uic == 0) continue;
+                    int row = i * n;
+                    for (int j = 0; j < n; j++) {
+                        next[row + j] += uic * v[j * k + c];
+                    }
+                }
+            }
+        });
+
+        // W = A^-1 U (n x k), Z = V^T A^-1 (k x n)
+        float[] w = new float[n * k];
+        float[] z = new float[k * n];
+        ParallelRange.forRange(0, n, grain(k), (from, to) -> {
+            for (int i = from; i < to; i++) {
+                int row = i * n;
+                for (int c = 0; c < k; c++) {
+                    double sum = 0;
+                    for (int j = 0; j < n; j++) {
+                        sum += (double) inverse[row + j] * u[j * k + c];
+                    }
+                    w[i * k + c] = (float) sum;
+                }
+            }
+        });
+        ParallelRange.forRange(0, n, grain(k), (from, to) -> {
+            for (int i = 0; i < n; i++) {
+                int row = i * n;
+                for (int c = 0; c < k; c++) {
+                    float vic = v[i * k + c];
+                    if (vic == 0) continue;
+                    int zRow = c * n;
+                    for (int j = from; j < to; j++) {
+                        z[zRow + j] += vic * inverse[row + j];
+                    }
+                }
+            }
+        });
+
+        // C = I + V^T W; S = |V|^T |W| оценивает величину слагаемых до сокращения
+        float[][] capacitance = new float[k][k];
+        double spread = 0;
+        for (int c = 0; c < k; c++) {
+            double columnSpread = 0;
+            for (int d = 0; d < k; d++) {
+                double sum = c == d ? 1 : 0;
+                double magnitude = 0;
+                for (int i = 0; i < n; i++) {
+                    double term = (double) v[i * k + c] * w[i * k + d];
+                    sum += term;
+                    magnitude += Math.abs(term);
+                }
+                capacitance[c][d] = (float) sum;
+                columnSpread += magnitude;
+            }
+            spread = Math.max(spread, columnSpread);
+        }
+
+        LUDecomposition lu = LUDecomposition.of(MatrixN.wrap(capacitance));
+        if (lu.isSingular()) {
+            refactor();
+            return;
+        }
+        MatrixN capacitanceInverse = lu.inverse();
+        double step = (1 + spread) * AbstractMatrix.norm1(capacitanceInverse.data, k);
+        if (!(growth * step <= GROWTH_LIMIT)) {
+            refactor();
+            return;
+        }
+
+        // A^-1 -= W (C^-1 Z)
+        float[] m = new float[k * n];
+        for (int c = 0; c < k; c++) {
+            float[] cRow = capacitanceInverse.data[c];
+            for (int d = 0; d < k; d++) {
+                float factor = cRow[d];
+                for (int j = 0; j < n; j++) {
+                    m[c * n + j] += factor * z[d * n + j];
+                }
+            }
+        }
+        ParallelRange.forRange(0, n, grain(k), (from, to) -> {
+            for (int i = from; i < to; i++) {
+                int row = i * n;
+                for (int c = 0; c < k; c++) {
+                    float wic = w[i * k + c];
+                    if (wic == 0) continue;
+                    int mRow = c * n;
+                    for (int j = 0; j < n; j++) {
+                        inverse[row + j] -= wic * m[mRow + j];
+                    }
+                }
+            }
+        });
+        logAbsDeterminant += lu.logAbsDeterminant();
+        determinantSign *= lu.determinantSign();
+        growth *= step;
+        commit();
+    }
+
+    // Полное LU-разложение матрицы из next; при успехе она становится текущей
+    private void refactor() {
+        LUDecomposition lu = LUDecomposition.of(MatrixN.wrap(DenseKernels.unflatten(next, n, n)));
+        if (lu.isSingular()) {
+            throw new ArithmeticException("Matrix is singular after update");
+        }
+        float[][] result = lu.inverse().data;
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(result[i], 0, inverse, i * n, n);
+        }
+        logAbsDeterminant = lu.logAbsDeterminant();
+        determinantSign = lu.determinantSign();
+        growth = 1;
+        refactorizations++;
+        commit();
+    }
+
+    private void commit() {
+        float[] t = matrix;
+        matrix = next;
+        next = t;
+    }
+
+    private int grain(int k) {
+        return Math.max(1, GRAIN_WORK / (n * k));
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= n) {
+            throw new IllegalArgumentException("Index out of bounds");
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package math.engine.matrix;
+
+import math.engine.internal.ParallelRange;
+import math.engine.vector.VectorN;
+
+/**
+ * Разложение A = L * D * L^T без извлечения корней (L - нижняя унитреугольная, D - диагональная).
+ * Подходит и для знаконеопределенных симметричных матриц, если ведущие главные миноры не нулевые:
+ * выбор ведущего элемента не выполняется. Используется только нижний треугольник A.
+ */
+public final class LDLTDecomposition {
+
+    private final int n;
+    private final float[] l;
+    private final float[] d;
+
+    private LDLTDecomposition(int n, float[] l, float[] d) {
+        this.n = n;
+        this.l = l;
+        this.d = d;
+    }
+
+    public static LDLTDecomposition of(AbstractMatrix<?, ?> matrix) {
+        int n = CholeskyDecomposition.checkSquare(matrix);
+        float[] a = CholeskyDecomposition.lowerTriangle(matrix, n);
+        float[] d = new float[n];
+        double[] w = new double[n];
+        double scale = 0;
+        for (int i = 0; i < n; i++) {
+            scale = Math.max(scale, Math.abs(a[i * n + i]));
+        }
+
+        for (int j = 0; j < n; j++) {
+            int diag = j * n;
+            double dj = a[diag + j];
+            for (int k = 0; k < j; k++) {
+                w[k] = (double) a[diag + k] * d[k];
+                dj -= w[k] * a[diag + k];
+            }
+            if (Math.abs(dj) <= 1e-7 * scale || Double.isNaN(dj)) {
+                throw new ArithmeticException("Matrix is singular or requires pivoting");
+            }
+            d[j] = (float) dj;
+            a[diag + j] = 1;
+            for (int i = j + 1; i < n; i++) {
+                int row = i * n;
+                double sum = a[row + j];
+                for (int k = 0; k < j; k++) {
+                    sum -= (double) a[row + k] * w[k];
+                }
+                a[row + j] = (float) (sum / dj);
+            }
+        }
+        return new LDLTDecomposition(n, a, d);
+    }
+
+    public int getSize() {
+        return n;
+    }
+
+    public MatrixN getL() {
+        return MatrixN.wrap(DenseKernels.unflatten(l, n, n));
+    }
+
+    public float getD(int index) {
+        if (index < 0 || index >= n) {
+            throw new IllegalArgumentException("Index out of bounds");
+        }
+        return d[index];
+    }
+
+    // По закону инерции Сильвестра знаки D совпадают со знаками собственных значений A
+    public boolean isPositiveDefinite() {
+        for (float value : d) {
+            if (value <= 0) return false;
+        }
+        return true;
+    }
+
+    public float determinant() {
+        double det = 1;
+        for (float value : d) {
+            det *= value;
+        }
+        return (float) det;
+    }
+
+    public VectorN solve(VectorN b) {
+        if (b.getDimensions() != n) {
+            throw new IllegalArgumentException("Matrix and vector dimensions don't match");
+        }
+        float[] x = new float[n];
+        b.copyTo(x, 0);
+        solveInPlace(x, 0);
+        return VectorN.wrap(x, 0, n);
+    }
+
+    public void solveInPlace(float[] b, int offset) {
+        if (offset < 0 || offset + n > b.length) {
+            throw new IllegalArgumentException("Right-hand side array is too small");
+        }
+        for (int i = 0; i < n; i++) {
+            double sum = b[offset + i];
+            int row = i * n;
+            for (int k = 0; k < i; k++) {
+                sum -= (double) l[row + k] * b[offset + k];
+            }
+            b[offset + i] = (float) sum;
+        }
+        for (int i = 0; i < n; i++) {
+            b[offset + i] /= d[i];
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            double sum = b[offset + i];
+            for (int k = i + 1; k < n; k++) {
+                sum -= (double) l[k * n + i] * b[offset + k];
+            }
+            b[offset + i] = (float) sum;
+        }
+    }
+
+    public MatrixN solve(MatrixN rhs) {
+        if (rhs.getRows() != n) {
+            throw new IllegalArgumentException("Matrix dimensions don't match");
+        }
+        int m = rhs.getCols();
+        float[] columns = CholeskyDecomposition.columnMajor(rhs.data, n, m);
+        ParallelRange.forRange(0, m, Math.max(1, 4096 / Math.max(1, n)), (from, to) -> {
+            for (int c = from; c < to; c++) {
+                solveInPlace(columns, c * n);
+            }
+        });
+        return MatrixN.wrap(CholeskyDecomposition.fromColumnMajor(columns, n, m));
+    }
+}
@@ -0,0 +1,209 @@
+package math.engine.matrix;
+
+import math.engine.internal.ParallelRange;
+import math.engine.vector.VectorN;
+
+/**
+ * LU-разложение с частичным выбором ведущего элемента P * A = L * U за O(n^3).
+ * L - нижняя унитреугольная (единицы на диагонали не хранятся), U - верхняя треугольная.
+ * Вырожденная матрица разлагается без исключения; ошибку дают только solve и inverse.
+ */
+public final class LUDecomposition {
+
+    private static final int PARALLEL_THRESHOLD = 128;
+
+    private final int n;
+    // L и U построчно в одном массиве n x n
+    private final float[] lu;
+    private final int[] pivot;
+    private final int pivotSign;
+    private final boolean singular;
+
+    private LUDecomposition(int n, float[] lu, int[] pivot, int pivotSign, boolean singular) {
+        this.n = n;
+        this.lu = lu;
+        this.pivot = pivot;
+        this.pivotSign = pivotSign;
+        this.singular = singular;
+    }
+
+    public static LUDecomposition of(AbstractMatrix<?, ?> matrix) {
+        int n = CholeskyDecomposition.checkSquare(matrix);
+        float[] a = DenseKernels.flatten(matrix.data, n, n);
+        int[] pivot = new int[n];
+        for (int i = 0; i < n; i++) {
+            pivot[i] = i;
+        }
+        int sign = 1;
+        boolean singular = false;
+        float[] swap = new float[n];
+
+        for (int k = 0; k < n; k++) {
+            int p = k;
+            float max = Math.abs(a[k * n + k]);
+            for (int i = k + 1; i < n; i++) {
+                float value = Math.abs(a[i * n + k]);
+                if (value > max) {
+                    max = value;
+                    p = i;
+                }
+            }
+            if (p != k) {
+                System.arraycopy(a, p * n, swap, 0, n);
+                System.arraycopy(a, k * n, a, p * n, n);
+                System.arraycopy(swap, 0, a, k * n, n);
+                int t = pivot[p];
+                pivot[p] = pivot[k];
+                pivot[k] = t;
+                sign = -sign;
+            }
+            float ukk = a[k * n + k];
+            // Тот же порог, что и у прежнего метода Гаусса в MatrixN
+            if (max < 1e-12f) {
+                singular = true;
+                continue;
+            }
+            int col = k;
+            int remaining = n - k - 1;
+            if (remaining * remaining < PARALLEL_THRESHOLD * PARALLEL_THRESHOLD) {
+                eliminate(a, n, col, ukk, col + 1, n);
+            } else {
+                ParallelRange.forRange(col + 1, n, 16, (from, to) -> eliminate(a, n, col, ukk, from, to));
+            }
+        }
+        return new LUDecomposition(n, a, pivot, sign, singular);
+    }
+
+    // Исключение столбца k из строк [from, to): строка i -= l_ik * строка k
+    private static void eliminate(float[] a, int n, int k, float ukk, int from, int to) {
+        int pivotRow = k * n;
+        for (int i = from; i < to; i++) {
+            int row = i * n;
+            float factor = a[row + k] / ukk;
+            a[row + k] = factor;
+            if (factor == 0) continue;
+            for (int j = k + 1; j < n; j++) {
+                a[row + j] -= factor * a[pivotRow + j];
+            }
+        }
+    }
+
+    public int getSize() {
+        return n;
+    }
+
+    public boolean isSingular() {
+        return singular;
+    }
+
+    public float determinant() {
+        if (singular) {
+            return 0;
+        }
+        double det = pivotSign;
+        for (int i = 0; i < n; i++) {
+            det *= lu[i * n + i];
+        }
+        return (float) det;
+    }
+
+    // ln|det A| без переполнения; для вырожденной матрицы - отрицательная бесконечность
+    public double logAbsDeterminant() {
+        if (singular) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += Math.log(Math.abs(lu[i * n + i]));
+        }
+        return sum;
+    }
+
+    // Знак определителя: -1, 0 или 1
+    public int determinantSign() {
+        if (singular) {
+            return 0;
+        }
+        int sign = pivotSign;
+        for (int i = 0; i < n; i++) {
+            if (lu[i * n + i] < 0) sign = -sign;
+        }
+        return sign;
+    }
+
+    public MatrixN getL() {
+        float[][] l = new float[n][n];
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(lu, i * n, l[i], 0, i);
+            l[i][i] = 1;
+        }
+        return MatrixN.wrap(l);
+    }
+
+    public MatrixN getU() {
+        float[][] u = new float[n][n];
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(lu, i * n + i, u[i], i, n - i);
+        }
+        return MatrixN.wrap(u);
+    }
+
+    // pivot[i] - исходная строка A, стоящая на месте i
+    public int[] getPivot() {
+        return pivot.clone();
+    }
+
+    public VectorN solve(VectorN b) {
+        if (b.getDimensions() != n) {
+            throw new IllegalArgumentException("Matrix and vector dimensions don't match");
+        }
+        float[] x = new float[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = b.getComponent(pivot[i]);
+        }
+        substitute(x, 0);
+        return VectorN.wrap(x, 0, n);
+    }
+
+    public MatrixN inverse() {
+        checkNonSingular();
+        float[] columns = new float[n * n];
+        ParallelRange.forRange(0, n, Math.max(1, 4096 / n), (from, to) -> {
+            for (int c = from; c < to; c++) {
+                int offset = c * n;
+                for (int i = 0; i < n; i++) {
+                    columns[offset + i] = pivot[i] == c ? 1 : 0;
+                }
+                substitute(columns, offset);
+            }
+        });
+        return MatrixN.wrap(CholeskyDecomposition.fromColumnMajor(columns, n, n));
+    }
+
+    // Прямая и обратная подстановка для уже переставленной правой части
+    private void substitute(float[] x, int offset) {
+        checkNonSingular();
+        for (int i = 0; i < n; i++) {
+            double sum = x[offset + i];
+            int row = i * n;
+            for (int k = 0; k < i; k++) {
+                sum -= (double) lu[row + k] * x[offset + k];
+            }
+            x[offset + i] = (float) sum;
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            double sum = x[offset + i];
+            int row = i * n;
+            for (int k = i + 1; k < n; k++) {
+                sum -= (double) lu[row + k] * x[offset + k];
+            }
+            x[offset + i] = (float) (sum / lu[row + i]);
+        }
+    }
+
+    private void checkNonSingular() {
+        if (singular) {
+            throw new ArithmeticException("Matrix is singular, cannot solve system");
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package math.engine.matrix;
+
+import math.engine.vector.HalfVector3Array;
+import math.engine.vector.Vector3D;
+
+public final class Matrix3x3 extends AbstractMatrix<Matrix3x3, Vector3D> {
+
+    public Matrix3x3(float[][] data) {
+        super(data, 3, 3);
+    }
+
+    private Matrix3x3(float[][] data, boolean copy) {
+        super(data, 3, 3, copy);
+    }
+
+    private Matrix3x3(float[][] data, int structure) {
+        super(data, 3, 3, false, structure);
+    }
+
+    // Представление без копирования: матрица ссылается на строки data, изменения в них видны через матрицу.
+    // Хранилище матриц построчное (float[][]), поэтому плоский массив со смещением обернуть нельзя.
+    public static Matrix3x3 wrap(float[][] data) {
+        return new Matrix3x3(data, false);
+    }
+
+    @Override
+    protected Matrix3x3 createNew(float[][] data, int structure) {
+        return new Matrix3x3(data, structure);
+    }
+
+    public static Matrix3x3 identity() {
+        return new Matrix3x3(new float[][]{
+                {1, 0, 0},
+                {0, 1, 0},
+                {0, 0, 1}
+        }, MatrixStructure.IDENTITY);
+    }
+
+    public static Matrix3x3 zero() {
+        return new Matrix3x3(new float[3][3], MatrixStructure.DIAGONAL);
+    }
+
+    @Override
+    public Vector3D multiply(Vector3D vector) {
+        float x = data[0][0] * vector.getX() + data[0][1] * vector.getY() + data[0][2] * vector.getZ();
+        float y = data[1][0] * vector.getX() + data[1][1] * vector.getY() + data[1][2] * vector.getZ();
+        float z = data[2][0] * vector.getX() + data[2][1] * vector.getY() + data[2][2] * vector.getZ();
+        return new Vector3D(x, y, z);
+    }
+
+    // Пакетное преобразование векторов в половинной точности с декодированием на лету; dest может совпадать с source
+    public void transform(HalfVector3Array source, HalfVector3Array dest) {
+        source.transform(DenseKernels.flatten(data, 3, 3), dest);
+    }
+
+    public void transform(HalfVector3Array source, float[] dest, int destOffset) {
+        source.transform(DenseKernels.flatten(data, 3, 3), dest, destOffset);
+    }
+
+    @Override
+    protected float computeDeterminant() {
+        if (isTriangular()) {
+            return diagonalProduct();
+        }
+        float a = data[0][0], b = data[0][1], c = data[0][2];
+        float d = data[1][0], e = data[1][1], f = data[1][2];
+        float g = data[2][0], h = data[2][1], i = data[2][2];
+
+        return a * (e * i - f * h) - b * (d * i - f * g) + c * (d * h - e * g);
+    }
+
+    @Override
+    protected Matrix3x3 computeInverse() {
+        float[][] structured = structuredInverse();
+        if (structured != null) {
+            return new Matrix3x3(structured, MatrixStructure.inverse(structure));
+        }
+        float det = determinant();
+        if (Math.abs(det) < 1e-12f) {
+            throw new ArithmeticException("Matrix is singular, cannot invert");
+        }
+
+        float a = data[0][0], b = data[0][1], c = data[0][2];
+        float d = data[1][0], e = data[1][1], f = data[1][2];
+        float g = data[2][0], h = data[2][1], i = data[2][2];
+
+        float invDet = 1.0f / det;
+        float[][] result = {
+                {(e * i - f * h) * invDet, (c * h - b * i) * invDet, (b * f - c * e) * invDet},
+                {(f * g - d * i) * invDet, (a * i - c * g) * invDet, (c * d - a * f) * invDet},
+                {(d * h - e * g) * invDet, (b * g - a * h) * invDet, (a * e - b * d) * invDet}
+        };
+
+        return new Matrix3x3(result, MatrixStructure.GENERAL);
+    }
+
+    // Метод Гаусса с выбором ведущего элемента по столбцу на локальных переменных: без промежуточных массивов.
+    // Порог - на ведущий элемент, как в LUDecomposition, а не на определитель: определитель хорошо
+    // обусловленной матрицы с малыми элементами сам по себе может быть меньше любого абсолютного порога.
+    @Override
+    public Vector3D solveLinearSystem(Vector3D vector) {
+        if (structure != MatrixStructure.GENERAL) {
+            float[] x = {vector.getX(), vector.getY(), vector.getZ()};
+            solveStructured(x);
+            return new Vector3D(x[0], x[1], x[2]);
+        }
+        // У неизменяемой хорошо обусловленной матрицы обратная вычисляется один раз, дальше решение -
+        // одно умножение; остальные решаются методом Гаусса
+        Matrix3x3 inverse = solvingInverse();
+        if (inverse != null) {
+            return inverse.multiply(vector);
+        }
+        return solveGauss(data, vector);
+    }
+
+    // Общий путь решения для 3x3, используется и CustomMatrix
+    static Vector3D solveGauss(float[][] data, Vector3D vector) {
+        float a00 = data[0][0], a01 = data[0][1], a02 = data[0][2], b0 = vector.getX();
+        float a10 = data[1][0], a11 = data[1][1], a12 = data[1][2], b1 = vector.getY();
+        float a20 = data[2][0], a21 = data[2][1], a22 = data[2][2], b2 = vector.getZ();
+        float t;
+
+        int p = pivotRow(a00, a10, a20);
+        if (p == 1) {
+            t = a00; a00 = a10; a10 = t; t = a01; a01 = a11; a11 = t;
+            t = a02; a02 = a12; a12 = t; t = b0; b0 = b1; b1 = t;
+        } else if (p == 2) {
+            t = a00; a00 = a20; a20 = t; t = a01; a01 = a21; a21 = t;
+            t = a02; a02 = a22; a22 = t; t = b0; b0 = b2; b2 = t;
+        }
+        checkPivot(a00);
+        float m = a10 / a00;
+        a11 -= m * a01; a12 -= m * a02; b1 -= m * b0;
+        m = a20 / a00;
+        a21 -= m * a01; a22 -= m * a02; b2 -= m * b0;
+
+        if (Math.abs(a21) > Math.abs(a11)) {
+            t = a11; a11 = a21; a21 = t; t = a12; a12 = a22; a22 = t; t = b1; b1 = b2; b2 = t;
+        }
+        checkPivot(a11);
+        m = a21 / a11;
+        a22 -= m * a12; b2 -= m * b1;
+        checkPivot(a22);
+
+        float z = b2 / a22;
+        float y = (b1 - a12 * z) / a11;
+        float x = (b0 - a01 * y - a02 * z) / a00;
+        return new Vector3D(x, y, z);
+    }
+
+    // Решение для симметричной положительно определенной матрицы разложением Холецкого
+    // без промежуточных массивов; используется нижний треугольник.
+    public Vector3D solveSPD(Vector3D b) {
+        float l00 = spdPivot(data[0][0]);
+        float l10 = data[1][0] / l00;
+        float l20 = data[2][0] / l00;
+        float l11 = spdPivot(data[1][1] - l10 * l10);
+        float l21 = (data[2][1] - l20 * l10) / l11;
+        float l22 = spdPivot(data[2][2] - l20 * l20 - l21 * l21);
+
+        float y0 = b.getX() / l00;
+        float y1 = (b.getY() - l10 * y0) / l11;
+        float y2 = (b.getZ() - l20 * y0 - l21 * y1) / l22;
+
+        float x2 = y2 / l22;
+        float x1 = (y1 - l21 * x2) / l11;
+        float x0 = (y0 - l10 * x1 - l20 * x2) / l00;
+        return new Vector3D(x0, x1, x2);
+    }
+
+    // Индекс элемента с наибольшим модулем; при равенстве - первый
+    static int pivotRow(float v0, float v1, float v2) {
+        float a0 = Math.abs(v0), a1 = Math.abs(v1), a2 = Math.abs(v2);
+        if (a1 > a0) {
+            return a2 > a1 ? 2 : 1;
+        }
+        return a2 > a0 ? 2 : 0;
+    }
+
+    static void checkPivot(float pivot) {
+        if (Math.abs(pivot) < 1e-12f) {
+            throw new ArithmeticException("Matrix is singular, cannot solve system");
+        }
+    }
+
+    static float spdPivot(float value) {
+        if (!(value > 0)) {
+            throw new ArithmeticException("Matrix is not positive definite");
+        }
+        return (float) Math.sqrt(value);
+    }
+}
@@ -0,0 +1,339 @@
+package math.engine.matrix;
+
+import math.engine.vector.Vector3D;
+import math.engine.vector.Vector4D;
+
+public final class Matrix4x4 extends AbstractMatrix<Matrix4x4, Vector4D> {
+
+    public Matrix4x4(float[][] data) {
+        super(data, 4, 4);
+    }
+
+    private Matrix4x4(float[][] data, boolean copy) {
+        super(data, 4, 4, copy);
+    }
+
+    private Matrix4x4(float[][] data, int structure) {
+        super(data, 4, 4, false, structure);
+    }
+
+    // Представление без копирования: матрица ссылается на строки data, изменения в них видны через матрицу.
+    // Хранилище матриц построчное (float[][]), поэтому плоский массив со смещением обернуть нельзя.
+    public static Matrix4x4 wrap(float[][] data) {
+        return new Matrix4x4(data, false);
+    }
+
+    // Результат, собранный в новом массиве классом пакета: массив не копируется, флаги и кэш сохраняются
+    static Matrix4x4 owned(float[][] data, int structure) {
+        return new Matrix4x4(data, structure);
+    }
+
+    @Override
+    protected Matrix4x4 createNew(float[][] data, int structure) {
+        return new Matrix4x4(data, structure);
+    }
+
+    public static Matrix4x4 identity() {
+        return new Matrix4x4(new float[][]{
+                {1, 0, 0, 0},
+                {0, 1, 0, 0},
+                {0, 0, 1, 0},
+                {0, 0, 0, 1}
+        }, MatrixStructure.IDENTITY);
+    }
+
+    public static Matrix4x4 zero() {
+        return new Matrix4x4(new float[4][4], MatrixStructure.DIAGONAL);
+    }
+
+    public static Matrix4x4 translation(float x, float y, float z) {
+        return new Matrix4x4(new float[][]{
+                {1, 0, 0, x},
+                {0, 1, 0, y},
+                {0, 0, 1, z},
+                {0, 0, 0, 1}
+        }, MatrixStructure.UPPER_TRIANGULAR | MatrixStructure.RIGID);
+    }
+
+    // Повороты вокруг осей на angle радиан
+    public static Matrix4x4 rotationX(float angle) {
+        float cos = (float) Math.cos(angle);
+        float sin = (float) Math.sin(angle);
+        return new Matrix4x4(new float[][]{
+                {1, 0, 0, 0},
+                {0, cos, -sin, 0},
+                {0, sin, cos, 0},
+                {0, 0, 0, 1}
+        }, MatrixStructure.ORTHONORMAL | MatrixStructure.RIGID);
+    }
+
+    public static Matrix4x4 rotationY(float angle) {
+        float cos = (float) Math.cos(angle);
+        float sin = (float) Math.sin(angle);
+        return new Matrix4x4(new float[][]{
+                {cos, 0, sin, 0},
+                {0, 1, 0, 0},
+                {-sin, 0, cos, 0},
+                {0, 0, 0, 1}
+        }, MatrixStructure.ORTHONORMAL | MatrixStructure.RIGID);
+    }
+
+    public static Matrix4x4 rotationZ(float angle) {
+        float cos = (float) Math.cos(angle);
+        float sin = (float) Math.sin(angle);
+        return new Matrix4x4(new float[][]{
+                {cos, -sin, 0, 0},
+                {sin, cos, 0, 0},
+                {0, 0, 1, 0},
+                {0, 0, 0, 1}
+        }, MatrixStructure.ORTHONORMAL | MatrixStructure.RIGID);
+    }
+
+    public static Matrix4x4 scale(float x, float y, float z) {
+        return new Matrix4x4(new float[][]{
+                {x, 0, 0, 0},
+                {0, y, 0, 0},
+                {0, 0, z, 0},
+                {0, 0, 0, 1}
+        }, MatrixStructure.DIAGONAL);
+    }
+
+    @Override
+    public Vector4D multiply(Vector4D vector) {
+        float x = data[0][0] * vector.getX() + data[0][1] * vector.getY() +
+                data[0][2] * vector.getZ() + data[0][3] * vector.getW();
+        float y = data[1][0] * vector.getX() + data[1][1] * vector.getY() +
+                data[1][2] * vector.getZ() + data[1][3] * vector.getW();
+        float z = data[2][0] * vector.getX() + data[2][1] * vector.getY() +
+                data[2][2] * vector.getZ() + data[2][3] * vector.getW();
+        float w = data[3][0] * vector.getX() + data[3][1] * vector.getY() +
+                data[3][2] * vector.getZ() + data[3][3] * vector.getW();
+        return new Vector4D(x, y, z, w);
+    }
+
+    // Точка (x, y, z, 1) с делением на w; единственный создаваемый объект - результат
+    public Vector3D multiply(Vector3D vector) {
+        float x = vector.getX(), y = vector.getY(), z = vector.getZ();
+        float w = data[3][0] * x + data[3][1] * y + data[3][2] * z + data[3][3];
+        if (Math.abs(w) < 1e-12f) {
+            throw new ArithmeticException("Cannot project vector with w=0");
+        }
+        return new Vector3D(
+                (data[0][0] * x + data[0][1] * y + data[0][2] * z + data[0][3]) / w,
+                (data[1][0] * x + data[1][1] * y + data[1][2] * z + data[1][3]) / w,
+                (data[2][0] * x + data[2][1] * y + data[2][2] * z + data[2][3]) / w);
+    }
+
+    /**
+     * Пакетное преобразование точек из плоского массива (x0, y0, z0, x1, ...) с делением на w,
+     * как в {@link #multiply(Vector3D)}. Точки с |w| < 1e-12 не бросают исключение, а записываются как NaN.
+     * dest может совпадать с source при равных смещениях.
+     *
+     * @return число точек, которые не удалось спроецировать
+     */
+    public int transformPoints(float[] source, int sourceOffset, float[] dest, int destOffset, int count) {
+        if (count < 0 || sourceOffset < 0 || destOffset < 0
+                || sourceOffset + 3 * count > source.length || destOffset + 3 * count > dest.length) {
+            throw new IllegalArgumentException("Array range out of bounds");
+        }
+        float m00 = data[0][0], m01 = data[0][1], m02 = data[0][2], m03 = data[0][3];
+        float m10 = data[1][0], m11 = data[1][1], m12 = data[1][2], m13 = data[1][3];
+        float m20 = data[2][0], m21 = data[2][1], m22 = data[2][2], m23 = data[2][3];
+        float m30 = data[3][0], m31 = data[3][1], m32 = data[3][2], m33 = data[3][3];
+        int failed = 0;
+        for (int i = 0; i < count; i++) {
+            int s = sourceOffset + 3 * i;
+            int d = destOffset + 3 * i;
+            float x = source[s], y = source[s + 1], z = source[s + 2];
+            float w = m30 * x + m31 * y + m32 * z + m33;
+            if (Math.abs(w) < 1e-12f) {
+                dest[d] = dest[d + 1] = dest[d + 2] = Float.NaN;
+                failed++;
+                continue;
+            }
+            dest[d] = (m00 * x + m01 * y + m02 * z + m03) / w;
+            dest[d + 1] = (m10 * x + m11 * y + m12 * z + m13) / w;
+            dest[d + 2] = (m20 * x + m21 * y + m22 * z + m23) / w;
+        }
+        return failed;
+    }
+
+    // Разложение Лапласа по двум верхним строкам: 12 миноров 2x2 вместо четырех матриц 3x3
+    @Override
+    protected float computeDeterminant() {
+        if (isTriangular()) {
+            return diagonalProduct();
+        }
+        float[] r0 = data[0], r1 = data[1], r2 = data[2], r3 = data[3];
+        float s0 = r0[0] * r1[1] - r1[0] * r0[1];
+        float s1 = r0[0] * r1[2] - r1[0] * r0[2];
+        float s2 = r0[0] * r1[3] - r1[0] * r0[3];
+        float s3 = r0[1] * r1[2] - r1[1] * r0[2];
+        float s4 = r0[1] * r1[3] - r1[1] * r0[3];
+        float s5 = r0[2] * r1[3] - r1[2] * r0[3];
+
+        float c5 = r2[2] * r3[3] - r3[2] * r2[3];
+        float c4 = r2[1] * r3[3] - r3[1] * r2[3];
+        float c3 = r2[1] * r3[2] - r3[1] * r2[2];
+        float c2 = r2[0] * r3[3] - r3[0] * r2[3];
+        float c1 = r2[0] * r3[2] - r3[0] * r2[2];
+        float c0 = r2[0] * r3[1] - r3[0] * r2[1];
+
+        return s0 * c5 - s1 * c4 + s2 * c3 + s3 * c2 - s4 * c1 + s5 * c0;
+    }
+
+    @Override
+    protected Matrix4x4 computeInverse() {
+        float[][] structured = structuredInverse();
+        if (structured != null) {
+            return new Matrix4x4(structured, MatrixStructure.inverse(structure));
+        }
+        float a00 = data[0][0], a01 = data[0][1], a02 = data[0][2], a03 = data[0][3];
+        float a10 = data[1][0], a11 = data[1][1], a12 = data[1][2], a13 = data[1][3];
+        float a20 = data[2][0], a21 = data[2][1], a22 = data[2][2], a23 = data[2][3];
+        float a30 = data[3][0], a31 = data[3][1], a32 = data[3][2], a33 = data[3][3];
+
+        float s0 = a00 * a11 - a10 * a01;
+        float s1 = a00 * a12 - a10 * a02;
+        float s2 = a00 * a13 - a10 * a03;
+        float s3 = a01 * a12 - a11 * a02;
+        float s4 = a01 * a13 - a11 * a03;
+        float s5 = a02 * a13 - a12 * a03;
+
+        float c5 = a22 * a33 - a32 * a23;
+        float c4 = a21 * a33 - a31 * a23;
+        float c3 = a21 * a32 - a31 * a22;
+        float c2 = a20 * a33 - a30 * a23;
+        float c1 = a20 * a32 - a30 * a22;
+        float c0 = a20 * a31 - a30 * a21;
+
+        float det = s0 * c5 - s1 * c4 + s2 * c3 + s3 * c2 - s4 * c1 + s5 * c0;
+        if (Math.abs(det) < 1e-12f) {
+            throw new ArithmeticException("Matrix is singular, cannot invert");
+        }
+        float invDet = 1.0f / det;
+
+        float[][] result = {
+                {
+                        (a11 * c5 - a12 * c4 + a13 * c3) * invDet,
+                        (-a01 * c5 + a02 * c4 - a03 * c3) * invDet,
+                        (a31 * s5 - a32 * s4 + a33 * s3) * invDet,
+                        (-a21 * s5 + a22 * s4 - a23 * s3) * invDet
+                },
+                {
+                        (-a10 * c5 + a12 * c2 - a13 * c1) * invDet,
+                        (a00 * c5 - a02 * c2 + a03 * c1) * invDet,
+                        (-a30 * s5 + a32 * s2 - a33 * s1) * invDet,
+                        (a20 * s5 - a22 * s2 + a23 * s1) * invDet
+                },
+                {
+                        (a10 * c4 - a11 * c2 + a13 * c0) * invDet,
+                        (-a00 * c4 + a01 * c2 - a03 * c0) * invDet,
+                        (a30 * s4 - a31 * s2 + a33 * s0) * invDet,
+                        (-a20 * s4 + a21 * s2 - a23 * s0) * invDet
+                },
+                {
+                        (-a10 * c3 + a11 * c1 - a12 * c0) * invDet,
+                        (a00 * c3 - a01 * c1 + a02 * c0) * invDet,
+                        (-a30 * s3 + a31 * s1 - a32 * s0) * invDet,
+                        (a20 * s3 - a21 * s1 + a22 * s0) * invDet
+                }
+        };
+        return new Matrix4x4(result, MatrixStructure.GENERAL);
+    }
+
+    // Метод Гаусса с выбором ведущего элемента по столбцу на локальных переменных, как в Matrix3x3
+    @Override
+    public Vector4D solveLinearSystem(Vector4D vector) {
+        if (structure != MatrixStructure.GENERAL) {
+            float[] x = {vector.getX(), vector.getY(), vector.getZ(), vector.getW()};
+            solveStructured(x);
+            return new Vector4D(x[0], x[1], x[2], x[3]);
+        }
+        // У неизменяемой хорошо обусловленной матрицы обратная вычисляется один раз, дальше решение -
+        // одно умножение; остальные решаются методом Гаусса
+        Matrix4x4 inverse = solvingInverse();
+        if (inverse != null) {
+            return inverse.multiply(vector);
+        }
+        float a00 = data[0][0], a01 = data[0][1], a02 = data[0][2], a03 = data[0][3], b0 = vector.getX();
+        float a10 = data[1][0], a11 = data[1][1], a12 = data[1][2], a13 = data[1][3], b1 = vector.getY();
+        float a20 = data[2][0], a21 = data[2][1], a22 = data[2][2], a23 = data[2][3], b2 = vector.getZ();
+        float a30 = data[3][0], a31 = data[3][1], a32 = data[3][2], a33 = data[3][3], b3 = vector.getW();
+        float t;
+
+        int p = Math.abs(a30) > Math.abs(a00) && Math.abs(a30) > Math.abs(a10) && Math.abs(a30) > Math.abs(a20)
+                ? 3 : Matrix3x3.pivotRow(a00, a10, a20);
+        if (p == 1) {
+            t = a00; a00 = a10; a10 = t; t = a01; a01 = a11; a11 = t; t = a02; a02 = a12; a12 = t;
+            t = a03; a03 = a13; a13 = t; t = b0; b0 = b1; b1 = t;
+        } else if (p == 2) {
+            t = a00; a00 = a20; a20 = t; t = a01; a01 = a21; a21 = t; t = a02; a02 = a22; a22 = t;
+            t = a03; a03 = a23; a23 = t; t = b0; b0 = b2; b2 = t;
+        } else if (p == 3) {
+            t = a00; a00 = a30; a30 = t; t = a01; a01 = a31; a31 = t; t = a02; a02 = a32; a32 = t;
+            t = a03; a03 = a33; a33 = t; t = b0; b0 = b3; b3 = t;
+        }
+        Matrix3x3.checkPivot(a00);
+        float m = a10 / a00;
+        a11 -= m * a01; a12 -= m * a02; a13 -= m * a03; b1 -= m * b0;
+        m = a20 / a00;
+        a21 -= m * a01; a22 -= m * a02; a23 -= m * a03; b2 -= m * b0;
+        m = a30 / a00;
+        a31 -= m * a01; a32 -= m * a02; a33 -= m * a03; b3 -= m * b0;
+
+        p = Matrix3x3.pivotRow(a11, a21, a31);
+        if (p == 1) {
+            t = a11; a11 = a21; a21 = t; t = a12; a12 = a22; a22 = t;
+            t = a13; a13 = a23; a23 = t; t = b1; b1 = b2; b2 = t;
+        } else if (p == 2) {
+            t = a11; a11 = a31; a31 = t; t = a12; a12 = a32; a32 = t;
+            t = a13; a13 = a33; a33 = t; t = b1; b1 = b3; b3 = t;
+        }
+        Matrix3x3.checkPivot(a11);
+        m = a21 / a11;
+        a22 -= m * a12; a23 -= m * a13; b2 -= m * b1;
+        m = a31 / a11;
+        a32 -= m * a12; a33 -= m * a13; b3 -= m * b1;
+
+        if (Math.abs(a32) > Math.abs(a22)) {
+            t = a22; a22 = a32; a32 = t; t = a23; a23 = a33; a33 = t; t = b2; b2 = b3; b3 = t;
+        }
+        Matrix3x3.checkPivot(a22);
+        m = a32 / a22;
+        a33 -= m * a23; b3 -= m * b2;
+        Matrix3x3.checkPivot(a33);
+
+        float w = b3 / a33;
+        float z = (b2 - a23 * w) / a22;
+        float y = (b1 - a12 * z - a13 * w) / a11;
+        float x = (b0 - a01 * y - a02 * z - a03 * w) / a00;
+        return new Vector4D(x, y, z, w);
+    }
+
+    // Решение для симметричной положительно определенной матрицы разложением Холецкого
+    // без промежуточных массивов; используется нижний треугольник.
+    public Vector4D solveSPD(Vector4D b) {
+        float l00 = Matrix3x3.spdPivot(data[0][0]);
+        float l10 = data[1][0] / l00;
+        float l20 = data[2][0] / l00;
+        float l30 = data[3][0] / l00;
+        float l11 = Matrix3x3.spdPivot(data[1][1] - l10 * l10);
+        float l21 = (data[2][1] - l20 * l10) / l11;
+        float l31 = (data[3][1] - l30 * l10) / l11;
+        float l22 = Matrix3x3.spdPivot(data[2][2] - l20 * l20 - l21 * l21);
+        float l32 = (data[3][2] - l30 * l20 - l31 * l21) / l22;
+        float l33 = Matrix3x3.spdPivot(data[3][3] - l30 * l30 - l31 * l31 - l32 * l32);
+
+        float y0 = b.getX() / l00;
+        float y1 = (b.getY() - l10 * y0) / l11;
+        float y2 = (b.getZ() - l20 * y0 - l21 * y1) / l22;
+        float y3 = (b.getW() - l30 * y0 - l31 * y1 - l32 * y2) / l33;
+
+        float x3 = y3 / l33;
+        float x2 = (y2 - l32 * x3) / l22;
+        float x1 = (y1 - l21 * x2 - l31 * x3) / l11;
+        float x0 = (y0 - l10 * x1 - l20 * x2 - l30 * x3) / l00;
+        return new Vector4D(x0, x1, x2, x3);
+    }
+}
@@ -0,0 +1,230 @@
+package math.engine.matrix;
+
+import math.engine.vector.Vector;
+import math.engine.vector.VectorN;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Произведение цепочки матриц A0 * A1 * ... * Ak-1 (и, возможно, вектора в конце) в оптимальном порядке.
+ * Порядок выбирается динамическим программированием по размерностям за O(k^3): стоимость произведения
+ * p x q на q x r - 2 * p * q * r операций с плавающей точкой. Для цепочки 10x100, 100x5, 5x50
+ * вычисление слева направо стоит 15 000 операций, а справа налево - 150 000.
+ *
+ * План строится один раз и может выполняться многократно: содержимое матриц перечитывается при каждом
+ * вызове {@link #multiply()}, поэтому для wrap-представлений видны изменения исходных массивов.
+ * Промежуточные произведения пишутся в буферы, которые возвращаются в пул после использования
+ * и переиспользуются в последующих вызовах. Объект не потокобезопасен.
+ */
+public final class MatrixChain {
+
+    private final Matrix<?, ?>[] matrices;
+    private final Vector<?> vector;
+    private final int count;
+    private final int[] dims;
+    private final int[][] split;
+    private final long flops;
+    private final long leftToRightFlops;
+    private final float[][] inputs;
+    private final List<float[]> scratch = new ArrayList<>();
+
+    private MatrixChain(Matrix<?, ?>[] matrices, Vector<?> vector) {
+        if (matrices.length == 0) {
+            throw new IllegalArgumentException("Chain must contain at least one matrix");
+        }
+        this.matrices = matrices.clone();
+        this.vector = vector;
+        this.count = matrices.length + (vector != null ? 1 : 0);
+        this.dims = new int[count + 1];
+        dims[0] = matrices[0].getRows();
+        for (int i = 0; i < matrices.length; i++) {
+            if (matrices[i].getRows() != dims[i]) {
+                throw new IllegalArgumentException("Matrix dimensions don't match for multiplication");
+            }
+            dims[i + 1] = matrices[i].getCols();
+        }
+        if (vector != null) {
+            if (vector.getDimensions() != dims[matrices.length]) {
+                throw new IllegalArgumentException("Matrix and vector dimensions don't match");
+            }
+            dims[count] = 1;
+        }
+
+        long[][] cost = new long[count][count];
+        split = new int[count][count];
+        for (int length = 2; length <= count; length++) {
+            for (int i = 0; i + length - 1 < count; i++) {
+                int j = i + length - 1;
+                cost[i][j] = Long.MAX_VALUE;
+                for (int s = i; s < j; s++) {
+                    long c = cost[i][s] + cost[s + 1][j] + productFlops(dims[i], dims[s + 1], dims[j + 1]);
+                    if (c < cost[i][j]) {
+                        cost[i][j] = c;
+                        split[i][j] = s;
+                    }
+                }
+            }
+        }
+        flops = cost[0][count - 1];
+
+        long sequential = 0;
+        for (int t = 1; t < count; t++) {
+            sequential += productFlops(dims[0], dims[t], dims[t + 1]);
+        }
+        leftToRightFlops = sequential;
+
+        inputs = new float[count][];
+        for (int i = 0; i < count; i++) {
+            inputs[i] = new float[dims[i] * dims[i + 1]];
+        }
+    }
+
+    public static MatrixChain of(Matrix<?, ?>... matrices) {
+        return new MatrixChain(matrices, null);
+    }
+
+    // Вектор в конце цепочки рассматривается как матрица n x 1
+    public static MatrixChain of(Matrix<?, ?>[] matrices, Vector<?> vector) {
+        if (vector == null) {
+            throw new IllegalArgumentException("Vector must not be null");
+        }
+        return new MatrixChain(matrices, vector);
+    }
+
+    // Число операций с плавающей точкой в выбранном порядке
+    public long getFlops() {
+        return flops;
+    }
+
+    public long getLeftToRightFlops() {
+        return leftToRightFlops;
+    }
+
+    // Расстановка скобок, например "((A0 A1) (A2 v))"
+    public String getOrder() {
+        StringBuilder order = new StringBuilder();
+        appendOrder(order, 0, count - 1);
+        return order.toString();
+    }
+
+    // Новая матрица, которой владеет результат: флаги - произведение текущих флагов множителей
+    public MatrixN multiply() {
+        return MatrixN.owned(DenseKernels.unflatten(evaluate(), dims[0], dims[count]), structure());
+    }
+
+    // У wrap-представлений и реализаций Matrix вне AbstractMatrix флаги GENERAL
+    private int structure() {
+        if (vector != null) {
+            return MatrixStructure.GENERAL;
+        }
+        int result = MatrixStructure.IDENTITY;
+        for (Matrix<?, ?> matrix : matrices) {
+            int flags = matrix instanceof AbstractMatrix ? ((AbstractMatrix<?, ?>) matrix).getStructure() : MatrixStructure.GENERAL;
+            result = MatrixStructure.product(result, flags);
+        }
+        return result;
+    }
+
+    public VectorN multiplyVector() {
+        if (vector == null) {
+            throw new IllegalStateException("Chain does not end with a vector");
+        }
+        return VectorN.wrap(evaluate(), 0, dims[0]);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MatrixChain[%s, %d flops, left to right %d]", getOrder(), flops, leftToRightFlops);
+    }
+
+    private float[] evaluate() {
+        for (int i = 0; i < matrices.length; i++) {
+            load(matrices[i], inputs[i]);
+        }
+        if (vector != null) {
+            float[] v = inputs[count - 1];
+            if (vector instanceof VectorN) {
+                ((VectorN) vector).copyTo(v, 0);
+            } else {
+                for (int i = 0; i < v.length; i++) {
+                    v[i] = vector.getComponent(i);
+                }
+            }
+        }
+        float[] result = new float[dims[0] * dims[count]];
+        if (count == 1) {
+            System.arraycopy(inputs[0], 0, result, 0, result.length);
+        } else {
+            product(0, count - 1, result);
+        }
+        return result;
+    }
+
+    // Произведение звеньев [i, j]; dest == null - результат в буфер из пула
+    private float[] product(int i, int j, float[] dest) {
+        if (i == j) {
+            return inputs[i];
+        }
+        int s = split[i][j];
+        float[] left = product(i, s, null);
+        float[] right = product(s + 1, j, null);
+        int size = dims[i] * dims[j + 1];
+        float[] out = dest != null ? dest : acquire(size);
+        Arrays.fill(out, 0, size, 0);
+        DenseKernels.multiplyAdd(left, right, out, dims[i], dims[s + 1], dims[j + 1]);
+        if (s > i) {
+            scratch.add(left);
+        }
+        if (j > s + 1) {
+            scratch.add(right);
+        }
+        return out;
+    }
+
+    // Наименьший подходящий буфер из пула
+    private float[] acquire(int size) {
+        int best = -1;
+        for (int b = 0; b < scratch.size(); b++) {
+            int length = scratch.get(b).length;
+            if (length >= size && (best < 0 || length < scratch.get(best).length)) {
+                best = b;
+            }
+        }
+        return best >= 0 ? scratch.remove(best) : new float[size];
+    }
+
+    private static void load(Matrix<?, ?> matrix, float[] dest) {
+        int rows = matrix.getRows();
+        int cols = matrix.getCols();
+        if (matrix instanceof AbstractMatrix) {
+            float[][] data = ((AbstractMatrix<?, ?>) matrix).data;
+            for (int i = 0; i < rows; i++) {
+                System.arraycopy(data[i], 0, dest, i * cols, cols);
+            }
+            return;
+        }
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                dest[i * cols + j] = matrix.get(i, j);
+            }
+        }
+    }
+
+    private void appendOrder(StringBuilder order, int i, int j) {
+        if (i == j) {
+            order.append(vector != null && i == count - 1 ? "v" : "A" + i);
+            return;
+        }
+        order.append('(');
+        appendOrder(order, i, split[i][j]);
+        order.append(' ');
+        appendOrder(order, split[i][j] + 1, j);
+        order.append(')');
+    }
+
+    private static long productFlops(int p, int q, int r) {
+        return 2L * p * q * r;
+    }
+}
@@ -0,0 +1,150 @@
+package math.engine.matrix;
+
+import math.engine.vector.VectorN;
+
+public final class MatrixN extends AbstractMatrix<MatrixN, VectorN> {
+
+    public MatrixN(float[][] data) {
+        super(data, rowCount(data), columnCount(data));
+    }
+
+    private MatrixN(float[][] data, boolean copy) {
+        super(data, rowCount(data), columnCount(data), copy);
+    }
+
+    private MatrixN(float[][] data, int structure) {
+        super(data, rowCount(data), columnCount(data), false, structure);
+    }
+
+    // Представление без копирования: матрица ссылается на строки data, изменения в них видны через матрицу.
+    public static MatrixN wrap(float[][] data) {
+        return new MatrixN(data, false);
+    }
+
+    // Результат, собранный в новом массиве классом пакета: массив не копируется, флаги и кэш сохраняются
+    static MatrixN owned(float[][] data, int structure) {
+        return new MatrixN(data, structure);
+    }
+
+    public static MatrixN identity(int size) {
+        float[][] data = new float[size][size];
+        for (int i = 0; i < size; i++) {
+            data[i][i] = 1;
+        }
+        return new MatrixN(data, MatrixStructure.IDENTITY);
+    }
+
+    public static MatrixN zero(int rows, int cols) {
+        return new MatrixN(new float[rows][cols], MatrixStructure.DIAGONAL);
+    }
+
+    public static MatrixN diagonal(float... values) {
+        float[][] data = new float[values.length][values.length];
+        for (int i = 0; i < values.length; i++) {
+            data[i][i] = values[i];
+        }
+        return new MatrixN(data, MatrixStructure.DIAGONAL);
+    }
+
+    @Override
+    protected MatrixN createNew(float[][] data, int structure) {
+        return new MatrixN(data, structure);
+    }
+
+    @Override
+    public MatrixN multiply(MatrixN other) {
+        return multiply(other, MultiplicationStrategy.BLOCKED);
+    }
+
+    public MatrixN multiply(MatrixN other, MultiplicationStrategy strategy) {
+        if (this.cols != other.rows) {
+            throw new IllegalArgumentException("Matrix dimensions don't match for multiplication");
+        }
+        MatrixN structured = multiplyStructured(other);
+        if (structured != null) {
+            return structured;
+        }
+        if (strategy == MultiplicationStrategy.NAIVE) {
+            return super.multiply(other);
+        }
+        float[] a = DenseKernels.flatten(data, rows, cols);
+        float[] b = DenseKernels.flatten(other.data, other.rows, other.cols);
+        // Для прямоугольных матриц Штрассен-Виноград не применяется, используется блочное умножение
+        if (strategy == MultiplicationStrategy.STRASSEN_WINOGRAD && rows == cols && other.rows == other.cols) {
+            float[] c = DenseKernels.multiplyStrassen(a, b, rows, DenseKernels.STRASSEN_CUTOFF);
+            return createNew(DenseKernels.unflatten(c, rows, rows), MatrixStructure.product(structure, other.structure));
+        }
+        float[] c = new float[rows * other.cols];
+        DenseKernels.multiplyAdd(a, b, c, rows, cols, other.cols);
+        return createNew(DenseKernels.unflatten(c, rows, other.cols), MatrixStructure.product(structure, other.structure));
+    }
+
+    // Произведение цепочки матриц в порядке с наименьшим числом операций, см. MatrixChain
+    public static MatrixN multiplyChain(Matrix<?, ?>... matrices) {
+        return MatrixChain.of(matrices).multiply();
+    }
+
+    public static VectorN multiplyChain(Matrix<?, ?>[] matrices, VectorN vector) {
+        return MatrixChain.of(matrices, vector).multiplyVector();
+    }
+
+    @Override
+    public VectorN multiply(VectorN vector) {
+        if (vector.getDimensions() != cols) {
+            throw new IllegalArgumentException("Matrix and vector dimensions don't match");
+        }
+        float[] x = new float[cols];
+        vector.copyTo(x, 0);
+        float[] result = new float[rows];
+        for (int i = 0; i < rows; i++) {
+            float[] row = data[i];
+            float sum = 0;
+            for (int j = 0; j < cols; j++) {
+                sum += row[j] * x[j];
+            }
+            result[i] = sum;
+        }
+        return VectorN.wrap(result, 0, rows);
+    }
+
+    @Override
+    protected MatrixN computeInverse() {
+        checkSquare();
+        return super.computeInverse();
+    }
+
+    @Override
+    public VectorN solveLinearSystem(VectorN vector) {
+        checkSquare();
+        if (vector.getDimensions() != rows) {
+            throw new IllegalArgumentException("Matrix and vector dimensions don't match");
+        }
+        if (structure != MatrixStructure.GENERAL) {
+            float[] x = new float[rows];
+            vector.copyTo(x, 0);
+            solveStructured(x);
+            return VectorN.wrap(x, 0, rows);
+        }
+        return lu().solve(vector);
+    }
+
+    private void checkSquare() {
+        if (rows != cols) {
+            throw new IllegalArgumentException("Matrix must be square");
+        }
+    }
+
+    private static int rowCount(float[][] data) {
+        if (data == null || data.length == 0) {
+            throw new IllegalArgumentException("Invalid matrix dimensions");
+        }
+        return data.length;
+    }
+
+    private static int columnCount(float[][] data) {
+        if (data[0] == null || data[0].length == 0) {
+            throw new IllegalArgumentException("Invalid matrix dimensions");
+        }
+        return data[0].length;
+    }
+}
@@ -0,0 +1,126 @@
+package math.engine.matrix;
+
+/**
+ * Флаги структуры квадратной матрицы, по которым умножение, обращение, определитель и решение систем
+ * выбирают специализированные пути за O(n) или O(n^2) вместо общих за O(n^3).
+ *
+ * Флаги выставляют фабрики (identity, zero, rotationX, scale, translation и т.д.), копирующие конструкторы
+ * по точным нулям в данных, и операции по правилам ниже. wrap-представления и результаты, про которые
+ * ничего не известно, имеют флаги GENERAL: содержимое чужого массива может измениться после проверки.
+ * ORTHONORMAL и RIGID не проверяются по данным: для float они выполняются лишь приближенно, поэтому
+ * ставятся только фабриками поворотов и сохраняются в произведениях. Ошибка ортогональности при этом
+ * накапливается как в обычном произведении, и inverse() через транспонирование возвращает обратную
+ * с той же точностью.
+ *
+ * DIAGONAL = UPPER_TRIANGULAR | LOWER_TRIANGULAR, а IDENTITY включает все флаги, поэтому
+ * проверка hasStructure(DIAGONAL) верна и для единичной матрицы.
+ */
+public final class MatrixStructure {
+
+    public static final int GENERAL = 0;
+    public static final int UPPER_TRIANGULAR = 1;
+    public static final int LOWER_TRIANGULAR = 1 << 1;
+    public static final int DIAGONAL = UPPER_TRIANGULAR | LOWER_TRIANGULAR;
+    // Q^T Q = I: обратная - транспонированная
+    public static final int ORTHONORMAL = 1 << 2;
+    // Только 4x4: аффинное преобразование [R t; 0 1] с ортонормированной R, обратная - [R^T -R^T t; 0 1]
+    public static final int RIGID = 1 << 3;
+    public static final int IDENTITY = (1 << 4) | DIAGONAL | ORTHONORMAL | RIGID;
+
+    private static final int TRIANGULAR = UPPER_TRIANGULAR | LOWER_TRIANGULAR;
+
+    private MatrixStructure() {}
+
+    public static boolean has(int structure, int flags) {
+        return (structure & flags) == flags;
+    }
+
+    // Произведение сохраняет общие флаги: треугольные одного вида, ортонормированные и жесткие преобразования
+    public static int product(int left, int right) {
+        if (has(left, IDENTITY)) {
+            return right;
+        }
+        if (has(right, IDENTITY)) {
+            return left;
+        }
+        return left & right & (TRIANGULAR | ORTHONORMAL | RIGID);
+    }
+
+    // Верхняя треугольная становится нижней; смещение жесткого преобразования после транспонирования теряется
+    public static int transpose(int structure) {
+        if (has(structure, IDENTITY)) {
+            return structure;
+        }
+        int result = structure & ORTHONORMAL;
+        if ((structure & UPPER_TRIANGULAR) != 0) result |= LOWER_TRIANGULAR;
+        if ((structure & LOWER_TRIANGULAR) != 0) result |= UPPER_TRIANGULAR;
+        return result;
+    }
+
+    // Обратная матрица сохраняет все флаги
+    public static int inverse(int structure) {
+        return structure;
+    }
+
+    // Умножение на число и поэлементные сумма и разность сохраняют только расположение нулей
+    public static int scale(int structure, float scalar) {
+        return scalar == 1 ? structure : structure & TRIANGULAR;
+    }
+
+    public static int sum(int left, int right) {
+        return left & right & TRIANGULAR;
+    }
+
+    // Структура по точным нулям в данных; ORTHONORMAL и RIGID по данным не определяются
+    static int detect(float[][] data, int rows, int cols) {
+        if (rows != cols) {
+            return GENERAL;
+        }
+        int n = rows;
+        boolean upper = true;
+        for (int i = 1; i < n && upper; i++) {
+            for (int j = 0; j < i; j++) {
+                if (data[i][j] != 0) {
+                    upper = false;
+                    break;
+                }
+            }
+        }
+        boolean lower = true;
+        for (int i = 0; i < n - 1 && lower; i++) {
+            for (int j = i + 1; j < n; j++) {
+                if (data[i][j] != 0) {
+                    lower = false;
+                    break;
+                }
+            }
+        }
+        int result = (upper ? UPPER_TRIANGULAR : 0) | (lower ? LOWER_TRIANGULAR : 0);
+        if (result == DIAGONAL) {
+            for (int i = 0; i < n; i++) {
+                if (data[i][i] != 1) {
+                    return result;
+                }
+            }
+            return IDENTITY;
+        }
+        return result;
+    }
+
+    // Например "UPPER_TRIANGULAR|RIGID"; для отладки и сообщений
+    public static String describe(int structure) {
+        if (structure == GENERAL) return "GENERAL";
+        if (has(structure, IDENTITY)) return "IDENTITY";
+        StringBuilder sb = new StringBuilder();
+        if (has(structure, DIAGONAL)) {
+            sb.append("DIAGONAL");
+        } else if ((structure & UPPER_TRIANGULAR) != 0) {
+            sb.append("UPPER_TRIANGULAR");
+        } else if ((structure & LOWER_TRIANGULAR) != 0) {
+            sb.append("LOWER_TRIANGULAR");
+        }
+        if ((structure & ORTHONORMAL) != 0) sb.append(sb.length() > 0 ? "|" : "").append("ORTHONORMAL");
+        if ((structure & RIGID) != 0) sb.append(sb.length() > 0 ? "|" : "").append("RIGID");
+        return sb.toString();
+    }
+}
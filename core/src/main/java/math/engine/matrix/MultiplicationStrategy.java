@@ -0,0 +1,18 @@
+package math.engine.matrix;
+
+public enum MultiplicationStrategy {
+
+    // Классический цикл i-j-k из AbstractMatrix.multiply
+    NAIVE,
+
+    // Порядок i-k-j с блоками 64x64 и параллельной обработкой полос строк.
+    // Ошибка та же, что у классического алгоритма: |C - C'| <= n * u * |A| * |B| поэлементно, u = 2^-24.
+    BLOCKED,
+
+    // Рекурсия Штрассена-Винограда (7 умножений и 15 сложений на уровне) до порога, ниже - BLOCKED.
+    // Только для квадратных матриц; для прямоугольных используется BLOCKED.
+    // Оценка ошибки лишь нормовая, а не поэлементная: ||C - C'|| <= c * (n / n0)^log2(18) * n0^2 * u * ||A|| * ||B||,
+    // где n0 - порог перехода. Малые элементы результата при большом разбросе величин во входных
+    // матрицах могут терять все значащие цифры, поэтому стратегия выбирается только явно.
+    STRASSEN_WINOGRAD
+}
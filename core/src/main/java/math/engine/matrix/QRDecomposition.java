@@ -0,0 +1,254 @@
+package math.engine.matrix;
+
+import math.engine.internal.ParallelRange;
+import math.engine.vector.VectorN;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * QR-разложение отражениями Хаусхолдера для матриц m x n, m >= n.
+ * Задача наименьших квадратов min ||A x - b|| решается через R x = Q^T b без нормальных уравнений,
+ * поэтому число обусловленности не возводится в квадрат.
+ */
+public final class QRDecomposition {
+
+    private final int m;
+    private final int n;
+    // Построчно m x n: над диагональю - R, на диагонали и ниже - векторы Хаусхолдера (v_k[k] = 1 не хранится)
+    private final float[] qr;
+    private final float[] rDiagonal;
+    private final float[] tau;
+
+    private QRDecomposition(int m, int n, float[] qr, float[] rDiagonal, float[] tau) {
+        this.m = m;
+        this.n = n;
+        this.qr = qr;
+        this.rDiagonal = rDiagonal;
+        this.tau = tau;
+    }
+
+    public static QRDecomposition of(AbstractMatrix<?, ?> matrix) {
+        int m = matrix.rows;
+        int n = matrix.cols;
+        if (m < n) {
+            throw new IllegalArgumentException("QR decomposition requires rows >= cols");
+        }
+        float[] qr = DenseKernels.flatten(matrix.data, m, n);
+        float[] rDiagonal = new float[n];
+        float[] tau = new float[n];
+        factor(qr, 0, m, n, rDiagonal, 0, tau, 0);
+        return new QRDecomposition(m, n, qr, rDiagonal, tau);
+    }
+
+    public int getRows() {
+        return m;
+    }
+
+    public int getCols() {
+        return n;
+    }
+
+    // Полный ранг по столбцам с относительным порогом по диагонали R
+    public boolean isFullRank() {
+        return isFullRank(rDiagonal, 0, n);
+    }
+
+    public MatrixN getR() {
+        float[][] r = new float[n][n];
+        for (int i = 0; i < n; i++) {
+            r[i][i] = rDiagonal[i];
+            for (int j = i + 1; j < n; j++) {
+                r[i][j] = qr[i * n + j];
+            }
+        }
+        return MatrixN.wrap(r);
+    }
+
+    // Экономичная Q размера m x n
+    public MatrixN getQ() {
+        float[] columns = new float[n * m];
+        for (int j = 0; j < n; j++) {
+            columns[j * m + j] = 1;
+            applyQ(qr, 0, m, n, tau, 0, columns, j * m);
+        }
+        return MatrixN.wrap(CholeskyDecomposition.fromColumnMajor(columns, m, n));
+    }
+
+    public VectorN solveLeastSquares(VectorN b) {
+        if (b.getDimensions() != m) {
+            throw new IllegalArgumentException("Matrix and vector dimensions don't match");
+        }
+        checkFullRank();
+        float[] y = new float[m];
+        b.copyTo(y, 0);
+        solve(qr, 0, m, n, rDiagonal, 0, tau, 0, y, 0);
+        return VectorN.wrap(y, 0, n);
+    }
+
+    // Несколько правых частей - столбцы rhs (m x k); результат n x k
+    public MatrixN solveLeastSquares(MatrixN rhs) {
+        if (rhs.getRows() != m) {
+            throw new IllegalArgumentException("Matrix dimensions don't match");
+        }
+        checkFullRank();
+        int k = rhs.getCols();
+        float[] columns = CholeskyDecomposition.columnMajor(rhs.data, m, k);
+        ParallelRange.forRange(0, k, Math.max(1, 4096 / m), (from, to) -> {
+            for (int c = from; c < to; c++) {
+                solve(qr, 0, m, n, rDiagonal, 0, tau, 0, columns, c * m);
+            }
+        });
+        float[][] result = new float[n][k];
+        for (int i = 0; i < n; i++) {
+            for (int c = 0; c < k; c++) {
+                result[i][c] = columns[c * m + i];
+            }
+        }
+        return MatrixN.wrap(result);
+    }
+
+    /**
+     * Пакетное решение count независимых задач наименьших квадратов m x n (например, m точек и n = 3
+     * для подгонки плоскости z = a x + b y + c). Матрицы лежат подряд в a построчно (count * m * n),
+     * правые части - в b (count * m), решения записываются в x начиная с xOffset (count * n).
+     * Рабочие буферы выделяются один раз на поток-участок, а не на задачу; входные массивы не изменяются.
+     * Задачи неполного ранга получают NaN во всех компонентах решения.
+     *
+     * @return число задач неполного ранга
+     */
+    public static int solveLeastSquaresBatch(int count, int m, int n, float[] a, float[] b, float[] x, int xOffset) {
+        if (m < n || n <= 0) {
+            throw new IllegalArgumentException("Least squares requires rows >= cols > 0");
+        }
+        if (a.length < (long) count * m * n || b.length < (long) count * m
+                || xOffset < 0 || x.length < xOffset + (long) count * n) {
+            throw new IllegalArgumentException("Array is too small for the batch");
+        }
+        AtomicInteger deficient = new AtomicInteger();
+        ParallelRange.forRange(0, count, (int) Math.max(1, 8192 / ((long) m * n)), (from, to) -> {
+            float[] work = new float[m * n];
+            float[] y = new float[m];
+            float[] rDiagonal = new float[n];
+            float[] tau = new float[n];
+            int failed = 0;
+            for (int p = from; p < to; p++) {
+                System.arraycopy(a, p * m * n, work, 0, m * n);
+                System.arraycopy(b, p * m, y, 0, m);
+                factor(work, 0, m, n, rDiagonal, 0, tau, 0);
+                int out = xOffset + p * n;
+                if (!isFullRank(rDiagonal, 0, n)) {
+                    Arrays.fill(x, out, out + n, Float.NaN);
+                    failed++;
+                    continue;
+                }
+                solve(work, 0, m, n, rDiagonal, 0, tau, 0, y, 0);
+                System.arraycopy(y, 0, x, out, n);
+            }
+            if (failed > 0) {
+                deficient.addAndGet(failed);
+            }
+        });
+        return deficient.get();
+    }
+
+    private void checkFullRank() {
+        if (!isFullRank()) {
+            throw new ArithmeticException("Matrix is rank deficient, cannot solve least squares");
+        }
+    }
+
+    // Разложение на месте участка a[offset ..] размера m x n построчно.
+    static void factor(float[] a, int offset, int m, int n, float[] rDiagonal, int rOffset, float[] tau, int tauOffset) {
+        for (int k = 0; k < n; k++) {
+            double norm = 0;
+            for (int i = k; i < m; i++) {
+                double value = a[offset + i * n + k];
+                norm += value * value;
+            }
+            norm = Math.sqrt(norm);
+            if (norm == 0) {
+                rDiagonal[rOffset + k] = 0;
+                tau[tauOffset + k] = 0;
+                continue;
+            }
+            double akk = a[offset + k * n + k];
+            // Знак выбирается так, чтобы не было вычитания близких чисел
+            double alpha = akk > 0 ? -norm : norm;
+            double v0 = akk - alpha;
+            for (int i = k + 1; i < m; i++) {
+                a[offset + i * n + k] = (float) (a[offset + i * n + k] / v0);
+            }
+            double t = -v0 / alpha;
+            rDiagonal[rOffset + k] = (float) alpha;
+            tau[tauOffset + k] = (float) t;
+
+            for (int j = k + 1; j < n; j++) {
+                double dot = a[offset + k * n + j];
+                for (int i = k + 1; i < m; i++) {
+                    dot += (double) a[offset + i * n + k] * a[offset + i * n + j];
+                }
+                dot *= t;
+                a[offset + k * n + j] -= (float) dot;
+                for (int i = k + 1; i < m; i++) {
+                    a[offset + i * n + j] -= (float) (dot * a[offset + i * n + k]);
+                }
+            }
+        }
+    }
+
+    // y[yOffset .. + m) := Q^T y, затем обратная подстановка R x = (Q^T y)[0 .. n); x пишется в начало y
+    static void solve(float[] a, int offset, int m, int n, float[] rDiagonal, int rOffset,
+                      float[] tau, int tauOffset, float[] y, int yOffset) {
+        for (int k = 0; k < n; k++) {
+            float t = tau[tauOffset + k];
+            if (t == 0) continue;
+            double dot = y[yOffset + k];
+            for (int i = k + 1; i < m; i++) {
+                dot += (double) a[offset + i * n + k] * y[yOffset + i];
+            }
+            dot *= t;
+            y[yOffset + k] -= (float) dot;
+            for (int i = k + 1; i < m; i++) {
+                y[yOffset + i] -= (float) (dot * a[offset + i * n + k]);
+            }
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            double sum = y[yOffset + i];
+            for (int j = i + 1; j < n; j++) {
+                sum -= (double) a[offset + i * n + j] * y[yOffset + j];
+            }
+            y[yOffset + i] = (float) (sum / rDiagonal[rOffset + i]);
+        }
+    }
+
+    // y := Q y (отражения в обратном порядке)
+    private static void applyQ(float[] a, int offset, int m, int n, float[] tau, int tauOffset, float[] y, int yOffset) {
+        for (int k = n - 1; k >= 0; k--) {
+            float t = tau[tauOffset + k];
+            if (t == 0) continue;
+            double dot = y[yOffset + k];
+            for (int i = k + 1; i < m; i++) {
+                dot += (double) a[offset + i * n + k] * y[yOffset + i];
+            }
+            dot *= t;
+            y[yOffset + k] -= (float) dot;
+            for (int i = k + 1; i < m; i++) {
+                y[yOffset + i] -= (float) (dot * a[offset + i * n + k]);
+            }
+        }
+    }
+
+    static boolean isFullRank(float[] rDiagonal, int offset, int n) {
+        float max = 0;
+        for (int i = 0; i < n; i++) {
+            max = Math.max(max, Math.abs(rDiagonal[offset + i]));
+        }
+        float threshold = max * n * 1.2e-7f;
+        if (max == 0) return false;
+        for (int i = 0; i < n; i++) {
+            if (Math.abs(rDiagonal[offset + i]) <= threshold) return false;
+        }
+        return true;
+    }
+}
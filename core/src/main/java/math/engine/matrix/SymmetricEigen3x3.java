@@ -0,0 +1,182 @@
+package math.engine.matrix;
+
+import math.engine.internal.ParallelRange;
+import math.engine.vector.Vector3D;
+
+/**
+ * Разложение симметричной матрицы 3x3 методом Якоби.
+ * Собственные значения упорядочены по возрастанию, собственные векторы ортонормированы.
+ */
+public final class SymmetricEigen3x3 {
+
+    private static final int MAX_SWEEPS = 32;
+    private static final int PARALLEL_GRAIN = 1024;
+
+    private final float[] eigenvalues;
+    private final float[] eigenvectors;
+
+    private SymmetricEigen3x3(float[] eigenvalues, float[] eigenvectors) {
+        this.eigenvalues = eigenvalues;
+        this.eigenvectors = eigenvectors;
+    }
+
+    // Используется только верхний треугольник матрицы.
+    public static SymmetricEigen3x3 of(Matrix3x3 matrix) {
+        double[] work = new double[18];
+        work[0] = matrix.get(0, 0);
+        work[1] = matrix.get(0, 1);
+        work[2] = matrix.get(0, 2);
+        work[4] = matrix.get(1, 1);
+        work[5] = matrix.get(1, 2);
+        work[8] = matrix.get(2, 2);
+        float[] values = new float[3];
+        float[] vectors = new float[9];
+        solve(work, values, 0, vectors, 0);
+        return new SymmetricEigen3x3(values, vectors);
+    }
+
+    // Пакетный путь без выделений на матрицу. Вход - по 6 элементов (xx, xy, xz, yy, yz, zz),
+    // выход - по 3 собственных значения и по 9 компонент собственных векторов (вектор i - элементы 3i..3i+2).
+    public static void decompose(float[] covariances, int count, float[] eigenvalues, float[] eigenvectors) {
+        checkBatch(covariances, count, eigenvalues.length < 3L * count || eigenvectors.length < 9L * count);
+        ParallelRange.forRange(0, count, PARALLEL_GRAIN, (from, to) -> {
+            double[] work = new double[18];
+            for (int m = from; m < to; m++) {
+                load(covariances, 6 * m, work);
+                solve(work, eigenvalues, 3 * m, eigenvectors, 9 * m);
+            }
+        });
+    }
+
+    // Нормали облака точек: собственный вектор наименьшего собственного значения, по 3 компоненты.
+    public static void smallestEigenvectors(float[] covariances, int count, float[] normals) {
+        checkBatch(covariances, count, normals.length < 3L * count);
+        ParallelRange.forRange(0, count, PARALLEL_GRAIN, (from, to) -> {
+            double[] work = new double[18];
+            for (int m = from; m < to; m++) {
+                load(covariances, 6 * m, work);
+                jacobi(work);
+                int min = 0;
+                if (work[4] < work[min * 4]) min = 1;
+                if (work[8] < work[min * 4]) min = 2;
+                normals[3 * m] = (float) work[9 + min];
+                normals[3 * m + 1] = (float) work[12 + min];
+                normals[3 * m + 2] = (float) work[15 + min];
+            }
+        });
+    }
+
+    public float getEigenvalue(int index) {
+        checkIndex(index);
+        return eigenvalues[index];
+    }
+
+    public Vector3D getEigenvector(int index) {
+        checkIndex(index);
+        return new Vector3D(eigenvectors[3 * index], eigenvectors[3 * index + 1], eigenvectors[3 * index + 2]);
+    }
+
+    // Собственные векторы по столбцам: A = V * diag(lambda) * V^T
+    public Matrix3x3 getEigenvectors() {
+        float[] v = eigenvectors;
+        return new Matrix3x3(new float[][]{
+                {v[0], v[3], v[6]},
+                {v[1], v[4], v[7]},
+                {v[2], v[5], v[8]}
+        });
+    }
+
+    private static void load(float[] covariances, int offset, double[] work) {
+        work[0] = covariances[offset];
+        work[1] = covariances[offset + 1];
+        work[2] = covariances[offset + 2];
+        work[4] = covariances[offset + 3];
+        work[5] = covariances[offset + 4];
+        work[8] = covariances[offset + 5];
+    }
+
+    private static void solve(double[] work, float[] values, int valueOffset, float[] vectors, int vectorOffset) {
+        jacobi(work);
+        int i0 = 0, i1 = 1, i2 = 2;
+        if (work[i1 * 4] < work[i0 * 4]) { int t = i0; i0 = i1; i1 = t; }
+        if (work[i2 * 4] < work[i1 * 4]) { int t = i1; i1 = i2; i2 = t; }
+        if (work[i1 * 4] < work[i0 * 4]) { int t = i0; i0 = i1; i1 = t; }
+        store(work, i0, values, valueOffset, vectors, vectorOffset);
+        store(work, i1, values, valueOffset + 1, vectors, vectorOffset + 3);
+        store(work, i2, values, valueOffset + 2, vectors, vectorOffset + 6);
+    }
+
+    private static void store(double[] work, int column, float[] values, int valueOffset,
+                              float[] vectors, int vectorOffset) {
+        values[valueOffset] = (float) work[column * 4];
+        vectors[vectorOffset] = (float) work[9 + column];
+        vectors[vectorOffset + 1] = (float) work[12 + column];
+        vectors[vectorOffset + 2] = (float) work[15 + column];
+    }
+
+    // work[0..8] - симметричная матрица (заполнен верхний треугольник), work[9..17] - накопленные вращения.
+    // По завершении диагональ work содержит собственные значения, столбцы work[9..17] - собственные векторы.
+    private static void jacobi(double[] work) {
+        work[3] = work[1];
+        work[6] = work[2];
+        work[7] = work[5];
+        for (int i = 9; i < 18; i++) {
+            work[i] = 0;
+        }
+        work[9] = work[13] = work[17] = 1;
+
+        for (int sweep = 0; sweep < MAX_SWEEPS; sweep++) {
+            double off = Math.abs(work[1]) + Math.abs(work[2]) + Math.abs(work[5]);
+            double diag = Math.abs(work[0]) + Math.abs(work[4]) + Math.abs(work[8]);
+            if (off <= 1e-15 * diag || off == 0) {
+                return;
+            }
+            rotate(work, 0, 1, 2);
+            rotate(work, 0, 2, 1);
+            rotate(work, 1, 2, 0);
+        }
+    }
+
+    private static void rotate(double[] a, int p, int q, int r) {
+        double apq = a[p * 3 + q];
+        if (apq == 0) return;
+        double app = a[p * 4];
+        double aqq = a[q * 4];
+        double theta = (aqq - app) / (2 * apq);
+        double t = Math.signum(theta) / (Math.abs(theta) + Math.sqrt(theta * theta + 1));
+        if (theta == 0) t = 1;
+        double c = 1 / Math.sqrt(t * t + 1);
+        double s = t * c;
+
+        a[p * 4] = app - t * apq;
+        a[q * 4] = aqq + t * apq;
+        a[p * 3 + q] = a[q * 3 + p] = 0;
+
+        double arp = a[r * 3 + p];
+        double arq = a[r * 3 + q];
+        a[r * 3 + p] = a[p * 3 + r] = c * arp - s * arq;
+        a[r * 3 + q] = a[q * 3 + r] = s * arp + c * arq;
+
+        for (int k = 0; k < 3; k++) {
+            double vkp = a[9 + k * 3 + p];
+            double vkq = a[9 + k * 3 + q];
+            a[9 + k * 3 + p] = c * vkp - s * vkq;
+            a[9 + k * 3 + q] = s * vkp + c * vkq;
+        }
+    }
+
+    private static void checkBatch(float[] covariances, int count, boolean outputTooSmall) {
+        if (count < 0 || covariances.length < 6L * count) {
+            throw new IllegalArgumentException("Invalid covariance array dimensions");
+        }
+        if (outputTooSmall) {
+            throw new IllegalArgumentException("Output arrays are too small");
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= 3) {
+            throw new IllegalArgumentException("Index out of bounds");
+        }
+    }
+}
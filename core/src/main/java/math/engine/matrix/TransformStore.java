@@ -0,0 +1,135 @@
+package math.engine.matrix;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Хранилище матриц 4x4 для обмена между потоками без блокировок и выделений памяти (seqlock).
+ * Каждый слот - 16 float в общем массиве и счетчик версии: нечетное значение означает, что идет запись.
+ * Читатель копирует слот в свой буфер и повторяет попытку, если версия изменилась во время копирования.
+ * Запись в один и тот же слот из нескольких потоков сериализуется ожиданием; в типичной схеме
+ * "один поток симуляции пишет, остальные читают" писатель никогда не ждет.
+ */
+public final class TransformStore {
+
+    private static final int SLOT_SIZE = 16;
+    // Один счетчик на кэш-линию, чтобы писатели соседних слотов не мешали друг другу
+    private static final int SEQUENCE_STRIDE = 8;
+    private static final VarHandle SEQUENCE = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private static final float[] IDENTITY = {
+            1, 0, 0, 0,
+            0, 1, 0, 0,
+            0, 0, 1, 0,
+            0, 0, 0, 1
+    };
+
+    private final float[] data;
+    private final long[] sequences;
+    private final int capacity;
+
+    public TransformStore(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        if ((long) capacity * SLOT_SIZE > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Capacity is too large for array storage");
+        }
+        this.capacity = capacity;
+        this.data = new float[capacity * SLOT_SIZE];
+        this.sequences = new long[capacity * SEQUENCE_STRIDE];
+        for (int slot = 0; slot < capacity; slot++) {
+            System.arraycopy(IDENTITY, 0, data, slot * SLOT_SIZE, SLOT_SIZE);
+        }
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public void publish(int slot, Matrix4x4 matrix) {
+        // Исключение до beginWrite не должно оставить слот с нечетной последовательностью:
+        // читатели и писатели этого слота ждали бы его завершения вечно
+        float[][] source = matrix.data;
+        long sequence = beginWrite(slot);
+        int base = slot * SLOT_SIZE;
+        try {
+            for (int i = 0; i < 4; i++) {
+                System.arraycopy(source[i], 0, data, base + i * 4, 4);
+            }
+        } finally {
+            endWrite(slot, sequence);
+        }
+    }
+
+    // 16 элементов по строкам, начиная с source[offset]
+    public void publish(int slot, float[] source, int offset) {
+        if (offset < 0 || offset + SLOT_SIZE > source.length) {
+            throw new IllegalArgumentException("Source array is too small");
+        }
+        long sequence = beginWrite(slot);
+        System.arraycopy(source, offset, data, slot * SLOT_SIZE, SLOT_SIZE);
+        endWrite(slot, sequence);
+    }
+
+    // Согласованный снимок слота в dest[offset .. offset + 15]; возвращает номер публикации.
+    public long read(int slot, float[] dest, int offset) {
+        checkSlot(slot);
+        if (offset < 0 || offset + SLOT_SIZE > dest.length) {
+            throw new IllegalArgumentException("Destination array is too small");
+        }
+        int index = slot * SEQUENCE_STRIDE;
+        while (true) {
+            long before = (long) SEQUENCE.getAcquire(sequences, index);
+            if ((before & 1) == 0) {
+                System.arraycopy(data, slot * SLOT_SIZE, dest, offset, SLOT_SIZE);
+                VarHandle.loadLoadFence();
+                long after = (long) SEQUENCE.getOpaque(sequences, index);
+                if (before == after) {
+                    return before >>> 1;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    public Matrix4x4 snapshot(int slot) {
+        float[] buffer = new float[SLOT_SIZE];
+        read(slot, buffer, 0);
+        float[][] rows = new float[4][4];
+        for (int i = 0; i < 4; i++) {
+            System.arraycopy(buffer, i * 4, rows[i], 0, 4);
+        }
+        // Снимок владеет своими строками: флаги по данным и запоминание обратной, как у new Matrix4x4
+        return Matrix4x4.owned(rows, MatrixStructure.detect(rows, 4, 4));
+    }
+
+    // Число завершенных публикаций в слот; позволяет читателю пропустить неизмененные слоты.
+    public long version(int slot) {
+        checkSlot(slot);
+        return ((long) SEQUENCE.getAcquire(sequences, slot * SEQUENCE_STRIDE)) >>> 1;
+    }
+
+    private long beginWrite(int slot) {
+        checkSlot(slot);
+        int index = slot * SEQUENCE_STRIDE;
+        while (true) {
+            long sequence = (long) SEQUENCE.getVolatile(sequences, index);
+            if ((sequence & 1) == 0 && SEQUENCE.compareAndSet(sequences, index, sequence, sequence + 1)) {
+                VarHandle.storeStoreFence();
+                return sequence;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private void endWrite(int slot, long sequence) {
+        SEQUENCE.setRelease(sequences, slot * SEQUENCE_STRIDE, sequence + 2);
+    }
+
+    private void checkSlot(int slot) {
+        if (slot < 0 || slot >= capacity) {
+            throw new IllegalArgumentException("Slot index out of bounds");
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package math.engine.matrix;
+
+import math.engine.internal.ParallelRange;
+
+/**
+ * Транспонирование плоских матриц в построчном порядке: элемент (i, j) матрицы rows x cols - a[i * cols + j].
+ *
+ * Наивный цикл пишет результат с шагом rows, и на больших матрицах каждая запись попадает в новую строку
+ * кэша и новую страницу TLB. Здесь матрица рекурсивно делится пополам по большей стороне до блоков
+ * не больше LEAF x LEAF, которые целиком помещаются в L1 при любом размере кэша (cache-oblivious).
+ * Параллельные версии делят работу по строкам результата, поэтому потоки пишут в непересекающиеся
+ * участки памяти; на матрицах 8k x 8k скорость ограничена пропускной способностью памяти.
+ */
+public final class TransposeKernels {
+
+    private static final int LEAF = 32;
+    // Ниже этого числа элементов параллельный вариант выполняется в вызывающем потоке
+    private static final int PARALLEL_ELEMENTS = 1 << 18;
+    // Строки результата на задачу fork/join: 256 строк по 8k float - 8 МБ записи
+    private static final int BAND = 256;
+
+    private TransposeKernels() {}
+
+    // dest (cols x rows) = source^T; source и dest не должны совпадать
+    public static void transpose(float[] source, int rows, int cols, float[] dest) {
+        checkArrays(source, rows, cols, dest);
+        transposeBlock(source, rows, cols, dest, 0, rows, 0, cols);
+    }
+
+    public static void transposeParallel(float[] source, int rows, int cols, float[] dest) {
+        checkArrays(source, rows, cols, dest);
+        if ((long) rows * cols < PARALLEL_ELEMENTS) {
+            transposeBlock(source, rows, cols, dest, 0, rows, 0, cols);
+            return;
+        }
+        ParallelRange.forRange(0, cols, BAND,
+                (from, to) -> transposeBlock(source, rows, cols, dest, 0, rows, from, to));
+    }
+
+    // Квадратная матрица n x n на месте: обмен пар блоков (I, J) и (J, I) без дополнительной памяти
+    public static void transposeInPlace(float[] a, int n) {
+        checkSquare(a, n);
+        swapTileRows(a, n, 0, tileCount(n));
+    }
+
+    // Строки блоков обрабатываются параллельно: каждая пара блоков принадлежит ровно одной строке I <= J
+    public static void transposeInPlaceParallel(float[] a, int n) {
+        checkSquare(a, n);
+        int tiles = tileCount(n);
+        if ((long) n * n < PARALLEL_ELEMENTS) {
+            swapTileRows(a, n, 0, tiles);
+            return;
+        }
+        ParallelRange.forRange(0, tiles, 1, (from, to) -> swapTileRows(a, n, from, to));
+    }
+
+    /**
+     * Прямоугольная матрица rows x cols на месте; после вызова массив хранит матрицу cols x rows.
+     * Перестановка элементов раскладывается на циклы: элемент с индексом p переходит в
+     * p * rows mod (rows * cols - 1). Каждый цикл проходится один раз, пройденные позиции
+     * отмечаются в битовой карте (rows * cols / 8 байт). Для квадратных матриц используется
+     * блочный вариант без карты.
+     */
+    public static void transposeInPlace(float[] a, int rows, int cols) {
+        if (rows == cols) {
+            transposeInPlace(a, rows);
+            return;
+        }
+        if (rows < 0 || cols < 0 || (long) rows * cols > a.length) {
+            throw new IllegalArgumentException("Array is too small for matrix dimensions");
+        }
+        int size = rows * cols;
+        if (rows <= 1 || cols <= 1) {
+            return;
+        }
+        long modulus = size - 1;
+        long[] visited = new long[(size + 63) >>> 6];
+        for (int start = 1; start < size - 1; start++) {
+            if ((visited[start >>> 6] & (1L << start)) != 0) {
+                continue;
+            }
+            float carried = a[start];
+            int position = start;
+            do {
+                int next = (int) (position * (long) rows % modulus);
+                float displaced = a[next];
+                a[next] = carried;
+                carried = displaced;
+                visited[next >>> 6] |= 1L << next;
+                position = next;
+            } while (position != start);
+        }
+    }
+
+    // Построчное хранилище AbstractMatrix: dest[j][i] = source[i][j], параллельно для больших матриц
+    static void transpose(float[][] source, int rows, int cols, float[][] dest) {
+        if ((long) rows * cols < PARALLEL_ELEMENTS) {
+            transposeBlock(source, dest, 0, rows, 0, cols);
+            return;
+        }
+        ParallelRange.forRange(0, cols, BAND, (from, to) -> transposeBlock(source, dest, 0, rows, from, to));
+    }
+
+    private static void transposeBlock(float[][] source, float[][] dest, int r0, int r1, int c0, int c1) {
+        int height = r1 - r0;
+        int width = c1 - c0;
+        if (height <= LEAF && width <= LEAF) {
+            for (int i = r0; i < r1; i++) {
+                float[] row = source[i];
+                for (int j = c0; j < c1; j++) {
+                    dest[j][i] = row[j];
+                }
+            }
+        } else if (height >= width) {
+            int mid = (r0 + r1) >>> 1;
+            transposeBlock(source, dest, r0, mid, c0, c1);
+            transposeBlock(source, dest, mid, r1, c0, c1);
+        } else {
+            int mid = (c0 + c1) >>> 1;
+            transposeBlock(source, dest, r0, r1, c0, mid);
+            transposeBlock(source, dest, r0, r1, mid, c1);
+        }
+    }
+
+    // Транспонирование подматрицы source[r0, r1) x [c0, c1) с делением пополам по большей стороне
+    private static void transposeBlock(float[] source, int rows, int cols, float[] dest, int r0, int r1, int c0, int c1) {
+        int height = r1 - r0;
+        int width = c1 - c0;
+        if (height <= LEAF && width <= LEAF) {
+            for (int i = r0; i < r1; i++) {
+                int row = i * cols;
+                for (int j = c0; j < c1; j++) {
+                    dest[j * rows + i] = source[row + j];
+                }
+            }
+        } else if (height >= width) {
+            int mid = (r0 + r1) >>> 1;
+            transposeBlock(source, rows, cols, dest, r0, mid, c0, c1);
+            transposeBlock(source, rows, cols, dest, mid, r1, c0, c1);
+        } else {
+            int mid = (c0 + c1) >>> 1;
+            transposeBlock(source, rows, cols, dest, r0, r1, c0, mid);
+            transposeBlock(source, rows, cols, dest, r0, r1, mid, c1);
+        }
+    }
+
+    private static void swapTileRows(float[] a, int n, int tileFrom, int tileTo) {
+        for (int ti = tileFrom; ti < tileTo; ti++) {
+            int i0 = ti * LEAF;
+            int i1 = Math.min(i0 + LEAF, n);
+            // Диагональный блок: обмен элементов над и под диагональю
+            for (int i = i0; i < i1; i++) {
+                for (int j = i + 1; j < i1; j++) {
+                    float t = a[i * n + j];
+                    a[i * n + j] = a[j * n + i];
+                    a[j * n + i] = t;
+                }
+            }
+            for (int j0 = i1; j0 < n; j0 += LEAF) {
+                int j1 = Math.min(j0 + LEAF, n);
+                for (int i = i0; i < i1; i++) {
+                    for (int j = j0; j < j1; j++) {
+                        float t = a[i * n + j];
+                        a[i * n + j] = a[j * n + i];
+                        a[j * n + i] = t;
+                    }
+                }
+            }
+        }
+    }
+
+    private static int tileCount(int n) {
+        return (n + LEAF - 1) / LEAF;
+    }
+
+    private static void checkArrays(float[] source, int rows, int cols, float[] dest) {
+        if (rows < 0 || cols < 0) {
+            throw new IllegalArgumentException("Invalid matrix dimensions");
+        }
+        long size = (long) rows * cols;
+        if (size > source.length || size > dest.length) {
+            throw new IllegalArgumentException("Array is too small for matrix dimensions");
+        }
+        if (source == dest && size > 1) {
+            throw new IllegalArgumentException("Use transposeInPlace for the same array");
+        }
+    }
+
+    private static void checkSquare(float[] a, int n) {
+        if (n < 0 || (long) n * n > a.length) {
+            throw new IllegalArgumentException("Array is too small for matrix dimensions");
+        }
+    }
+}
@@ -0,0 +1,687 @@
+package math.engine.search;
+
+import math.engine.internal.ParallelRange;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Иерархический граф малого мира (HNSW) для приближенного поиска ближайших соседей.
+ * Граф хранится в примитивных массивах: список соседей узла на слое 0 занимает {@code 1 + 2M}
+ * элементов общего int[] (первый - число соседей), на верхних слоях - по {@code 1 + M} в отдельном
+ * int[] узла. Вставка потокобезопасна: список соседей узла меняется и читается под одной из
+ * {@value #LOCK_STRIPES} блокировок, выбираемой по номеру узла. Поиск может идти параллельно со вставкой.
+ *
+ * Параметры: M - число связей на верхних слоях (на слое 0 - 2M), efConstruction - ширина поиска при
+ * вставке (качество графа против скорости построения), efSearch - ширина поиска запроса (полнота против
+ * скорости), меняется в любой момент через {@link #setEfSearch}.
+ *
+ * Индекс сохраняется в файл через {@link #save} и загружается отображением файла в память ({@link #load});
+ * сохранение не должно выполняться одновременно со вставкой.
+ */
+public final class HnswIndex {
+
+    public static final int DEFAULT_M = 16;
+    public static final int DEFAULT_EF_CONSTRUCTION = 200;
+    public static final int DEFAULT_EF_SEARCH = 50;
+
+    private static final int LOCK_STRIPES = 1024;
+    private static final int MAGIC = 0x48_4e_53_57; // "HNSW"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_INTS = 11;
+    private static final int MAP_WINDOW = 1 << 30;
+    private static final int MAX_LEVEL = 30;
+
+    private final Metric metric;
+    private final int dimensions;
+    private final int capacity;
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private volatile int efSearch = DEFAULT_EF_SEARCH;
+
+    private final float[] vectors;
+    private final int[] levels;
+    private final int[] links0;
+    private final int[][] upperLinks;
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    private final AtomicInteger size = new AtomicInteger();
+    private final Object entryLock = new Object();
+    private volatile int entryPoint = -1;
+    private volatile int maxLevel = -1;
+    private final ConcurrentLinkedQueue<Scratch> scratchPool = new ConcurrentLinkedQueue<>();
+
+    private HnswIndex(int dimensions, int capacity, Metric metric, int m, int efConstruction) {
+        if (dimensions <= 0 || capacity < 0 || m < 2 || efConstruction <= 0) {
+            throw new IllegalArgumentException("Invalid HNSW parameters");
+        }
+        if ((long) capacity * dimensions > Integer.MAX_VALUE || (long) capacity * (1 + 2L * m) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Capacity is too large for array storage");
+        }
+        this.dimensions = dimensions;
+        this.capacity = capacity;
+        this.metric = metric;
+        this.m = m;
+        this.maxM0 = 2 * m;
+        this.efConstruction = Math.max(efConstruction, m);
+        this.levelMultiplier = 1 / Math.log(m);
+        this.vectors = new float[capacity * dimensions];
+        this.levels = new int[capacity];
+        this.links0 = new int[capacity * (1 + maxM0)];
+        this.upperLinks = new int[capacity][];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public static HnswIndex create(int dimensions, int capacity, Metric metric) {
+        return new HnswIndex(dimensions, capacity, metric, DEFAULT_M, DEFAULT_EF_CONSTRUCTION);
+    }
+
+    public static HnswIndex create(int dimensions, int capacity, Metric metric, int m, int efConstruction) {
+        return new HnswIndex(dimensions, capacity, metric, m, efConstruction);
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    public Metric getMetric() {
+        return metric;
+    }
+
+    public int getM() {
+        return m;
+    }
+
+    public int getEfConstruction() {
+        return efConstruction;
+    }
+
+    public int getEfSearch() {
+        return efSearch;
+    }
+
+    public void setEfSearch(int efSearch) {
+        if (efSearch <= 0) {
+            throw new IllegalArgumentException("efSearch must be positive");
+        }
+        this.efSearch = efSearch;
+    }
+
+    // Вектор узла id (для COSINE - нормализованный)
+    public void getVector(int id, float[] dest, int destOffset) {
+        if (id < 0 || id >= size.get()) {
+            throw new IllegalArgumentException("Index out of bounds");
+        }
+        System.arraycopy(vectors, id * dimensions, dest, destOffset, dimensions);
+    }
+
+    /**
+     * Добавляет вектор и возвращает его номер. Может вызываться из нескольких потоков одновременно.
+     */
+    public int add(float[] vector, int offset) {
+        if (offset < 0 || offset + dimensions > vector.length) {
+            throw new IllegalArgumentException("Vector dimensions don't match");
+        }
+        int id = reserve(1);
+        insert(id, vector, offset);
+        return id;
+    }
+
+    // Параллельное добавление count векторов, лежащих подряд; вектор i получает номер first + i
+    public int addAll(float[] vectors, int count) {
+        if (count < 0 || (long) count * dimensions > vectors.length) {
+            throw new IllegalArgumentException("Vector dimensions don't match");
+        }
+        int first = reserve(count);
+        // Первый узел вставляется отдельно, чтобы остальные сразу имели точку входа
+        int start = 0;
+        if (entryPoint < 0 && count > 0) {
+            insert(first, vectors, 0);
+            start = 1;
+        }
+        ParallelRange.forRange(start, count, 64, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                insert(first + i, vectors, i * dimensions);
+            }
+        });
+        return first;
+    }
+
+    private int reserve(int count) {
+        while (true) {
+            int current = size.get();
+            if (current + count > capacity) {
+                throw new IllegalStateException("Index capacity exceeded");
+            }
+            if (size.compareAndSet(current, current + count)) {
+                return current;
+            }
+        }
+    }
+
+    private void insert(int id, float[] vector, int offset) {
+        int base = id * dimensions;
+        System.arraycopy(vector, offset, vectors, base, dimensions);
+        if (metric == Metric.COSINE) {
+            Metric.normalize(vectors, base, dimensions);
+        }
+        int level = randomLevel(id);
+        levels[id] = level;
+        if (level > 0) {
+            upperLinks[id] = new int[level * (1 + m)];
+        }
+
+        int ep;
+        int top;
+        synchronized (entryLock) {
+            ep = entryPoint;
+            top = maxLevel;
+            if (ep < 0) {
+                entryPoint = id;
+                maxLevel = level;
+                return;
+            }
+        }
+
+        Scratch scratch = acquire();
+        try {
+            float epDistance = distance(id, ep);
+            for (int layer = top; layer > level; layer--) {
+                ep = greedy(vectors, base, ep, epDistance, layer, scratch);
+                epDistance = distance(id, ep);
+            }
+            for (int layer = Math.min(level, top); layer >= 0; layer--) {
+                NeighborHeap found = searchLayer(vectors, base, ep, efConstruction, layer, scratch);
+                int count = found.size();
+                found.drainAscending(scratch.ids, scratch.distances, 0, count);
+                ep = scratch.ids[0];
+                int max = layer == 0 ? maxM0 : m;
+                int selected = selectNeighbors(scratch.ids, scratch.distances, count, max);
+                setLinks(id, layer, scratch.ids, selected);
+                for (int i = 0; i < selected; i++) {
+                    connect(scratch.ids[i], id, scratch.distances[i], layer, scratch);
+                }
+            }
+        } finally {
+            release(scratch);
+        }
+
+        if (level > top) {
+            synchronized (entryLock) {
+                if (level > maxLevel) {
+                    maxLevel = level;
+                    entryPoint = id;
+                }
+            }
+        }
+    }
+
+    /**
+     * k ближайших соседей запроса по возрастанию расстояния (см. {@link Metric}).
+     * Если узлов меньше k, хвост заполняется -1 и +Inf.
+     */
+    public void search(float[] query, int queryOffset, int k, int[] indices, float[] distances, int outOffset) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be positive");
+        }
+        if (queryOffset < 0 || queryOffset + dimensions > query.length) {
+            throw new IllegalArgumentException("Query dimensions don't match");
+        }
+        if (outOffset < 0 || indices.length < outOffset + k || distances.length < outOffset + k) {
+            throw new IllegalArgumentException("Output arrays are too small for k nearest neighbours");
+        }
+        Scratch scratch = acquire();
+        try {
+            searchChecked(query, queryOffset, k, indices, distances, outOffset, scratch);
+        } finally {
+            release(scratch);
+        }
+    }
+
+    public void searchBatch(float[] queries, int queryCount, int k, int[] indices, float[] distances) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be positive");
+        }
+        if ((long) queryCount * dimensions > queries.length) {
+            throw new IllegalArgumentException("Query dimensions don't match");
+        }
+        if (indices.length < (long) queryCount * k || distances.length < (long) queryCount * k) {
+            throw new IllegalArgumentException("Output arrays are too small for k nearest neighbours");
+        }
+        ParallelRange.forRange(0, queryCount, 16, (from, to) -> {
+            Scratch scratch = acquire();
+            try {
+                for (int q = from; q < to; q++) {
+                    searchChecked(queries, q * dimensions, k, indices, distances, q * k, scratch);
+                }
+            } finally {
+                release(scratch);
+            }
+        });
+    }
+
+    private void searchChecked(float[] query, int queryOffset, int k, int[] indices, float[] distances,
+                               int outOffset, Scratch scratch) {
+        int ep;
+        int top;
+        synchronized (entryLock) {
+            ep = entryPoint;
+            top = maxLevel;
+        }
+        if (ep < 0) {
+            for (int i = 0; i < k; i++) {
+                indices[outOffset + i] = -1;
+                distances[outOffset + i] = Float.POSITIVE_INFINITY;
+            }
+            return;
+        }
+        float[] q = query;
+        int qOffset = queryOffset;
+        if (metric == Metric.COSINE) {
+            System.arraycopy(query, queryOffset, scratch.query, 0, dimensions);
+            Metric.normalize(scratch.query, 0, dimensions);
+            q = scratch.query;
+            qOffset = 0;
+        }
+        float epDistance = metric.distance(vectors, ep * dimensions, q, qOffset, dimensions);
+        for (int layer = top; layer > 0; layer--) {
+            ep = greedy(q, qOffset, ep, epDistance, layer, scratch);
+            epDistance = metric.distance(vectors, ep * dimensions, q, qOffset, dimensions);
+        }
+        NeighborHeap found = searchLayer(q, qOffset, ep, Math.max(efSearch, k), 0, scratch);
+        while (found.size() > k) {
+            found.pop();
+        }
+        found.drainAscending(indices, distances, outOffset, k);
+    }
+
+    // Жадный спуск на слое layer: переход к ближайшему соседу, пока расстояние уменьшается
+    private int greedy(float[] q, int qOffset, int ep, float epDistance, int layer, Scratch scratch) {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            int count = copyLinks(ep, layer, scratch.links);
+            for (int i = 0; i < count; i++) {
+                int candidate = scratch.links[i];
+                float d = metric.distance(vectors, candidate * dimensions, q, qOffset, dimensions);
+                if (d < epDistance) {
+                    epDistance = d;
+                    ep = candidate;
+                    changed = true;
+                }
+            }
+        }
+        return ep;
+    }
+
+    // Поиск ef ближайших на слое; результат - max-куча scratch.results
+    private NeighborHeap searchLayer(float[] q, int qOffset, int ep, int ef, int layer, Scratch scratch) {
+        int mark = scratch.nextMark();
+        NeighborHeap candidates = scratch.candidates;
+        NeighborHeap results = scratch.results;
+        candidates.clear();
+        results.clear();
+        float d = metric.distance(vectors, ep * dimensions, q, qOffset, dimensions);
+        scratch.visited[ep] = mark;
+        candidates.push(ep, d);
+        results.push(ep, d);
+        while (!candidates.isEmpty()) {
+            int current = candidates.topId();
+            float currentDistance = candidates.topDistance();
+            if (currentDistance > results.topDistance() && results.size() >= ef) {
+                break;
+            }
+            candidates.pop();
+            int count = copyLinks(current, layer, scratch.links);
+            for (int i = 0; i < count; i++) {
+                int neighbor = scratch.links[i];
+                if (scratch.visited[neighbor] == mark) continue;
+                scratch.visited[neighbor] = mark;
+                float nd = metric.distance(vectors, neighbor * dimensions, q, qOffset, dimensions);
+                if (results.size() < ef || nd < results.topDistance()) {
+                    candidates.push(neighbor, nd);
+                    results.offer(neighbor, nd, ef);
+                }
+            }
+        }
+        return results;
+    }
+
+    // Эвристика выбора соседей: кандидат берется, если он ближе к базовому узлу, чем к любому уже выбранному.
+    // ids/distances отсортированы по возрастанию; выбранные переносятся в начало, возвращается их число.
+    private int selectNeighbors(int[] ids, float[] distances, int count, int max) {
+        if (count <= max) {
+            return count;
+        }
+        int selected = 0;
+        for (int i = 0; i < count && selected < max; i++) {
+            int candidate = ids[i];
+            float candidateDistance = distances[i];
+            boolean keep = true;
+            for (int j = 0; j < selected; j++) {
+                if (distance(candidate, ids[j]) < candidateDistance) {
+                    keep = false;
+                    break;
+                }
+            }
+            if (keep) {
+                ids[selected] = candidate;
+                distances[selected] = candidateDistance;
+                selected++;
+            }
+        }
+        return selected;
+    }
+
+    // Добавление обратной связи node -> id; переполненный список сокращается той же эвристикой
+    private void connect(int node, int id, float distance, int layer, Scratch scratch) {
+        ReentrantLock lock = lockFor(node);
+        lock.lock();
+        try {
+            int[] array = layer == 0 ? links0 : upperLinks[node];
+            int max = layer == 0 ? maxM0 : m;
+            int start = layer == 0 ? node * (1 + maxM0) : linkBase(layer);
+            int count = array[start];
+            for (int i = 0; i < count; i++) {
+                if (array[start + 1 + i] == id) return;
+            }
+            if (count < max) {
+                array[start + 1 + count] = id;
+                array[start] = count + 1;
+                return;
+            }
+            NeighborHeap heap = scratch.prune;
+            heap.clear();
+            heap.push(id, distance);
+            for (int i = 0; i < count; i++) {
+                int neighbor = array[start + 1 + i];
+                heap.push(neighbor, distance(node, neighbor));
+            }
+            int total = heap.size();
+            heap.drainAscending(scratch.pruneIds, scratch.pruneDistances, 0, total);
+            int selected = selectNeighbors(scratch.pruneIds, scratch.pruneDistances, total, max);
+            System.arraycopy(scratch.pruneIds, 0, array, start + 1, selected);
+            array[start] = selected;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void setLinks(int node, int layer, int[] ids, int count) {
+        ReentrantLock lock = lockFor(node);
+        lock.lock();
+        try {
+            int[] array = layer == 0 ? links0 : upperLinks[node];
+            int start = layer == 0 ? node * (1 + maxM0) : linkBase(layer);
+            System.arraycopy(ids, 0, array, start + 1, count);
+            array[start] = count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int copyLinks(int node, int layer, int[] dest) {
+        ReentrantLock lock = lockFor(node);
+        lock.lock();
+        try {
+            int[] array = layer == 0 ? links0 : upperLinks[node];
+            if (array == null || (layer > 0 && levels[node] < layer)) {
+                return 0;
+            }
+            int start = layer == 0 ? node * (1 + maxM0) : linkBase(layer);
+            int count = array[start];
+            System.arraycopy(array, start + 1, dest, 0, count);
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Смещение списка слоя layer >= 1 внутри upperLinks[node]
+    private int linkBase(int layer) {
+        return (layer - 1) * (1 + m);
+    }
+
+    private ReentrantLock lockFor(int node) {
+        return locks[node & (LOCK_STRIPES - 1)];
+    }
+
+    private float distance(int a, int b) {
+        return metric.distance(vectors, a * dimensions, vectors, b * dimensions, dimensions);
+    }
+
+    // Уровень по экспоненциальному распределению; детерминирован номером узла, не требует общего генератора
+    private int randomLevel(int id) {
+        long z = (id + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z ^= z >>> 31;
+        double uniform = ((z >>> 11) + 1) * 0x1.0p-53;
+        return Math.min(MAX_LEVEL, (int) (-Math.log(uniform) * levelMultiplier));
+    }
+
+    private Scratch acquire() {
+        Scratch scratch = scratchPool.poll();
+        return scratch != null ? scratch : new Scratch();
+    }
+
+    private void release(Scratch scratch) {
+        scratchPool.offer(scratch);
+    }
+
+    public void save(Path path) throws IOException {
+        int count = size.get();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_INTS * 4).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(metric.ordinal()).putInt(dimensions)
+                    .putInt(capacity).putInt(m).putInt(efConstruction).putInt(efSearch).putInt(count)
+                    .putInt(entryPoint).putInt(maxLevel);
+            header.flip();
+            writeFully(channel, header);
+
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+            writeInts(channel, buffer, levels, 0, count);
+            writeInts(channel, buffer, links0, 0, count * (1 + maxM0));
+            for (int i = 0; i < count; i++) {
+                if (levels[i] > 0) {
+                    writeInts(channel, buffer, upperLinks[i], 0, upperLinks[i].length);
+                }
+            }
+            writeFloats(channel, buffer, vectors, 0, count * dimensions);
+        }
+    }
+
+    /**
+     * Загружает индекс, сохраненный {@link #save}. Файл отображается в память окнами до 1 ГБ
+     * и копируется в массивы целиком, без разбора по элементам; после загрузки в индекс можно добавлять узлы.
+     */
+    public static HnswIndex load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_INTS * 4L) {
+                throw new IOException("Not an HNSW index file: " + path);
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_INTS * 4);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt() != MAGIC || header.getInt() != FORMAT_VERSION) {
+                throw new IOException("Not an HNSW index file: " + path);
+            }
+            int metricOrdinal = header.getInt();
+            int dimensions = header.getInt();
+            int capacity = header.getInt();
+            int m = header.getInt();
+            int efConstruction = header.getInt();
+            int efSearch = header.getInt();
+            int count = header.getInt();
+            int entryPoint = header.getInt();
+            int maxLevel = header.getInt();
+
+            // Каждое поле проверяется до использования: иначе испорченный файл дал бы выход за границы
+            // массива при загрузке или индекс, который падает уже при поиске
+            checkFile(metricOrdinal >= 0 && metricOrdinal < Metric.values().length, path, "metric");
+            checkFile(efSearch > 0, path, "efSearch");
+            checkFile(count >= 0 && count <= capacity, path, "node count");
+            checkFile(count == 0 ? entryPoint == -1 && maxLevel == -1
+                    : entryPoint >= 0 && entryPoint < count && maxLevel >= 0 && maxLevel <= MAX_LEVEL,
+                    path, "entry point");
+            HnswIndex index;
+            try {
+                index = new HnswIndex(dimensions, capacity, Metric.values()[metricOrdinal], m, efConstruction);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Corrupt HNSW index " + path + ": " + e.getMessage(), e);
+            }
+            index.efSearch = efSearch;
+
+            long position = HEADER_INTS * 4L;
+            long links0Length = (long) count * (1 + index.maxM0);
+            checkFile(fileSize >= position + 4L * (count + links0Length), path, "file is truncated");
+            position = readInts(channel, position, index.levels, count);
+            long upperLength = 0;
+            for (int i = 0; i < count; i++) {
+                int level = index.levels[i];
+                checkFile(level >= 0 && level <= MAX_LEVEL, path, "level of node " + i);
+                upperLength += (long) level * (1 + m);
+            }
+            checkFile(index.levels[Math.max(0, entryPoint)] >= maxLevel || count == 0, path, "entry point level");
+            long expected = position + 4L * (links0Length + upperLength + (long) count * dimensions);
+            checkFile(fileSize >= expected, path, "file is truncated");
+
+            position = readInts(channel, position, index.links0, (int) links0Length);
+            for (int i = 0; i < count; i++) {
+                checkLinks(index.links0, i * (1 + index.maxM0), index.maxM0, count, path);
+                int level = index.levels[i];
+                if (level > 0) {
+                    int[] links = new int[level * (1 + m)];
+                    position = readInts(channel, position, links, links.length);
+                    for (int layer = 0; layer < level; layer++) {
+                        checkLinks(links, layer * (1 + m), m, count, path);
+                    }
+                    index.upperLinks[i] = links;
+                }
+            }
+            readFloats(channel, position, index.vectors, count * dimensions);
+            index.size.set(count);
+            index.entryPoint = entryPoint;
+            index.maxLevel = maxLevel;
+            return index;
+        }
+    }
+
+    // Список связей: число соседей не больше max, номера соседей - среди загруженных узлов
+    private static void checkLinks(int[] array, int start, int max, int count, Path path) throws IOException {
+        int links = array[start];
+        checkFile(links >= 0 && links <= max, path, "link count");
+        for (int i = 1; i <= links; i++) {
+            int neighbor = array[start + i];
+            checkFile(neighbor >= 0 && neighbor < count, path, "link target");
+        }
+    }
+
+    private static void checkFile(boolean valid, Path path, String field) throws IOException {
+        if (!valid) {
+            throw new IOException("Corrupt HNSW index " + path + ": invalid " + field);
+        }
+    }
+
+    private static void writeInts(FileChannel channel, ByteBuffer buffer, int[] array, int from, int length)
+            throws IOException {
+        int position = from;
+        int end = from + length;
+        while (position < end) {
+            buffer.clear();
+            int n = Math.min(end - position, buffer.capacity() / 4);
+            buffer.asIntBuffer().put(array, position, n);
+            buffer.limit(n * 4);
+            writeFully(channel, buffer);
+            position += n;
+        }
+    }
+
+    private static void writeFloats(FileChannel channel, ByteBuffer buffer, float[] array, int from, int length)
+            throws IOException {
+        int position = from;
+        int end = from + length;
+        while (position < end) {
+            buffer.clear();
+            int n = Math.min(end - position, buffer.capacity() / 4);
+            buffer.asFloatBuffer().put(array, position, n);
+            buffer.limit(n * 4);
+            writeFully(channel, buffer);
+            position += n;
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static long readInts(FileChannel channel, long position, int[] dest, int length) throws IOException {
+        int done = 0;
+        while (done < length) {
+            int n = Math.min(length - done, MAP_WINDOW / 4);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, n * 4L);
+            window.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(dest, done, n);
+            position += n * 4L;
+            done += n;
+        }
+        return position;
+    }
+
+    private static long readFloats(FileChannel channel, long position, float[] dest, int length) throws IOException {
+        int done = 0;
+        while (done < length) {
+            int n = Math.min(length - done, MAP_WINDOW / 4);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, n * 4L);
+            window.order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(dest, done, n);
+            position += n * 4L;
+            done += n;
+        }
+        return position;
+    }
+
+    // Буферы одного поиска или вставки; берутся из пула, чтобы не зависеть от ThreadLocal
+    private final class Scratch {
+        final int[] visited = new int[capacity];
+        final NeighborHeap candidates = new NeighborHeap(efConstruction, false);
+        final NeighborHeap results = new NeighborHeap(efConstruction, true);
+        final NeighborHeap prune = new NeighborHeap(maxM0 + 1, true);
+        final int[] links = new int[maxM0];
+        final int[] pruneIds = new int[maxM0 + 1];
+        final float[] pruneDistances = new float[maxM0 + 1];
+        final float[] query = new float[dimensions];
+        int[] ids = new int[efConstruction];
+        float[] distances = new float[efConstruction];
+        int mark;
+
+        int nextMark() {
+            if (++mark == Integer.MAX_VALUE) {
+                Arrays.fill(visited, 0);
+                mark = 1;
+            }
+            return mark;
+        }
+    }
+}
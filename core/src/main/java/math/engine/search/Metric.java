@@ -0,0 +1,60 @@
+package math.engine.search;
+
+/**
+ * Метрика поиска. Индексы работают с "расстоянием", которое тем меньше, чем ближе векторы:
+ * L2 - квадрат евклидова расстояния, DOT - скалярное произведение со знаком минус,
+ * COSINE - 1 - cos(угла). Для COSINE векторы нормализуются при добавлении в индекс и в запросе.
+ */
+public enum Metric {
+    L2,
+    COSINE,
+    DOT;
+
+    float distance(float[] a, int aOffset, float[] b, int bOffset, int dimensions) {
+        if (this == L2) {
+            float s0 = 0, s1 = 0;
+            int i = 0;
+            for (; i + 1 < dimensions; i += 2) {
+                float d0 = a[aOffset + i] - b[bOffset + i];
+                float d1 = a[aOffset + i + 1] - b[bOffset + i + 1];
+                s0 += d0 * d0;
+                s1 += d1 * d1;
+            }
+            if (i < dimensions) {
+                float d = a[aOffset + i] - b[bOffset + i];
+                s0 += d * d;
+            }
+            return s0 + s1;
+        }
+        float dot = dot(a, aOffset, b, bOffset, dimensions);
+        return this == COSINE ? 1 - dot : -dot;
+    }
+
+    static float dot(float[] a, int aOffset, float[] b, int bOffset, int dimensions) {
+        float s0 = 0, s1 = 0;
+        int i = 0;
+        for (; i + 1 < dimensions; i += 2) {
+            s0 += a[aOffset + i] * b[bOffset + i];
+            s1 += a[aOffset + i + 1] * b[bOffset + i + 1];
+        }
+        if (i < dimensions) {
+            s0 += a[aOffset + i] * b[bOffset + i];
+        }
+        return s0 + s1;
+    }
+
+    // Нормализация на месте; нулевой вектор оставляется как есть
+    static void normalize(float[] v, int offset, int dimensions) {
+        double sum = 0;
+        for (int i = 0; i < dimensions; i++) {
+            sum += (double) v[offset + i] * v[offset + i];
+        }
+        if (sum == 0) {
+            return;
+        }
+        float inv = (float) (1 / Math.sqrt(sum));
+        for (int i = 0; i < dimensions; i++) {
+            v[offset + i] *= inv;
+        }
+    }
+}
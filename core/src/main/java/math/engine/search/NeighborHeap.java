@@ -0,0 +1,115 @@
+package math.engine.search;
+
+import java.util.Arrays;
+
+// Двоичная куча пар (индекс, расстояние) на примитивных массивах.
+// max = true - корень с наибольшим расстоянием (ограниченный список лучших результатов),
+// max = false - с наименьшим (очередь кандидатов на обход).
+final class NeighborHeap {
+
+    private final boolean max;
+    private int[] ids;
+    private float[] distances;
+    private int size;
+
+    NeighborHeap(int capacity, boolean max) {
+        this.max = max;
+        this.ids = new int[Math.max(1, capacity)];
+        this.distances = new float[Math.max(1, capacity)];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    int topId() {
+        return ids[0];
+    }
+
+    float topDistance() {
+        return distances[0];
+    }
+
+    void push(int id, float distance) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+            distances = Arrays.copyOf(distances, size * 2);
+        }
+        int pos = size++;
+        while (pos > 0) {
+            int parent = (pos - 1) >>> 1;
+            if (!before(distance, distances[parent])) break;
+            ids[pos] = ids[parent];
+            distances[pos] = distances[parent];
+            pos = parent;
+        }
+        ids[pos] = id;
+        distances[pos] = distance;
+    }
+
+    // Для max-кучи с ограничением: добавить, если лучше худшего, и удержать размер не больше limit
+    void offer(int id, float distance, int limit) {
+        if (size < limit) {
+            push(id, distance);
+        } else if (distance < distances[0]) {
+            replaceTop(id, distance);
+        }
+    }
+
+    void pop() {
+        int lastId = ids[--size];
+        float lastDistance = distances[size];
+        if (size > 0) {
+            siftDown(lastId, lastDistance);
+        }
+    }
+
+    private void replaceTop(int id, float distance) {
+        siftDown(id, distance);
+    }
+
+    private void siftDown(int id, float distance) {
+        int pos = 0;
+        while (true) {
+            int child = 2 * pos + 1;
+            if (child >= size) break;
+            if (child + 1 < size && before(distances[child + 1], distances[child])) {
+                child++;
+            }
+            if (!before(distances[child], distance)) break;
+            ids[pos] = ids[child];
+            distances[pos] = distances[child];
+            pos = child;
+        }
+        ids[pos] = id;
+        distances[pos] = distance;
+    }
+
+    private boolean before(float a, float b) {
+        return max ? a > b : a < b;
+    }
+
+    // Извлечение всех элементов max-кучи по возрастанию расстояния; хвост до count заполняется -1 и +Inf
+    void drainAscending(int[] outIds, float[] outDistances, int offset, int count) {
+        for (int i = size; i < count; i++) {
+            outIds[offset + i] = -1;
+            outDistances[offset + i] = Float.POSITIVE_INFINITY;
+        }
+        while (size > 0) {
+            int last = size - 1;
+            if (last < count) {
+                outIds[offset + last] = ids[0];
+                outDistances[offset + last] = distances[0];
+            }
+            pop();
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package math.engine.search;
+
+import math.engine.internal.ParallelRange;
+
+/**
+ * Индекс приближенного поиска со скалярным квантованием: каждая компонента хранится одним байтом,
+ * x_i ~ offset + scale * (code_i + 128), где scale и offset подбираются по min/max каждого вектора.
+ * Полный проход по индексу читает в 4 раза меньше памяти, чем по float[], а скалярное произведение
+ * кодов накапливается в int. Первая фаза отбирает candidates лучших по приближенному расстоянию,
+ * вторая пересчитывает их точно по исходным float-векторам (хранятся копией) и оставляет k лучших.
+ *
+ * Ошибка восстановления компоненты не больше scale / 2 = (max - min) / 510 своего вектора;
+ * на упорядочивание близких по расстоянию соседей она влияет, поэтому candidates берется в несколько раз больше k.
+ * Для L2 приближенное расстояние - это точное ||x' - q'||^2 между восстановленными векторами.
+ */
+public final class QuantizedVectorIndex {
+
+    private static final int PARALLEL_QUERIES = 4;
+
+    private final Metric metric;
+    private final int count;
+    private final int dimensions;
+    private final float[] vectors;
+    private final byte[] codes;
+    private final float[] scales;
+    private final float[] offsets;
+    private final int[] codeSums;
+    // ||x'||^2 восстановленного вектора, нужна только для L2
+    private final float[] reconstructedNorms;
+
+    private QuantizedVectorIndex(Metric metric, int count, int dimensions, float[] vectors) {
+        this.metric = metric;
+        this.count = count;
+        this.dimensions = dimensions;
+        this.vectors = vectors;
+        this.codes = new byte[count * dimensions];
+        this.scales = new float[count];
+        this.offsets = new float[count];
+        this.codeSums = new int[count];
+        this.reconstructedNorms = metric == Metric.L2 ? new float[count] : null;
+    }
+
+    /**
+     * Строит индекс по count векторам, лежащим подряд в vectors. Массив копируется.
+     */
+    public static QuantizedVectorIndex build(float[] vectors, int count, int dimensions, Metric metric) {
+        if (count < 0 || dimensions <= 0 || (long) count * dimensions > vectors.length) {
+            throw new IllegalArgumentException("Invalid vector count or dimensions");
+        }
+        float[] copy = new float[count * dimensions];
+        System.arraycopy(vectors, 0, copy, 0, copy.length);
+        QuantizedVectorIndex index = new QuantizedVectorIndex(metric, count, dimensions, copy);
+        ParallelRange.forRange(0, count, 1024, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                int base = i * dimensions;
+                if (metric == Metric.COSINE) {
+                    Metric.normalize(copy, base, dimensions);
+                }
+                index.codeSums[i] = quantize(copy, base, dimensions, index.codes, base, index.scales, index.offsets, i);
+                if (index.reconstructedNorms != null) {
+                    index.reconstructedNorms[i] = reconstructedNorm(index.codes, base, dimensions,
+                            index.scales[i], index.offsets[i]);
+                }
+            }
+        });
+        return index;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    public Metric getMetric() {
+        return metric;
+    }
+
+    // Объем квантованной части (коды, масштабы, смещения), которую читает первая фаза поиска
+    public long quantizedBytes() {
+        return (long) codes.length + 12L * count + (reconstructedNorms != null ? 4L * count : 0);
+    }
+
+    /**
+     * k ближайших к запросу по метрике индекса, по возрастанию расстояния. При candidates <= k
+     * повторного точного ранжирования нет и возвращаются приближенные расстояния.
+     * Если векторов меньше k, хвост заполняется -1 и +Inf.
+     */
+    public void search(float[] query, int queryOffset, int k, int candidates, int[] indices, float[] distances,
+                       int outOffset) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be positive");
+        }
+        if (queryOffset < 0 || queryOffset + dimensions > query.length) {
+            throw new IllegalArgumentException("Query dimensions don't match");
+        }
+        if (outOffset < 0 || indices.length < outOffset + k || distances.length < outOffset + k) {
+            throw new IllegalArgumentException("Output arrays are too small for k nearest neighbours");
+        }
+        searchChecked(query, queryOffset, k, candidates, indices, distances, outOffset, new Query(dimensions));
+    }
+
+    // Пакет запросов подряд в queries; результаты запроса q - в [q * k, (q + 1) * k)
+    public void searchBatch(float[] queries, int queryCount, int k, int candidates, int[] indices, float[] distances) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be positive");
+        }
+        if ((long) queryCount * dimensions > queries.length) {
+            throw new IllegalArgumentException("Query dimensions don't match");
+        }
+        if (indices.length < (long) queryCount * k || distances.length < (long) queryCount * k) {
+            throw new IllegalArgumentException("Output arrays are too small for k nearest neighbours");
+        }
+        ParallelRange.forRange(0, queryCount, PARALLEL_QUERIES, (from, to) -> {
+            Query scratch = new Query(dimensions);
+            for (int q = from; q < to; q++) {
+                searchChecked(queries, q * dimensions, k, candidates, indices, distances, q * k, scratch);
+            }
+        });
+    }
+
+    private void searchChecked(float[] query, int queryOffset, int k, int candidates, int[] indices,
+                               float[] distances, int outOffset, Query scratch) {
+        scratch.prepare(query, queryOffset);
+        int limit = Math.max(k, candidates);
+        NeighborHeap approximate = scratch.heap(limit);
+        for (int i = 0; i < count; i++) {
+            approximate.offer(i, approximateDistance(i, scratch), limit);
+        }
+        if (candidates <= k) {
+            approximate.drainAscending(indices, distances, outOffset, k);
+            return;
+        }
+        NeighborHeap exact = new NeighborHeap(k, true);
+        float[] q = scratch.values;
+        while (!approximate.isEmpty()) {
+            int id = approximate.topId();
+            approximate.pop();
+            exact.offer(id, metric.distance(vectors, id * dimensions, q, 0, dimensions), k);
+        }
+        exact.drainAscending(indices, distances, outOffset, k);
+    }
+
+    private float approximateDistance(int i, Query query) {
+        int base = i * dimensions;
+        int codeDot = dotCodes(codes, base, query.codes, 0, dimensions);
+        // Подстановка u = c + 128 в sum (o_x + s_x u)(o_q + s_q w)
+        double d = dimensions;
+        double sumX = codeSums[i] + 128.0 * d;
+        double sumQ = query.codeSum + 128.0 * d;
+        double sumXQ = codeDot + 128.0 * codeSums[i] + 128.0 * query.codeSum + 16384.0 * d;
+        double sx = scales[i], ox = offsets[i];
+        double dot = d * ox * query.offset + ox * query.scale * sumQ + query.offset * sx * sumX
+                + sx * query.scale * sumXQ;
+        switch (metric) {
+            case L2:
+                return (float) (reconstructedNorms[i] + query.norm - 2 * dot);
+            case COSINE:
+                return (float) (1 - dot);
+            default:
+                return (float) -dot;
+        }
+    }
+
+    // Скалярное произведение кодов с накоплением в int: |c| <= 128, переполнения нет до 2^17 компонент
+    static int dotCodes(byte[] a, int aOffset, byte[] b, int bOffset, int length) {
+        int s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = 0;
+        for (; i + 3 < length; i += 4) {
+            s0 += a[aOffset + i] * b[bOffset + i];
+            s1 += a[aOffset + i + 1] * b[bOffset + i + 1];
+            s2 += a[aOffset + i + 2] * b[bOffset + i + 2];
+            s3 += a[aOffset + i + 3] * b[bOffset + i + 3];
+        }
+        for (; i < length; i++) {
+            s0 += a[aOffset + i] * b[bOffset + i];
+        }
+        return s0 + s1 + s2 + s3;
+    }
+
+    // Возвращает сумму кодов
+    private static int quantize(float[] v, int offset, int length, byte[] codes, int codeOffset,
+                                float[] scales, float[] offsets, int slot) {
+        float min = Float.POSITIVE_INFINITY, max = Float.NEGATIVE_INFINITY;
+        for (int i = 0; i < length; i++) {
+            float value = v[offset + i];
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        float scale = (max - min) / 255f;
+        float inverse = scale > 0 ? 1 / scale : 0;
+        int sum = 0;
+        for (int i = 0; i < length; i++) {
+            int u = Math.round((v[offset + i] - min) * inverse);
+            int code = Math.min(255, Math.max(0, u)) - 128;
+            codes[codeOffset + i] = (byte) code;
+            sum += code;
+        }
+        scales[slot] = scale;
+        offsets[slot] = min;
+        return sum;
+    }
+
+    private static float reconstructedNorm(byte[] codes, int offset, int length, float scale, float min) {
+        double sum = 0;
+        for (int i = 0; i < length; i++) {
+            double value = min + scale * (codes[offset + i] + 128);
+            sum += value * value;
+        }
+        return (float) sum;
+    }
+
+    // Квантованный запрос и буферы, переиспользуемые между запросами одного потока
+    private final class Query {
+        final float[] values;
+        final byte[] codes;
+        final float[] scaleSlot = new float[1];
+        final float[] offsetSlot = new float[1];
+        float scale;
+        float offset;
+        float norm;
+        int codeSum;
+        private NeighborHeap heap;
+
+        Query(int dimensions) {
+            values = new float[dimensions];
+            codes = new byte[dimensions];
+        }
+
+        void prepare(float[] query, int queryOffset) {
+            System.arraycopy(query, queryOffset, values, 0, dimensions);
+            if (metric == Metric.COSINE) {
+                Metric.normalize(values, 0, dimensions);
+            }
+            codeSum = quantize(values, 0, dimensions, codes, 0, scaleSlot, offsetSlot, 0);
+            scale = scaleSlot[0];
+            offset = offsetSlot[0];
+            norm = metric == Metric.L2 ? reconstructedNorm(codes, 0, dimensions, scale, offset) : 0;
+        }
+
+        NeighborHeap heap(int limit) {
+            if (heap == null) {
+                heap = new NeighborHeap(limit, true);
+            }
+            heap.clear();
+            return heap;
+        }
+    }
+}
@@ -3,11 +3,23 @@ package math.engine.vector;
 public abstract class AbstractVector<T extends AbstractVector<T>> implements Vector<T> {
 
     protected final float[] components;
+    protected final int offset;
     protected final int dimensions;
 
     protected AbstractVector(float[] components) {
-        this.components = components.clone();
-        this.dimensions = components.length;
+        this(components.clone(), 0, components.length);
+    }
+
+    // Доверенный путь без копирования: вектор ссылается на components[offset .. offset + dimensions).
+    // Используется для результатов, созданных самой библиотекой, и для wrap-представлений,
+    // у которых изменения исходного массива видны через вектор.
+    protected AbstractVector(float[] components, int offset, int dimensions) {
+        if (components == null || offset < 0 || dimensions <= 0 || offset + dimensions > components.length) {
+            throw new IllegalArgumentException("Invalid vector storage range");
+        }
+        this.components = components;
+        this.offset = offset;
+        this.dimensions = dimensions;
     }
 
     protected abstract T createNew(float[] components);
@@ -17,7 +29,7 @@ public abstract class AbstractVector<T extends AbstractVector<T>> implements Vec
         checkDimensions(other);
         float[] result = new float[dimensions];
         for (int i = 0; i < dimensions; i++) {
-            result[i] = this.components[i] + other.components[i];
+            result[i] = this.components[offset + i] + other.components[other.offset + i];
         }
         return createNew(result);
     }
@@ -27,7 +39,7 @@ public abstract class AbstractVector<T extends AbstractVector<T>> implements Vec
         checkDimensions(other);
         float[] result = new float[dimensions];
         for (int i = 0; i < dimensions; i++) {
-            result[i] = this.components[i] - other.components[i];
+            result[i] = this.components[offset + i] - other.components[other.offset + i];
         }
         return createNew(result);
     }
@@ -36,7 +48,7 @@ public abstract class AbstractVector<T extends AbstractVector<T>> implements Vec
     public T multiply(float scalar) {
         float[] result = new float[dimensions];
         for (int i = 0; i < dimensions; i++) {
-            result[i] = this.components[i] * scalar;
+            result[i] = this.components[offset + i] * scalar;
         }
         return createNew(result);
     }
@@ -52,8 +64,8 @@ public abstract class AbstractVector<T extends AbstractVector<T>> implements Vec
     @Override
     public float length() {
         float sum = 0;
-        for (float component : components) {
-            sum += component * component;
+        for (int i = offset; i < offset + dimensions; i++) {
+            sum += components[i] * components[i];
         }
         return (float) Math.sqrt(sum);
     }
@@ -72,7 +84,7 @@ public abstract class AbstractVector<T extends AbstractVector<T>> implements Vec
         checkDimensions(other);
         float result = 0;
         for (int i = 0; i < dimensions; i++) {
-            result += this.components[i] * other.components[i];
+            result += this.components[offset + i] * other.components[other.offset + i];
         }
         return result;
     }
@@ -87,7 +99,7 @@ public abstract class AbstractVector<T extends AbstractVector<T>> implements Vec
         if (index < 0 || index >= dimensions) {
             throw new IllegalArgumentException("Index out of bounds");
         }
-        return components[index];
+        return components[offset + index];
     }
 
     protected void checkDimensions(T other) {
@@ -105,7 +117,7 @@ public abstract class AbstractVector<T extends AbstractVector<T>> implements Vec
         if (this.dimensions != other.dimensions) return false;
 
         for (int i = 0; i < dimensions; i++) {
-            if (Math.abs(this.components[i] - other.components[i]) >= 1e-6f) {
+            if (Math.abs(this.components[offset + i] - other.components[other.offset + i]) >= 1e-6f) {
                 return false;
             }
         }
@@ -117,7 +129,7 @@ public abstract class AbstractVector<T extends AbstractVector<T>> implements Vec
         StringBuilder sb = new StringBuilder();
         sb.append("Vector").append(dimensions).append("D(");
         for (int i = 0; i < dimensions; i++) {
-            sb.append(String.format("%.3f", components[i]));
+            sb.append(String.format("%.3f", components[offset + i]));
             if (i < dimensions - 1) sb.append(", ");
         }
         sb.append(")");
@@ -0,0 +1,207 @@
+package math.engine.vector;
+
+import math.engine.internal.ParallelRange;
+
+import java.nio.FloatBuffer;
+
+/**
+ * Пакетные ядра расстояний над плоскими массивами координат.
+ * Точка {@code i} занимает элементы {@code [i * dimensions, (i + 1) * dimensions)}.
+ * Матрица расстояний пишется построчно: строка {@code i} - это {@code countB} подряд идущих значений.
+ */
+public final class DistanceKernels {
+
+    private static final int BLOCK = 64;
+    private static final int PARALLEL_ROWS = 128;
+
+    private DistanceKernels() {}
+
+    public static void distanceMatrix(float[] a, int countA, float[] b, int countB, int dimensions,
+                                      boolean squared, float[] out) {
+        checkPoints(a, countA, dimensions);
+        checkPoints(b, countB, dimensions);
+        if ((long) countA * countB > Integer.MAX_VALUE || out == null || out.length < countA * countB) {
+            throw new IllegalArgumentException("Output array is too small for distance matrix");
+        }
+        ParallelRange.forRange(0, countA, PARALLEL_ROWS,
+                (from, to) -> computeRows(a, from, to, b, countB, dimensions, squared, out, 0, from));
+    }
+
+    // Строки [rowFrom, rowTo) пишутся начиная с текущей позиции буфера; позиция сдвигается.
+    // Для матриц больше 2^31 элементов вызывающий отображает файл окнами и вызывает метод по диапазонам строк.
+    public static void distanceRows(float[] a, int rowFrom, int rowTo, float[] b, int countB, int dimensions,
+                                    boolean squared, FloatBuffer out) {
+        checkPoints(b, countB, dimensions);
+        if (rowFrom < 0 || rowTo < rowFrom || (long) rowTo * dimensions > a.length) {
+            throw new IllegalArgumentException("Invalid row range");
+        }
+        long required = (long) (rowTo - rowFrom) * countB;
+        if (required > out.remaining()) {
+            throw new IllegalArgumentException("Output buffer is too small for distance rows");
+        }
+        int base = out.position();
+        if (out.hasArray()) {
+            float[] array = out.array();
+            int offset = out.arrayOffset() + base;
+            ParallelRange.forRange(rowFrom, rowTo, PARALLEL_ROWS,
+                    (from, to) -> computeRows(a, from, to, b, countB, dimensions, squared, array, offset, rowFrom));
+        } else {
+            ParallelRange.forRange(rowFrom, rowTo, PARALLEL_ROWS, (from, to) -> {
+                float[] row = new float[Math.min(countB, BLOCK)];
+                for (int i = from; i < to; i++) {
+                    int rowStart = base + (i - rowFrom) * countB;
+                    for (int j0 = 0; j0 < countB; j0 += BLOCK) {
+                        int j1 = Math.min(j0 + BLOCK, countB);
+                        for (int j = j0; j < j1; j++) {
+                            row[j - j0] = distance(a, i * dimensions, b, j * dimensions, dimensions, squared);
+                        }
+                        out.put(rowStart + j0, row, 0, j1 - j0);
+                    }
+                }
+            });
+        }
+        out.position(base + (int) required);
+    }
+
+    // k ближайших соседей каждой точки из queries среди points, по возрастанию расстояния.
+    // indices/distances имеют размер queryCount * k; если точек меньше k, хвост заполняется -1 и +Inf.
+    public static void knn(float[] queries, int queryCount, float[] points, int count, int dimensions, int k,
+                           boolean squared, int[] indices, float[] distances) {
+        knn(queries, queryCount, points, count, dimensions, k, squared, false, indices, distances);
+    }
+
+    // То же для самого множества точек: точка не считается собственным соседом.
+    public static void knn(float[] points, int count, int dimensions, int k,
+                           boolean squared, int[] indices, float[] distances) {
+        knn(points, count, points, count, dimensions, k, squared, true, indices, distances);
+    }
+
+    private static void knn(float[] queries, int queryCount, float[] points, int count, int dimensions, int k,
+                            boolean squared, boolean excludeSelf, int[] indices, float[] distances) {
+        checkPoints(queries, queryCount, dimensions);
+        checkPoints(points, count, dimensions);
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be positive");
+        }
+        if (indices.length < (long) queryCount * k || distances.length < (long) queryCount * k) {
+            throw new IllegalArgumentException("Output arrays are too small for k nearest neighbours");
+        }
+
+        ParallelRange.forRange(0, queryCount, PARALLEL_ROWS, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                int heap = i * k;
+                for (int s = 0; s < k; s++) {
+                    indices[heap + s] = -1;
+                    distances[heap + s] = Float.POSITIVE_INFINITY;
+                }
+            }
+            for (int i0 = from; i0 < to; i0 += BLOCK) {
+                int i1 = Math.min(i0 + BLOCK, to);
+                for (int j0 = 0; j0 < count; j0 += BLOCK) {
+                    int j1 = Math.min(j0 + BLOCK, count);
+                    for (int i = i0; i < i1; i++) {
+                        int heap = i * k;
+                        int q = i * dimensions;
+                        for (int j = j0; j < j1; j++) {
+                            if (excludeSelf && i == j) continue;
+                            float d = squaredDistance(queries, q, points, j * dimensions, dimensions);
+                            if (d < distances[heap]) {
+                                siftDown(indices, distances, heap, k, j, d);
+                            }
+                        }
+                    }
+                }
+            }
+            for (int i = from; i < to; i++) {
+                sortHeap(indices, distances, i * k, k, squared);
+            }
+        });
+    }
+
+    private static void computeRows(float[] a, int from, int to, float[] b, int countB, int dimensions,
+                                    boolean squared, float[] out, int outOffset, int firstRow) {
+        for (int i0 = from; i0 < to; i0 += BLOCK) {
+            int i1 = Math.min(i0 + BLOCK, to);
+            for (int j0 = 0; j0 < countB; j0 += BLOCK) {
+                int j1 = Math.min(j0 + BLOCK, countB);
+                for (int i = i0; i < i1; i++) {
+                    int rowStart = outOffset + (i - firstRow) * countB;
+                    int p = i * dimensions;
+                    for (int j = j0; j < j1; j++) {
+                        out[rowStart + j] = distance(a, p, b, j * dimensions, dimensions, squared);
+                    }
+                }
+            }
+        }
+    }
+
+    private static float distance(float[] a, int aOffset, float[] b, int bOffset, int dimensions, boolean squared) {
+        float d = squaredDistance(a, aOffset, b, bOffset, dimensions);
+        return squared ? d : (float) Math.sqrt(d);
+    }
+
+    private static float squaredDistance(float[] a, int aOffset, float[] b, int bOffset, int dimensions) {
+        switch (dimensions) {
+            case 2: {
+                float dx = a[aOffset] - b[bOffset];
+                float dy = a[aOffset + 1] - b[bOffset + 1];
+                return dx * dx + dy * dy;
+            }
+            case 3: {
+                float dx = a[aOffset] - b[bOffset];
+                float dy = a[aOffset + 1] - b[bOffset + 1];
+                float dz = a[aOffset + 2] - b[bOffset + 2];
+                return dx * dx + dy * dy + dz * dz;
+            }
+            default: {
+                float sum = 0;
+                for (int c = 0; c < dimensions; c++) {
+                    float d = a[aOffset + c] - b[bOffset + c];
+                    sum += d * d;
+                }
+                return sum;
+            }
+        }
+    }
+
+    // Max-куча размера k прямо в выходных массивах: корень - худший из найденных соседей.
+    private static void siftDown(int[] indices, float[] distances, int base, int k, int index, float distance) {
+        int pos = 0;
+        while (true) {
+            int child = 2 * pos + 1;
+            if (child >= k) break;
+            if (child + 1 < k && distances[base + child + 1] > distances[base + child]) {
+                child++;
+            }
+            if (distances[base + child] <= distance) break;
+            distances[base + pos] = distances[base + child];
+            indices[base + pos] = indices[base + child];
+            pos = child;
+        }
+        distances[base + pos] = distance;
+        indices[base + pos] = index;
+    }
+
+    private static void sortHeap(int[] indices, float[] distances, int base, int k, boolean squared) {
+        for (int end = k - 1; end > 0; end--) {
+            float maxDistance = distances[base];
+            int maxIndex = indices[base];
+            float lastDistance = distances[base + end];
+            int lastIndex = indices[base + end];
+            siftDown(indices, distances, base, end, lastIndex, lastDistance);
+            distances[base + end] = maxDistance;
+            indices[base + end] = maxIndex;
+        }
+        if (!squared) {
+            for (int s = 0; s < k; s++) {
+                distances[base + s] = (float) Math.sqrt(distances[base + s]);
+            }
+        }
+    }
+
+    private static void checkPoints(float[] points, int count, int dimensions) {
+        if (points == null || count < 0 || dimensions <= 0 || (long) count * dimensions > points.length) {
+            throw new IllegalArgumentException("Invalid point array dimensions");
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package math.engine.vector;
+
+import math.engine.internal.ParallelRange;
+
+// Скалярные ядра над участками float[] для векторов произвольной длины.
+// Суммы накапливаются в double четырьмя независимыми аккумуляторами внутри блока,
+// а блоки складываются попарно: ошибка растет как O(log n), а не O(n) как у наивного цикла во float.
+// Внутренние циклы блока - в SimdKernels, у которого в multi-release JAR есть версия для Java 21+.
+final class FloatKernels {
+
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    private static final int BLOCK = 1024;
+    private static final int CHUNK = 1 << 14;
+
+    private FloatKernels() {}
+
+    static double dot(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        if (length < PARALLEL_THRESHOLD) {
+            return pairwiseDot(a, aOffset, b, bOffset, length);
+        }
+        int chunks = (length + CHUNK - 1) / CHUNK;
+        double[] partial = new double[chunks];
+        ParallelRange.forRange(0, chunks, 1, (from, to) -> {
+            for (int c = from; c < to; c++) {
+                int start = c * CHUNK;
+                int n = Math.min(CHUNK, length - start);
+                partial[c] = pairwiseDot(a, aOffset + start, b, bOffset + start, n);
+            }
+        });
+        return pairwiseSum(partial, 0, chunks);
+    }
+
+    // dest = alpha * x + y
+    static void axpy(float alpha, float[] x, int xOffset, float[] y, int yOffset,
+                     float[] dest, int destOffset, int length) {
+        if (length < PARALLEL_THRESHOLD) {
+            SimdKernels.axpy(alpha, x, xOffset, y, yOffset, dest, destOffset, 0, length);
+            return;
+        }
+        ParallelRange.forRange(0, length, CHUNK,
+                (from, to) -> SimdKernels.axpy(alpha, x, xOffset, y, yOffset, dest, destOffset, from, to));
+    }
+
+    // Квадрат расстояния между участками без промежуточного массива разности.
+    // Длинные участки делятся на части по CHUNK, как в dot
+    static double squaredDistance(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        if (length < PARALLEL_THRESHOLD) {
+            return pairwiseSquaredDistance(a, aOffset, b, bOffset, length);
+        }
+        int chunks = (length + CHUNK - 1) / CHUNK;
+        double[] partial = new double[chunks];
+        ParallelRange.forRange(0, chunks, 1, (from, to) -> {
+            for (int c = from; c < to; c++) {
+                int start = c * CHUNK;
+                int n = Math.min(CHUNK, length - start);
+                partial[c] = pairwiseSquaredDistance(a, aOffset + start, b, bOffset + start, n);
+            }
+        });
+        return pairwiseSum(partial, 0, chunks);
+    }
+
+    private static double pairwiseSquaredDistance(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        if (length <= BLOCK) {
+            double s0 = 0, s1 = 0;
+            int i = 0;
+            for (; i + 1 < length; i += 2) {
+                double d0 = a[aOffset + i] - b[bOffset + i];
+                double d1 = a[aOffset + i + 1] - b[bOffset + i + 1];
+                s0 += d0 * d0;
+                s1 += d1 * d1;
+            }
+            if (i < length) {
+                double d = a[aOffset + i] - b[bOffset + i];
+                s0 += d * d;
+            }
+            return s0 + s1;
+        }
+        int half = length >>> 1;
+        return pairwiseSquaredDistance(a, aOffset, b, bOffset, half)
+                + pairwiseSquaredDistance(a, aOffset + half, b, bOffset + half, length - half);
+    }
+
+    private static double pairwiseDot(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        if (length <= BLOCK) {
+            return SimdKernels.dot(a, aOffset, b, bOffset, length);
+        }
+        int half = length >>> 1;
+        return pairwiseDot(a, aOffset, b, bOffset, half)
+                + pairwiseDot(a, aOffset + half, b, bOffset + half, length - half);
+    }
+
+    private static double pairwiseSum(double[] values, int from, int to) {
+        if (to - from <= 2) {
+            double sum = 0;
+            for (int i = from; i < to; i++) sum += values[i];
+            return sum;
+        }
+        int mid = (from + to) >>> 1;
+        return pairwiseSum(values, from, mid) + pairwiseSum(values, mid, to);
+    }
+}
@@ -0,0 +1,94 @@
+package math.engine.vector;
+
+/**
+ * Преобразования между float и IEEE 754 binary16 (половинная точность), хранимым в short.
+ * binary16: 1 бит знака, 5 бит порядка, 10 бит мантиссы. Нормализованный диапазон 6.1e-5 .. 65504,
+ * относительная ошибка округления не больше 2^-11 (~4.9e-4). Меньшие по модулю значения хранятся
+ * как субнормальные с абсолютным шагом 2^-24, большие 65504 превращаются в бесконечность.
+ * Округление - к ближайшему, при равенстве к четному; NaN и бесконечности сохраняются.
+ */
+public final class HalfFloat {
+
+    public static final short POSITIVE_INFINITY = (short) 0x7c00;
+    public static final short NEGATIVE_INFINITY = (short) 0xfc00;
+    public static final short NaN = (short) 0x7e00;
+    public static final float MAX_VALUE = 65504f;
+
+    private HalfFloat() {}
+
+    public static short fromFloat(float value) {
+        int bits = Float.floatToRawIntBits(value);
+        int sign = (bits >>> 16) & 0x8000;
+        int exponent = (bits >>> 23) & 0xff;
+        int mantissa = bits & 0x7fffff;
+
+        if (exponent == 0xff) {
+            // Бесконечность или NaN; у NaN сохраняется старшая часть полезной нагрузки и бит "тихий"
+            return (short) (sign | 0x7c00 | (mantissa != 0 ? 0x200 | (mantissa >>> 13) : 0));
+        }
+        int halfExponent = exponent - 127 + 15;
+        if (halfExponent >= 0x1f) {
+            return (short) (sign | 0x7c00);
+        }
+        if (halfExponent <= 0) {
+            if (halfExponent < -10) {
+                return (short) sign;
+            }
+            // Субнормальный результат: явная единица мантиссы и сдвиг с округлением
+            mantissa |= 0x800000;
+            int shift = 14 - halfExponent;
+            int half = mantissa >>> shift;
+            int remainder = mantissa & ((1 << shift) - 1);
+            int halfway = 1 << (shift - 1);
+            if (remainder > halfway || (remainder == halfway && (half & 1) != 0)) {
+                half++;
+            }
+            return (short) (sign | half);
+        }
+        int half = (halfExponent << 10) | (mantissa >>> 13);
+        int remainder = mantissa & 0x1fff;
+        // Перенос из мантиссы корректно увеличивает порядок, в том числе до бесконечности
+        if (remainder > 0x1000 || (remainder == 0x1000 && (half & 1) != 0)) {
+            half++;
+        }
+        return (short) (sign | half);
+    }
+
+    public static float toFloat(short half) {
+        int bits = half & 0xffff;
+        int sign = (bits & 0x8000) << 16;
+        int exponent = (bits >>> 10) & 0x1f;
+        int mantissa = bits & 0x3ff;
+
+        if (exponent == 0) {
+            float magnitude = mantissa * 0x1p-24f;
+            return sign == 0 ? magnitude : -magnitude;
+        }
+        if (exponent == 0x1f) {
+            return Float.intBitsToFloat(sign | 0x7f800000 | (mantissa << 13));
+        }
+        return Float.intBitsToFloat(sign | ((exponent + 112) << 23) | (mantissa << 13));
+    }
+
+    public static void encode(float[] src, int srcOffset, short[] dest, int destOffset, int length) {
+        checkRange(src.length, srcOffset, length);
+        checkRange(dest.length, destOffset, length);
+        for (int i = 0; i < length; i++) {
+            dest[destOffset + i] = fromFloat(src[srcOffset + i]);
+        }
+    }
+
+    public static void decode(short[] src, int srcOffset, float[] dest, int destOffset, int length) {
+        checkRange(src.length, srcOffset, length);
+        checkRange(dest.length, destOffset, length);
+        for (int i = 0; i < length; i++) {
+            dest[destOffset + i] = toFloat(src[srcOffset + i]);
+        }
+    }
+
+    static void checkRange(int arrayLength, int offset, int length) {
+        if (offset < 0 || length < 0 || (long) offset + length > arrayLength) {
+            throw new IllegalArgumentException("Array range out of bounds");
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package math.engine.vector;
+
+import math.engine.internal.ParallelRange;
+
+/**
+ * Компактный массив трехмерных векторов в половинной точности: 6 байт на вектор вместо 12 у float[]
+ * и порядка 32 у отдельных объектов Vector3D. Предназначен для нормалей и направлений, где компоненты
+ * лежат в [-1, 1]: абсолютная ошибка компоненты после кодирования не больше 2^-12 (~2.4e-4),
+ * ошибка скалярного произведения единичных векторов - порядка 1e-3.
+ * Значения вне [-65504, 65504] становятся бесконечностями, см. {@link HalfFloat}.
+ * Вектор {@code i} занимает элементы {@code [3 * i, 3 * i + 3)} массива short.
+ */
+public final class HalfVector3Array {
+
+    private static final int PARALLEL_THRESHOLD = 1 << 15;
+    private static final int CHUNK = 1 << 12;
+
+    private final short[] data;
+    private final int size;
+
+    public HalfVector3Array(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Size must be non-negative");
+        }
+        // Дальше индексы 3 * i для i <= size вычисляются в int без переполнения
+        if (3L * size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Size is too large for array storage");
+        }
+        this.size = size;
+        this.data = new short[3 * size];
+    }
+
+    private HalfVector3Array(short[] data, int size) {
+        this.data = data;
+        this.size = size;
+    }
+
+    // Кодирование count векторов из плоского float[] (x0, y0, z0, x1, ...)
+    public static HalfVector3Array encode(float[] xyz, int offset, int count) {
+        HalfVector3Array array = new HalfVector3Array(count);
+        array.encode(0, xyz, offset, count);
+        return array;
+    }
+
+    // Представление без копирования над массивом вызывающего кода
+    public static HalfVector3Array wrap(short[] data) {
+        if (data.length % 3 != 0) {
+            throw new IllegalArgumentException("Array length must be a multiple of 3");
+        }
+        return new HalfVector3Array(data, data.length / 3);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public short[] array() {
+        return data;
+    }
+
+    public float getX(int index) {
+        return HalfFloat.toFloat(data[checkIndex(index) * 3]);
+    }
+
+    public float getY(int index) {
+        return HalfFloat.toFloat(data[checkIndex(index) * 3 + 1]);
+    }
+
+    public float getZ(int index) {
+        return HalfFloat.toFloat(data[checkIndex(index) * 3 + 2]);
+    }
+
+    public Vector3D get(int index) {
+        int base = checkIndex(index) * 3;
+        return new Vector3D(HalfFloat.toFloat(data[base]), HalfFloat.toFloat(data[base + 1]),
+                HalfFloat.toFloat(data[base + 2]));
+    }
+
+    public void set(int index, float x, float y, float z) {
+        int base = checkIndex(index) * 3;
+        data[base] = HalfFloat.fromFloat(x);
+        data[base + 1] = HalfFloat.fromFloat(y);
+        data[base + 2] = HalfFloat.fromFloat(z);
+    }
+
+    public void set(int index, Vector3D vector) {
+        set(index, vector.getX(), vector.getY(), vector.getZ());
+    }
+
+    // Векторы [start, start + count) из src начиная с srcOffset
+    public void encode(int start, float[] src, int srcOffset, int count) {
+        checkVectors(start, count);
+        HalfFloat.checkRange(src.length, srcOffset, 3 * count);
+        forChunks(count, (from, to) -> {
+            for (int i = 3 * from; i < 3 * to; i++) {
+                data[3 * start + i] = HalfFloat.fromFloat(src[srcOffset + i]);
+            }
+        });
+    }
+
+    public void decode(int start, int count, float[] dest, int destOffset) {
+        checkVectors(start, count);
+        HalfFloat.checkRange(dest.length, destOffset, 3 * count);
+        forChunks(count, (from, to) -> {
+            for (int i = 3 * from; i < 3 * to; i++) {
+                dest[destOffset + i] = HalfFloat.toFloat(data[3 * start + i]);
+            }
+        });
+    }
+
+    public float dot(int index, Vector3D vector) {
+        int base = checkIndex(index) * 3;
+        return HalfFloat.toFloat(data[base]) * vector.getX()
+                + HalfFloat.toFloat(data[base + 1]) * vector.getY()
+                + HalfFloat.toFloat(data[base + 2]) * vector.getZ();
+    }
+
+    // out[outOffset + i] = v_i . vector для всех векторов; декодирование на лету без промежуточного float[]
+    public void dot(Vector3D vector, float[] out, int outOffset) {
+        HalfFloat.checkRange(out.length, outOffset, size);
+        float x = vector.getX(), y = vector.getY(), z = vector.getZ();
+        forChunks(size, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                int base = 3 * i;
+                out[outOffset + i] = HalfFloat.toFloat(data[base]) * x
+                        + HalfFloat.toFloat(data[base + 1]) * y
+                        + HalfFloat.toFloat(data[base + 2]) * z;
+            }
+        });
+    }
+
+    // Попарные скалярные произведения с другим массивом того же размера
+    public void dot(HalfVector3Array other, float[] out, int outOffset) {
+        if (other.size != size) {
+            throw new IllegalArgumentException("Array sizes don't match");
+        }
+        HalfFloat.checkRange(out.length, outOffset, size);
+        short[] b = other.data;
+        forChunks(size, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                int base = 3 * i;
+                out[outOffset + i] = HalfFloat.toFloat(data[base]) * HalfFloat.toFloat(b[base])
+                        + HalfFloat.toFloat(data[base + 1]) * HalfFloat.toFloat(b[base + 1])
+                        + HalfFloat.toFloat(data[base + 2]) * HalfFloat.toFloat(b[base + 2]);
+            }
+        });
+    }
+
+    // Преобразование всех векторов матрицей 3x3, заданной построчно в m[0..9); результат в половинной точности.
+    // dest может совпадать с this. Используется Matrix3x3.transform.
+    public void transform(float[] m, HalfVector3Array dest) {
+        if (m.length < 9) {
+            throw new IllegalArgumentException("Matrix array must contain 9 elements");
+        }
+        if (dest.size != size) {
+            throw new IllegalArgumentException("Array sizes don't match");
+        }
+        short[] out = dest.data;
+        forChunks(size, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                int base = 3 * i;
+                float x = HalfFloat.toFloat(data[base]);
+                float y = HalfFloat.toFloat(data[base + 1]);
+                float z = HalfFloat.toFloat(data[base + 2]);
+                out[base] = HalfFloat.fromFloat(m[0] * x + m[1] * y + m[2] * z);
+                out[base + 1] = HalfFloat.fromFloat(m[3] * x + m[4] * y + m[5] * z);
+                out[base + 2] = HalfFloat.fromFloat(m[6] * x + m[7] * y + m[8] * z);
+            }
+        });
+    }
+
+    // То же с результатом в полной точности: dest[destOffset ..] = (x0', y0', z0', x1', ...)
+    public void transform(float[] m, float[] dest, int destOffset) {
+        if (m.length < 9) {
+            throw new IllegalArgumentException("Matrix array must contain 9 elements");
+        }
+        HalfFloat.checkRange(dest.length, destOffset, 3 * size);
+        forChunks(size, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                int base = 3 * i;
+                float x = HalfFloat.toFloat(data[base]);
+                float y = HalfFloat.toFloat(data[base + 1]);
+                float z = HalfFloat.toFloat(data[base + 2]);
+                int o = destOffset + base;
+                dest[o] = m[0] * x + m[1] * y + m[2] * z;
+                dest[o + 1] = m[3] * x + m[4] * y + m[5] * z;
+                dest[o + 2] = m[6] * x + m[7] * y + m[8] * z;
+            }
+        });
+    }
+
+    private static void forChunks(int count, ParallelRange.Body body) {
+        if (count < PARALLEL_THRESHOLD) {
+            body.run(0, count);
+        } else {
+            ParallelRange.forRange(0, count, CHUNK, body);
+        }
+    }
+
+    private void checkVectors(int start, int count) {
+        if (start < 0 || count < 0 || (long) start + count > size) {
+            throw new IllegalArgumentException("Vector range out of bounds");
+        }
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Index out of bounds");
+        }
+        return index;
+    }
+}
@@ -0,0 +1,127 @@
+package math.engine.vector;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+/**
+ * Массив float вне кучи с индексом long: для наборов векторов больше 2^31 элементов или данных,
+ * которые не должны нагружать сборщик мусора.
+ *
+ * Эта версия для Java 17 и 21 хранит данные в прямых ByteBuffer частями по 2^28 элементов (1 ГБ);
+ * память освобождается сборщиком мусора после {@link #close()} и потери ссылок.
+ * В multi-release JAR для Java 22+ класс заменяется версией на MemorySegment и Arena,
+ * которая освобождает память сразу при close().
+ */
+public final class OffHeapFloatArray implements AutoCloseable {
+
+    private static final int CHUNK_SHIFT = 28;
+    private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+
+    private final long length;
+    private FloatBuffer[] chunks;
+
+    private OffHeapFloatArray(long length) {
+        this.length = length;
+        int count = (int) ((length + CHUNK_MASK) >>> CHUNK_SHIFT);
+        chunks = new FloatBuffer[count];
+        for (int i = 0; i < count; i++) {
+            long size = Math.min(1L << CHUNK_SHIFT, length - ((long) i << CHUNK_SHIFT));
+            chunks[i] = ByteBuffer.allocateDirect((int) size * Float.BYTES)
+                    .order(ByteOrder.nativeOrder()).asFloatBuffer();
+        }
+    }
+
+    public static OffHeapFloatArray allocate(long length) {
+        if (length < 0) {
+            throw new IllegalArgumentException("Length must be non-negative");
+        }
+        return new OffHeapFloatArray(length);
+    }
+
+    // "bytebuffer" или "memory-segment" в зависимости от выбранной версии класса
+    public static String implementation() {
+        return "bytebuffer";
+    }
+
+    public long length() {
+        return length;
+    }
+
+    public float get(long index) {
+        checkIndex(index, 1);
+        return chunks()[(int) (index >>> CHUNK_SHIFT)].get((int) (index & CHUNK_MASK));
+    }
+
+    public void set(long index, float value) {
+        checkIndex(index, 1);
+        chunks()[(int) (index >>> CHUNK_SHIFT)].put((int) (index & CHUNK_MASK), value);
+    }
+
+    public void copyFrom(float[] src, int srcOffset, long index, int count) {
+        checkIndex(index, count);
+        if (srcOffset < 0 || srcOffset + count > src.length) {
+            throw new IllegalArgumentException("Array range out of bounds");
+        }
+        FloatBuffer[] buffers = chunks();
+        int done = 0;
+        while (done < count) {
+            long position = index + done;
+            int inChunk = (int) (position & CHUNK_MASK);
+            int n = Math.min(count - done, (1 << CHUNK_SHIFT) - inChunk);
+            buffers[(int) (position >>> CHUNK_SHIFT)].put(inChunk, src, srcOffset + done, n);
+            done += n;
+        }
+    }
+
+    public void copyTo(long index, float[] dest, int destOffset, int count) {
+        checkIndex(index, count);
+        if (destOffset < 0 || destOffset + count > dest.length) {
+            throw new IllegalArgumentException("Array range out of bounds");
+        }
+        FloatBuffer[] buffers = chunks();
+        int done = 0;
+        while (done < count) {
+            long position = index + done;
+            int inChunk = (int) (position & CHUNK_MASK);
+            int n = Math.min(count - done, (1 << CHUNK_SHIFT) - inChunk);
+            buffers[(int) (position >>> CHUNK_SHIFT)].get(inChunk, dest, destOffset + done, n);
+            done += n;
+        }
+    }
+
+    // Скалярное произведение участка [index, index + count) с vector[vectorOffset ..], накопление в double
+    public double dot(long index, float[] vector, int vectorOffset, int count) {
+        checkIndex(index, count);
+        if (vectorOffset < 0 || vectorOffset + count > vector.length) {
+            throw new IllegalArgumentException("Array range out of bounds");
+        }
+        FloatBuffer[] buffers = chunks();
+        double sum = 0;
+        for (int i = 0; i < count; i++) {
+            long position = index + i;
+            sum += (double) buffers[(int) (position >>> CHUNK_SHIFT)].get((int) (position & CHUNK_MASK))
+                    * vector[vectorOffset + i];
+        }
+        return sum;
+    }
+
+    @Override
+    public void close() {
+        chunks = null;
+    }
+
+    private FloatBuffer[] chunks() {
+        FloatBuffer[] buffers = chunks;
+        if (buffers == null) {
+            throw new IllegalStateException("Off-heap array is closed");
+        }
+        return buffers;
+    }
+
+    private void checkIndex(long index, long count) {
+        if (index < 0 || count < 0 || index + count > length) {
+            throw new IllegalArgumentException("Index out of bounds");
+        }
+    }
+}
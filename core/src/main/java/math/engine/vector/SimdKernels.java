@@ -0,0 +1,39 @@
+package math.engine.vector;
+
+// Внутренние циклы FloatKernels. Это переносимая скалярная версия для Java 17;
+// в multi-release JAR для Java 21+ класс заменяется версией из src/main/java21,
+// которая при доступном модуле jdk.incubator.vector использует Vector API.
+final class SimdKernels {
+
+    private SimdKernels() {}
+
+    // Метод, а не константа: константа встроилась бы в вызывающий класс при компиляции
+    // и не менялась бы вместе с версией класса в multi-release JAR.
+    static String implementation() {
+        return "scalar";
+    }
+
+    // Скалярное произведение одного блока с накоплением в double
+    static double dot(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = 0;
+        for (; i + 3 < length; i += 4) {
+            s0 += (double) a[aOffset + i] * b[bOffset + i];
+            s1 += (double) a[aOffset + i + 1] * b[bOffset + i + 1];
+            s2 += (double) a[aOffset + i + 2] * b[bOffset + i + 2];
+            s3 += (double) a[aOffset + i + 3] * b[bOffset + i + 3];
+        }
+        for (; i < length; i++) {
+            s0 += (double) a[aOffset + i] * b[bOffset + i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    // dest[i] = alpha * x[i] + y[i] для i из [from, to)
+    static void axpy(float alpha, float[] x, int xOffset, float[] y, int yOffset,
+                     float[] dest, int destOffset, int from, int to) {
+        for (int i = from; i < to; i++) {
+            dest[destOffset + i] = alpha * x[xOffset + i] + y[yOffset + i];
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package math.engine.vector;
+
+public final class Vector2D extends AbstractVector<Vector2D> {
+
+    public Vector2D(float x, float y) {
+        super(new float[]{x, y}, 0, 2);
+    }
+
+    private Vector2D(float[] components, int offset) {
+        super(components, offset, 2);
+    }
+
+    // Представление без копирования над array[offset], array[offset + 1].
+    // Вектор не владеет массивом: изменения массива видны через вектор.
+    public static Vector2D wrap(float[] array, int offset) {
+        return new Vector2D(array, offset);
+    }
+
+    @Override
+    protected Vector2D createNew(float[] components) {
+        return new Vector2D(components, 0);
+    }
+
+    public float getX() { return components[offset]; }
+    public float getY() { return components[offset + 1]; }
+
+    public float cross(Vector2D other) {
+        return getX() * other.getY() - getY() * other.getX();
+    }
+
+    public float distance(Vector2D other) {
+        float dx = getX() - other.getX();
+        float dy = getY() - other.getY();
+        return (float) Math.sqrt(dx * dx + dy * dy);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Vector2D(%.3f, %.3f)", getX(), getY());
+    }
+}
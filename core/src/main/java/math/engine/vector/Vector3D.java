@@ -3,17 +3,27 @@ package math.engine.vector;
 public final class Vector3D extends AbstractVector<Vector3D> {
 
     public Vector3D(float x, float y, float z) {
-        super(new float[]{x, y, z});
+        super(new float[]{x, y, z}, 0, 3);
+    }
+
+    private Vector3D(float[] components, int offset) {
+        super(components, offset, 3);
+    }
+
+    // Представление без копирования над array[offset .. offset + 2].
+    // Вектор не владеет массивом: изменения массива видны через вектор.
+    public static Vector3D wrap(float[] array, int offset) {
+        return new Vector3D(array, offset);
     }
 
     @Override
     protected Vector3D createNew(float[] components) {
-        return new Vector3D(components[0], components[1], components[2]);
+        return new Vector3D(components, 0);
     }
 
-    public float getX() { return components[0]; }
-    public float getY() { return components[1]; }
-    public float getZ() { return components[2]; }
+    public float getX() { return components[offset]; }
+    public float getY() { return components[offset + 1]; }
+    public float getZ() { return components[offset + 2]; }
 
     public Vector3D cross(Vector3D other) {
         return new Vector3D(
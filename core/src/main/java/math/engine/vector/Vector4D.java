@@ -3,22 +3,32 @@ package math.engine.vector;
 public final class Vector4D extends AbstractVector<Vector4D> {
 
     public Vector4D(float x, float y, float z, float w) {
-        super(new float[]{x, y, z, w});
+        super(new float[]{x, y, z, w}, 0, 4);
+    }
+
+    private Vector4D(float[] components, int offset) {
+        super(components, offset, 4);
     }
 
     public Vector4D(Vector3D vector, float w) {
         this(vector.getX(), vector.getY(), vector.getZ(), w);
     }
 
+    // Представление без копирования над array[offset .. offset + 3].
+    // Вектор не владеет массивом: изменения массива видны через вектор.
+    public static Vector4D wrap(float[] array, int offset) {
+        return new Vector4D(array, offset);
+    }
+
     @Override
     protected Vector4D createNew(float[] components) {
-        return new Vector4D(components[0], components[1], components[2], components[3]);
+        return new Vector4D(components, 0);
     }
 
-    public float getX() { return components[0]; }
-    public float getY() { return components[1]; }
-    public float getZ() { return components[2]; }
-    public float getW() { return components[3]; }
+    public float getX() { return components[offset]; }
+    public float getY() { return components[offset + 1]; }
+    public float getZ() { return components[offset + 2]; }
+    public float getW() { return components[offset + 3]; }
 
     // Специфичные для 4D операции
     public Vector3D toVector3D() {
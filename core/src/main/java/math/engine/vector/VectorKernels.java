@@ -0,0 +1,153 @@
+package math.engine.vector;
+
+/**
+ * Пакетные операции над векторами в раскладке "структура массивов": компоненты лежат в отдельных
+ * массивах x, y, z (и w), вектор {@code i} - это {@code (x[i], y[i], z[i])}. Все массивы, включая
+ * выходные, индексируются одним диапазоном {@code [offset, offset + count)}.
+ *
+ * Циклы не ветвятся и не выделяют память, поэтому JIT векторизует их по элементам. Выполнение
+ * однопоточное: для параллельной обработки вызывающий делит диапазон на части.
+ * В отличие от {@link AbstractVector#normalize()} нулевые векторы не вызывают исключение,
+ * а отмечаются в маске.
+ */
+public final class VectorKernels {
+
+    // Тот же порог, что у AbstractVector.normalize: длина меньше 1e-12
+    private static final float ZERO_LENGTH_SQUARED = 1e-24f;
+
+    private VectorKernels() {}
+
+    public static void squaredLengths(float[] x, float[] y, float[] z, int offset, int count, float[] out) {
+        checkRange(offset, count, x, y, z);
+        checkRange(offset, count, out.length);
+        for (int i = offset; i < offset + count; i++) {
+            out[i] = x[i] * x[i] + y[i] * y[i] + z[i] * z[i];
+        }
+    }
+
+    public static void squaredLengths(float[] x, float[] y, float[] z, float[] w, int offset, int count, float[] out) {
+        checkRange(offset, count, x, y, z);
+        checkRange(offset, count, Math.min(w.length, out.length));
+        for (int i = offset; i < offset + count; i++) {
+            out[i] = x[i] * x[i] + y[i] * y[i] + z[i] * z[i] + w[i] * w[i];
+        }
+    }
+
+    public static void lengths(float[] x, float[] y, float[] z, int offset, int count, float[] out) {
+        checkRange(offset, count, x, y, z);
+        checkRange(offset, count, out.length);
+        for (int i = offset; i < offset + count; i++) {
+            out[i] = (float) Math.sqrt(x[i] * x[i] + y[i] * y[i] + z[i] * z[i]);
+        }
+    }
+
+    public static void lengths(float[] x, float[] y, float[] z, float[] w, int offset, int count, float[] out) {
+        checkRange(offset, count, x, y, z);
+        checkRange(offset, count, Math.min(w.length, out.length));
+        for (int i = offset; i < offset + count; i++) {
+            out[i] = (float) Math.sqrt(x[i] * x[i] + y[i] * y[i] + z[i] * z[i] + w[i] * w[i]);
+        }
+    }
+
+    /**
+     * Нормализация на месте. Векторы длины меньше 1e-12 обнуляются, и для них в zeroMask
+     * (если он не null) записывается true, для остальных - false.
+     *
+     * @return число нулевых векторов
+     */
+    public static int normalize(float[] x, float[] y, float[] z, int offset, int count, boolean[] zeroMask) {
+        checkRange(offset, count, x, y, z);
+        if (zeroMask != null) {
+            checkRange(offset, count, zeroMask.length);
+        }
+        int zeros = 0;
+        for (int i = offset; i < offset + count; i++) {
+            float squared = x[i] * x[i] + y[i] * y[i] + z[i] * z[i];
+            boolean zero = squared < ZERO_LENGTH_SQUARED;
+            float inverse = zero ? 0 : 1 / (float) Math.sqrt(squared);
+            x[i] *= inverse;
+            y[i] *= inverse;
+            z[i] *= inverse;
+            zeros += zero ? 1 : 0;
+        }
+        if (zeroMask != null) {
+            for (int i = offset; i < offset + count; i++) {
+                zeroMask[i] = x[i] == 0 && y[i] == 0 && z[i] == 0;
+            }
+        }
+        return zeros;
+    }
+
+    public static int normalize(float[] x, float[] y, float[] z, float[] w, int offset, int count,
+                                boolean[] zeroMask) {
+        checkRange(offset, count, x, y, z);
+        checkRange(offset, count, w.length);
+        if (zeroMask != null) {
+            checkRange(offset, count, zeroMask.length);
+        }
+        int zeros = 0;
+        for (int i = offset; i < offset + count; i++) {
+            float squared = x[i] * x[i] + y[i] * y[i] + z[i] * z[i] + w[i] * w[i];
+            boolean zero = squared < ZERO_LENGTH_SQUARED;
+            float inverse = zero ? 0 : 1 / (float) Math.sqrt(squared);
+            x[i] *= inverse;
+            y[i] *= inverse;
+            z[i] *= inverse;
+            w[i] *= inverse;
+            zeros += zero ? 1 : 0;
+        }
+        if (zeroMask != null) {
+            for (int i = offset; i < offset + count; i++) {
+                zeroMask[i] = x[i] == 0 && y[i] == 0 && z[i] == 0 && w[i] == 0;
+            }
+        }
+        return zeros;
+    }
+
+    // out[i] = a_i . b_i
+    public static void dot(float[] ax, float[] ay, float[] az, float[] bx, float[] by, float[] bz,
+                           int offset, int count, float[] out) {
+        checkRange(offset, count, ax, ay, az);
+        checkRange(offset, count, bx, by, bz);
+        checkRange(offset, count, out.length);
+        for (int i = offset; i < offset + count; i++) {
+            out[i] = ax[i] * bx[i] + ay[i] * by[i] + az[i] * bz[i];
+        }
+    }
+
+    public static void dot(float[] ax, float[] ay, float[] az, float[] aw,
+                           float[] bx, float[] by, float[] bz, float[] bw,
+                           int offset, int count, float[] out) {
+        checkRange(offset, count, ax, ay, az);
+        checkRange(offset, count, aw, bx, by);
+        checkRange(offset, count, bz, bw, out);
+        for (int i = offset; i < offset + count; i++) {
+            out[i] = ax[i] * bx[i] + ay[i] * by[i] + az[i] * bz[i] + aw[i] * bw[i];
+        }
+    }
+
+    // (outX, outY, outZ)_i = a_i x b_i; выходные массивы могут совпадать с входными
+    public static void cross(float[] ax, float[] ay, float[] az, float[] bx, float[] by, float[] bz,
+                             int offset, int count, float[] outX, float[] outY, float[] outZ) {
+        checkRange(offset, count, ax, ay, az);
+        checkRange(offset, count, bx, by, bz);
+        checkRange(offset, count, outX, outY, outZ);
+        for (int i = offset; i < offset + count; i++) {
+            float x1 = ax[i], y1 = ay[i], z1 = az[i];
+            float x2 = bx[i], y2 = by[i], z2 = bz[i];
+            outX[i] = y1 * z2 - z1 * y2;
+            outY[i] = z1 * x2 - x1 * z2;
+            outZ[i] = x1 * y2 - y1 * x2;
+        }
+    }
+
+    private static void checkRange(int offset, int count, float[] a, float[] b, float[] c) {
+        checkRange(offset, count, Math.min(a.length, Math.min(b.length, c.length)));
+    }
+
+    private static void checkRange(int offset, int count, int length) {
+        if (offset < 0 || count < 0 || offset + count > length) {
+            throw new IllegalArgumentException("Array range out of bounds");
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package math.engine.vector;
+
+public final class VectorN extends AbstractVector<VectorN> {
+
+    public VectorN(float... components) {
+        super(components);
+    }
+
+    private VectorN(float[] components, int offset, int dimensions) {
+        super(components, offset, dimensions);
+    }
+
+    public static VectorN zeros(int dimensions) {
+        return new VectorN(new float[dimensions], 0, dimensions);
+    }
+
+    // Представление без копирования над array[offset .. offset + dimensions).
+    // Вектор не владеет массивом: изменения массива видны через вектор.
+    public static VectorN wrap(float[] array, int offset, int dimensions) {
+        return new VectorN(array, offset, dimensions);
+    }
+
+    // Реализация внутренних циклов: "scalar" или "vector-api" (JAR на Java 21+ с --add-modules jdk.incubator.vector)
+    public static String kernelImplementation() {
+        return SimdKernels.implementation();
+    }
+
+    @Override
+    protected VectorN createNew(float[] components) {
+        return new VectorN(components, 0, components.length);
+    }
+
+    // Для длинных векторов (от 2^16 элементов) редукции выполняются параллельно на fork/join.
+    // Результат детерминирован: разбиение на блоки не зависит от числа потоков.
+    @Override
+    public float dot(VectorN other) {
+        checkDimensions(other);
+        return (float) FloatKernels.dot(components, offset, other.components, other.offset, dimensions);
+    }
+
+    @Override
+    public float length() {
+        return (float) Math.sqrt(FloatKernels.dot(components, offset, components, offset, dimensions));
+    }
+
+    public float distance(VectorN other) {
+        checkDimensions(other);
+        return (float) Math.sqrt(FloatKernels.squaredDistance(components, offset, other.components, other.offset, dimensions));
+    }
+
+    // alpha * this + y
+    public VectorN scaleAdd(float alpha, VectorN y) {
+        checkDimensions(y);
+        float[] result = new float[dimensions];
+        FloatKernels.axpy(alpha, components, offset, y.components, y.offset, result, 0, dimensions);
+        return createNew(result);
+    }
+
+    // dest[destOffset ..] = alpha * x + y без создания объектов; dest может совпадать с хранилищем y.
+    public static void axpy(float alpha, VectorN x, VectorN y, float[] dest, int destOffset) {
+        x.checkDimensions(y);
+        if (destOffset < 0 || destOffset + x.dimensions > dest.length) {
+            throw new IllegalArgumentException("Destination array is too small");
+        }
+        FloatKernels.axpy(alpha, x.components, x.offset, y.components, y.offset, dest, destOffset, x.dimensions);
+    }
+
+    public void copyTo(float[] dest, int destOffset) {
+        System.arraycopy(components, offset, dest, destOffset, dimensions);
+    }
+
+    @Override
+    public String toString() {
+        if (dimensions <= 8) {
+            return super.toString();
+        }
+        return String.format("VectorN[%d](%.3f, %.3f, ..., %.3f)",
+                dimensions, components[offset], components[offset + 1], components[offset + dimensions - 1]);
+    }
+}
@@ -1,7 +1,7 @@
 module math.engine {
-    requires javafx.controls;
     exports math.engine;
-    exports math.engine.demo;
     exports math.engine.vector;
     exports math.engine.matrix;
+    exports math.engine.search;
+    exports math.engine.geometry;
 }
\ No newline at end of file
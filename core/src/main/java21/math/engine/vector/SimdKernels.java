@@ -0,0 +1,63 @@
+package math.engine.vector;
+
+import java.util.Optional;
+
+// Версия для Java 21+ в META-INF/versions/21. Реализация выбирается один раз при загрузке класса:
+// если модуль jdk.incubator.vector есть в загрузочном слое (--add-modules jdk.incubator.vector),
+// используются ядра VectorApiKernels, иначе - те же скалярные циклы, что и в версии для Java 17.
+final class SimdKernels {
+
+    private static final boolean VECTOR_API = enableVectorApi();
+
+    private SimdKernels() {}
+
+    static String implementation() {
+        return VECTOR_API ? "vector-api" : "scalar";
+    }
+
+    static double dot(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        if (VECTOR_API) {
+            return VectorApiKernels.dot(a, aOffset, b, bOffset, length);
+        }
+        double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = 0;
+        for (; i + 3 < length; i += 4) {
+            s0 += (double) a[aOffset + i] * b[bOffset + i];
+            s1 += (double) a[aOffset + i + 1] * b[bOffset + i + 1];
+            s2 += (double) a[aOffset + i + 2] * b[bOffset + i + 2];
+            s3 += (double) a[aOffset + i + 3] * b[bOffset + i + 3];
+        }
+        for (; i < length; i++) {
+            s0 += (double) a[aOffset + i] * b[bOffset + i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    static void axpy(float alpha, float[] x, int xOffset, float[] y, int yOffset,
+                     float[] dest, int destOffset, int from, int to) {
+        if (VECTOR_API) {
+            VectorApiKernels.axpy(alpha, x, xOffset, y, yOffset, dest, destOffset, from, to);
+            return;
+        }
+        for (int i = from; i < to; i++) {
+            dest[destOffset + i] = alpha * x[xOffset + i] + y[yOffset + i];
+        }
+    }
+
+    // Модуль math.engine не объявляет зависимость от инкубаторного модуля, поэтому связь чтения
+    // добавляется здесь; без модуля (запуск с classpath) проверка сводится к наличию модуля в слое.
+    private static boolean enableVectorApi() {
+        if (Boolean.getBoolean("math.engine.scalar")) {
+            return false;
+        }
+        Optional<Module> vector = ModuleLayer.boot().findModule("jdk.incubator.vector");
+        if (vector.isEmpty()) {
+            return false;
+        }
+        Module self = SimdKernels.class.getModule();
+        if (self.isNamed()) {
+            self.addReads(vector.get());
+        }
+        return true;
+    }
+}
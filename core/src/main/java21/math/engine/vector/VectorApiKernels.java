@@ -0,0 +1,49 @@
+package math.engine.vector;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// Ядра на jdk.incubator.vector; загружаются только из SimdKernels, когда модуль доступен.
+final class VectorApiKernels {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    private VectorApiKernels() {}
+
+    // Внутри блока (не больше 1024 элементов, см. FloatKernels) накопление идет во float по дорожкам,
+    // сумма дорожек переводится в double; между блоками сохраняется попарное суммирование в double.
+    static double dot(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        FloatVector acc0 = FloatVector.zero(SPECIES);
+        FloatVector acc1 = FloatVector.zero(SPECIES);
+        int step = SPECIES.length();
+        int i = 0;
+        for (; i + 2 * step <= length; i += 2 * step) {
+            FloatVector a0 = FloatVector.fromArray(SPECIES, a, aOffset + i);
+            FloatVector b0 = FloatVector.fromArray(SPECIES, b, bOffset + i);
+            FloatVector a1 = FloatVector.fromArray(SPECIES, a, aOffset + i + step);
+            FloatVector b1 = FloatVector.fromArray(SPECIES, b, bOffset + i + step);
+            acc0 = a0.fma(b0, acc0);
+            acc1 = a1.fma(b1, acc1);
+        }
+        double sum = acc0.add(acc1).reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            sum += (double) a[aOffset + i] * b[bOffset + i];
+        }
+        return sum;
+    }
+
+    static void axpy(float alpha, float[] x, int xOffset, float[] y, int yOffset,
+                     float[] dest, int destOffset, int from, int to) {
+        int step = SPECIES.length();
+        int i = from;
+        for (; i + step <= to; i += step) {
+            FloatVector vx = FloatVector.fromArray(SPECIES, x, xOffset + i);
+            FloatVector vy = FloatVector.fromArray(SPECIES, y, yOffset + i);
+            vx.mul(alpha).add(vy).intoArray(dest, destOffset + i);
+        }
+        for (; i < to; i++) {
+            dest[destOffset + i] = alpha * x[xOffset + i] + y[yOffset + i];
+        }
+    }
+}
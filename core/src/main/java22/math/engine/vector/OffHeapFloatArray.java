@@ -0,0 +1,95 @@
+package math.engine.vector;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * Массив float вне кучи с индексом long. Версия для Java 22+ (META-INF/versions/22) на окончательном
+ * API FFM: один непрерывный MemorySegment из общей Arena, доступный из любых потоков;
+ * {@link #close()} освобождает память сразу. Публичный API совпадает с версией для Java 17.
+ */
+public final class OffHeapFloatArray implements AutoCloseable {
+
+    private static final ValueLayout.OfFloat FLOAT = ValueLayout.JAVA_FLOAT;
+
+    private final long length;
+    private final Arena arena;
+    private final MemorySegment segment;
+
+    private OffHeapFloatArray(long length) {
+        this.length = length;
+        this.arena = Arena.ofShared();
+        this.segment = arena.allocate(length * Float.BYTES, 64);
+    }
+
+    public static OffHeapFloatArray allocate(long length) {
+        if (length < 0) {
+            throw new IllegalArgumentException("Length must be non-negative");
+        }
+        return new OffHeapFloatArray(length);
+    }
+
+    public static String implementation() {
+        return "memory-segment";
+    }
+
+    public long length() {
+        return length;
+    }
+
+    public float get(long index) {
+        checkIndex(index, 1);
+        return segment.getAtIndex(FLOAT, index);
+    }
+
+    public void set(long index, float value) {
+        checkIndex(index, 1);
+        segment.setAtIndex(FLOAT, index, value);
+    }
+
+    public void copyFrom(float[] src, int srcOffset, long index, int count) {
+        checkIndex(index, count);
+        if (srcOffset < 0 || srcOffset + count > src.length) {
+            throw new IllegalArgumentException("Array range out of bounds");
+        }
+        MemorySegment.copy(src, srcOffset, segment, FLOAT, index * Float.BYTES, count);
+    }
+
+    public void copyTo(long index, float[] dest, int destOffset, int count) {
+        checkIndex(index, count);
+        if (destOffset < 0 || destOffset + count > dest.length) {
+            throw new IllegalArgumentException("Array range out of bounds");
+        }
+        MemorySegment.copy(segment, FLOAT, index * Float.BYTES, dest, destOffset, count);
+    }
+
+    public double dot(long index, float[] vector, int vectorOffset, int count) {
+        checkIndex(index, count);
+        if (vectorOffset < 0 || vectorOffset + count > vector.length) {
+            throw new IllegalArgumentException("Array range out of bounds");
+        }
+        double s0 = 0, s1 = 0;
+        int i = 0;
+        for (; i + 1 < count; i += 2) {
+            s0 += (double) segment.getAtIndex(FLOAT, index + i) * vector[vectorOffset + i];
+            s1 += (double) segment.getAtIndex(FLOAT, index + i + 1) * vector[vectorOffset + i + 1];
+        }
+        if (i < count) {
+            s0 += (double) segment.getAtIndex(FLOAT, index + i) * vector[vectorOffset + i];
+        }
+        return s0 + s1;
+    }
+
+    // После закрытия любой доступ к сегменту завершается IllegalStateException
+    @Override
+    public void close() {
+        arena.close();
+    }
+
+    private void checkIndex(long index, long count) {
+        if (index < 0 || count < 0 || index + count > length) {
+            throw new IllegalArgumentException("Index out of bounds");
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package math.engine;
+
+import math.engine.matrix.Matrix3x3;
+import math.engine.matrix.Matrix4x4;
+import math.engine.matrix.TransformStore;
+import math.engine.vector.HalfVector3Array;
+import math.engine.vector.Vector3D;
+import math.engine.vector.Vector4D;
+import math.engine.vector.VectorKernels;
+import math.engine.vector.VectorN;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Бюджеты выделения памяти на вызов, измеренные через com.sun.management.ThreadMXBean.
+// Варианты "без выделения" должны выделять 0 байт, неизменяемый API - ровно один результат:
+// бюджет результата измеряется тем же способом на эталонном конструкторе, поэтому не зависит
+// от раскладки объектов в конкретной JVM (сжатые указатели, выравнивание).
+public class AllocationBudgetTest {
+
+    private static final int WARMUP = 20_000;
+    private static final int CALLS = 10_000;
+
+    private static com.sun.management.ThreadMXBean threads;
+
+    // Результаты уходят в поле, чтобы JIT не убрал выделение памяти как неиспользуемое
+    private static Object sink;
+    private static float floatSink;
+
+    @FunctionalInterface
+    private interface Call {
+        void run();
+    }
+
+    @BeforeAll
+    public static void enableMeasurement() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean, "Allocation counters are not supported");
+        threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "Allocation counters are not supported");
+        threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    // Среднее число байт на вызов за вычетом затрат самого замера
+    private static double bytesPerCall(Call call) {
+        for (int i = 0; i < WARMUP; i++) {
+            call.run();
+        }
+        long id = Thread.currentThread().getId();
+        long overhead = measure(id, () -> { });
+        return Math.max(0, measure(id, call) - overhead) / (double) CALLS;
+    }
+
+    private static long measure(long threadId, Call call) {
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < CALLS; i++) {
+            call.run();
+        }
+        return threads.getThreadAllocatedBytes(threadId) - before;
+    }
+
+    private static void assertAllocationFree(String api, Call call) {
+        double bytes = bytesPerCall(call);
+        assertTrue(bytes < 1, api + " allocates " + bytes + " bytes per call");
+    }
+
+    private static void assertSingleResult(String api, Call reference, Call call) {
+        double budget = bytesPerCall(reference);
+        double bytes = bytesPerCall(call);
+        assertTrue(bytes <= budget + 1, api + " allocates " + bytes + " bytes per call, budget " + budget);
+    }
+
+    @Test
+    public void testAllocationFreeOperations() {
+        Vector3D a = new Vector3D(1, 2, 3);
+        Vector3D b = new Vector3D(-2, 0.5f, 4);
+        Vector4D c = new Vector4D(1, 2, 3, 4);
+        VectorN n1 = VectorN.wrap(new float[64], 0, 64);
+        VectorN n2 = VectorN.wrap(new float[64], 0, 64);
+        float[] nOut = new float[64];
+        Matrix3x3 m3 = Matrix3x3.wrap(new float[][]{{2, 1, 0}, {1, 3, 1}, {0, 1, 4}});
+        Matrix4x4 m4 = Matrix4x4.translation(1, 2, 3);
+        float[] points = new float[3 * 256];
+        float[] x = new float[256], y = new float[256], z = new float[256], out = new float[256];
+        java.util.Arrays.fill(x, 1);
+        HalfVector3Array half = new HalfVector3Array(256);
+        TransformStore store = new TransformStore(4);
+        store.publish(0, m4);
+        float[] transform = new float[16];
+
+        assertAllocationFree("Vector3D.dot", () -> floatSink = a.dot(b));
+        assertAllocationFree("Vector3D.length", () -> floatSink = a.length());
+        assertAllocationFree("Vector3D.distance", () -> floatSink = a.distance(b));
+        assertAllocationFree("Vector4D.dot", () -> floatSink = c.dot(c));
+        assertAllocationFree("VectorN.dot", () -> floatSink = n1.dot(n2));
+        assertAllocationFree("VectorN.distance", () -> floatSink = n1.distance(n2));
+        assertAllocationFree("VectorN.axpy", () -> VectorN.axpy(2, n1, n2, nOut, 0));
+        assertAllocationFree("Matrix3x3.determinant", () -> floatSink = m3.determinant());
+        assertAllocationFree("Matrix4x4.determinant", () -> floatSink = m4.determinant());
+        assertAllocationFree("Matrix4x4.transformPoints", () -> m4.transformPoints(points, 0, points, 0, 256));
+        assertAllocationFree("VectorKernels.lengths", () -> VectorKernels.lengths(x, y, z, 0, 256, out));
+        assertAllocationFree("VectorKernels.normalize", () -> VectorKernels.normalize(x, y, z, 0, 256, null));
+        assertAllocationFree("HalfVector3Array.dot", () -> half.dot(a, out, 0));
+        assertAllocationFree("TransformStore.read", () -> store.read(0, transform, 0));
+        assertAllocationFree("TransformStore.publish", () -> store.publish(1, transform, 0));
+
+        // Неизменяемые матрицы запоминают результаты: повторные запросы не выделяют память
+        Matrix4x4 camera = Matrix4x4.rotationY(0.25f).multiply(new Matrix4x4(new float[][]{
+                {2, 0, 0, 1}, {0, 3, 0, 2}, {0, 1, 4, 3}, {0, 0, 0, 1}}));
+        assertAllocationFree("Matrix4x4.inverse (memoized)", () -> sink = camera.inverse());
+        assertAllocationFree("Matrix4x4.determinant (memoized)", () -> floatSink = camera.determinant());
+        assertAllocationFree("Matrix4x4.hashCode (memoized)", () -> floatSink = camera.hashCode());
+    }
+
+    @Test
+    public void testImmutableOperationsAllocateOneResult() {
+        Vector3D a = new Vector3D(1, 2, 3);
+        Vector3D b = new Vector3D(-2, 0.5f, 4);
+        Vector4D c = new Vector4D(1, 2, 3, 4);
+        Matrix3x3 m3 = Matrix3x3.wrap(new float[][]{{2, 1, 0}, {1, 3, 1}, {0, 1, 4}});
+        Matrix4x4 m4 = Matrix4x4.wrap(new float[][]{{2, 0, 0, 1}, {0, 3, 0, 2}, {0, 0, 4, 3}, {0, 0, 0, 1}});
+        VectorN n = VectorN.wrap(new float[64], 0, 64);
+
+        Call vector3 = () -> sink = new Vector3D(1, 2, 3);
+        assertSingleResult("Vector3D.add", vector3, () -> sink = a.add(b));
+        assertSingleResult("Vector3D.multiply", vector3, () -> sink = a.multiply(2));
+        assertSingleResult("Vector3D.normalize", vector3, () -> sink = a.normalize());
+        assertSingleResult("Vector3D.cross", vector3, () -> sink = a.cross(b));
+        assertSingleResult("Matrix3x3.multiply(Vector3D)", vector3, () -> sink = m3.multiply(a));
+        assertSingleResult("Matrix3x3.solveLinearSystem", vector3, () -> sink = m3.solveLinearSystem(a));
+        assertSingleResult("Matrix3x3.solveSPD", vector3, () -> sink = m3.solveSPD(a));
+        assertSingleResult("Matrix4x4.multiply(Vector3D)", vector3, () -> sink = m4.multiply(a));
+
+        Call vector4 = () -> sink = new Vector4D(1, 2, 3, 4);
+        assertSingleResult("Vector4D.add", vector4, () -> sink = c.add(c));
+        assertSingleResult("Matrix4x4.multiply(Vector4D)", vector4, () -> sink = m4.multiply(c));
+        assertSingleResult("Matrix4x4.solveLinearSystem", vector4, () -> sink = m4.solveLinearSystem(c));
+
+        Call matrix3 = () -> sink = Matrix3x3.zero();
+        assertSingleResult("Matrix3x3.multiply", matrix3, () -> sink = m3.multiply(m3));
+        assertSingleResult("Matrix3x3.inverse", matrix3, () -> sink = m3.inverse());
+        assertSingleResult("Matrix3x3.transpose", matrix3, () -> sink = m3.transpose());
+
+        Call matrix4 = () -> sink = Matrix4x4.zero();
+        assertSingleResult("Matrix4x4.multiply", matrix4, () -> sink = m4.multiply(m4));
+        assertSingleResult("Matrix4x4.inverse", matrix4, () -> sink = m4.inverse());
+
+        Call vectorN = () -> sink = VectorN.zeros(64);
+        assertSingleResult("VectorN.scaleAdd", vectorN, () -> sink = n.scaleAdd(2, n));
+        assertSingleResult("VectorN.add", vectorN, () -> sink = n.add(n));
+    }
+}
@@ -0,0 +1,1982 @@
+package math.engine;
+
+import math.engine.geometry.*;
+import math.engine.matrix.*;
+import math.engine.search.*;
+import math.engine.vector.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class LinearAlgebraTest {
+
+    private static final float FLOAT_PRECISION = 0.001f;
+
+    // ==================== ТЕСТЫ ВЕКТОРОВ ====================
+
+    @Test
+    public void testVector2DOperations() {
+        Vector2D v1 = new Vector2D(3, 4);
+        Vector2D v2 = new Vector2D(1, 2);
+
+        assertEquals(2, v1.getDimensions());
+        assertEquals(5.0f, v1.length(), FLOAT_PRECISION);
+
+        Vector2D sum = v1.add(v2);
+        assertEquals(4.0f, sum.getX(), FLOAT_PRECISION);
+        assertEquals(6.0f, sum.getY(), FLOAT_PRECISION);
+
+        Vector2D normalized = v1.normalize();
+        assertEquals(1.0f, normalized.length(), FLOAT_PRECISION);
+
+        float cross = v1.cross(v2);
+        assertEquals(2.0f, cross, FLOAT_PRECISION);
+
+        float distance = v1.distance(v2);
+        assertEquals(2.828f, distance, FLOAT_PRECISION);
+    }
+
+    @Test
+    public void testVector3DOperations() {
+        Vector3D v1 = new Vector3D(1, 2, 2);
+        Vector3D v2 = new Vector3D(4, 5, 6);
+
+        // Базовые операции
+        assertEquals(3, v1.getDimensions());
+        assertEquals(3.0f, v1.length(), FLOAT_PRECISION);
+
+        Vector3D sum = v1.add(v2);
+        assertEquals(5.0f, sum.getX(), FLOAT_PRECISION);
+        assertEquals(7.0f, sum.getY(), FLOAT_PRECISION);
+        assertEquals(8.0f, sum.getZ(), FLOAT_PRECISION);
+
+        float dot = v1.dot(v2);
+        assertEquals(26.0f, dot, FLOAT_PRECISION);  // ИСПРАВЛЕНО: 26 вместо 32
+
+        Vector3D cross = v1.cross(v2);
+        assertEquals(new Vector3D(2, 2, -3), cross);
+
+        Vector3D normalized = v1.normalize();
+        assertEquals(1.0f, normalized.length(), FLOAT_PRECISION);
+    }
+
+    @Test
+    public void testVector4DOperations() {
+        Vector4D v1 = new Vector4D(1, 2, 3, 4);
+        Vector4D v2 = new Vector4D(2, 4, 6, 2);
+
+        assertEquals(4, v1.getDimensions());
+
+        Vector4D sum = v1.add(v2);
+        assertEquals(3.0f, sum.getX(), FLOAT_PRECISION);
+        assertEquals(6.0f, sum.getY(), FLOAT_PRECISION);
+        assertEquals(9.0f, sum.getZ(), FLOAT_PRECISION);
+        assertEquals(6.0f, sum.getW(), FLOAT_PRECISION);
+
+        Vector3D converted = v2.toVector3D();
+        assertEquals(new Vector3D(1, 2, 3), converted);
+
+        assertEquals(5.477f, v1.length(), FLOAT_PRECISION);
+    }
+
+    @Test
+    public void testAbstractVectorInheritance() {
+        Vector2D v2d = new Vector2D(1, 2);
+        Vector3D v3d = new Vector3D(1, 2, 3);
+        Vector4D v4d = new Vector4D(1, 2, 3, 4);
+
+        assertTrue(v2d instanceof AbstractVector);
+        assertTrue(v3d instanceof AbstractVector);
+        assertTrue(v4d instanceof AbstractVector);
+
+        assertEquals(2.236f, v2d.length(), FLOAT_PRECISION);
+        assertEquals(3.741f, v3d.length(), FLOAT_PRECISION);
+        assertEquals(5.477f, v4d.length(), FLOAT_PRECISION);
+    }
+
+    // ==================== ТЕСТЫ МАТРИЦ ====================
+
+    @Test
+    public void testMatrix3x3Operations() {
+        Matrix3x3 matrix = new Matrix3x3(new float[][]{
+                {1, 2, 3},
+                {4, 5, 6},
+                {7, 8, 9}
+        });
+
+        Matrix3x3 identity = Matrix3x3.identity();
+
+        assertEquals(3, matrix.getRows());
+        assertEquals(3, matrix.getCols());
+
+        Matrix3x3 result = matrix.multiply(identity);
+        assertTrue(matrix.equals(result));
+
+        Matrix3x3 transposed = matrix.transpose();
+        assertEquals(1.0f, transposed.get(0, 0), FLOAT_PRECISION);
+        assertEquals(4.0f, transposed.get(0, 1), FLOAT_PRECISION);
+        assertEquals(7.0f, transposed.get(0, 2), FLOAT_PRECISION);
+
+        // Определитель
+        float det = matrix.determinant();
+        assertEquals(0.0f, det, FLOAT_PRECISION);
+    }
+
+    @Test
+    public void testMatrix4x4Operations() {
+        Matrix4x4 translation = Matrix4x4.translation(2, 3, 4);
+        Vector3D point = new Vector3D(1, 1, 1);
+
+        // Умножение матрицы на вектор
+        Vector3D result = translation.multiply(point);
+        assertEquals(new Vector3D(3, 4, 5), result);
+
+        // Умножение матриц
+        Matrix4x4 identity = Matrix4x4.identity();
+        Matrix4x4 product = translation.multiply(identity);
+        assertTrue(translation.equals(product));
+
+        // Определитель единичной матрицы
+        assertEquals(1.0f, identity.determinant(), FLOAT_PRECISION);
+    }
+
+    @Test
+    public void testMatrixInverse() {
+        Matrix3x3 matrix = new Matrix3x3(new float[][]{
+                {4, 7, 2},
+                {3, 5, 1},
+                {2, 3, 4}
+        });
+
+        // Обратная матрица
+        Matrix3x3 inverse = matrix.inverse();
+        Matrix3x3 product = matrix.multiply(inverse);
+        Matrix3x3 identity = Matrix3x3.identity();
+
+        assertTrue(product.equals(identity));
+    }
+
+    @Test
+    public void testAbstractMatrixInheritance() {
+        // Проверяем что все матрицы наследуют от AbstractMatrix
+        Matrix3x3 m3x3 = Matrix3x3.identity();
+        Matrix4x4 m4x4 = Matrix4x4.identity();
+        CustomMatrix custom = new CustomMatrix(new float[][]{
+                {1, 0, 0},
+                {0, 1, 0},
+                {0, 0, 1}
+        });
+
+        assertTrue(m3x3 instanceof AbstractMatrix);
+        assertTrue(m4x4 instanceof AbstractMatrix);
+        assertTrue(custom instanceof AbstractMatrix);
+
+        // Проверяем общие методы
+        assertEquals(1.0f, m3x3.determinant(), FLOAT_PRECISION);
+        assertEquals(1.0f, m4x4.determinant(), FLOAT_PRECISION);
+        assertEquals(1.0f, custom.determinant(), FLOAT_PRECISION);
+    }
+
+    // ==================== ТЕСТЫ КАСТОМНОЙ МАТРИЦЫ ====================
+
+    @Test
+    public void testCustomMatrixImplementation() {
+        CustomMatrix custom = new CustomMatrix(new float[][]{
+                {1, 0, 0},
+                {0, 1, 0},
+                {0, 0, 1}
+        });
+
+        // Проверяем базовые операции (наследуемые)
+        assertEquals(1.0f, custom.determinant(), FLOAT_PRECISION);
+
+        // ИСПРАВЛЕНО: transpose() возвращает CustomMatrix, а не Matrix3x3
+        CustomMatrix transposed = custom.transpose();
+        assertTrue(custom.equals(transposed));
+
+        // Проверяем кастомные операции
+        CustomMatrix customOp = custom.customOperation();
+        assertEquals(2.0f, customOp.get(0, 0), FLOAT_PRECISION);
+        assertEquals(2.0f, customOp.get(1, 1), FLOAT_PRECISION);
+        assertEquals(2.0f, customOp.get(2, 2), FLOAT_PRECISION);
+
+        // Проверяем что реализует интерфейс
+        assertTrue(custom instanceof Matrix);
+    }
+
+    // ==================== ТЕСТЫ РЕШЕНИЯ СИСТЕМ ====================
+
+    @Test
+    public void testLinearSystemSolving() {
+        Matrix3x3 A = new Matrix3x3(new float[][]{
+                {2, 1, -1},
+                {-3, -1, 2},
+                {-2, 1, 2}
+        });
+
+        Vector3D b = new Vector3D(8, -11, -3);
+        Vector3D x = A.solveLinearSystem(b);
+
+        // Проверяем решение
+        Vector3D expected = new Vector3D(2, 3, -1);
+        assertTrue(x.equals(expected));
+
+        // Проверяем что A*x = b
+        Vector3D Ax = A.multiply(x);
+        assertTrue(Ax.equals(b));
+    }
+
+    // Хорошо обусловленные системы с малыми элементами: определитель меньше 1e-12, но решение существует
+    @Test
+    public void testSmallScaleSystemSolving() {
+        float[][] a4 = {
+                {4, 1, 0, 1},
+                {1, 5, 2, 0},
+                {0, 2, 6, 1},
+                {1, 0, 1, 3}
+        };
+        float[][] a3 = {
+                {2, -1, 0},
+                {-1, 2, -1},
+                {0, -1, 2}
+        };
+        for (float[] row : a4) {
+            for (int j = 0; j < 4; j++) row[j] *= 1e-4f;
+        }
+        for (float[] row : a3) {
+            for (int j = 0; j < 3; j++) row[j] *= 1e-5f;
+        }
+        float[] x4 = {1, 2, 3, 4};
+        float[] x3 = {1, -2, 3};
+
+        Vector4D b4 = new Vector4D(dot(a4[0], x4), dot(a4[1], x4), dot(a4[2], x4), dot(a4[3], x4));
+        Vector3D b3 = new Vector3D(dot(a3[0], x3), dot(a3[1], x3), dot(a3[2], x3));
+        // wrap-представление решается методом Гаусса, неизменяемая матрица - через запомненные результаты
+        for (Matrix4x4 m4 : List.of(Matrix4x4.wrap(a4), new Matrix4x4(a4))) {
+            for (int repeat = 0; repeat < 2; repeat++) {
+                Vector4D solution4 = m4.solveLinearSystem(b4);
+                assertEquals(1, solution4.getX(), 1e-3);
+                assertEquals(2, solution4.getY(), 1e-3);
+                assertEquals(3, solution4.getZ(), 1e-3);
+                assertEquals(4, solution4.getW(), 1e-3);
+            }
+        }
+        Vector3D custom = new CustomMatrix(a3).solveLinearSystem(b3);
+        assertEquals(1, custom.getX(), 1e-3);
+        assertEquals(-2, custom.getY(), 1e-3);
+        assertEquals(3, custom.getZ(), 1e-3);
+        for (Matrix3x3 m3 : List.of(Matrix3x3.wrap(a3), new Matrix3x3(a3))) {
+            for (int repeat = 0; repeat < 2; repeat++) {
+                Vector3D solution3 = m3.solveLinearSystem(b3);
+                assertEquals(1, solution3.getX(), 1e-3);
+                assertEquals(-2, solution3.getY(), 1e-3);
+                assertEquals(3, solution3.getZ(), 1e-3);
+            }
+        }
+
+        // Плохо обусловленная матрица: запомненная обратная не используется, решение совпадает с wrap
+        float[][] hilbert = new float[4][4];
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) hilbert[i][j] = 1f / (i + j + 1);
+        }
+        Vector4D hb = new Vector4D(1, 0, 0, 1);
+        Matrix4x4 ownedHilbert = new Matrix4x4(hilbert);
+        ownedHilbert.inverse();
+        assertEquals(Matrix4x4.wrap(hilbert).solveLinearSystem(hb), ownedHilbert.solveLinearSystem(hb));
+
+        // Нулевой первый ведущий элемент требует перестановки строк
+        Vector3D permuted = Matrix3x3.wrap(new float[][]{{0, 1, 1}, {1, 0, 1}, {1, 1, 0}})
+                .solveLinearSystem(new Vector3D(5, 4, 3));
+        assertEquals(1, permuted.getX(), 1e-5);
+        assertEquals(2, permuted.getY(), 1e-5);
+        assertEquals(3, permuted.getZ(), 1e-5);
+        Vector4D permuted4 = Matrix4x4.wrap(new float[][]{{0, 0, 0, 1}, {0, 0, 1, 0}, {0, 1, 0, 0}, {1, 0, 0, 0}})
+                .solveLinearSystem(new Vector4D(1, 2, 3, 4));
+        assertEquals(new Vector4D(4, 3, 2, 1), permuted4);
+        assertThrows(ArithmeticException.class, () -> Matrix3x3.wrap(new float[][]{{1, 2, 3}, {2, 4, 6}, {0, 1, 1}})
+                .solveLinearSystem(new Vector3D(1, 1, 1)));
+    }
+
+    private static float dot(float[] row, float[] x) {
+        double sum = 0;
+        for (int i = 0; i < row.length; i++) sum += (double) row[i] * x[i];
+        return (float) sum;
+    }
+
+    @Test
+    public void testMatrixVectorMultiplication() {
+        Matrix3x3 matrix = new Matrix3x3(new float[][]{
+                {1, 2, 3},
+                {4, 5, 6},
+                {7, 8, 9}
+        });
+
+        Vector3D vector = new Vector3D(1, 2, 3);
+        Vector3D result = matrix.multiply(vector);
+
+        assertEquals(new Vector3D(14, 32, 50), result);
+    }
+
+    // ==================== ТЕСТЫ ПРЕОБРАЗОВАНИЙ ====================
+
+    @Test
+    public void testTransformationMatrices() {
+        // Тестирование переноса
+        Matrix4x4 translation = LinearAlgebraEngine.createTranslationMatrix(1, 2, 3);
+        Vector3D point = new Vector3D(0, 0, 0);
+        Vector3D translated = translation.multiply(point);
+        assertEquals(new Vector3D(1, 2, 3), translated);
+
+        // Тестирование масштабирования
+        Matrix4x4 scale = LinearAlgebraEngine.createScaleMatrix(2, 3, 4);
+        Vector3D scaled = scale.multiply(new Vector3D(1, 1, 1));
+        assertEquals(new Vector3D(2, 3, 4), scaled);
+
+        // Тестирование поворота
+        Matrix4x4 rotation = LinearAlgebraEngine.createRotationMatrixZ((float) Math.PI / 2);
+        Vector3D rotated = rotation.multiply(new Vector3D(1, 0, 0));
+        assertEquals(0.0f, rotated.getX(), FLOAT_PRECISION);
+        assertEquals(1.0f, rotated.getY(), FLOAT_PRECISION);
+        assertEquals(0.0f, rotated.getZ(), FLOAT_PRECISION);
+    }
+
+    @Test
+    public void testLinearAlgebraEngine() {
+        // Тестирование фасадных методов
+        Vector3D v1 = LinearAlgebraEngine.createVector3D(1, 0, 0);
+        Vector3D v2 = LinearAlgebraEngine.createVector3D(0, 1, 0);
+
+        float angle = LinearAlgebraEngine.computeAngleBetweenVectors(v1, v2);
+        assertEquals(Math.PI / 2, angle, FLOAT_PRECISION);
+
+        Matrix4x4 identity = LinearAlgebraEngine.createIdentityMatrix4x4();
+        assertEquals(1.0f, identity.determinant(), FLOAT_PRECISION);
+    }
+
+    // ==================== ТЕСТЫ ОБРАБОТКИ ОШИБОК ====================
+
+    @Test
+    public void testVectorErrorHandling() {
+        // Деление на ноль
+        assertThrows(ArithmeticException.class, () -> {
+            Vector3D v = new Vector3D(1, 2, 3);
+            v.divide(0.0f);
+        });
+
+        // Нормализация нулевого вектора
+        assertThrows(ArithmeticException.class, () -> {
+            Vector3D zero = new Vector3D(0, 0, 0);
+            zero.normalize();
+        });
+    }
+
+    @Test
+    public void testMatrixErrorHandling() {
+        // Обращение вырожденной матрицы
+        assertThrows(ArithmeticException.class, () -> {
+            Matrix3x3 singular = new Matrix3x3(new float[][]{
+                    {1, 2, 3},
+                    {4, 5, 6},
+                    {7, 8, 9}
+            });
+            singular.inverse();
+        });
+
+        // Неверная размерность матрицы
+        assertThrows(IllegalArgumentException.class, () -> {
+            new Matrix3x3(new float[][]{
+                    {1, 2},
+                    {3, 4}
+            });
+        });
+
+        // Неверные индексы
+        assertThrows(IllegalArgumentException.class, () -> {
+            Matrix3x3 matrix = Matrix3x3.identity();
+            matrix.get(5, 5);
+        });
+    }
+
+    @Test
+    public void testVector4DErrorHandling() {
+        // Преобразование Vector4D с W=0
+        assertThrows(ArithmeticException.class, () -> {
+            Vector4D v = new Vector4D(1, 2, 3, 0);
+            v.toVector3D();
+        });
+    }
+
+    // ==================== ТЕСТЫ ИНТЕРФЕЙСОВ ====================
+
+    @Test
+    public void testInterfaceImplementation() {
+        // Проверяем что все матрицы реализуют интерфейс Matrix
+        Matrix3x3 m3x3 = Matrix3x3.identity();
+        Matrix4x4 m4x4 = Matrix4x4.identity();
+        CustomMatrix custom = new CustomMatrix(new float[][]{
+                {1, 0, 0},
+                {0, 1, 0},
+                {0, 0, 1}
+        });
+
+        assertTrue(m3x3 instanceof Matrix);
+        assertTrue(m4x4 instanceof Matrix);
+        assertTrue(custom instanceof Matrix);
+
+        // Проверяем что все векторы реализуют интерфейс Vector
+        Vector2D v2d = new Vector2D(1, 2);
+        Vector3D v3d = new Vector3D(1, 2, 3);
+        Vector4D v4d = new Vector4D(1, 2, 3, 4);
+
+        assertTrue(v2d instanceof Vector);
+        assertTrue(v3d instanceof Vector);
+        assertTrue(v4d instanceof Vector);
+    }
+
+    @Test
+    public void testEdgeCases() {
+        // Нулевые векторы
+        Vector3D zero = new Vector3D(0, 0, 0);
+        assertEquals(0.0f, zero.length(), FLOAT_PRECISION);
+
+        // Единичные векторы
+        Vector3D unit = new Vector3D(1, 0, 0);
+        assertEquals(1.0f, unit.length(), FLOAT_PRECISION);
+
+        // Большие числа
+        Vector3D large = new Vector3D(1e6f, 2e6f, 3e6f);
+        assertTrue(large.length() > 0);
+
+        // Матрица с нулевым определителем
+        Matrix3x3 zeroDet = new Matrix3x3(new float[][]{
+                {1, 2, 3},
+                {4, 5, 6},
+                {7, 8, 9}
+        });
+        assertEquals(0.0f, zeroDet.determinant(), FLOAT_PRECISION);
+    }
+
+    // ==================== ДОПОЛНИТЕЛЬНЫЕ ТЕСТЫ ====================
+
+    @Test
+    public void testMatrixAdditionSubtraction() {
+        Matrix3x3 m1 = new Matrix3x3(new float[][]{
+                {1, 2, 3},
+                {4, 5, 6},
+                {7, 8, 9}
+        });
+
+        Matrix3x3 m2 = new Matrix3x3(new float[][]{
+                {9, 8, 7},
+                {6, 5, 4},
+                {3, 2, 1}
+        });
+
+        Matrix3x3 sum = m1.add(m2);
+        Matrix3x3 expectedSum = new Matrix3x3(new float[][]{
+                {10, 10, 10},
+                {10, 10, 10},
+                {10, 10, 10}
+        });
+
+        assertTrue(sum.equals(expectedSum));
+
+        Matrix3x3 diff = m1.subtract(m2);
+        Matrix3x3 expectedDiff = new Matrix3x3(new float[][]{
+                {-8, -6, -4},
+                {-2, 0, 2},
+                {4, 6, 8}
+        });
+
+        assertTrue(diff.equals(expectedDiff));
+    }
+
+    @Test
+    public void testVectorScalarOperations() {
+        Vector3D v = new Vector3D(1, 2, 3);
+
+        Vector3D multiplied = v.multiply(2);
+        assertEquals(new Vector3D(2, 4, 6), multiplied);
+
+        Vector3D divided = v.divide(2);
+        assertEquals(new Vector3D(0.5f, 1, 1.5f), divided);
+    }
+
+    // ==================== ТЕСТЫ ПАКЕТНЫХ ЯДЕР ====================
+
+    @Test
+    public void testDistanceMatrixKernel() {
+        float[] points = {0, 0, 0, 1, 2, 2, 4, 5, 6};
+        float[] distances = new float[9];
+        DistanceKernels.distanceMatrix(points, 3, points, 3, 3, false, distances);
+
+        Vector3D a = new Vector3D(0, 0, 0);
+        Vector3D b = new Vector3D(1, 2, 2);
+        Vector3D c = new Vector3D(4, 5, 6);
+        assertEquals(0.0f, distances[0], FLOAT_PRECISION);
+        assertEquals(a.distance(b), distances[1], FLOAT_PRECISION);
+        assertEquals(b.distance(c), distances[5], FLOAT_PRECISION);
+        assertEquals(distances[2], distances[6], FLOAT_PRECISION);
+
+        float[] squared = new float[3];
+        FloatBuffer buffer = ByteBuffer.allocateDirect(12).asFloatBuffer();
+        DistanceKernels.distanceRows(points, 1, 2, points, 3, 3, true, buffer);
+        buffer.flip().get(squared);
+        assertEquals(9.0f, squared[0], FLOAT_PRECISION);
+        assertEquals(0.0f, squared[1], FLOAT_PRECISION);
+    }
+
+    @Test
+    public void testKnnKernel() {
+        int count = 500;
+        float[] points = new float[count * 2];
+        Random random = new Random(42);
+        for (int i = 0; i < points.length; i++) {
+            points[i] = random.nextFloat() * 100;
+        }
+
+        int k = 4;
+        int[] indices = new int[count * k];
+        float[] distances = new float[count * k];
+        DistanceKernels.knn(points, count, 2, k, false, indices, distances);
+
+        for (int i = 0; i < count; i += 97) {
+            Vector2D p = new Vector2D(points[2 * i], points[2 * i + 1]);
+            float[] expected = new float[count - 1];
+            for (int j = 0, n = 0; j < count; j++) {
+                if (j != i) expected[n++] = p.distance(new Vector2D(points[2 * j], points[2 * j + 1]));
+            }
+            Arrays.sort(expected);
+            for (int s = 0; s < k; s++) {
+                assertNotEquals(i, indices[i * k + s]);
+                assertEquals(expected[s], distances[i * k + s], FLOAT_PRECISION);
+            }
+        }
+
+        // queryCount * k = 2^32 переполняет int и не должен проходить проверку размера
+        float[] line = new float[1 << 16];
+        assertThrows(IllegalArgumentException.class,
+                () -> DistanceKernels.knn(line, 1 << 16, 1, 1 << 16, false, new int[1], new float[1]));
+    }
+
+    @Test
+    public void testCovarianceAccumulator() {
+        Random random = new Random(7);
+        Vector3D[] points = new Vector3D[1000];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new Vector3D(random.nextFloat() * 10, random.nextFloat() * 2 + 1000, random.nextFloat());
+        }
+
+        CovarianceAccumulator sequential = new CovarianceAccumulator();
+        for (Vector3D p : points) {
+            sequential.add(p);
+        }
+        CovarianceAccumulator parallel = Arrays.stream(points).parallel()
+                .collect(CovarianceAccumulator.collector());
+
+        assertEquals(1000, parallel.getCount());
+        assertEquals(sequential.mean(), parallel.mean());
+        assertTrue(sequential.covariance().equals(parallel.covariance()));
+
+        double meanY = 0;
+        for (Vector3D p : points) meanY += p.getY();
+        meanY /= points.length;
+        double varY = 0;
+        for (Vector3D p : points) varY += (p.getY() - meanY) * (p.getY() - meanY);
+        assertEquals(varY / points.length, sequential.covariance().get(1, 1), 1e-4);
+    }
+
+    @Test
+    public void testSymmetricEigenDecomposition() {
+        Matrix3x3 matrix = new Matrix3x3(new float[][]{
+                {4, 1, 2},
+                {1, 3, 0},
+                {2, 0, 5}
+        });
+        SymmetricEigen3x3 eigen = SymmetricEigen3x3.of(matrix);
+
+        assertTrue(eigen.getEigenvalue(0) <= eigen.getEigenvalue(1));
+        assertTrue(eigen.getEigenvalue(1) <= eigen.getEigenvalue(2));
+        for (int i = 0; i < 3; i++) {
+            Vector3D v = eigen.getEigenvector(i);
+            assertEquals(1.0f, v.length(), FLOAT_PRECISION);
+            assertEquals(v.multiply(eigen.getEigenvalue(i)), matrix.multiply(v));
+        }
+
+        // Плоскость z = 0: нормаль - ось Z
+        CovarianceAccumulator plane = new CovarianceAccumulator();
+        for (int i = 0; i < 100; i++) {
+            plane.add(i % 10, i / 10, 0);
+        }
+        float[] covariance = new float[6];
+        plane.covariance(covariance, 0);
+        float[] normal = new float[3];
+        SymmetricEigen3x3.smallestEigenvectors(covariance, 1, normal);
+        assertEquals(1.0f, Math.abs(normal[2]), FLOAT_PRECISION);
+    }
+
+    // ==================== ТЕСТЫ ПРЕДСТАВЛЕНИЙ БЕЗ КОПИРОВАНИЯ ====================
+
+    @Test
+    public void testWrappedViews() {
+        float[] buffer = {9, 1, 2, 3, 4, 5, 6};
+        Vector3D view = Vector3D.wrap(buffer, 1);
+        assertEquals(new Vector3D(1, 2, 3), view);
+
+        buffer[2] = 20;
+        assertEquals(20.0f, view.getY(), FLOAT_PRECISION);
+        assertEquals(new Vector3D(5, 25, 9), view.add(Vector3D.wrap(buffer, 4)));
+
+        Vector3D copy = new Vector3D(1, 2, 3);
+        assertEquals(14.0f, copy.dot(Vector3D.wrap(new float[]{0, 1, 2, 3}, 1)), FLOAT_PRECISION);
+
+        assertThrows(IllegalArgumentException.class, () -> Vector4D.wrap(buffer, 4));
+
+        float[][] rows = {
+                {1, 0, 0, 2},
+                {0, 1, 0, 3},
+                {0, 0, 1, 4},
+                {0, 0, 0, 1}
+        };
+        Matrix4x4 matrix = Matrix4x4.wrap(rows);
+        assertEquals(new Vector3D(3, 4, 5), matrix.multiply(new Vector3D(1, 1, 1)));
+        rows[0][3] = 0;
+        assertEquals(new Vector3D(1, 4, 5), matrix.multiply(new Vector3D(1, 1, 1)));
+
+        float[][] source = {{1, 2, 3}, {4, 5, 6}, {7, 8, 10}};
+        Matrix3x3 owned = new Matrix3x3(source);
+        source[0][0] = 100;
+        assertEquals(1.0f, owned.get(0, 0), FLOAT_PRECISION);
+    }
+
+    // ==================== ТЕСТЫ ВЕКТОРА ПРОИЗВОЛЬНОЙ РАЗМЕРНОСТИ ====================
+
+    @Test
+    public void testVectorNOperations() {
+        VectorN v1 = new VectorN(1, 2, 3, 4, 5);
+        VectorN v2 = new VectorN(5, 4, 3, 2, 1);
+
+        assertEquals(5, v1.getDimensions());
+        assertEquals(35.0f, v1.dot(v2), FLOAT_PRECISION);
+        assertEquals((float) Math.sqrt(55), v1.length(), FLOAT_PRECISION);
+        assertEquals(new VectorN(7, 8, 9, 10, 11), v1.scaleAdd(2, v2));
+        assertEquals(new VectorN(6, 6, 6, 6, 6), v1.add(v2));
+
+        float[] dest = new float[6];
+        VectorN.axpy(-1, v1, v2, dest, 1);
+        assertArrayEquals(new float[]{0, 4, 2, 0, -2, -4}, dest, FLOAT_PRECISION);
+
+        assertThrows(IllegalArgumentException.class, () -> v1.dot(new VectorN(1, 2, 3)));
+    }
+
+    @Test
+    public void testVectorNLongReductionAccuracy() {
+        int n = 1_000_000;
+        float[] ones = new float[n];
+        float[] small = new float[n];
+        Arrays.fill(ones, 1.0f);
+        Arrays.fill(small, 0.1f);
+
+        VectorN a = VectorN.wrap(ones, 0, n);
+        VectorN b = VectorN.wrap(small, 0, n);
+
+        // Наивная сумма во float дает здесь ошибку порядка 1%
+        assertEquals(100000.0f, a.dot(b), 0.01f);
+        assertEquals(1000.0f, a.length(), 1e-3f);
+        assertEquals(900.0f, a.distance(b), 1e-3f);
+    }
+
+    // ==================== ТЕСТЫ МНОГОПОТОЧНОСТИ ====================
+
+    @Test
+    public void testTransformStoreConsistentSnapshots() throws InterruptedException {
+        // capacity * 16 не помещается в int: ошибка вместо переполненного размера массива
+        assertThrows(IllegalArgumentException.class, () -> new TransformStore(Integer.MAX_VALUE / 8));
+        TransformStore store = new TransformStore(4);
+        assertTrue(store.snapshot(2).equals(Matrix4x4.identity()));
+
+        Matrix4x4 translation = Matrix4x4.translation(1, 2, 3);
+        store.publish(1, translation);
+        assertEquals(1, store.version(1));
+        assertTrue(store.snapshot(1).equals(translation));
+        // Снимок владеет данными: флаги определяются по нулям, обратная запоминается
+        Matrix4x4 published = store.snapshot(1);
+        assertSame(published.inverse(), published.inverse());
+        assertTrue(store.snapshot(2).hasStructure(MatrixStructure.IDENTITY));
+
+        // Ошибка при публикации не оставляет слот заблокированным
+        assertThrows(NullPointerException.class, () -> store.publish(1, (Matrix4x4) null));
+        float[][] broken = copyRows(translation);
+        Matrix4x4 view = Matrix4x4.wrap(broken);
+        broken[2] = null;
+        assertThrows(NullPointerException.class, () -> store.publish(3, view));
+        assertTimeoutPreemptively(java.time.Duration.ofSeconds(5), () -> {
+            store.publish(1, translation);
+            store.publish(3, translation);
+            assertTrue(store.snapshot(1).equals(translation));
+            assertTrue(store.snapshot(3).equals(translation));
+        });
+        assertEquals(2, store.version(1));
+
+        int iterations = 200_000;
+        Thread writer = new Thread(() -> {
+            float[] values = new float[16];
+            for (int i = 1; i <= iterations; i++) {
+                Arrays.fill(values, i);
+                store.publish(0, values, 0);
+            }
+        });
+        boolean[] torn = new boolean[1];
+        Thread reader = new Thread(() -> {
+            float[] snapshot = new float[16];
+            long last = 0;
+            while (last < iterations) {
+                last = store.read(0, snapshot, 0);
+                if (last == 0) continue;
+                for (float value : snapshot) {
+                    if (value != snapshot[0]) torn[0] = true;
+                }
+                if (snapshot[0] != last) torn[0] = true;
+            }
+        });
+        writer.start();
+        reader.start();
+        writer.join();
+        reader.join();
+
+        assertFalse(torn[0]);
+        assertEquals(iterations, store.version(0));
+    }
+
+    @Test
+    public void testBatchExecutor() {
+        List<Matrix3x3> matrices = new ArrayList<>();
+        List<Vector3D> vectors = new ArrayList<>();
+        Random random = new Random(3);
+        for (int i = 0; i < 1000; i++) {
+            matrices.add(new Matrix3x3(new float[][]{
+                    {4 + random.nextFloat(), 1, 0},
+                    {1, 4 + random.nextFloat(), 1},
+                    {0, 1, 4 + random.nextFloat()}
+            }));
+            vectors.add(new Vector3D(1, 2, 3));
+        }
+        matrices.set(10, new Matrix3x3(new float[][]{{1, 2, 3}, {4, 5, 6}, {7, 8, 9}}));
+
+        try (BatchExecutor executor = BatchExecutor.create(64, 4)) {
+            BatchResult<Matrix3x3> inverses = executor.inverseAll(matrices);
+            assertEquals(1000, inverses.getJobCount());
+            assertEquals(16, inverses.getChunkCount());
+            assertEquals(1, inverses.getFailureCount());
+            assertTrue(inverses.getError(10) instanceof ArithmeticException);
+            assertTrue(matrices.get(5).multiply(inverses.getResult(5)).equals(Matrix3x3.identity()));
+
+            float[] determinants = new float[1000];
+            executor.determinantAll(matrices, determinants);
+            assertEquals(matrices.get(7).determinant(), determinants[7], FLOAT_PRECISION);
+
+            BatchResult<Vector3D> solutions = executor.solveAll(matrices.subList(0, 10), vectors.subList(0, 10));
+            assertEquals(vectors.get(3), matrices.get(3).multiply(solutions.getResult(3)));
+
+            BatchResult<Float> streamed = executor.invokeAll(matrices.stream(), Matrix3x3::determinant);
+            assertEquals(determinants[999], streamed.getResult(999), FLOAT_PRECISION);
+            assertTrue(streamed.getElapsedNanos() > 0);
+        }
+    }
+
+    // ==================== ТЕСТЫ МАТРИЦ ПРОИЗВОЛЬНОГО РАЗМЕРА ====================
+
+    @Test
+    public void testMatrixNOperations() {
+        MatrixN a = new MatrixN(new float[][]{
+                {2, 1, -1},
+                {-3, -1, 2},
+                {-2, 1, 2}
+        });
+        assertEquals(-1.0f, a.determinant(), FLOAT_PRECISION);
+        assertTrue(a.multiply(a.inverse()).equals(MatrixN.identity(3)));
+        assertEquals(new VectorN(2, 3, -1), a.solveLinearSystem(new VectorN(8, -11, -3)));
+
+        MatrixN rectangular = new MatrixN(new float[][]{{1, 2, 3}, {4, 5, 6}});
+        MatrixN product = rectangular.multiply(rectangular.transpose());
+        assertEquals(2, product.getRows());
+        assertEquals(77.0f, product.get(1, 1), FLOAT_PRECISION);
+        assertThrows(IllegalArgumentException.class, rectangular::inverse);
+    }
+
+    @Test
+    public void testMultiplicationStrategiesAgree() {
+        Random random = new Random(11);
+        for (int n : new int[]{1, 7, 64, 300, 513}) {
+            float[][] a = new float[n][n];
+            float[][] b = new float[n][n];
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    a[i][j] = random.nextFloat() * 2 - 1;
+                    b[i][j] = random.nextFloat() * 2 - 1;
+                }
+            }
+            MatrixN ma = MatrixN.wrap(a);
+            MatrixN mb = MatrixN.wrap(b);
+            MatrixN naive = ma.multiply(mb, MultiplicationStrategy.NAIVE);
+            MatrixN blocked = ma.multiply(mb, MultiplicationStrategy.BLOCKED);
+            MatrixN strassen = ma.multiply(mb, MultiplicationStrategy.STRASSEN_WINOGRAD);
+            for (int i = 0; i < n; i += 13) {
+                for (int j = 0; j < n; j += 7) {
+                    assertEquals(naive.get(i, j), blocked.get(i, j), 1e-3f * n);
+                    assertEquals(naive.get(i, j), strassen.get(i, j), 1e-3f * n);
+                }
+            }
+        }
+    }
+
+    // ==================== ТЕСТЫ РАЗЛОЖЕНИЙ ====================
+
+    @Test
+    public void testCholeskyFixedSize() {
+        Matrix3x3 spd = new Matrix3x3(new float[][]{
+                {4, 12, -16},
+                {12, 37, -43},
+                {-16, -43, 98}
+        });
+        Vector3D b = new Vector3D(1, 2, 3);
+        Vector3D expected = spd.solveLinearSystem(b);
+        Vector3D actual = spd.solveSPD(b);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(expected.getComponent(i), actual.getComponent(i), 0.01f);
+        }
+
+        CholeskyDecomposition cholesky = spd.cholesky();
+        assertEquals(2.0f, cholesky.getL().get(0, 0), FLOAT_PRECISION);
+        assertEquals(6.0f, cholesky.getL().get(1, 0), FLOAT_PRECISION);
+        assertEquals(-8.0f, cholesky.getL().get(2, 0), FLOAT_PRECISION);
+        assertEquals(spd.determinant(), cholesky.determinant(), FLOAT_PRECISION);
+
+        Matrix4x4 spd4 = new Matrix4x4(new float[][]{
+                {5, 1, 0, 1},
+                {1, 4, 1, 0},
+                {0, 1, 3, 1},
+                {1, 0, 1, 6}
+        });
+        Vector4D b4 = new Vector4D(1, -2, 3, 4);
+        assertEquals(spd4.solveLinearSystem(b4), spd4.solveSPD(b4));
+
+        Matrix3x3 indefinite = new Matrix3x3(new float[][]{
+                {1, 2, 0},
+                {2, 1, 0},
+                {0, 0, 1}
+        });
+        assertFalse(CholeskyDecomposition.isPositiveDefinite(indefinite));
+        assertThrows(ArithmeticException.class, () -> indefinite.solveSPD(b));
+        assertThrows(ArithmeticException.class, indefinite::cholesky);
+
+        LDLTDecomposition ldlt = indefinite.ldlt();
+        assertFalse(ldlt.isPositiveDefinite());
+        assertEquals(indefinite.determinant(), ldlt.determinant(), FLOAT_PRECISION);
+        VectorN x = ldlt.solve(new VectorN(1, 2, 3));
+        assertEquals(new Vector3D(1, 2, 3), indefinite.multiply(new Vector3D(
+                x.getComponent(0), x.getComponent(1), x.getComponent(2))));
+    }
+
+    @Test
+    public void testCholeskyLargeBlockedMultipleRightHandSides() {
+        int n = 300;
+        Random random = new Random(5);
+        float[][] g = new float[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                g[i][j] = random.nextFloat() - 0.5f;
+            }
+        }
+        MatrixN gm = MatrixN.wrap(g);
+        MatrixN spd = gm.multiply(gm.transpose()).add(MatrixN.identity(n).multiply(n));
+        assertTrue(CholeskyDecomposition.isPositiveDefinite(spd));
+
+        CholeskyDecomposition cholesky = spd.cholesky();
+        float[][] columns = new float[n][3];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < 3; j++) {
+                columns[i][j] = random.nextFloat();
+            }
+        }
+        MatrixN rhs = MatrixN.wrap(columns);
+        MatrixN solution = cholesky.solve(rhs);
+        MatrixN residual = spd.multiply(solution).subtract(rhs);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < 3; j++) {
+                assertEquals(0.0f, residual.get(i, j), 1e-3f);
+            }
+        }
+
+        LDLTDecomposition ldlt = spd.ldlt();
+        assertTrue(ldlt.isPositiveDefinite());
+        double logDeterminant = 0;
+        for (int i = 0; i < n; i++) {
+            logDeterminant += Math.log(ldlt.getD(i));
+        }
+        assertEquals(cholesky.logDeterminant(), logDeterminant, 1e-2);
+    }
+
+    @Test
+    public void testQRLeastSquares() {
+        // Точки точно на плоскости z = 2x - y + 3: невязка нулевая
+        float[][] a = new float[6][3];
+        float[] z = new float[6];
+        float[][] points = {{0, 0}, {1, 0}, {0, 1}, {2, 3}, {-1, 4}, {5, -2}};
+        for (int i = 0; i < points.length; i++) {
+            a[i][0] = points[i][0];
+            a[i][1] = points[i][1];
+            a[i][2] = 1;
+            z[i] = 2 * points[i][0] - points[i][1] + 3;
+        }
+        QRDecomposition qr = MatrixN.wrap(a).qr();
+        assertTrue(qr.isFullRank());
+        VectorN fit = qr.solveLeastSquares(VectorN.wrap(z, 0, 6));
+        assertEquals(2.0f, fit.getComponent(0), FLOAT_PRECISION);
+        assertEquals(-1.0f, fit.getComponent(1), FLOAT_PRECISION);
+        assertEquals(3.0f, fit.getComponent(2), FLOAT_PRECISION);
+
+        MatrixN product = qr.getQ().multiply(qr.getR());
+        for (int i = 0; i < 6; i++) {
+            for (int j = 0; j < 3; j++) {
+                assertEquals(a[i][j], product.get(i, j), FLOAT_PRECISION);
+            }
+        }
+
+        CustomMatrix custom = new CustomMatrix(new float[][]{{2, 1, 0}, {1, 3, 1}, {0, 1, 4}});
+        Vector3D solution = custom.solveLinearSystem(new Vector3D(1, 2, 3));
+        Vector3D check = custom.multiply(solution);
+        assertEquals(1.0f, check.getX(), FLOAT_PRECISION);
+        assertEquals(2.0f, check.getY(), FLOAT_PRECISION);
+        assertEquals(3.0f, check.getZ(), FLOAT_PRECISION);
+    }
+
+    @Test
+    public void testQRBatchedLeastSquares() {
+        int count = 1000;
+        int m = 8;
+        Random random = new Random(11);
+        float[] a = new float[count * m * 3];
+        float[] b = new float[count * m];
+        float[] expected = new float[count * 3];
+        for (int p = 0; p < count; p++) {
+            float ca = random.nextFloat() * 4 - 2, cb = random.nextFloat() * 4 - 2, cc = random.nextFloat() * 10;
+            expected[p * 3] = ca;
+            expected[p * 3 + 1] = cb;
+            expected[p * 3 + 2] = cc;
+            for (int i = 0; i < m; i++) {
+                float x = random.nextFloat() * 10, y = random.nextFloat() * 10;
+                int row = (p * m + i) * 3;
+                a[row] = x;
+                a[row + 1] = y;
+                a[row + 2] = 1;
+                b[p * m + i] = ca * x + cb * y + cc;
+            }
+        }
+        // Последняя задача вырождена: все точки на одной прямой x = y
+        for (int i = 0; i < m; i++) {
+            int row = ((count - 1) * m + i) * 3;
+            a[row + 1] = a[row];
+        }
+
+        float[] x = new float[count * 3 + 1];
+        int deficient = QRDecomposition.solveLeastSquaresBatch(count, m, 3, a, b, x, 1);
+        assertEquals(1, deficient);
+        for (int p = 0; p < count - 1; p++) {
+            for (int j = 0; j < 3; j++) {
+                assertEquals(expected[p * 3 + j], x[1 + p * 3 + j], 0.01f);
+            }
+        }
+        assertTrue(Float.isNaN(x[1 + (count - 1) * 3]));
+
+        // count * m * n = 2^32 переполняет int и не должен проходить проверку размера
+        assertThrows(IllegalArgumentException.class, () -> QRDecomposition.solveLeastSquaresBatch(
+                1 << 16, 1 << 16, 1, new float[1], new float[1], new float[1 << 16], 0));
+    }
+
+    @Test
+    public void testLUDeterminant() {
+        Random random = new Random(3);
+        float[][] values = new float[4][4];
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) {
+                values[i][j] = random.nextFloat() * 2 - 1;
+            }
+        }
+        Matrix4x4 fixed = new Matrix4x4(values);
+        MatrixN general = new MatrixN(values);
+        assertEquals(general.determinant(), fixed.determinant(), FLOAT_PRECISION);
+        Matrix4x4 product = fixed.multiply(fixed.inverse());
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) {
+                assertEquals(i == j ? 1.0f : 0.0f, product.get(i, j), FLOAT_PRECISION);
+            }
+        }
+
+        // Перестановка строк меняет знак
+        MatrixN swapped = new MatrixN(new float[][]{{0, 1, 0}, {1, 0, 0}, {0, 0, 3}});
+        assertEquals(-3.0f, swapped.determinant(), FLOAT_PRECISION);
+        assertEquals(-1, swapped.determinantSign());
+        LUDecomposition lu = swapped.lu();
+        VectorN x = lu.solve(new VectorN(1, 2, 3));
+        assertEquals(2.0f, x.getComponent(0), FLOAT_PRECISION);
+        assertEquals(1.0f, x.getComponent(1), FLOAT_PRECISION);
+        assertEquals(1.0f, x.getComponent(2), FLOAT_PRECISION);
+
+        MatrixN singular = new MatrixN(new float[][]{{1, 2}, {2, 4}});
+        assertEquals(0.0f, singular.determinant(), FLOAT_PRECISION);
+        assertEquals(0, singular.determinantSign());
+        assertThrows(ArithmeticException.class, singular::inverse);
+
+        // det(2I) = 2^200 не помещается во float, логарифм - помещается
+        MatrixN large = MatrixN.identity(200).multiply(2);
+        assertTrue(Float.isInfinite(large.determinant()));
+        assertEquals(200 * Math.log(2), large.logAbsDeterminant(), 1e-6);
+    }
+
+    @Test
+    public void testHalfFloatConversion() {
+        float[] exact = {0f, -0f, 1f, -2f, 0.5f, 65504f, 0x1p-24f, 0x1p-14f};
+        for (float value : exact) {
+            assertEquals(value, HalfFloat.toFloat(HalfFloat.fromFloat(value)), 0.0f);
+        }
+        assertEquals((short) 0x3c00, HalfFloat.fromFloat(1f));
+        assertEquals(HalfFloat.POSITIVE_INFINITY, HalfFloat.fromFloat(70000f));
+        assertEquals(HalfFloat.NEGATIVE_INFINITY, HalfFloat.fromFloat(Float.NEGATIVE_INFINITY));
+        assertTrue(Float.isNaN(HalfFloat.toFloat(HalfFloat.fromFloat(Float.NaN))));
+        // 1 + 2^-11 ровно посередине между 1 и 1 + 2^-10: округление к четному дает 1
+        assertEquals(1f, HalfFloat.toFloat(HalfFloat.fromFloat(1f + 0x1p-11f)), 0.0f);
+        assertEquals(1f + 0x1p-9f, HalfFloat.toFloat(HalfFloat.fromFloat(1f + 0x1p-10f + 0x1p-11f)), 0.0f);
+
+        Random random = new Random(17);
+        for (int i = 0; i < 10000; i++) {
+            float value = (random.nextFloat() * 2 - 1) * 1000;
+            float decoded = HalfFloat.toFloat(HalfFloat.fromFloat(value));
+            assertEquals(value, decoded, Math.abs(value) * 0x1p-11f + 0x1p-25f);
+        }
+    }
+
+    @Test
+    public void testHalfVector3ArrayKernels() {
+        int count = 5000;
+        Random random = new Random(23);
+        float[] normals = new float[count * 3];
+        for (int i = 0; i < count; i++) {
+            Vector3D n = new Vector3D(random.nextFloat() - 0.5f, random.nextFloat() - 0.5f,
+                    random.nextFloat() - 0.5f).normalize();
+            normals[3 * i] = n.getX();
+            normals[3 * i + 1] = n.getY();
+            normals[3 * i + 2] = n.getZ();
+        }
+        HalfVector3Array half = HalfVector3Array.encode(normals, 0, count);
+        assertEquals(count * 3, half.array().length);
+        // 3 * size и start + count не должны переполнять int
+        assertThrows(IllegalArgumentException.class, () -> new HalfVector3Array(Integer.MAX_VALUE / 3 + 1));
+        assertThrows(IllegalArgumentException.class, () -> half.encode(1, normals, 0, Integer.MAX_VALUE));
+        assertThrows(IllegalArgumentException.class, () -> half.decode(0, 1, new float[3], Integer.MAX_VALUE));
+
+        float[] decoded = new float[count * 3];
+        half.decode(0, count, decoded, 0);
+        for (int i = 0; i < decoded.length; i++) {
+            assertEquals(normals[i], decoded[i], 0x1p-12f);
+        }
+
+        Vector3D light = new Vector3D(1, 2, 2).normalize();
+        float[] dots = new float[count];
+        half.dot(light, dots, 0);
+        for (int i = 0; i < count; i++) {
+            float expected = normals[3 * i] * light.getX() + normals[3 * i + 1] * light.getY()
+                    + normals[3 * i + 2] * light.getZ();
+            assertEquals(expected, dots[i], 1e-3f);
+        }
+
+        Matrix3x3 rotation = new Matrix3x3(new float[][]{{0, -1, 0}, {1, 0, 0}, {0, 0, 1}});
+        float[] rotated = new float[count * 3];
+        rotation.transform(half, rotated, 0);
+        rotation.transform(half, half);
+        for (int i = 0; i < count; i++) {
+            assertEquals(-decoded[3 * i + 1], rotated[3 * i], 0.0f);
+            assertEquals(decoded[3 * i], rotated[3 * i + 1], 0.0f);
+            assertEquals(rotated[3 * i], half.getX(i), 0.0f);
+        }
+    }
+
+    @Test
+    public void testQuantizedVectorIndexRecall() {
+        int count = 2000, dimensions = 32, queries = 40, k = 10;
+        Random random = new Random(29);
+        float[] points = new float[count * dimensions];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = (float) random.nextGaussian();
+        }
+        float[] query = new float[queries * dimensions];
+        for (int i = 0; i < query.length; i++) {
+            query[i] = (float) random.nextGaussian();
+        }
+
+        for (Metric metric : new Metric[]{Metric.L2, Metric.DOT}) {
+            QuantizedVectorIndex index = QuantizedVectorIndex.build(points, count, dimensions, metric);
+            assertTrue(index.quantizedBytes() < 4L * count * dimensions / 2);
+            int[] indices = new int[queries * k];
+            float[] distances = new float[queries * k];
+            index.searchBatch(query, queries, k, 5 * k, indices, distances);
+
+            int hits = 0;
+            for (int q = 0; q < queries; q++) {
+                float[] exact = new float[count];
+                for (int i = 0; i < count; i++) {
+                    float sum = 0;
+                    for (int c = 0; c < dimensions; c++) {
+                        float a = points[i * dimensions + c], b = query[q * dimensions + c];
+                        sum += metric == Metric.L2 ? (a - b) * (a - b) : -a * b;
+                    }
+                    exact[i] = sum;
+                }
+                float[] sorted = exact.clone();
+                Arrays.sort(sorted);
+                float threshold = sorted[k - 1];
+                for (int r = 0; r < k; r++) {
+                    int id = indices[q * k + r];
+                    if (exact[id] <= threshold) hits++;
+                    assertEquals(exact[id], distances[q * k + r], 1e-3f * Math.max(1, Math.abs(exact[id])));
+                    if (r > 0) {
+                        assertTrue(distances[q * k + r - 1] <= distances[q * k + r]);
+                    }
+                }
+            }
+            assertTrue(hits >= 0.95 * queries * k, metric + " recall: " + hits);
+        }
+
+        // queryCount * k = 2^32 переполняет int и не должен проходить проверку размера
+        QuantizedVectorIndex line = QuantizedVectorIndex.build(new float[]{0, 1, 2, 3}, 4, 1, Metric.L2);
+        assertThrows(IllegalArgumentException.class,
+                () -> line.searchBatch(new float[1 << 16], 1 << 16, 1 << 16, 1 << 16, new int[1], new float[1]));
+    }
+
+    @Test
+    public void testHnswIndexRecallAndPersistence(@TempDir Path directory) throws Exception {
+        int count = 3000, dimensions = 16, queries = 50, k = 10;
+        Random random = new Random(31);
+        float[] points = new float[count * dimensions];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = random.nextFloat();
+        }
+        float[] query = new float[queries * dimensions];
+        for (int i = 0; i < query.length; i++) {
+            query[i] = random.nextFloat();
+        }
+
+        HnswIndex index = HnswIndex.create(dimensions, count, Metric.L2, 12, 100);
+        assertEquals(0, index.addAll(points, count));
+        assertEquals(count, index.size());
+        index.setEfSearch(64);
+        int[] indices = new int[queries * k];
+        float[] distances = new float[queries * k];
+        index.searchBatch(query, queries, k, indices, distances);
+
+        int[] exact = new int[queries * k];
+        float[] exactDistances = new float[queries * k];
+        DistanceKernels.knn(query, queries, points, count, dimensions, k, true, exact, exactDistances);
+        int hits = 0;
+        for (int q = 0; q < queries; q++) {
+            for (int r = 0; r < k; r++) {
+                for (int e = 0; e < k; e++) {
+                    if (indices[q * k + r] == exact[q * k + e]) {
+                        hits++;
+                        break;
+                    }
+                }
+            }
+        }
+        assertTrue(hits >= 0.9 * queries * k, "recall: " + hits);
+
+        Path file = directory.resolve("index.hnsw");
+        index.save(file);
+        HnswIndex loaded = HnswIndex.load(file);
+        assertEquals(count, loaded.size());
+        assertEquals(64, loaded.getEfSearch());
+        int[] reloaded = new int[queries * k];
+        loaded.searchBatch(query, queries, k, reloaded, new float[queries * k]);
+        assertArrayEquals(indices, reloaded);
+
+        // Испорченный заголовок, ссылка на несуществующий узел и обрезанный файл - IOException, а не сбой
+        byte[] saved = Files.readAllBytes(file);
+        Path corrupt = directory.resolve("corrupt.hnsw");
+        ByteBuffer bytes = ByteBuffer.wrap(saved.clone()).order(ByteOrder.LITTLE_ENDIAN);
+        Files.write(corrupt, bytes.putInt(8, 99).array());
+        assertThrows(IOException.class, () -> HnswIndex.load(corrupt));
+        bytes = ByteBuffer.wrap(saved.clone()).order(ByteOrder.LITTLE_ENDIAN);
+        Files.write(corrupt, bytes.putInt(32, bytes.getInt(16) + 1).array());
+        assertThrows(IOException.class, () -> HnswIndex.load(corrupt));
+        bytes = ByteBuffer.wrap(saved.clone()).order(ByteOrder.LITTLE_ENDIAN);
+        Files.write(corrupt, bytes.putInt(44 + 4 * count + 4, count).array());
+        assertThrows(IOException.class, () -> HnswIndex.load(corrupt));
+        Files.write(corrupt, Arrays.copyOf(saved, saved.length - 4));
+        assertThrows(IOException.class, () -> HnswIndex.load(corrupt));
+        Files.write(corrupt, Arrays.copyOf(saved, 20));
+        assertThrows(IOException.class, () -> HnswIndex.load(corrupt));
+
+        HnswIndex cosine = HnswIndex.create(3, 4, Metric.COSINE);
+        cosine.add(new float[]{1, 0, 0}, 0);
+        cosine.add(new float[]{0, 5, 0}, 0);
+        cosine.add(new float[]{0, 0, 2}, 0);
+        int[] nearest = new int[2];
+        float[] nearestDistances = new float[2];
+        cosine.search(new float[]{0, 10, 1}, 0, 2, nearest, nearestDistances, 0);
+        assertEquals(1, nearest[0]);
+        assertEquals(2, nearest[1]);
+        assertEquals(1 - 10 / (float) Math.sqrt(101), nearestDistances[0], FLOAT_PRECISION);
+
+        // queryCount * k = 2^32 переполняет int и не должен проходить проверку размера
+        assertThrows(IllegalArgumentException.class,
+                () -> cosine.searchBatch(new float[3 << 16], 1 << 16, 1 << 16, new int[1], new float[1]));
+    }
+
+    @Test
+    public void testVectorKernelsStructureOfArrays() {
+        int count = 1000;
+        Random random = new Random(37);
+        float[] x = new float[count], y = new float[count], z = new float[count];
+        float[] bx = new float[count], by = new float[count], bz = new float[count];
+        for (int i = 0; i < count; i++) {
+            x[i] = random.nextFloat() * 4 - 2;
+            y[i] = random.nextFloat() * 4 - 2;
+            z[i] = random.nextFloat() * 4 - 2;
+            bx[i] = random.nextFloat() * 4 - 2;
+            by[i] = random.nextFloat() * 4 - 2;
+            bz[i] = random.nextFloat() * 4 - 2;
+        }
+        x[7] = y[7] = z[7] = 0;
+
+        float[] lengths = new float[count];
+        float[] dots = new float[count];
+        float[] cx = new float[count], cy = new float[count], cz = new float[count];
+        VectorKernels.lengths(x, y, z, 0, count, lengths);
+        VectorKernels.dot(x, y, z, bx, by, bz, 0, count, dots);
+        VectorKernels.cross(x, y, z, bx, by, bz, 0, count, cx, cy, cz);
+        for (int i = 0; i < count; i++) {
+            Vector3D a = new Vector3D(x[i], y[i], z[i]);
+            Vector3D b = new Vector3D(bx[i], by[i], bz[i]);
+            assertEquals(a.length(), lengths[i], 1e-5f);
+            assertEquals(a.dot(b), dots[i], 1e-5f);
+            assertEquals(a.cross(b), new Vector3D(cx[i], cy[i], cz[i]));
+        }
+
+        boolean[] zero = new boolean[count];
+        assertEquals(1, VectorKernels.normalize(x, y, z, 0, count, zero));
+        VectorKernels.squaredLengths(x, y, z, 0, count, lengths);
+        for (int i = 0; i < count; i++) {
+            assertEquals(i == 7, zero[i]);
+            assertEquals(i == 7 ? 0.0f : 1.0f, lengths[i], 1e-5f);
+        }
+
+        float[] w = {0, 3};
+        float[] four = {0, 4};
+        float[] zeros = {0, 0};
+        assertEquals(1, VectorKernels.normalize(four, zeros.clone(), zeros.clone(), w, 0, 2, null));
+        assertEquals(0.8f, four[1], 1e-6f);
+        assertEquals(0.6f, w[1], 1e-6f);
+    }
+
+    @Test
+    public void testOffHeapFloatArray() {
+        float[] values = new float[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i * 0.5f;
+        }
+        OffHeapFloatArray array = OffHeapFloatArray.allocate(2000);
+        assertEquals(2000, array.length());
+        array.copyFrom(values, 0, 500, values.length);
+        array.set(1999, 7);
+        assertEquals(0.5f, array.get(501), 0);
+        assertEquals(7, array.get(1999), 0);
+        assertEquals(0, array.get(0), 0);
+
+        float[] back = new float[10];
+        array.copyTo(990, back, 0, 10);
+        assertEquals(245, back[0], 0);
+        assertEquals(249.5f, back[9], 0);
+
+        double expected = 0;
+        for (float v : values) {
+            expected += (double) v * v;
+        }
+        assertEquals(expected, array.dot(500, values, 0, values.length), 1e-3);
+
+        assertThrows(IllegalArgumentException.class, () -> array.get(2000));
+        array.close();
+        assertThrows(IllegalStateException.class, () -> array.get(0));
+
+        // Ядра VectorN в любой версии дают тот же результат, что и прямой расчет
+        VectorN a = VectorN.wrap(values, 0, values.length);
+        assertEquals(expected, a.dot(a), expected * 1e-6);
+        assertTrue(VectorN.kernelImplementation().equals("scalar")
+                || VectorN.kernelImplementation().equals("vector-api"));
+    }
+
+    @Test
+    public void testBatchCli(@TempDir Path dir) throws Exception {
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        PrintStream err = new PrintStream(errors, true, StandardCharsets.UTF_8);
+
+        // Текст: две матрицы 2x2, вторая вырожденная; порции по одной записи
+        String matrices = "# A\n4 7\n2 6\n1, 2, 2, 4\n";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int code = BatchCli.run(new String[]{"invert", "-n", "2", "-c", "1"},
+                new ByteArrayInputStream(matrices.getBytes(StandardCharsets.US_ASCII)), out, err);
+        assertEquals(1, code);
+        String[] lines = out.toString(StandardCharsets.US_ASCII).split("\n");
+        assertEquals(2, lines.length);
+        float[] inverse = parseFloats(lines[0]);
+        assertArrayEquals(new float[]{0.6f, -0.7f, -0.2f, 0.4f}, inverse, 1e-5f);
+        assertTrue(Float.isNaN(parseFloats(lines[1])[0]));
+
+        // Двоичный вход и выход: много систем 3x3 с известным решением
+        int count = 1000;
+        Random random = new Random(43);
+        ByteBuffer input = ByteBuffer.allocate(count * 12 * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        float[][] expected = new float[count][3];
+        for (int r = 0; r < count; r++) {
+            float[][] a = new float[3][3];
+            for (int i = 0; i < 3; i++) {
+                for (int j = 0; j < 3; j++) {
+                    a[i][j] = random.nextFloat() + (i == j ? 3 : 0);
+                    input.putFloat(a[i][j]);
+                }
+                expected[r][i] = random.nextFloat() * 2 - 1;
+            }
+            for (int i = 0; i < 3; i++) {
+                input.putFloat(a[i][0] * expected[r][0] + a[i][1] * expected[r][1] + a[i][2] * expected[r][2]);
+            }
+        }
+        Path in = dir.resolve("systems.bin");
+        Path result = dir.resolve("solutions.bin");
+        Files.write(in, input.array());
+        code = BatchCli.run(new String[]{"solve", "-f", "binary", "-c", "64", "-i", in.toString(), "-o", result.toString()},
+                null, null, err);
+        assertEquals(0, code);
+        FloatBuffer solutions = ByteBuffer.wrap(Files.readAllBytes(result)).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+        assertEquals(count * 3, solutions.remaining());
+        for (int r = 0; r < count; r++) {
+            for (int i = 0; i < 3; i++) {
+                assertEquals(expected[r][i], solutions.get(), 1e-4f);
+            }
+        }
+
+        // Преобразование точек матрицей из файла
+        Path matrix = dir.resolve("translate.txt");
+        Files.writeString(matrix, "1 0 0 1\n0 1 0 2\n0 0 1 3\n0 0 0 1\n");
+        out.reset();
+        code = BatchCli.run(new String[]{"transform", "-m", matrix.toString()},
+                new ByteArrayInputStream("0 0 0\n1 1 1\n".getBytes(StandardCharsets.US_ASCII)), out, err);
+        assertEquals(0, code);
+        assertEquals("1.0 2.0 3.0\n2.0 3.0 4.0\n", out.toString(StandardCharsets.US_ASCII));
+
+        // Неполная запись и неизвестная команда - ошибка входных данных
+        assertEquals(2, BatchCli.run(new String[]{"determinant"},
+                new ByteArrayInputStream("1 2 3".getBytes(StandardCharsets.US_ASCII)), new ByteArrayOutputStream(), err));
+        assertEquals(2, BatchCli.run(new String[]{"multiply"}, null, null, err));
+        // Размеры, переполняющие int или превышающие предел порции, - ошибка аргументов, а не исключение
+        ByteArrayInputStream empty = new ByteArrayInputStream(new byte[0]);
+        assertEquals(2, BatchCli.run(new String[]{"determinant", "-n", "50000"}, empty, new ByteArrayOutputStream(), err));
+        assertEquals(2, BatchCli.run(new String[]{"solve", "-n", "65536"}, empty, new ByteArrayOutputStream(), err));
+        assertEquals(2, BatchCli.run(new String[]{"invert", "-c", "1000000000"}, empty, new ByteArrayOutputStream(), err));
+    }
+
+    private static float[] parseFloats(String line) {
+        String[] parts = line.trim().split(" ");
+        float[] values = new float[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            values[i] = Float.parseFloat(parts[i]);
+        }
+        return values;
+    }
+
+    @Test
+    public void testTransposeKernels() {
+        Random random = new Random(47);
+        int rows = 37, cols = 53;
+        float[] a = new float[rows * cols];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = random.nextFloat();
+        }
+        float[] expected = new float[a.length];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                expected[j * rows + i] = a[i * cols + j];
+            }
+        }
+
+        float[] t = new float[a.length];
+        TransposeKernels.transpose(a, rows, cols, t);
+        assertArrayEquals(expected, t, 0);
+        float[] inPlace = a.clone();
+        TransposeKernels.transposeInPlace(inPlace, rows, cols);
+        assertArrayEquals(expected, inPlace, 0);
+        TransposeKernels.transposeInPlace(inPlace, cols, rows);
+        assertArrayEquals(a, inPlace, 0);
+
+        // Выше порога параллельного выполнения и с размером, не кратным блоку
+        int n = 600;
+        float[] square = new float[n * n];
+        for (int i = 0; i < square.length; i++) {
+            square[i] = i;
+        }
+        float[] parallel = new float[n * n];
+        TransposeKernels.transposeParallel(square, n, n, parallel);
+        float[] copy = square.clone();
+        TransposeKernels.transposeInPlaceParallel(copy, n);
+        assertArrayEquals(parallel, copy, 0);
+        for (int i = 0; i < n; i += 7) {
+            for (int j = 0; j < n; j += 11) {
+                assertEquals(square[i * n + j], parallel[j * n + i], 0);
+            }
+        }
+
+        float[][] data = new float[300][1000];
+        for (float[] row : data) {
+            for (int j = 0; j < row.length; j++) {
+                row[j] = random.nextFloat();
+            }
+        }
+        MatrixN transposed = MatrixN.wrap(data).transpose();
+        assertEquals(1000, transposed.getRows());
+        assertEquals(300, transposed.getCols());
+        for (int i = 0; i < 300; i += 13) {
+            for (int j = 0; j < 1000; j += 17) {
+                assertEquals(data[i][j], transposed.get(j, i), 0);
+            }
+        }
+    }
+
+    @Test
+    public void testMatrixChainOrder() {
+        Random random = new Random(53);
+        MatrixN a = randomMatrix(random, 10, 100);
+        MatrixN b = randomMatrix(random, 100, 5);
+        MatrixN c = randomMatrix(random, 5, 50);
+
+        MatrixChain chain = MatrixChain.of(a, b, c);
+        assertEquals("((A0 A1) A2)", chain.getOrder());
+        assertEquals(2 * (10 * 100 * 5 + 10 * 5 * 50), chain.getFlops());
+
+        MatrixN expected = a.multiply(b).multiply(c);
+        assertMatrixClose(expected, chain.multiply(), 1e-3f);
+        assertMatrixClose(expected, MatrixN.multiplyChain(a, b, c), 1e-3f);
+
+        // Справа налево дешевле: 50x10 * 10x40 * 40x30 * 30x1
+        MatrixN d = randomMatrix(random, 50, 10);
+        MatrixN e = randomMatrix(random, 10, 40);
+        MatrixN f = randomMatrix(random, 40, 30);
+        float[] components = new float[30];
+        for (int i = 0; i < components.length; i++) {
+            components[i] = random.nextFloat();
+        }
+        VectorN v = new VectorN(components);
+        MatrixChain vectorChain = MatrixChain.of(new Matrix<?, ?>[]{d, e, f}, v);
+        assertEquals("(A0 (A1 (A2 v)))", vectorChain.getOrder());
+        assertTrue(vectorChain.getFlops() < vectorChain.getLeftToRightFlops());
+        VectorN result = vectorChain.multiplyVector();
+        VectorN reference = d.multiply(e).multiply(f).multiply(v);
+        for (int i = 0; i < 50; i++) {
+            assertEquals(reference.getComponent(i), result.getComponent(i), 1e-2f);
+        }
+
+        // Повторное выполнение видит изменения wrap-представлений и переиспользует буферы
+        float[][] data = {{1, 0}, {0, 1}};
+        MatrixN view = MatrixN.wrap(data);
+        MatrixChain repeated = MatrixChain.of(view, MatrixN.identity(2).multiply(2));
+        assertEquals(2, repeated.multiply().get(0, 0), 0);
+        data[0][0] = 5;
+        assertEquals(10, repeated.multiply().get(0, 0), 0);
+        assertEquals(MatrixStructure.GENERAL, repeated.multiply().getStructure());
+
+        // Результат владеет данными: флаги множителей сохраняются, обратная запоминается
+        MatrixN rotation = MatrixN.wrap(copyRows(Matrix4x4.rotationZ(0.3f)));
+        MatrixN product = MatrixChain.of(Matrix4x4.rotationX(0.5f), Matrix4x4.rotationY(0.2f), Matrix4x4.translation(1, 2, 3)).multiply();
+        assertTrue(product.hasStructure(MatrixStructure.RIGID));
+        assertSame(product.inverse(), product.inverse());
+        MatrixN general = MatrixChain.of(rotation, Matrix4x4.rotationY(0.2f)).multiply();
+        assertEquals(MatrixStructure.GENERAL, general.getStructure());
+        assertSame(general.inverse(), general.inverse());
+
+        assertThrows(IllegalArgumentException.class, () -> MatrixChain.of(a, c));
+    }
+
+    private static MatrixN randomMatrix(Random random, int rows, int cols) {
+        float[][] data = new float[rows][cols];
+        for (float[] row : data) {
+            for (int j = 0; j < cols; j++) {
+                row[j] = random.nextFloat() * 2 - 1;
+            }
+        }
+        return MatrixN.wrap(data);
+    }
+
+    private static void assertMatrixClose(AbstractMatrix<?, ?> expected, AbstractMatrix<?, ?> actual, float tolerance) {
+        assertEquals(expected.getRows(), actual.getRows());
+        assertEquals(expected.getCols(), actual.getCols());
+        for (int i = 0; i < expected.getRows(); i++) {
+            for (int j = 0; j < expected.getCols(); j++) {
+                assertEquals(expected.get(i, j), actual.get(i, j), tolerance);
+            }
+        }
+    }
+
+    @Test
+    public void testMatrixStructureFastPaths() {
+        Matrix4x4 rotation = Matrix4x4.rotationX(0.3f).multiply(Matrix4x4.rotationZ(-1.1f));
+        Matrix4x4 translation = Matrix4x4.translation(1, -2, 3);
+        Matrix4x4 scale = Matrix4x4.scale(2, 0.5f, -4);
+        Matrix4x4 rigid = rotation.multiply(translation);
+
+        // Флаги от фабрик и их распространение через операции
+        assertTrue(rotation.hasStructure(MatrixStructure.ORTHONORMAL | MatrixStructure.RIGID));
+        assertTrue(rigid.hasStructure(MatrixStructure.RIGID));
+        assertFalse(rigid.hasStructure(MatrixStructure.ORTHONORMAL));
+        assertTrue(translation.transpose().hasStructure(MatrixStructure.LOWER_TRIANGULAR));
+        assertTrue(scale.multiply(scale).hasStructure(MatrixStructure.DIAGONAL));
+        assertTrue(Matrix4x4.identity().hasStructure(MatrixStructure.IDENTITY));
+        assertTrue(LinearAlgebraEngine.createRotationMatrixY(0.7f).hasStructure(MatrixStructure.ORTHONORMAL));
+        assertEquals(MatrixStructure.GENERAL, Matrix4x4.wrap(new float[][]{
+                {1, 0, 0, 0}, {0, 1, 0, 0}, {0, 0, 1, 0}, {0, 0, 0, 1}}).getStructure());
+        assertEquals(MatrixStructure.GENERAL, rotation.add(scale).getStructure());
+        assertEquals("UPPER_TRIANGULAR|RIGID", MatrixStructure.describe(translation.getStructure()));
+
+        // Копирующий конструктор распознает треугольную структуру по нулям
+        Matrix3x3 upper = new Matrix3x3(new float[][]{{2, 1, -1}, {0, 3, 4}, {0, 0, -0.5f}});
+        assertTrue(upper.hasStructure(MatrixStructure.UPPER_TRIANGULAR));
+        assertFalse(upper.hasStructure(MatrixStructure.LOWER_TRIANGULAR));
+        assertEquals(-3, upper.determinant(), FLOAT_PRECISION);
+
+        // Специальные пути совпадают с общими формулами на тех же данных без флагов
+        for (Matrix4x4 m : new Matrix4x4[]{rotation, translation, scale, rigid, translation.transpose()}) {
+            Matrix4x4 general = Matrix4x4.wrap(copyRows(m));
+            assertEquals(MatrixStructure.GENERAL, general.getStructure());
+            assertMatrixClose(general.inverse(), m.inverse(), 1e-5f);
+            assertEquals(general.determinant(), m.determinant(), 1e-4f);
+            Vector4D b = new Vector4D(0.5f, -1, 2, 1);
+            Vector4D expected = general.solveLinearSystem(b);
+            Vector4D actual = m.solveLinearSystem(b);
+            for (int i = 0; i < 4; i++) {
+                assertEquals(expected.getComponent(i), actual.getComponent(i), 1e-4f);
+            }
+            assertMatrixClose(general.multiply(general), m.multiply(m), 1e-5f);
+        }
+        Matrix3x3 upperGeneral = Matrix3x3.wrap(copyRows(upper));
+        assertMatrixClose(upperGeneral.inverse(), upper.inverse(), 1e-5f);
+        assertTrue(upper.inverse().hasStructure(MatrixStructure.UPPER_TRIANGULAR));
+        assertEquals(upperGeneral.solveLinearSystem(new Vector3D(1, 2, 3)), upper.solveLinearSystem(new Vector3D(1, 2, 3)));
+
+        // MatrixN: диагональные и треугольные пути против LU
+        Random random = new Random(61);
+        int n = 24;
+        float[] diagonal = new float[n];
+        float[][] lower = new float[n][n];
+        for (int i = 0; i < n; i++) {
+            diagonal[i] = 1 + random.nextFloat();
+            for (int j = 0; j <= i; j++) {
+                lower[i][j] = i == j ? 2 + random.nextFloat() : random.nextFloat() - 0.5f;
+            }
+        }
+        MatrixN d = MatrixN.diagonal(diagonal);
+        MatrixN l = new MatrixN(lower);
+        MatrixN dense = randomMatrix(random, n, n);
+        assertTrue(l.hasStructure(MatrixStructure.LOWER_TRIANGULAR));
+        assertMatrixClose(MatrixN.wrap(copyRows(d)).multiply(dense), d.multiply(dense), 1e-5f);
+        assertMatrixClose(dense.multiply(MatrixN.wrap(copyRows(d))), dense.multiply(d), 1e-5f);
+        assertMatrixClose(MatrixN.wrap(copyRows(l)).inverse(), l.inverse(), 1e-4f);
+        assertEquals(MatrixN.wrap(copyRows(l)).logAbsDeterminant(), l.logAbsDeterminant(), 1e-4);
+        VectorN rhs = new VectorN(diagonal);
+        VectorN expected = MatrixN.wrap(copyRows(l)).solveLinearSystem(rhs);
+        VectorN actual = l.solveLinearSystem(rhs);
+        for (int i = 0; i < n; i++) {
+            assertEquals(expected.getComponent(i), actual.getComponent(i), 1e-4f);
+        }
+        assertSame(dense.getClass(), MatrixN.identity(n).multiply(dense).getClass());
+        assertMatrixClose(dense, MatrixN.identity(n).multiply(dense), 0);
+
+        // Вырожденные структурные матрицы обрабатываются так же, как общие
+        assertThrows(ArithmeticException.class, () -> Matrix4x4.scale(1, 0, 1).inverse());
+        assertThrows(ArithmeticException.class, () -> Matrix4x4.zero().solveLinearSystem(new Vector4D(1, 1, 1, 1)));
+    }
+
+    @Test
+    public void testMatrixMemoization() {
+        float[][] data = {{2, 1, 0, 1}, {1, 3, 1, 0}, {0, 1, 4, 2}, {1, 0, 2, 5}};
+        Matrix4x4 owned = new Matrix4x4(data);
+        Matrix4x4 inverse = owned.inverse();
+        assertSame(inverse, owned.inverse());
+        assertEquals(owned.determinant(), owned.determinant());
+        assertEquals(Matrix4x4.wrap(data).determinant(), owned.determinant(), FLOAT_PRECISION);
+        Vector4D b = new Vector4D(1, -2, 3, 0.5f);
+        Vector4D expected = Matrix4x4.wrap(data).solveLinearSystem(b);
+        for (int i = 0; i < 3; i++) {
+            Vector4D x = owned.solveLinearSystem(b);
+            for (int c = 0; c < 4; c++) {
+                assertEquals(expected.getComponent(c), x.getComponent(c), 1e-5f);
+            }
+        }
+
+        // Параллельные первые запросы получают одинаковый результат
+        Matrix4x4 shared = new Matrix4x4(data);
+        assertTrue(java.util.stream.IntStream.range(0, 64).parallel()
+                .mapToObj(i -> shared.inverse()).allMatch(inverse::equals));
+
+        // wrap-представление видит изменения массива и ничего не кэширует
+        float[][] rows = copyRows(owned);
+        Matrix4x4 view = Matrix4x4.wrap(rows);
+        Matrix4x4 before = view.inverse();
+        float determinant = view.determinant();
+        int hash = view.hashCode();
+        rows[0][0] = 10;
+        assertNotEquals(before, view.inverse());
+        assertNotEquals(determinant, view.determinant(), FLOAT_PRECISION);
+        assertNotEquals(hash, view.hashCode());
+        assertNotSame(view.lu(), view.lu());
+
+        MatrixN large = new MatrixN(copyRows(MatrixN.identity(8).multiply(3).add(randomMatrix(new Random(67), 8, 8))));
+        assertSame(large.lu(), large.lu());
+        assertSame(large.inverse(), large.inverse());
+
+        // hashCode согласован с equals для одинаково построенных матриц
+        assertEquals(owned.hashCode(), Matrix4x4.wrap(data).hashCode());
+        assertEquals(Matrix3x3.zero().hashCode(), new Matrix3x3(new float[][]{{-0f, 0, 0}, {0, 0, 0}, {0, 0, 0}}).hashCode());
+        java.util.Map<Matrix4x4, String> cache = new java.util.HashMap<>();
+        cache.put(Matrix4x4.rotationY(0.25f).multiply(Matrix4x4.translation(1, 2, 3)), "camera");
+        assertEquals("camera", cache.get(Matrix4x4.rotationY(0.25f).multiply(Matrix4x4.translation(1, 2, 3))));
+        assertNull(cache.get(Matrix4x4.rotationY(0.5f)));
+
+        assertThrows(ArithmeticException.class, () -> Matrix3x3.wrap(new float[][]{{1, 2, 3}, {2, 4, 6}, {0, 0, 1}})
+                .solveLinearSystem(new Vector3D(1, 1, 1)));
+        Matrix3x3 singular = new Matrix3x3(new float[][]{{1, 2, 3}, {2, 4, 6}, {1, 0, 1}});
+        assertThrows(ArithmeticException.class, () -> singular.solveLinearSystem(new Vector3D(1, 1, 1)));
+        assertThrows(ArithmeticException.class, singular::inverse);
+
+        // Пользовательский подкласс получает флаги и кэш через createNew и хуки computeDeterminant/computeInverse
+        CustomMatrix custom = new CustomMatrix(new float[][]{{2, 1, 0}, {1, 3, 1}, {0, 1, 4}});
+        assertSame(custom.inverse(), custom.inverse());
+        CustomMatrix doubled = custom.customOperation();
+        assertSame(doubled.inverse(), doubled.inverse());
+        assertEquals(8 * custom.determinant(), doubled.determinant(), 1e-3f);
+        CustomMatrix upper = new CustomMatrix(new float[][]{{2, 1, 5}, {0, 3, 1}, {0, 0, 4}});
+        assertTrue(upper.customOperation().hasStructure(MatrixStructure.UPPER_TRIANGULAR));
+        assertTrue(upper.transpose().hasStructure(MatrixStructure.LOWER_TRIANGULAR));
+        assertTrue(upper.inverse().hasStructure(MatrixStructure.UPPER_TRIANGULAR));
+        assertEquals(24, upper.determinant(), FLOAT_PRECISION);
+        assertMatrixClose(Matrix3x3.wrap(copyRows(upper)).inverse(), upper.inverse(), 1e-6f);
+    }
+
+    @Test
+    public void testGeometryKernels() {
+        // Выпуклая оболочка: углы квадрата против часовой стрелки, без внутренних и лежащих на ребрах точек
+        float[] grid = new float[2 * 25];
+        for (int i = 0; i < 25; i++) {
+            grid[2 * i] = i % 5;
+            grid[2 * i + 1] = i / 5;
+        }
+        int[] hull = new int[25];
+        assertEquals(4, GeometryKernels.convexHull(grid, 0, 25, hull, 0));
+        assertArrayEquals(new int[]{0, 4, 24, 20}, Arrays.copyOf(hull, 4));
+
+        // Три столбца по 100 тыс. точек с равным x и убывающим y: сортировка групп не квадратичная
+        int column = 100_000;
+        float[] columns = new float[2 * 3 * column];
+        for (int i = 0; i < 3 * column; i++) {
+            columns[2 * i] = i / column;
+            columns[2 * i + 1] = column - i % column;
+        }
+        int[] columnHull = new int[3 * column];
+        assertTimeoutPreemptively(java.time.Duration.ofSeconds(10),
+                () -> assertEquals(4, GeometryKernels.convexHull(columns, 0, 3 * column, columnHull, 0)));
+        assertArrayEquals(new int[]{column - 1, 3 * column - 1, 2 * column, 0}, Arrays.copyOf(columnHull, 4));
+
+        Random random = new Random(71);
+        int count = 500;
+        float[] cloud = new float[2 * count];
+        for (int i = 0; i < cloud.length; i++) {
+            cloud[i] = (float) random.nextGaussian();
+        }
+        int size = GeometryKernels.convexHull(cloud, 0, count, hull = new int[count], 0);
+        for (int e = 0; e < size; e++) {
+            int a = hull[e], b = hull[(e + 1) % size];
+            for (int p = 0; p < count; p++) {
+                double cross = (double) (cloud[2 * b] - cloud[2 * a]) * (cloud[2 * p + 1] - cloud[2 * a + 1])
+                        - (double) (cloud[2 * b + 1] - cloud[2 * a + 1]) * (cloud[2 * p] - cloud[2 * a]);
+                assertTrue(cross >= -1e-6, "Point " + p + " is outside hull edge " + e);
+            }
+        }
+        float[] hullPoints = new float[2 * size];
+        for (int i = 0; i < size; i++) {
+            hullPoints[2 * i] = cloud[2 * hull[i]];
+            hullPoints[2 * i + 1] = cloud[2 * hull[i] + 1];
+        }
+        assertTrue(GeometryKernels.signedArea(hullPoints, 0, size) > 0);
+
+        // Площадь и центроид L-образного многоугольника, в том числе далеко от начала координат
+        float[] shape = {0, 0, 2, 0, 2, 1, 1, 1, 1, 2, 0, 2};
+        float[] center = new float[2];
+        assertEquals(3, GeometryKernels.centroid(shape, 0, 6, center, 0), 1e-6f);
+        assertEquals(5f / 6, center[0], 1e-6f);
+        assertEquals(5f / 6, center[1], 1e-6f);
+        float[] far = shape.clone();
+        for (int i = 0; i < far.length; i++) {
+            far[i] += 500_000;
+        }
+        assertEquals(3, GeometryKernels.signedArea(far, 0, 6), 1e-6f);
+        GeometryKernels.centroid(far, 0, 6, center, 0);
+        assertEquals(500_000 + 5.0 / 6, center[0], 0.05);
+        float[] reversed = new float[12];
+        for (int i = 0; i < 6; i++) {
+            reversed[2 * i] = shape[2 * (5 - i)];
+            reversed[2 * i + 1] = shape[2 * (5 - i) + 1];
+        }
+        assertEquals(-3, GeometryKernels.signedArea(reversed, 0, 6), 1e-6f);
+
+        // Пакетные площади, центроиды и оболочки совпадают с поштучными
+        int polygons = 2000;
+        int[] offsets = new int[polygons + 1];
+        for (int p = 0; p < polygons; p++) {
+            offsets[p + 1] = offsets[p] + 3 + random.nextInt(6);
+        }
+        float[] xy = new float[2 * offsets[polygons]];
+        for (int i = 0; i < xy.length; i++) {
+            xy[i] = random.nextFloat() * 100;
+        }
+        float[] areas = new float[polygons];
+        float[] centroids = new float[2 * polygons];
+        float[] centroidAreas = new float[polygons];
+        int[] hulls = new int[offsets[polygons]];
+        int[] hullSizes = new int[polygons];
+        GeometryKernels.areas(xy, offsets, polygons, areas);
+        GeometryKernels.centroids(xy, offsets, polygons, centroids, centroidAreas);
+        GeometryKernels.convexHulls(xy, offsets, polygons, hulls, hullSizes);
+        int[] single = new int[8];
+        for (int p = 0; p < polygons; p++) {
+            int n = offsets[p + 1] - offsets[p];
+            assertEquals(GeometryKernels.signedArea(xy, offsets[p], n), areas[p]);
+            assertEquals(areas[p], centroidAreas[p]);
+            GeometryKernels.centroid(xy, offsets[p], n, center, 0);
+            assertEquals(center[0], centroids[2 * p]);
+            assertEquals(center[1], centroids[2 * p + 1]);
+            assertEquals(GeometryKernels.convexHull(xy, offsets[p], n, single, 0), hullSizes[p]);
+            assertArrayEquals(Arrays.copyOf(single, hullSizes[p]), Arrays.copyOfRange(hulls, offsets[p], offsets[p] + hullSizes[p]));
+        }
+
+        // Принадлежность точек звездчатому многоугольнику с дырой: индекс против перебора всех ребер
+        int outer = 400, inner = 50;
+        float[] rings = new float[2 * (outer + inner)];
+        for (int i = 0; i < outer; i++) {
+            double angle = 2 * Math.PI * i / outer, radius = 10 + 3 * Math.sin(7 * angle) + random.nextDouble();
+            rings[2 * i] = (float) (radius * Math.cos(angle));
+            rings[2 * i + 1] = (float) (radius * Math.sin(angle));
+        }
+        for (int i = 0; i < inner; i++) {
+            double angle = -2 * Math.PI * i / inner;
+            rings[2 * (outer + i)] = (float) (3 * Math.cos(angle));
+            rings[2 * (outer + i) + 1] = (float) (3 * Math.sin(angle));
+        }
+        int[] ringOffsets = {0, outer, outer + inner};
+        PolygonIndex index = PolygonIndex.of(rings, ringOffsets, 2);
+        // Горизонтальные ребра (вершины, симметричные относительно оси y) в индекс не попадают
+        assertTrue(index.getEdgeCount() > outer && index.getEdgeCount() <= outer + inner);
+        assertTrue(index.getBandCount() > 1);
+        int queries = 20_000;
+        float[] points = new float[2 * queries];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = random.nextFloat() * 30 - 15;
+        }
+        boolean[] inside = new boolean[queries];
+        index.contains(points, 0, queries, inside, 0);
+        int insideCount = 0;
+        for (int q = 0; q < queries; q++) {
+            boolean expected = false;
+            float x = points[2 * q], y = points[2 * q + 1];
+            for (int r = 0; r < 2; r++) {
+                for (int i = ringOffsets[r], j = ringOffsets[r + 1] - 1; i < ringOffsets[r + 1]; j = i++) {
+                    float yi = rings[2 * i + 1], yj = rings[2 * j + 1];
+                    if ((yi > y) != (yj > y)
+                            && x < rings[2 * i] + (y - yi) * (rings[2 * j] - rings[2 * i]) / (yj - yi)) {
+                        expected = !expected;
+                    }
+                }
+            }
+            assertEquals(expected, inside[q], "Point " + q);
+            assertEquals(expected, index.contains(new Vector2D(x, y)));
+            if (expected) insideCount++;
+        }
+        assertTrue(insideCount > 0 && insideCount < queries);
+        assertFalse(index.contains(0, 0));
+        assertTrue(index.contains(6, 0));
+
+        // Пересечение отрезков: пересечение, касание концом, наложение, параллельные и непересекающиеся
+        assertTrue(GeometryKernels.segmentsIntersect(0, 0, 2, 2, 0, 2, 2, 0));
+        assertTrue(GeometryKernels.intersection(0, 0, 2, 2, 0, 2, 2, 0, center, 0));
+        assertEquals(1, center[0], 1e-6f);
+        assertEquals(1, center[1], 1e-6f);
+        assertTrue(GeometryKernels.segmentsIntersect(0, 0, 2, 0, 1, 0, 1, 5));
+        assertTrue(GeometryKernels.segmentsIntersect(0, 0, 2, 0, 1, 0, 3, 0));
+        assertFalse(GeometryKernels.intersection(0, 0, 2, 0, 1, 0, 3, 0, center, 0));
+        assertFalse(GeometryKernels.segmentsIntersect(0, 0, 1, 0, 2, 0, 3, 0));
+        assertFalse(GeometryKernels.segmentsIntersect(0, 0, 2, 0, 0, 1, 2, 1));
+        assertFalse(GeometryKernels.segmentsIntersect(0, 0, 1, 1, 2, 0, 3, -5));
+        // Общий конец и касание концом на одной прямой: ориентация равна -0.0
+        assertTrue(GeometryKernels.segmentsIntersect(3, 0, 2, 1, 3, 0, 0, 2));
+        assertTrue(GeometryKernels.segmentsIntersect(2, 1, 3, 0, 0, 2, 3, 0));
+        assertTrue(GeometryKernels.segmentsIntersect(0, 0, 1, 1, 1, 1, 2, 2));
+        assertTrue(GeometryKernels.segmentsIntersect(-1, -1, 0, 0, 0, 0, -2, -2));
+        assertTrue(GeometryKernels.intersection(3, 0, 2, 1, 3, 0, 0, 2, center, 0));
+        assertEquals(3, center[0]);
+        assertEquals(0, center[1]);
+        // Сравнение с точной целочисленной проверкой на малых целых координатах
+        for (int t = 0; t < 200_000; t++) {
+            int[] c = new int[8];
+            for (int i = 0; i < 8; i++) {
+                c[i] = random.nextInt(7) - 3;
+            }
+            assertEquals(exactSegmentsIntersect(c),
+                    GeometryKernels.segmentsIntersect(c[0], c[1], c[2], c[3], c[4], c[5], c[6], c[7]),
+                    () -> Arrays.toString(c));
+        }
+        float[] segmentsA = {0, 0, 2, 2, 0, 0, 1, 0};
+        float[] segmentsB = {0, 2, 2, 0, 2, 0, 3, 0};
+        boolean[] crossings = new boolean[2];
+        GeometryKernels.segmentsIntersect(segmentsA, segmentsB, 2, crossings);
+        assertArrayEquals(new boolean[]{true, false}, crossings);
+    }
+
+    // Эталон на целых числах: знаки ориентации вычисляются точно
+    private static boolean exactSegmentsIntersect(int[] c) {
+        long o1 = Long.signum(orient(c[0], c[1], c[2], c[3], c[4], c[5]));
+        long o2 = Long.signum(orient(c[0], c[1], c[2], c[3], c[6], c[7]));
+        long o3 = Long.signum(orient(c[4], c[5], c[6], c[7], c[0], c[1]));
+        long o4 = Long.signum(orient(c[4], c[5], c[6], c[7], c[2], c[3]));
+        if (o1 * o2 < 0 && o3 * o4 < 0) return true;
+        return o1 == 0 && within(c[0], c[1], c[2], c[3], c[4], c[5])
+                || o2 == 0 && within(c[0], c[1], c[2], c[3], c[6], c[7])
+                || o3 == 0 && within(c[4], c[5], c[6], c[7], c[0], c[1])
+                || o4 == 0 && within(c[4], c[5], c[6], c[7], c[2], c[3]);
+    }
+
+    private static long orient(long ax, long ay, long bx, long by, long cx, long cy) {
+        return (bx - ax) * (cy - ay) - (by - ay) * (cx - ax);
+    }
+
+    private static boolean within(int ax, int ay, int bx, int by, int px, int py) {
+        return Math.min(ax, bx) <= px && px <= Math.max(ax, bx) && Math.min(ay, by) <= py && py <= Math.max(ay, by);
+    }
+
+    private static float[][] copyRows(AbstractMatrix<?, ?> matrix) {
+        float[][] rows = new float[matrix.getRows()][matrix.getCols()];
+        for (int i = 0; i < rows.length; i++) {
+            for (int j = 0; j < rows[i].length; j++) {
+                rows[i][j] = matrix.get(i, j);
+            }
+        }
+        return rows;
+    }
+
+    @Test
+    public void testIncrementalInverseUpdates() {
+        int n = 40;
+        Random random = new Random(59);
+        float[][] data = new float[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                data[i][j] = random.nextFloat() * 2 - 1 + (i == j ? n / 4f : 0);
+            }
+        }
+        IncrementalInverse incremental = IncrementalInverse.of(MatrixN.wrap(data));
+
+        for (int step = 0; step < 10; step++) {
+            float[] u = new float[n], v = new float[n];
+            for (int i = 0; i < n; i++) {
+                u[i] = random.nextFloat() * 0.5f;
+                v[i] = random.nextFloat() * 0.5f;
+            }
+            incremental.rankOneUpdate(new VectorN(u), new VectorN(v));
+        }
+        float[] row = new float[n];
+        for (int j = 0; j < n; j++) {
+            row[j] = random.nextFloat() + (j == 3 ? n / 4f : 0);
+        }
+        incremental.replaceRow(3, new VectorN(row));
+        incremental.replaceColumn(7, new VectorN(row));
+        int k = 3;
+        float[] u = new float[n * k], v = new float[n * k];
+        for (int i = 0; i < n * k; i++) {
+            u[i] = random.nextFloat() * 0.3f;
+            v[i] = random.nextFloat() * 0.3f;
+        }
+        incremental.update(u, v, k);
+
+        MatrixN current = incremental.getMatrix();
+        assertEquals(row[5], current.get(3, 5) - sumProducts(u, v, k, 3, 5), 1e-4f);
+        assertIdentity(current.multiply(incremental.getInverse()), 1e-3f);
+        LUDecomposition lu = current.lu();
+        // Снимок владеет данными и запоминает разложение
+        assertSame(lu, current.lu());
+        assertTrue(IncrementalInverse.of(MatrixN.diagonal(1, 2, 3)).getInverse().hasStructure(MatrixStructure.DIAGONAL));
+        assertEquals(lu.logAbsDeterminant(), incremental.logAbsDeterminant(), 1e-3);
+        assertEquals(lu.determinantSign(), incremental.determinantSign());
+        assertEquals(0, incremental.getRefactorizations());
+
+        VectorN b = new VectorN(row);
+        VectorN x = incremental.solve(b);
+        VectorN residual = current.multiply(x);
+        for (int i = 0; i < n; i++) {
+            assertEquals(row[i], residual.getComponent(i), 1e-3f);
+        }
+
+        // Почти полное сокращение в знаменателе: 1 + v^T A^-1 u = 1e-3, обновление заменяется разложением
+        float[] w = new float[n];
+        incremental.getInverse().multiply(new VectorN(row)).copyTo(w, 0);
+        double norm = 0;
+        for (float value : w) norm += value * value;
+        float[] cancel = new float[n];
+        for (int i = 0; i < n; i++) {
+            cancel[i] = (float) (-w[i] / norm * (1 - 1e-3));
+        }
+        incremental.rankOneUpdate(new VectorN(row), new VectorN(cancel));
+        assertEquals(1, incremental.getRefactorizations());
+        assertIdentity(incremental.getMatrix().multiply(incremental.getInverse()), 1e-2f);
+
+        // Вырожденный результат отклоняется, текущее состояние не меняется
+        MatrixN before = incremental.getMatrix();
+        assertThrows(ArithmeticException.class, () -> incremental.replaceRow(0, VectorN.zeros(n)));
+        assertEquals(before.get(0, 0), incremental.getMatrix().get(0, 0), 0);
+    }
+
+    private static float sumProducts(float[] u, float[] v, int k, int i, int j) {
+        float sum = 0;
+        for (int c = 0; c < k; c++) {
+            sum += u[i * k + c] * v[j * k + c];
+        }
+        return sum;
+    }
+
+    private static void assertIdentity(MatrixN product, float tolerance) {
+        for (int i = 0; i < product.getRows(); i++) {
+            for (int j = 0; j < product.getCols(); j++) {
+                assertEquals(i == j ? 1 : 0, product.get(i, j), tolerance);
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package math.engine.benchmark;
+
+import math.engine.geometry.GeometryKernels;
+import math.engine.geometry.PolygonIndex;
+import math.engine.vector.Vector2D;
+
+import java.util.Random;
+
+// Площади множества многоугольников через Vector2D.cross против GeometryKernels.areas
+// и принадлежность точек: перебор всех ребер против PolygonIndex.
+// Запуск: mvn test-compile && java -cp core/target/classes:core/target/test-classes math.engine.benchmark.GeometryBenchmark [вершин]
+public class GeometryBenchmark {
+
+    private static final int WARMUP = 3;
+    private static final int RUNS = 5;
+
+    public static void main(String[] args) {
+        int vertices = args.length > 0 ? Integer.parseInt(args[0]) : 4_000_000;
+        Random random = new Random(73);
+
+        int polygons = vertices / 16;
+        int[] offsets = new int[polygons + 1];
+        for (int p = 0; p < polygons; p++) {
+            offsets[p + 1] = offsets[p] + 16;
+        }
+        float[] xy = new float[2 * offsets[polygons]];
+        for (int i = 0; i < xy.length; i++) {
+            xy[i] = random.nextFloat() * 1000;
+        }
+        float[] areas = new float[polygons];
+        double objects = millis(() -> {
+            for (int p = 0; p < polygons; p++) {
+                float sum = 0;
+                for (int i = offsets[p]; i < offsets[p + 1]; i++) {
+                    int next = i + 1 < offsets[p + 1] ? i + 1 : offsets[p];
+                    sum += new Vector2D(xy[2 * i], xy[2 * i + 1]).cross(Vector2D.wrap(xy, 2 * next));
+                }
+                areas[p] = sum / 2;
+            }
+        });
+        double kernels = millis(() -> GeometryKernels.areas(xy, offsets, polygons, areas));
+        System.out.printf("areas, %d polygons: Vector2D %.1f ms, GeometryKernels %.1f ms%n", polygons, objects, kernels);
+
+        int ring = 4096;
+        float[] polygon = new float[2 * ring];
+        for (int i = 0; i < ring; i++) {
+            double angle = 2 * Math.PI * i / ring, radius = 100 + 20 * Math.sin(11 * angle) + random.nextDouble();
+            polygon[2 * i] = (float) (radius * Math.cos(angle));
+            polygon[2 * i + 1] = (float) (radius * Math.sin(angle));
+        }
+        int queries = 200_000;
+        float[] points = new float[2 * queries];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = random.nextFloat() * 300 - 150;
+        }
+        boolean[] inside = new boolean[queries];
+        double scan = millis(() -> {
+            for (int q = 0; q < queries; q++) {
+                inside[q] = scan(polygon, ring, points[2 * q], points[2 * q + 1]);
+            }
+        });
+        PolygonIndex index = PolygonIndex.of(polygon, 0, ring);
+        double indexed = millis(() -> index.contains(points, 0, queries, inside, 0));
+        System.out.printf("point in polygon, %d edges x %d points: scan %.1f ms, PolygonIndex %.1f ms (%d bands)%n",
+                ring, queries, scan, indexed, index.getBandCount());
+    }
+
+    private static boolean scan(float[] xy, int count, float x, float y) {
+        boolean inside = false;
+        for (int i = 0, j = count - 1; i < count; j = i++) {
+            float yi = xy[2 * i + 1], yj = xy[2 * j + 1];
+            if ((yi > y) != (yj > y) && x < xy[2 * i] + (y - yi) * (xy[2 * j] - xy[2 * i]) / (yj - yi)) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    private static double millis(Runnable task) {
+        for (int i = 0; i < WARMUP; i++) {
+            task.run();
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            task.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1e6;
+    }
+}
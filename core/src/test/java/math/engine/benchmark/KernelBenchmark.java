@@ -0,0 +1,84 @@
+package math.engine.benchmark;
+
+import math.engine.vector.OffHeapFloatArray;
+import math.engine.vector.VectorN;
+
+import java.util.Random;
+
+// Проверка выбора реализаций в multi-release JAR и замер dot/axpy.
+// Запуск на собранном JAR (версии из META-INF/versions применяются только к JAR):
+// java --add-modules jdk.incubator.vector -cp core/target/math-matrix-core-1.0-SNAPSHOT.jar:core/target/test-classes math.engine.benchmark.KernelBenchmark
+// Завершается с кодом 1, если реализация не соответствует версии JDK или результаты расходятся с эталоном.
+public class KernelBenchmark {
+
+    private static final int RUNS = 20;
+
+    public static void main(String[] args) {
+        int feature = Runtime.version().feature();
+        String kernels = VectorN.kernelImplementation();
+        String offHeap = OffHeapFloatArray.implementation();
+        System.out.printf("JDK %d: kernels=%s, off-heap=%s%n", feature, kernels, offHeap);
+
+        boolean ok = true;
+        boolean vectorModule = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+        String expectedKernels = feature >= 21 && vectorModule ? "vector-api" : "scalar";
+        String expectedOffHeap = feature >= 22 ? "memory-segment" : "bytebuffer";
+        if (!expectedKernels.equals(kernels) || !expectedOffHeap.equals(offHeap)) {
+            System.out.printf("expected kernels=%s, off-heap=%s%n", expectedKernels, expectedOffHeap);
+            ok = false;
+        }
+
+        Random random = new Random(3);
+        System.out.printf("%10s %12s %12s %12s%n", "length", "dot, ns", "axpy, ns", "rel. error");
+        for (int length : new int[]{1_000, 100_000, 10_000_000}) {
+            float[] a = new float[length];
+            float[] b = new float[length];
+            for (int i = 0; i < length; i++) {
+                a[i] = random.nextFloat() - 0.5f;
+                b[i] = random.nextFloat() - 0.5f;
+            }
+            VectorN x = VectorN.wrap(a, 0, length);
+            VectorN y = VectorN.wrap(b, 0, length);
+
+            double reference = 0;
+            double magnitude = 0;
+            for (int i = 0; i < length; i++) {
+                reference += (double) a[i] * b[i];
+                magnitude += Math.abs((double) a[i] * b[i]);
+            }
+            double error = Math.abs(x.dot(y) - reference) / magnitude;
+            if (error > 1e-6) {
+                ok = false;
+            }
+
+            long dotTime = Long.MAX_VALUE;
+            long axpyTime = Long.MAX_VALUE;
+            float sink = 0;
+            for (int r = 0; r < RUNS; r++) {
+                long start = System.nanoTime();
+                sink += x.dot(y);
+                dotTime = Math.min(dotTime, System.nanoTime() - start);
+                start = System.nanoTime();
+                sink += x.scaleAdd(0.5f, y).getComponent(0);
+                axpyTime = Math.min(axpyTime, System.nanoTime() - start);
+            }
+            System.out.printf("%10d %12d %12d %12.2e%s%n", length, dotTime, axpyTime, error, sink == 0 ? " " : "");
+        }
+
+        try (OffHeapFloatArray array = OffHeapFloatArray.allocate(1 << 20)) {
+            float[] values = new float[1 << 20];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = i % 7;
+            }
+            array.copyFrom(values, 0, 0, values.length);
+            if (array.get(12345) != 12345 % 7 || array.dot(0, values, 0, 7) != 91) {
+                System.out.println("off-heap array returned wrong values");
+                ok = false;
+            }
+        }
+
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+}
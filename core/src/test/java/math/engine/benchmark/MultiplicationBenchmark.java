@@ -0,0 +1,75 @@
+package math.engine.benchmark;
+
+import math.engine.matrix.MatrixN;
+import math.engine.matrix.MultiplicationStrategy;
+
+import java.util.Random;
+
+// Сравнение BLOCKED и STRASSEN_WINOGRAD для квадратных матриц.
+// Запуск: mvn test-compile && java -cp core/target/classes:core/target/test-classes math.engine.benchmark.MultiplicationBenchmark [размеры...]
+public class MultiplicationBenchmark {
+
+    private static final int WARMUP = 2;
+    private static final int RUNS = 3;
+
+    public static void main(String[] args) {
+        int[] sizes = args.length > 0 ? parseSizes(args) : new int[]{256, 512, 768, 1024, 1536, 2048, 3072};
+        Random random = new Random(1);
+
+        System.out.printf("%6s %12s %12s %8s %14s%n", "n", "blocked, ms", "strassen, ms", "speedup", "max rel. diff");
+        for (int n : sizes) {
+            MatrixN a = randomMatrix(random, n);
+            MatrixN b = randomMatrix(random, n);
+
+            double blocked = time(a, b, MultiplicationStrategy.BLOCKED);
+            double strassen = time(a, b, MultiplicationStrategy.STRASSEN_WINOGRAD);
+            double difference = maxRelativeDifference(a.multiply(b, MultiplicationStrategy.BLOCKED),
+                    a.multiply(b, MultiplicationStrategy.STRASSEN_WINOGRAD));
+
+            System.out.printf("%6d %12.1f %12.1f %8.2f %14.2e%n", n, blocked, strassen, blocked / strassen, difference);
+        }
+    }
+
+    private static double time(MatrixN a, MatrixN b, MultiplicationStrategy strategy) {
+        for (int i = 0; i < WARMUP; i++) {
+            a.multiply(b, strategy);
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            a.multiply(b, strategy);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1e6;
+    }
+
+    private static double maxRelativeDifference(MatrixN expected, MatrixN actual) {
+        double scale = 0;
+        double difference = 0;
+        for (int i = 0; i < expected.getRows(); i++) {
+            for (int j = 0; j < expected.getCols(); j++) {
+                scale = Math.max(scale, Math.abs(expected.get(i, j)));
+                difference = Math.max(difference, Math.abs(expected.get(i, j) - actual.get(i, j)));
+            }
+        }
+        return difference / scale;
+    }
+
+    private static MatrixN randomMatrix(Random random, int n) {
+        float[][] data = new float[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                data[i][j] = random.nextFloat() * 2 - 1;
+            }
+        }
+        return MatrixN.wrap(data);
+    }
+
+    private static int[] parseSizes(String[] args) {
+        int[] sizes = new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            sizes[i] = Integer.parseInt(args[i]);
+        }
+        return sizes;
+    }
+}
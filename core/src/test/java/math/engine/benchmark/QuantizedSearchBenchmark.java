@@ -0,0 +1,105 @@
+package math.engine.benchmark;
+
+import math.engine.search.Metric;
+import math.engine.search.QuantizedVectorIndex;
+import math.engine.vector.VectorN;
+
+import java.util.Arrays;
+import java.util.Random;
+
+// Полнота (recall@k) и пропускная способность квантованного индекса против точного перебора через VectorN.dot.
+// Запуск: mvn test-compile && java -cp core/target/classes:core/target/test-classes math.engine.benchmark.QuantizedSearchBenchmark [count] [dimensions]
+public class QuantizedSearchBenchmark {
+
+    private static final int QUERIES = 200;
+    private static final int K = 10;
+    private static final int[] CANDIDATES = {10, 20, 50, 100};
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int dimensions = args.length > 1 ? Integer.parseInt(args[1]) : 128;
+        Random random = new Random(7);
+
+        // Кластеризованные данные ближе к реальным эмбеддингам, чем равномерный шум
+        int clusters = 64;
+        float[] centers = gaussian(random, clusters * dimensions, 1f);
+        float[] points = new float[count * dimensions];
+        for (int i = 0; i < count; i++) {
+            int c = random.nextInt(clusters);
+            for (int d = 0; d < dimensions; d++) {
+                points[i * dimensions + d] = centers[c * dimensions + d] + 0.3f * (float) random.nextGaussian();
+            }
+        }
+        float[] queries = gaussian(random, QUERIES * dimensions, 1f);
+
+        VectorN[] vectors = new VectorN[count];
+        for (int i = 0; i < count; i++) {
+            vectors[i] = VectorN.wrap(points, i * dimensions, dimensions);
+        }
+        int[][] truth = new int[QUERIES][];
+        long start = System.nanoTime();
+        for (int q = 0; q < QUERIES; q++) {
+            truth[q] = exactTopK(vectors, VectorN.wrap(queries, q * dimensions, dimensions));
+        }
+        double exactSeconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("count=%d dimensions=%d queries=%d k=%d%n", count, dimensions, QUERIES, K);
+        System.out.printf("exact VectorN.dot: %.1f queries/s, %.0f MB scanned per query%n",
+                QUERIES / exactSeconds, 4.0 * count * dimensions / 1e6);
+
+        QuantizedVectorIndex index = QuantizedVectorIndex.build(points, count, dimensions, Metric.DOT);
+        System.out.printf("quantized: %.0f MB scanned per query%n", index.quantizedBytes() / 1e6);
+        System.out.printf("%10s %12s %10s%n", "candidates", "queries/s", "recall@" + K);
+        int[] indices = new int[QUERIES * K];
+        float[] distances = new float[QUERIES * K];
+        for (int candidates : CANDIDATES) {
+            index.searchBatch(queries, QUERIES, K, candidates, indices, distances);
+            start = System.nanoTime();
+            index.searchBatch(queries, QUERIES, K, candidates, indices, distances);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%10d %12.1f %10.3f%n", candidates, QUERIES / seconds, recall(truth, indices));
+        }
+    }
+
+    // Отбор k лучших вставкой: стоимость определяется проходом по данным, а не сортировкой
+    private static int[] exactTopK(VectorN[] vectors, VectorN query) {
+        int[] top = new int[K];
+        float[] best = new float[K];
+        Arrays.fill(best, Float.NEGATIVE_INFINITY);
+        for (int i = 0; i < vectors.length; i++) {
+            float score = vectors[i].dot(query);
+            if (score <= best[K - 1]) continue;
+            int pos = K - 1;
+            while (pos > 0 && best[pos - 1] < score) {
+                best[pos] = best[pos - 1];
+                top[pos] = top[pos - 1];
+                pos--;
+            }
+            best[pos] = score;
+            top[pos] = i;
+        }
+        return top;
+    }
+
+    private static double recall(int[][] truth, int[] indices) {
+        int hits = 0;
+        for (int q = 0; q < truth.length; q++) {
+            for (int expected : truth[q]) {
+                for (int r = 0; r < K; r++) {
+                    if (indices[q * K + r] == expected) {
+                        hits++;
+                        break;
+                    }
+                }
+            }
+        }
+        return hits / (double) (truth.length * K);
+    }
+
+    private static float[] gaussian(Random random, int length, float sigma) {
+        float[] values = new float[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = sigma * (float) random.nextGaussian();
+        }
+        return values;
+    }
+}
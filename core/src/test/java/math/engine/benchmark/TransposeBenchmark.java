@@ -0,0 +1,71 @@
+package math.engine.benchmark;
+
+import math.engine.matrix.TransposeKernels;
+
+import java.util.Random;
+
+// Наивное транспонирование против блочного, параллельного и на месте; ГБ/с считаются по чтению и записи.
+// Запуск: mvn test-compile && java -Xmx2g -cp core/target/classes:core/target/test-classes math.engine.benchmark.TransposeBenchmark [размеры...]
+public class TransposeBenchmark {
+
+    private static final int WARMUP = 2;
+    private static final int RUNS = 3;
+
+    private interface Kernel {
+        void run(float[] source, int n, float[] dest);
+    }
+
+    public static void main(String[] args) {
+        int[] sizes = args.length > 0 ? parseSizes(args) : new int[]{1024, 2048, 4096, 8192};
+        Random random = new Random(5);
+
+        System.out.printf("%6s %12s %12s %12s %12s %14s%n",
+                "n", "naive, GB/s", "blocked", "parallel", "in place", "in place par.");
+        for (int n : sizes) {
+            float[] source = new float[n * n];
+            for (int i = 0; i < source.length; i++) {
+                source[i] = random.nextFloat();
+            }
+            float[] dest = new float[n * n];
+
+            double naive = bandwidth(n, source, dest, TransposeBenchmark::naive);
+            double blocked = bandwidth(n, source, dest, (s, size, d) -> TransposeKernels.transpose(s, size, size, d));
+            double parallel = bandwidth(n, source, dest,
+                    (s, size, d) -> TransposeKernels.transposeParallel(s, size, size, d));
+            double inPlace = bandwidth(n, source, dest, (s, size, d) -> TransposeKernels.transposeInPlace(s, size));
+            double inPlaceParallel = bandwidth(n, source, dest,
+                    (s, size, d) -> TransposeKernels.transposeInPlaceParallel(s, size));
+            System.out.printf("%6d %12.2f %12.2f %12.2f %12.2f %14.2f%n",
+                    n, naive, blocked, parallel, inPlace, inPlaceParallel);
+        }
+    }
+
+    private static void naive(float[] source, int n, float[] dest) {
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                dest[j * n + i] = source[i * n + j];
+            }
+        }
+    }
+
+    private static double bandwidth(int n, float[] source, float[] dest, Kernel kernel) {
+        for (int i = 0; i < WARMUP; i++) {
+            kernel.run(source, n, dest);
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            kernel.run(source, n, dest);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return 2.0 * n * n * Float.BYTES / best;
+    }
+
+    private static int[] parseSizes(String[] args) {
+        int[] sizes = new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            sizes[i] = Integer.parseInt(args[i]);
+        }
+        return sizes;
+    }
+}
@@ -5,6 +5,8 @@ import javafx.geometry.Insets;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
+import javafx.scene.control.Tab;
+import javafx.scene.control.TabPane;
 import javafx.scene.control.TextArea;
 import javafx.scene.control.TextField;
 import javafx.scene.layout.GridPane;
@@ -21,6 +23,7 @@ public class MathDemoApp extends Application {
 
     private TextArea outputArea;
     private TextField inputField1, inputField2, inputField3, inputField4;
+    private StressTestPane stressTestPane;
 
     @Override
     public void start(Stage primaryStage) {
@@ -42,7 +45,14 @@ public class MathDemoApp extends Application {
 
         root.getChildren().addAll(titleLabel, inputPanel, operationPanel, outputArea);
 
-        Scene scene = new Scene(root, 900, 600);
+        stressTestPane = new StressTestPane();
+
+        Tab demoTab = new Tab("Демонстрация", root);
+        Tab stressTab = new Tab("Нагрузочный тест", stressTestPane);
+        TabPane tabs = new TabPane(demoTab, stressTab);
+        tabs.setTabClosingPolicy(TabPane.TabClosingPolicy.UNAVAILABLE);
+
+        Scene scene = new Scene(tabs, 1100, 700);
         primaryStage.setScene(scene);
         primaryStage.show();
 
@@ -381,6 +391,11 @@ public class MathDemoApp extends Application {
         showWelcomeMessage();
     }
 
+    @Override
+    public void stop() {
+        stressTestPane.cancel();
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
@@ -0,0 +1,349 @@
+package math.engine.demo;
+
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
+import javafx.geometry.Insets;
+import javafx.scene.Node;
+import javafx.scene.chart.BarChart;
+import javafx.scene.chart.CategoryAxis;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
+import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import math.engine.matrix.Matrix3x3;
+import math.engine.matrix.Matrix4x4;
+import math.engine.vector.Vector3D;
+import math.engine.vector.Vector4D;
+
+import java.lang.management.ManagementFactory;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+// Вкладка нагрузочного теста: пакет операций выполняется в фоновом Task,
+// графики обновляются не чаще раза в UPDATE_INTERVAL_NANOS, результаты показываются через виртуализированный ListView.
+class StressTestPane extends VBox {
+
+    private static final long UPDATE_INTERVAL_NANOS = 250_000_000L;
+    private static final int INPUT_POOL_SIZE = 1024;
+    private static final int MAX_CHART_POINTS = 120;
+    private static final int PERCENTILE_WINDOW = 20_000;
+
+    private enum Operation {
+        MULTIPLY("Умножение"),
+        INVERSE("Обратная матрица"),
+        DETERMINANT("Определитель"),
+        SOLVE("Решение системы"),
+        TRANSPOSE("Транспонирование");
+
+        private final String title;
+
+        Operation(String title) {
+            this.title = title;
+        }
+
+        @Override
+        public String toString() {
+            return title;
+        }
+    }
+
+    private final TextField countField = new TextField("200000");
+    private final ComboBox<Integer> sizeBox = new ComboBox<>(FXCollections.observableArrayList(3, 4));
+    private final ComboBox<Operation> operationBox = new ComboBox<>(FXCollections.observableArrayList(Operation.values()));
+    private final Button startButton = new Button("Запустить");
+    private final Button cancelButton = new Button("Отменить");
+    private final ProgressBar progressBar = new ProgressBar(0);
+    private final Label statusLabel = new Label();
+
+    private final XYChart.Series<Number, Number> throughputSeries = new XYChart.Series<>();
+    private final XYChart.Series<Number, Number> allocationSeries = new XYChart.Series<>();
+    private final XYChart.Series<String, Number> latencySeries = new XYChart.Series<>();
+    private final ListView<String> resultView = new ListView<>();
+
+    private Task<Object[]> currentTask;
+
+    StressTestPane() {
+        super(10);
+        setPadding(new Insets(15));
+
+        sizeBox.getSelectionModel().select(0);
+        operationBox.getSelectionModel().select(Operation.INVERSE);
+        countField.setPrefWidth(100);
+        cancelButton.setDisable(true);
+        progressBar.setPrefWidth(200);
+
+        startButton.setOnAction(e -> start());
+        cancelButton.setOnAction(e -> cancel());
+
+        HBox controls = new HBox(10, new Label("Операций:"), countField, new Label("Размер:"), sizeBox,
+                new Label("Операция:"), operationBox, startButton, cancelButton, progressBar);
+
+        LineChart<Number, Number> throughputChart = new LineChart<>(new NumberAxis(), new NumberAxis());
+        throughputChart.setTitle("Операций в секунду");
+        throughputChart.setCreateSymbols(false);
+        throughputChart.setAnimated(false);
+        throughputChart.setLegendVisible(false);
+        throughputChart.getData().add(throughputSeries);
+
+        LineChart<Number, Number> allocationChart = new LineChart<>(new NumberAxis(), new NumberAxis());
+        allocationChart.setTitle("Выделение памяти, МБ/с");
+        allocationChart.setCreateSymbols(false);
+        allocationChart.setAnimated(false);
+        allocationChart.setLegendVisible(false);
+        allocationChart.getData().add(allocationSeries);
+
+        BarChart<String, Number> latencyChart = new BarChart<>(new CategoryAxis(), new NumberAxis());
+        latencyChart.setTitle("Задержка операции, нс");
+        latencyChart.setAnimated(false);
+        latencyChart.setLegendVisible(false);
+        latencyChart.getData().add(latencySeries);
+
+        HBox charts = new HBox(10, throughputChart, allocationChart, latencyChart);
+        charts.setPrefHeight(260);
+        for (Node chart : charts.getChildren()) {
+            HBox.setHgrow(chart, Priority.ALWAYS);
+        }
+
+        resultView.setStyle("-fx-font-family: 'Consolas', monospace; -fx-font-size: 12px;");
+        VBox.setVgrow(resultView, Priority.ALWAYS);
+
+        getChildren().addAll(controls, statusLabel, charts, new Label("Результаты:"), resultView);
+    }
+
+    void cancel() {
+        if (currentTask != null) {
+            currentTask.cancel();
+        }
+    }
+
+    private void start() {
+        int count;
+        try {
+            count = Integer.parseInt(countField.getText().trim());
+        } catch (NumberFormatException e) {
+            statusLabel.setText("Ошибка: неверное число операций");
+            return;
+        }
+        if (count <= 0) {
+            statusLabel.setText("Ошибка: число операций должно быть положительным");
+            return;
+        }
+
+        throughputSeries.getData().clear();
+        allocationSeries.getData().clear();
+        latencySeries.getData().clear();
+        resultView.setItems(FXCollections.observableArrayList());
+
+        Task<Object[]> task = createTask(count, sizeBox.getValue(), operationBox.getValue());
+        progressBar.progressProperty().bind(task.progressProperty());
+        statusLabel.textProperty().bind(task.messageProperty());
+        task.setOnSucceeded(e -> finish(task, task.getValue()));
+        task.setOnCancelled(e -> finish(task, null));
+        task.setOnFailed(e -> {
+            finish(task, null);
+            statusLabel.setText("Ошибка: " + task.getException().getMessage());
+        });
+
+        currentTask = task;
+        startButton.setDisable(true);
+        cancelButton.setDisable(false);
+
+        Thread worker = new Thread(task, "stress-test");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private void finish(Task<Object[]> task, Object[] results) {
+        progressBar.progressProperty().unbind();
+        statusLabel.textProperty().unbind();
+        statusLabel.setText(task.getMessage() + (task.isCancelled() ? " (отменено)" : ""));
+        startButton.setDisable(false);
+        cancelButton.setDisable(true);
+        currentTask = null;
+        if (results != null) {
+            resultView.setItems(lazyResultList(results));
+        }
+    }
+
+    // Строки создаются только для видимых ячеек ListView
+    private static ObservableList<String> lazyResultList(Object[] results) {
+        return FXCollections.observableList(new AbstractList<String>() {
+            @Override
+            public String get(int index) {
+                return "#" + index + ": " + results[index];
+            }
+
+            @Override
+            public int size() {
+                return results.length;
+            }
+        });
+    }
+
+    private Task<Object[]> createTask(int count, int size, Operation operation) {
+        IntFunction<Object> body = createWorkload(size, operation);
+
+        return new Task<>() {
+            @Override
+            protected Object[] call() {
+                com.sun.management.ThreadMXBean threads =
+                        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+                Object[] results = new Object[count];
+                long[] latencies = new long[count];
+
+                long start = System.nanoTime();
+                long lastUpdate = start;
+                long lastAllocated = threads.getCurrentThreadAllocatedBytes();
+                int lastCount = 0;
+
+                int done = 0;
+                for (; done < count && !isCancelled(); done++) {
+                    long t0 = System.nanoTime();
+                    try {
+                        results[done] = body.apply(done);
+                    } catch (ArithmeticException e) {
+                        results[done] = "Ошибка: " + e.getMessage();
+                    }
+                    long t1 = System.nanoTime();
+                    latencies[done] = t1 - t0;
+
+                    if (t1 - lastUpdate >= UPDATE_INTERVAL_NANOS) {
+                        long allocated = threads.getCurrentThreadAllocatedBytes();
+                        double seconds = (t1 - lastUpdate) / 1e9;
+                        publish(this, (t1 - start) / 1e9, (done + 1 - lastCount) / seconds,
+                                (allocated - lastAllocated) / seconds / (1 << 20),
+                                percentiles(latencies, Math.max(0, done + 1 - PERCENTILE_WINDOW), done + 1));
+                        lastUpdate = t1;
+                        lastAllocated = allocated;
+                        lastCount = done + 1;
+                        updateProgress(done + 1, count);
+                        updateMessage(String.format("Выполнено %d из %d", done + 1, count));
+                    }
+                }
+
+                double total = (System.nanoTime() - start) / 1e9;
+                updateProgress(done, count);
+                updateMessage(String.format("Выполнено %d операций за %.3f с (%.0f оп/с)",
+                        done, total, done / Math.max(total, 1e-9)));
+                if (done > 0) {
+                    long[] p = percentiles(latencies, 0, done);
+                    Task<Object[]> self = this;
+                    Platform.runLater(() -> {
+                        if (isCurrent(self)) {
+                            showPercentiles(p);
+                        }
+                    });
+                }
+                return done == count ? results : Arrays.copyOf(results, done);
+            }
+        };
+    }
+
+    private void publish(Task<?> task, double time, double opsPerSecond, double megabytesPerSecond, long[] percentiles) {
+        Platform.runLater(() -> {
+            if (!isCurrent(task)) {
+                return;
+            }
+            addPoint(throughputSeries, time, opsPerSecond);
+            addPoint(allocationSeries, time, megabytesPerSecond);
+            showPercentiles(percentiles);
+        });
+    }
+
+    // Обновления из runLater могут прийти после отмены и запуска следующего теста: их нужно отбросить,
+    // иначе график нового запуска перезапишут данные старого
+    private boolean isCurrent(Task<?> task) {
+        return task == currentTask && !task.isCancelled();
+    }
+
+    private void showPercentiles(long[] p) {
+        latencySeries.getData().setAll(
+                new XYChart.Data<>("p50", p[0]),
+                new XYChart.Data<>("p90", p[1]),
+                new XYChart.Data<>("p99", p[2]),
+                new XYChart.Data<>("p99.9", p[3]));
+    }
+
+    private static void addPoint(XYChart.Series<Number, Number> series, double x, double y) {
+        series.getData().add(new XYChart.Data<>(x, y));
+        if (series.getData().size() > MAX_CHART_POINTS) {
+            series.getData().remove(0);
+        }
+    }
+
+    private static long[] percentiles(long[] latencies, int from, int to) {
+        long[] window = Arrays.copyOfRange(latencies, from, to);
+        Arrays.sort(window);
+        return new long[]{
+                percentile(window, 0.50),
+                percentile(window, 0.90),
+                percentile(window, 0.99),
+                percentile(window, 0.999)
+        };
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        int index = (int) Math.min(sorted.length - 1, Math.round(fraction * (sorted.length - 1)));
+        return sorted[index];
+    }
+
+    // Входные данные генерируются заранее, чтобы в замер попадала только сама операция.
+    // Матрицы - wrap-представления: неизменяемые матрицы запоминают определитель и обратную, и после
+    // первого прохода по пулу замер показывал бы чтение кэша вместо вычисления.
+    private static IntFunction<Object> createWorkload(int size, Operation operation) {
+        Random random = new Random(42);
+        int mask = INPUT_POOL_SIZE - 1;
+        if (size == 3) {
+            Matrix3x3[] matrices = new Matrix3x3[INPUT_POOL_SIZE];
+            Vector3D[] vectors = new Vector3D[INPUT_POOL_SIZE];
+            for (int i = 0; i < INPUT_POOL_SIZE; i++) {
+                matrices[i] = Matrix3x3.wrap(randomData(random, 3));
+                vectors[i] = new Vector3D(random.nextFloat(), random.nextFloat(), random.nextFloat());
+            }
+            switch (operation) {
+                case MULTIPLY: return i -> matrices[i & mask].multiply(matrices[(i + 1) & mask]);
+                case INVERSE: return i -> matrices[i & mask].inverse();
+                case DETERMINANT: return i -> matrices[i & mask].determinant();
+                case SOLVE: return i -> matrices[i & mask].solveLinearSystem(vectors[i & mask]);
+                default: return i -> matrices[i & mask].transpose();
+            }
+        }
+        Matrix4x4[] matrices = new Matrix4x4[INPUT_POOL_SIZE];
+        Vector4D[] vectors = new Vector4D[INPUT_POOL_SIZE];
+        for (int i = 0; i < INPUT_POOL_SIZE; i++) {
+            matrices[i] = Matrix4x4.wrap(randomData(random, 4));
+            vectors[i] = new Vector4D(random.nextFloat(), random.nextFloat(), random.nextFloat(), random.nextFloat());
+        }
+        switch (operation) {
+            case MULTIPLY: return i -> matrices[i & mask].multiply(matrices[(i + 1) & mask]);
+            case INVERSE: return i -> matrices[i & mask].inverse();
+            case DETERMINANT: return i -> matrices[i & mask].determinant();
+            case SOLVE: return i -> matrices[i & mask].solveLinearSystem(vectors[i & mask]);
+            default: return i -> matrices[i & mask].transpose();
+        }
+    }
+
+    // Диагональное преобладание гарантирует невырожденность
+    private static float[][] randomData(Random random, int size) {
+        float[][] data = new float[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                data[i][j] = random.nextFloat() * 2 - 1;
+            }
+            data[i][i] += size;
+        }
+        return data;
+    }
+}
@@ -0,0 +1,6 @@
+module math.engine.demo {
+    requires math.engine;
+    requires javafx.controls;
+    requires jdk.management;
+    exports math.engine.demo;
+}
\ No newline at end of file